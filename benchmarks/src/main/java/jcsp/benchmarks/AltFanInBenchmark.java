@@ -0,0 +1,111 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jcsp.lang.AltingChannelInputInt;
+import jcsp.lang.Alternative;
+import jcsp.lang.Channel;
+import jcsp.lang.ChannelOutputInt;
+import jcsp.lang.Guard;
+import jcsp.lang.One2OneChannelInt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ALT fan-in: one server process (the measuring thread) choosing, with
+ * {@link Alternative#fairSelect()}, between <TT>guards</TT> channels, each of which
+ * has a client writing to it continuously.  Each operation is one selection
+ * and the read from the selected channel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AltFanInBenchmark
+{
+    /** The number of guards (and clients). */
+    @Param({"1", "4", "16", "64", "256"})
+    public int guards;
+
+    private Background background;
+
+    private AltingChannelInputInt[] in;
+
+    private Alternative alt;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        background = new Background();
+        final Background bg = background;
+        in = new AltingChannelInputInt[guards];
+        for (int i = 0; i < guards; i++)
+        {
+            final One2OneChannelInt c = Channel.one2oneInt();
+            in[i] = c.in();
+            final ChannelOutputInt out = c.out();
+            final int id = i;
+            bg.start("Client" + i, new Runnable()
+            {
+                public void run()
+                {
+                    while (bg.running())
+                        out.write(id);
+                }
+            });
+        }
+        alt = new Alternative((Guard[]) in);
+    }
+
+    @Benchmark
+    public int select()
+    {
+        return in[alt.fairSelect()].read();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        background.stop();
+        for (int i = 0; i < guards; i++)
+        {
+            if (in[i].pending())
+                in[i].read();
+        }
+        background.join();
+    }
+}
@@ -0,0 +1,82 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The processes a benchmark runs alongside the measuring thread.  They are
+ * daemon threads, run until told to {@link #stop stop}, so that a process left
+ * blocked on a channel at the end of a trial cannot hold up the forked VM.
+ */
+final class Background
+{
+    private final List<Thread> threads = new ArrayList<Thread>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Returns true until {@link #stop} has been called.
+     */
+    boolean running()
+    {
+        return running;
+    }
+
+    /**
+     * Starts a process as a daemon thread.
+     */
+    void start(final String name, final Runnable process)
+    {
+        final Thread t = new Thread(process, name);
+        t.setDaemon(true);
+        threads.add(t);
+        t.start();
+    }
+
+    /**
+     * Asks the processes to finish at the end of their current cycle.
+     */
+    void stop()
+    {
+        running = false;
+    }
+
+    /**
+     * Waits (briefly) for the processes to finish; those still blocked are abandoned.
+     */
+    void join()
+    {
+        for (Thread t : threads)
+        {
+            try
+            {
+                t.join(100);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jcsp.lang.Barrier;
+import jcsp.lang.ScalableBarrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Barrier synchronisation latency: the measuring thread and <TT>parties - 1</TT>
+ * background processes synchronise repeatedly on one barrier.  Each operation
+ * is one complete barrier cycle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BarrierBenchmark
+{
+    /** The number of processes enrolled on the barrier. */
+    @Param({"2", "8", "32", "64"})
+    public int parties;
+
+    /** The implementation: {@link Barrier} or {@link ScalableBarrier}. */
+    @Param({"barrier", "scalable"})
+    public String kind;
+
+    private Background background;
+
+    private Barrier barrier;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        barrier = kind.equals("scalable") ? new ScalableBarrier(parties) : new Barrier(parties);
+        background = new Background();
+        final Background bg = background;
+        final Barrier b = barrier;
+        for (int i = 1; i < parties; i++)
+        {
+            bg.start("Party" + i, new Runnable()
+            {
+                public void run()
+                {
+                    while (bg.running())
+                        b.sync();
+                    b.resign();
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void sync()
+    {
+        barrier.sync();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        background.stop();
+        barrier.resign();
+        background.join();
+    }
+}
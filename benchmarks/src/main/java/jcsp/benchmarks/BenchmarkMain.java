@@ -0,0 +1,60 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JCSP benchmarks and writes the results as JSON.
+ * <P>
+ * Usage: <TT>java -jar jcsp-benchmarks.jar [regexp] [-o results.json]</TT>
+ * <P>
+ * The optional regular expression selects benchmarks by name (all are run by
+ * default); the results go to <TT>jcsp-benchmarks.json</TT> unless another file
+ * is named.  Warm-up, measurement and fork counts are fixed by annotations on
+ * each benchmark, so that runs are comparable from one build to the next.
+ * For any other JMH option, run <TT>org.openjdk.jmh.Main</TT> from the same jar.
+ */
+public class BenchmarkMain
+{
+    public static void main(String[] args) throws RunnerException
+    {
+        String include = BenchmarkMain.class.getPackage().getName() + ".*";
+        String output = "jcsp-benchmarks.json";
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("-o") && (i + 1 < args.length))
+                output = args[++i];
+            else
+                include = args[i];
+        }
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output)
+                .shouldFailOnError(true);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jcsp.lang.Channel;
+import jcsp.lang.ChannelInput;
+import jcsp.lang.ChannelOutput;
+import jcsp.lang.One2OneChannel;
+import jcsp.util.Buffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Buffered channel throughput: a producer writes continuously into a buffered
+ * channel of the given capacity, from which the measuring thread reads.  Each
+ * operation is one read, so the score is the per-message cost in the steady state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BufferedThroughputBenchmark
+{
+    /** The capacity of the buffer. */
+    @Param({"1", "16", "256", "4096"})
+    public int capacity;
+
+    /**
+     * The implementation: a {@link Buffer} in a <TT>BufferedOne2OneChannel</TT>,
+     * or the lock-free ring of {@link Channel#one2oneRing(int)}.
+     */
+    @Param({"buffer", "ring"})
+    public String channel;
+
+    private static final Integer MESSAGE = Integer.valueOf(42);
+
+    private Background background;
+
+    private ChannelInput<Integer> in;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        final One2OneChannel<Integer> c = channel.equals("ring")
+                ? Channel.<Integer>one2oneRing(capacity)
+                : Channel.one2one(new Buffer<Integer>(capacity));
+        in = c.in();
+        final ChannelOutput<Integer> out = c.out();
+        background = new Background();
+        final Background bg = background;
+        bg.start("Producer", new Runnable()
+        {
+            public void run()
+            {
+                while (bg.running())
+                    out.write(MESSAGE);
+            }
+        });
+    }
+
+    @Benchmark
+    public Integer read()
+    {
+        return in.read();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        background.stop();
+        background.join();
+    }
+}
@@ -0,0 +1,141 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jcsp.lang.Any2OneChannelInt;
+import jcsp.lang.Channel;
+import jcsp.lang.ChannelInputInt;
+import jcsp.lang.ChannelOutputInt;
+import jcsp.lang.One2OneChannelInt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The classic <I>commstime</I> benchmark: a ring of <TT>Prefix</TT>,
+ * <TT>Delta</TT> and <TT>Successor</TT> processes, with the measuring thread
+ * as the <TT>Consume</TT> process on the second output of the <TT>Delta</TT>.
+ * Each operation is one cycle of the ring - four channel communications and
+ * (for a sequential <TT>Delta</TT>) four context switches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CommsTimeBenchmark
+{
+    /** The kind of channel connecting the processes. */
+    @Param({"one2one", "any2one"})
+    public String channel;
+
+    private Background background;
+
+    private ChannelInputInt consume;
+
+    private static ChannelInputInt[] create(final String kind, final int n, final ChannelOutputInt[] outs)
+    {
+        final ChannelInputInt[] ins = new ChannelInputInt[n];
+        for (int i = 0; i < n; i++)
+        {
+            if (kind.equals("any2one"))
+            {
+                final Any2OneChannelInt c = Channel.any2oneInt();
+                ins[i] = c.in();
+                outs[i] = c.out();
+            }
+            else
+            {
+                final One2OneChannelInt c = Channel.one2oneInt();
+                ins[i] = c.in();
+                outs[i] = c.out();
+            }
+        }
+        return ins;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        // a: Prefix -> Delta, b: Successor -> Prefix, c: Delta -> Successor, d: Delta -> Consume
+        final ChannelOutputInt[] outs = new ChannelOutputInt[4];
+        final ChannelInputInt[] ins = create(channel, 4, outs);
+        background = new Background();
+        final Background bg = background;
+        bg.start("Prefix", new Runnable()
+        {
+            public void run()
+            {
+                outs[0].write(0);
+                while (bg.running())
+                    outs[0].write(ins[1].read());
+            }
+        });
+        bg.start("Delta", new Runnable()
+        {
+            public void run()
+            {
+                while (bg.running())
+                {
+                    final int n = ins[0].read();
+                    outs[3].write(n);
+                    outs[2].write(n);
+                }
+            }
+        });
+        bg.start("Successor", new Runnable()
+        {
+            public void run()
+            {
+                while (bg.running())
+                    outs[1].write(ins[2].read() + 1);
+            }
+        });
+        consume = ins[3];
+    }
+
+    @Benchmark
+    public int cycle()
+    {
+        return consume.read();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        background.stop();
+        background.join();
+    }
+}
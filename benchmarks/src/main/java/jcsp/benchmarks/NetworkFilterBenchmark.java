@@ -0,0 +1,106 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import jcsp.net2.CodecNetworkMessageFilter;
+import jcsp.net2.NetworkMessageFilter;
+import jcsp.net2.ObjectNetworkMessageFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Net channel message encoding: each operation encodes one message with a
+ * {@link NetworkMessageFilter.FilterTx} and decodes it again with the matching
+ * {@link NetworkMessageFilter.FilterRx}, as the two ends of a net channel do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NetworkFilterBenchmark
+{
+    /** The filter: {@link ObjectNetworkMessageFilter} or {@link CodecNetworkMessageFilter}. */
+    @Param({"object", "codec"})
+    public String filter;
+
+    /** The message: a boxed <TT>int</TT>, a <TT>String</TT>, or a list of mixed values. */
+    @Param({"int", "string", "list"})
+    public String message;
+
+    private NetworkMessageFilter.FilterTx tx;
+
+    private NetworkMessageFilter.FilterRx rx;
+
+    private Object value;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        if (filter.equals("codec"))
+        {
+            tx = new CodecNetworkMessageFilter.FilterTX();
+            rx = new CodecNetworkMessageFilter.FilterRX();
+        }
+        else
+        {
+            tx = new ObjectNetworkMessageFilter.FilterTX();
+            rx = new ObjectNetworkMessageFilter.FilterRX();
+        }
+        if (message.equals("int"))
+            value = Integer.valueOf(42);
+        else if (message.equals("string"))
+            value = "The quick brown fox jumps over the lazy dog";
+        else
+        {
+            ArrayList<Object> list = new ArrayList<Object>();
+            for (int i = 0; i < 8; i++)
+            {
+                list.add(Integer.valueOf(i * 1000));
+                list.add("item" + i);
+                list.add(Double.valueOf(i / 3.0));
+            }
+            value = list;
+        }
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException
+    {
+        return rx.filterRX(tx.filterTX(value));
+    }
+}
@@ -0,0 +1,109 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jcsp.lang.CSProcess;
+import jcsp.lang.ForkJoinExecutor;
+import jcsp.lang.Parallel;
+import jcsp.lang.Skip;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of running a <TT>Parallel</TT> of <TT>processes</TT> trivial
+ * processes: constructing, running and releasing a new one each time
+ * (<TT>spawn</TT>), or re-running one whose threads are kept from one run
+ * to the next (<TT>rerun</TT>), or re-running one whose processes are
+ * forked on to a work-stealing pool (<TT>forkJoin</TT>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ParallelSpawnBenchmark
+{
+    /** The number of processes in the Parallel. */
+    @Param({"1", "8", "64"})
+    public int processes;
+
+    private CSProcess[] skips;
+
+    private Parallel reused;
+
+    private Parallel forked;
+
+    private ForkJoinExecutor pool;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        skips = new CSProcess[processes];
+        for (int i = 0; i < processes; i++)
+            skips[i] = new Skip();
+        reused = new Parallel(skips);
+        pool = new ForkJoinExecutor();
+        forked = new Parallel(skips);
+        forked.setExecutor(pool);
+    }
+
+    @Benchmark
+    public void spawn()
+    {
+        final Parallel par = new Parallel(skips);
+        par.run();
+        par.releaseAllThreads();
+    }
+
+    @Benchmark
+    public void rerun()
+    {
+        reused.run();
+    }
+
+    @Benchmark
+    public void forkJoin()
+    {
+        forked.run();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        reused.releaseAllThreads();
+        pool.shutdown();
+    }
+}
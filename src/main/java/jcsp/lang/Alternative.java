@@ -20,6 +20,9 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 //{{{  javadoc
 
     /**
@@ -609,8 +612,25 @@ package jcsp.plugNplay;
 
 public class Alternative
 {
-  /** The monitor synchronising the writers and alting reader */
+  /**
+   * The monitor that formerly synchronised the writers and alting reader.
+   *
+   * @deprecated no longer used: the writers and alting reader now synchronise
+   * on a private lock, so that an alting process running on a virtual thread
+   * does not pin its carrier while waiting.
+   */
+  @Deprecated
   protected Object altMonitor = new Object ();
+
+  /**
+   * The lock synchronising the writers and alting reader.  This is not a Java
+   * monitor, so that an alting process running on a virtual thread does not pin
+   * its carrier while waiting.
+   */
+  private final ReentrantLock altLock = new ReentrantLock ();
+
+  /** The condition on which the alting reader waits */
+  private final Condition altCondition = altLock.newCondition ();
   
   private static final int enabling = 0;
   private static final int waiting = 1;
@@ -632,9 +652,18 @@ public class Alternative
 
   private final int NONE_SELECTED = -1;
 
+  /** The longest CSTimer delay (about 70 years) that is converted to nanoseconds. */
+  static final long MAX_DELAY_MSECS = Long.MAX_VALUE / 4000000L;
+
   /** This indicates whether an AltingBarrier is one of the Guards. */
   private boolean barrierPresent;
   
+  /**
+   * The coordinate of the barrier family shared by the AltingBarriers among
+   * the Guards (null if there are none).
+   */
+  private AltingBarrierCoordinate coordinate = null;
+
   /** This flag is set by a successful AltingBarrier enable/disable. */
   private boolean barrierTrigger = false;
 
@@ -643,9 +672,9 @@ public class Alternative
   
   /**
    * This is the index variable used during the enable/disable sequences.
-   * This has been made global to simplify the call-back (setTimeout) from
-   * a CSTimer that is being enabled.  That call-back sets the timeout, msecs
-   * and timeIndex variables below.  The latter variable is needed only to
+   * This has been made global to simplify the call-back (setTimeout or
+   * setTimeoutNanos) from a CSTimer or NanoTimer that is being enabled.  That
+   * call-back sets the timeout, deadline, slack and timeIndex variables below.  The latter variable is needed only to
    * work around the bug that Java wait-with-timeouts sometimes return early.
    */
   private int enableIndex;
@@ -653,8 +682,17 @@ public class Alternative
   /** This flag is set if one of the enabled guards was a CSTimer guard. */
   private boolean timeout = false;
 
-  /** If one or more guards were CSTimers, this holds the earliest timeout. */
-  private long msecs;
+  /**
+   * If one or more guards were timers, this holds the earliest timeout
+   * (as a <tt>System.nanoTime</tt> value, whichever kind of timer set it).
+   */
+  private long deadline;
+
+  /**
+   * The tolerance (in nanoseconds) for the earliest timeout: the early timeout
+   * allowed by {@link Spurious} if it was set by a CSTimer, zero if by a NanoTimer.
+   */
+  private long slack;
 
   /**
    * If one or more guards were CSTimers, this holds the index of the one
@@ -676,15 +714,23 @@ public class Alternative
     public Alternative(final Guard[] guard)
     {
     	this.guard = guard;
+	    barrierPresent = false;
 	    for (int i = 0; i < guard.length; i++)
 	    {
 	        if (guard[i] instanceof MultiwaySynchronisation)
 	    	{
 		        barrierPresent = true;
-				return;
+		        final AltingBarrierCoordinate c = guard[i].coordinate();
+		        if (c != null)
+		        {
+		            coordinate = (coordinate == null) ? c : AltingBarrierCoordinate.merge(coordinate, c);
+		        }
       		}
     	}
-	    barrierPresent = false;
+	    if (barrierPresent && (coordinate == null))
+	    {
+	        coordinate = new AltingBarrierCoordinate();
+	    }
 	}
 
   /**
@@ -711,53 +757,21 @@ public class Alternative
     state = enabling;
     favourite = 0;
     enableGuards ();
-    synchronized (altMonitor) {
+    altLock.lock ();
+    try {
       if (state == enabling) {
         state = waiting;
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.select (this, guard);
         try {
           if (timeout) {
-            long delay = msecs - System.currentTimeMillis ();
-            if (delay > Spurious.earlyTimeout) {
-	      altMonitor.wait (delay);
-/*
-	      while ((state == waiting) &&
-	             ((delay = (msecs - System.currentTimeMillis ()))
-		      > Spurious.earlyTimeout)) {
-                if (Spurious.logging) {
-	          SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
-	        }
-	        altMonitor.wait (delay);
-	      }
-	      if ((state == waiting) && (delay > 0)) {
-	        if (Spurious.logging) {
-	          SpuriousLog.incEarlyTimeouts ();
-	        }
-              }
-*/
-	      while (state == waiting) {
-	        delay = msecs - System.currentTimeMillis ();
-		if (delay > Spurious.earlyTimeout) {
-		  if (Spurious.logging) {
-	            SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
-	          }
-	          altMonitor.wait (delay);
-		}
-		else {
-		  if ((delay > 0) && (Spurious.logging)) {
-	            SpuriousLog.incEarlyTimeouts ();
-	          }
-	          break;
-		}
-	      }		  
-// System.out.println (state + " [" + delay + "]");
-	    }
+            awaitTimeout ();
           } else {
-            altMonitor.wait ();
+            altCondition.await ();
 	    while (state == waiting) {
 	      if (Spurious.logging) {
 	        SpuriousLog.record (SpuriousLog.AlternativeSelect);
 	      }
-	      altMonitor.wait ();
+	      altCondition.await ();
 	    }
           }
         }
@@ -766,8 +780,15 @@ public class Alternative
 	    "*** Thrown from Alternative.priSelect ()\n" + e.toString ()
 	  );
         }
+        finally {
+          if (blocked != null) {
+            ProcessRegistry.unblock (blocked);
+          }
+        }
         state = ready;
       }
+    } finally {
+      altLock.unlock ();
     }
     disableGuards ();
     state = inactive;
@@ -785,61 +806,21 @@ public class Alternative
   public final int fairSelect () {
     state = enabling;
     enableGuards ();
-    synchronized (altMonitor) {
+    altLock.lock ();
+    try {
       if (state == enabling) {
         state = waiting;
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.select (this, guard);
         try {
           if (timeout) {
-            long delay = msecs - System.currentTimeMillis ();
-            // NOTE: below is code that demonstrates whether wait (delay)
-            // sometimes returns early!  Because this happens in some JVMs,
-            // we are forced into a workaround - see disableGuards ().
-            //   long now = System.currentTimeMillis ();
-            //   long delay = msecs - now;
-            if (delay > Spurious.earlyTimeout) {
-	      altMonitor.wait (delay);
-/*
-	      while ((state == waiting) &&
-	             ((delay = msecs - System.currentTimeMillis ())
-		      > Spurious.earlyTimeout)) {
-                if (Spurious.logging) {
-	          SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
-	        }
-	        altMonitor.wait (delay);
-	      }
-	      if ((state == waiting) && (delay > 0)) {
-	        if (Spurious.logging) {
-	          SpuriousLog.incEarlyTimeouts ();
-	        }
-              }
-*/
-	      while (state == waiting) {
-	        delay = msecs - System.currentTimeMillis ();
-		if (delay > Spurious.earlyTimeout) {
-		  if (Spurious.logging) {
-	            SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
-	          }
-	          altMonitor.wait (delay);
-		}
-		else {
-		  if ((delay > 0) && (Spurious.logging)) {
-	            SpuriousLog.incEarlyTimeouts ();
-	          }
-	          break;
-		}
-	      }		  
-	    }
-            //   long then = System.currentTimeMillis ();
-            //   System.out.println ("*** fairSelect: " + msecs +
-            //                       ", " + now + ", " + delay +
-            //                       ", " + then);
+            awaitTimeout ();
           } else {
-            altMonitor.wait ();
+            altCondition.await ();
 	    while (state == waiting) {
 	      if (Spurious.logging) {
 	        SpuriousLog.record (SpuriousLog.AlternativeSelect);
 	      }
-	      altMonitor.wait ();
+	      altCondition.await ();
 	    }
           }
         }
@@ -848,8 +829,15 @@ public class Alternative
 	    "*** Thrown from Alternative.fairSelect/select ()\n" + e.toString ()
 	  );
         }
+        finally {
+          if (blocked != null) {
+            ProcessRegistry.unblock (blocked);
+          }
+        }
         state = ready;
       }
+    } finally {
+      altLock.unlock ();
     }
     disableGuards ();
     state = inactive;
@@ -868,7 +856,7 @@ public class Alternative
   private final void enableGuards () {
     if (barrierPresent) {
       // System.out.println ("ENABLE barrier(s) present ...");
-      AltingBarrierCoordinate.startEnable ();
+      coordinate.startEnable ();
     }
     barrierSelected = NONE_SELECTED;
     for (enableIndex = favourite; enableIndex < guard.length; enableIndex++) {
@@ -885,7 +873,7 @@ public class Alternative
           barrierTrigger = false;
 	} else if (barrierPresent) {
 	  // System.out.println ("ENABLE " + enableIndex + " NON-BARRIER SUCCEED");
-          AltingBarrierCoordinate.finishEnable ();
+          coordinate.finishEnable ();
         }
         return;
       } // else {
@@ -910,7 +898,7 @@ public class Alternative
           barrierTrigger = false;
 	} else if (barrierPresent) {
 	  // System.out.println ("ENABLE " + enableIndex + " NON-BARRIER SUCCEED");
-          AltingBarrierCoordinate.finishEnable ();
+          coordinate.finishEnable ();
         }
         return;
       } // else {
@@ -924,7 +912,7 @@ public class Alternative
     // System.out.println ("ENABLE ALL FAIL");
     selected = NONE_SELECTED;
     if (barrierPresent) {
-      AltingBarrierCoordinate.finishEnable ();
+      coordinate.finishEnable ();
     }
   }
 
@@ -977,7 +965,7 @@ public class Alternative
     }
     if (barrierSelected != NONE_SELECTED) {        // We must choose a barrier sync
       selected = barrierSelected;                  // if one is ready - so that all
-      AltingBarrierCoordinate.finishDisable ();    // parties make the same choice.
+      coordinate.finishDisable ();    // parties make the same choice.
     }
   }
 
@@ -987,18 +975,52 @@ public class Alternative
    * It is still in the flow of control of the ALTing process.
    */
   void setTimeout (long msecs) {
-    if (timeout) {
-      if (msecs < this.msecs) {
-        this.msecs = msecs;
-        timeIndex = enableIndex;
-      }
-    } else {
+    long delay = msecs - System.currentTimeMillis ();
+    if (delay > MAX_DELAY_MSECS) {
+      delay = MAX_DELAY_MSECS;
+    }
+    setDeadline (System.nanoTime () + (delay * 1000000L), Spurious.earlyTimeout * 1000000L);
+  }
+
+  /**
+   * This is the call-back from enabling a NanoTimer guard.
+   * It is still in the flow of control of the ALTing process.
+   */
+  void setTimeoutNanos (long nanos) {
+    setDeadline (nanos, 0);
+  }
+
+  /**
+   * Records a timeout (as a <tt>System.nanoTime</tt> value) if it is the
+   * earliest so far in this enable sequence.
+   */
+  private void setDeadline (long deadline, long slack) {
+    if ((!timeout) || (deadline - this.deadline < 0)) {
       timeout = true;
-      this.msecs = msecs;
+      this.deadline = deadline;
+      this.slack = slack;
       timeIndex = enableIndex;
     }
   }
 
+  /**
+   * Waits (holding altLock) until the ALTing process is scheduled or the
+   * earliest timeout, less its tolerance, is reached.
+   */
+  private void awaitTimeout () throws InterruptedException {
+    long delay = deadline - System.nanoTime ();
+    while ((state == waiting) && (delay > slack)) {
+      altCondition.awaitNanos (delay);
+      delay = deadline - System.nanoTime ();
+      if ((state == waiting) && (delay > slack) && Spurious.logging) {
+        SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
+      }
+    }
+    if ((state == waiting) && (delay > 0) && Spurious.logging) {
+      SpuriousLog.incEarlyTimeouts ();
+    }
+  }
+
   /**
    * This is a call-back from an AltingBarrier.
    * It is still in the flow of control of the ALTing process.
@@ -1013,18 +1035,21 @@ public class Alternative
    * to an enabled channel guard.
    */
   void schedule () {
-    synchronized (altMonitor) {
+    altLock.lock ();
+    try {
       switch (state) {
         case enabling:
           state = ready;
         break;
         case waiting:
           state = ready;
-          altMonitor.notify ();
+          altCondition.signal ();
         break;
         // case ready: case inactive:
         // break
       }
+    } finally {
+      altLock.unlock ();
     }
   }
 
@@ -1073,37 +1098,21 @@ public class Alternative
     state = enabling;
     favourite = 0;
     enableGuards (preCondition);
-    synchronized (altMonitor) {
+    altLock.lock ();
+    try {
       if (state == enabling) {
         state = waiting;
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.select (this, guard);
         try {
           if (timeout) {
-            long delay = msecs - System.currentTimeMillis ();
-            if (delay > Spurious.earlyTimeout) {
-	      altMonitor.wait (delay);
-	      while (state == waiting) {
-	        delay = msecs - System.currentTimeMillis ();
-		if (delay > Spurious.earlyTimeout) {
-		  if (Spurious.logging) {
-	            SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
-	          }
-	          altMonitor.wait (delay);
-		}
-		else {
-		  if ((delay > 0) && (Spurious.logging)) {
-	            SpuriousLog.incEarlyTimeouts ();
-	          }
-	          break;
-		}
-	      }
-	    }
+            awaitTimeout ();
           } else {
-            altMonitor.wait ();
+            altCondition.await ();
 	    while (state == waiting) {
 	      if (Spurious.logging) {
 	        SpuriousLog.record (SpuriousLog.AlternativeSelect);
 	      }
-	      altMonitor.wait ();
+	      altCondition.await ();
 	    }
           }
         }
@@ -1112,8 +1121,15 @@ public class Alternative
 	    "*** Thrown from Alternative.priSelect (boolean[])\n" + e.toString ()
 	  );
         }
+        finally {
+          if (blocked != null) {
+            ProcessRegistry.unblock (blocked);
+          }
+        }
         state = ready;
       }
+    } finally {
+      altLock.unlock ();
     }
     disableGuards (preCondition);
     state = inactive;
@@ -1143,37 +1159,21 @@ public class Alternative
     }
     state = enabling;
     enableGuards (preCondition);
-    synchronized (altMonitor) {
+    altLock.lock ();
+    try {
       if (state == enabling) {
         state = waiting;
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.select (this, guard);
         try {
           if (timeout) {
-            long delay = msecs - System.currentTimeMillis ();
-            if (delay > Spurious.earlyTimeout) {
-	      altMonitor.wait (delay);
-	      while (state == waiting) {
-	        delay = msecs - System.currentTimeMillis ();
-		if (delay > Spurious.earlyTimeout) {
-		  if (Spurious.logging) {
-	            SpuriousLog.record (SpuriousLog.AlternativeSelectWithTimeout);
-	          }
-	          altMonitor.wait (delay);
-		}
-		else {
-		  if ((delay > 0) && (Spurious.logging)) {
-	            SpuriousLog.incEarlyTimeouts ();
-	          }
-	          break;
-		}
-	      }
-	    }
+            awaitTimeout ();
           } else {
-            altMonitor.wait ();
+            altCondition.await ();
 	    while (state == waiting) {
 	      if (Spurious.logging) {
 	        SpuriousLog.record (SpuriousLog.AlternativeSelect);
 	      }
-	      altMonitor.wait ();
+	      altCondition.await ();
 	    }
           }
         }
@@ -1182,8 +1182,15 @@ public class Alternative
 	    "*** Thrown from Alternative.fairSelect/select (boolean[])\n" + e.toString ()
           );
         }
+        finally {
+          if (blocked != null) {
+            ProcessRegistry.unblock (blocked);
+          }
+        }
         state = ready;
       }
+    } finally {
+      altLock.unlock ();
     }
     disableGuards (preCondition);
     state = inactive;
@@ -1204,7 +1211,7 @@ public class Alternative
    */
   private final void enableGuards (boolean[] preCondition) {
     if (barrierPresent) {
-      AltingBarrierCoordinate.startEnable ();
+      coordinate.startEnable ();
     }
     barrierSelected = NONE_SELECTED;
     for (enableIndex = favourite; enableIndex < guard.length; enableIndex++) {
@@ -1215,7 +1222,7 @@ public class Alternative
 	  barrierSelected = selected;
           barrierTrigger = false;
 	} else if (barrierPresent) {
-          AltingBarrierCoordinate.finishEnable ();
+          coordinate.finishEnable ();
         }
         return;
       }
@@ -1228,14 +1235,14 @@ public class Alternative
 	  barrierSelected = selected;
           barrierTrigger = false;
 	} else if (barrierPresent) {
-          AltingBarrierCoordinate.finishEnable ();
+          coordinate.finishEnable ();
         }
         return;
       }
     }
     selected = NONE_SELECTED;
     if (barrierPresent) {
-      AltingBarrierCoordinate.finishEnable ();
+      coordinate.finishEnable ();
     }
   }
 
@@ -1289,7 +1296,7 @@ public class Alternative
     }
     if (barrierSelected != NONE_SELECTED) {        // We must choose a barrier sync
       selected = barrierSelected;                  // if one is ready - so that all
-      AltingBarrierCoordinate.finishDisable ();    // parties make the same choice.
+      coordinate.finishDisable ();    // parties make the same choice.
     }
   }
 
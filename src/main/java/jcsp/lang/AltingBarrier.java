@@ -1058,6 +1058,11 @@ public class AltingBarrier extends Guard implements MultiwaySynchronisation {
     }
   }
 
+  AltingBarrierCoordinate coordinate () {     // package-only visible
+    final AltingBarrierBase b = base;
+    return (b == null) ? null : b.coordinate;
+  }
+
   boolean enable (Alternative a) {            // package-only visible
     synchronized (base) {
       if (myThread == null) {
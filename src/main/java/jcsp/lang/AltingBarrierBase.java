@@ -34,6 +34,9 @@ package jcsp.lang;
 
   /** The number of processes not yet offered to sync on this barrier. */
   private int countdown = 0;
+
+  /** Coordinates ALT enable/disable sequences involving this barrier's family. */
+  final AltingBarrierCoordinate coordinate = new AltingBarrierCoordinate ();
   
   /*
    * This creates, and returns, more front-ends to be held by newly enrolling
@@ -165,8 +168,8 @@ package jcsp.lang;
     if (countdown == 0) {
       countdown = enrolled;
       if (enrolled > 0) {
-        AltingBarrierCoordinate.startEnable ();
-        AltingBarrierCoordinate.startDisable (enrolled);
+        coordinate.startEnable ();
+        coordinate.startDisable (enrolled);
         AltingBarrier fe = frontEnds;
         while (fe != null) {
           fe.schedule ();
@@ -231,8 +234,8 @@ package jcsp.lang;
     if (countdown == 0) {
       countdown = enrolled;
       if (enrolled > 0) {
-        AltingBarrierCoordinate.startEnable ();
-        AltingBarrierCoordinate.startDisable (enrolled);
+        coordinate.startEnable ();
+        coordinate.startDisable (enrolled);
         AltingBarrier fe = frontEnds;
         while (fe != null) {
           fe.schedule ();
@@ -261,7 +264,7 @@ package jcsp.lang;
     countdown--;
     if (countdown == 0) {
       countdown = enrolled;
-      AltingBarrierCoordinate.startDisable (enrolled);
+      coordinate.startDisable (enrolled);
       AltingBarrier fe = frontEnds;
       while (fe != null) {
         fe.schedule ();
@@ -304,8 +307,8 @@ package jcsp.lang;
     if (countdown == 0) {
       countdown = enrolled;
       if (enrolled > 0) {
-        AltingBarrierCoordinate.startEnable ();
-        AltingBarrierCoordinate.startDisable (enrolled);
+        coordinate.startEnable ();
+        coordinate.startDisable (enrolled);
         AltingBarrier fe = frontEnds;
         while (fe != null) {
           fe.schedule ();
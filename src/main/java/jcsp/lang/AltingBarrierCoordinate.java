@@ -24,10 +24,17 @@ package jcsp.lang;
   class AltingBarrierCoordinate {     // package-only visible class
 
   /*
-   * This records number of processes active in ALT enable/disable sequences
-   * involving a barrier.
+   * Each AltingBarrierBase has one of these.  The coordinates of barriers that
+   * appear together in the guards of some Alternative are merged (union-find),
+   * so that each set of barriers that may be chosen between - a barrier family -
+   * is coordinated by the single coordinate at the root of its tree.  Processes
+   * ALTing over unrelated barrier families never contend with each other.
    * <P>
-   * Only one process may be engaged in an enable sequence involving a barrier.
+   * The root records number of processes active in ALT enable/disable sequences
+   * involving a barrier of its family.
+   * <P>
+   * Only one process may be engaged in an enable sequence involving a barrier
+   * of the family.
    * <P>
    * Disable sequences, triggered by a successful barrier enable, may happen
    * in parallel.  Disable sequences, triggered by a successful barrier enable,
@@ -41,51 +48,104 @@ package jcsp.lang;
    * sequence becomes as though it had been triggered by that successful barrier
    * enable (rather than the non-barrier event).
    */
-  private static int active = 0;
+  private int active = 0;
+
+  /**
+   * The coordinate into which this one has been merged (null for a root).
+   * Only changed while both are idle, holding mergeLock.
+   */
+  private volatile AltingBarrierCoordinate parent = null;
 
-  /** Lock object for coordinating enable/disable sequences. */
-  private static Object activeLock = new Object ();
+  /** Lock serialising the (rare) merging of barrier families. */
+  private static final Object mergeLock = new Object ();
+
+  /* Returns the coordinate at the root of this family. */
+  private AltingBarrierCoordinate root () {
+    AltingBarrierCoordinate c = this;
+    AltingBarrierCoordinate p = c.parent;
+    while (p != null) {
+      c = p;
+      p = c.parent;
+    }
+    return c;
+  }
 
-  /* Invoked at start of an enable sequence involving a barrier. */
-  static void startEnable () {
-    synchronized (activeLock) {
-      if (active > 0) {
-        try {
-	  activeLock.wait ();
-          while (active > 0) {
-            // This may be a spurious wakeup.  More likely, this is a properly
-	    // notified wakeup that has been raced to the 'activelock' monitor
-	    // by another thread (quite possibly the notifying one) that has
-	    // (re-)acquired it and set 'active' greater than zero.  We have
-	    // not instrumented the code to tell the difference.  Either way:
-            activeLock.wait ();
+  /*
+   * Merges the families of two coordinates, once neither is active, and returns
+   * the root of the merged family.  Invoked when an Alternative is constructed
+   * with barriers from more than one family.
+   */
+  static AltingBarrierCoordinate merge (AltingBarrierCoordinate a,
+                                        AltingBarrierCoordinate b) {
+    synchronized (mergeLock) {
+      final AltingBarrierCoordinate ra = a.startEnable ();
+      if (ra == b.root ()) {
+        ra.finishEnable ();
+        return ra;
+      }
+      final AltingBarrierCoordinate rb = b.startEnable ();
+      synchronized (rb) {
+        rb.parent = ra;
+        rb.active = 0;
+        rb.notifyAll ();                      // waiters retry on the new root
+      }
+      ra.finishEnable ();
+      return ra;
+    }
+  }
+
+  /*
+   * Invoked at start of an enable sequence involving a barrier.
+   *
+   * @return the root coordinate of the family (now active).
+   */
+  AltingBarrierCoordinate startEnable () {
+    while (true) {
+      final AltingBarrierCoordinate r = root ();
+      synchronized (r) {
+        if ((r.active > 0) && (r.parent == null)) {
+          try {
+	    r.wait ();
+            while ((r.active > 0) && (r.parent == null)) {
+              // This may be a spurious wakeup.  More likely, this is a properly
+	      // notified wakeup that has been raced to the root's monitor
+	      // by another thread (quite possibly the notifying one) that has
+	      // (re-)acquired it and set 'active' greater than zero.  We have
+	      // not instrumented the code to tell the difference.  Either way:
+              r.wait ();
+	    }
 	  }
-	}
-        catch (InterruptedException e) {
-          throw new ProcessInterruptedException(e.toString ());
+          catch (InterruptedException e) {
+            throw new ProcessInterruptedException(e.toString ());
+          }
         }
+        if (r.parent != null) {
+          continue;                           // merged meanwhile: use the new root
+        }
+        if (r.active != 0) {
+          throw new JCSP_InternalError(
+	    "\n*** AltingBarrier enable sequence starting " +
+	    "with 'active' count not equal to zero: " + r.active
+	  );
+        }
+        r.active = 1;
+        return r;
       }
-      if (active != 0) {
-        throw new JCSP_InternalError(
-	  "\n*** AltingBarrier enable sequence starting " +
-	  "with 'active' count not equal to zero: " + active
-	);
-      }
-      active = 1;
     }
   }
 
   /* Invoked at finish of an unsuccessful enable sequence involving a barrier. */
-  static void finishEnable () {
-    synchronized (activeLock) {
-      if (active != 1) {
+  void finishEnable () {
+    final AltingBarrierCoordinate r = root ();
+    synchronized (r) {
+      if (r.active != 1) {
         throw new JCSP_InternalError(
 	  "\n*** AltingBarrier enable sequence finished " +
-	  "with 'active' count not equal to one: " + active
+	  "with 'active' count not equal to one: " + r.active
 	);
       }
-      active = 0;
-      activeLock.notify ();
+      r.active = 0;
+      r.notify ();
     }
   }
 
@@ -94,35 +154,37 @@ package jcsp.lang;
    *
    * @param n The number of processes being released to start their disable sequences.
    */
-  static void startDisable (int n) {
+  void startDisable (int n) {
     if (n <= 0) {
       throw new JCSP_InternalError(
         "\n*** attempt to start " + n + " disable sequences!"
       );
     }
-    synchronized (activeLock) {               // not necessary ... ?
-      if (active != 1) {
+    final AltingBarrierCoordinate r = root ();
+    synchronized (r) {                        // not necessary ... ?
+      if (r.active != 1) {
         throw new JCSP_InternalError(
 	  "\n*** completed AltingBarrier found in ALT sequence " +
-	  "with 'active' count not equal to one: " + active
+	  "with 'active' count not equal to one: " + r.active
 	);
       }
-      active = n;
+      r.active = n;
     }
   }
 
   /* Invoked at finish of a disable sequence selecting a barrier. */
-  static void finishDisable () {
-    synchronized (activeLock) {
-      if (active < 1) {
+  void finishDisable () {
+    final AltingBarrierCoordinate r = root ();
+    synchronized (r) {
+      if (r.active < 1) {
         throw new JCSP_InternalError(
 	  "\n*** AltingBarrier disable sequence finished " +
-	  "with 'active' count less than one: " + active
+	  "with 'active' count less than one: " + r.active
 	);
       }
-      active--;
-      if (active == 0) {
-        activeLock.notify ();
+      r.active--;
+      if (r.active == 0) {
+        r.notify ();
       }
     }
   }
@@ -84,4 +84,27 @@ public abstract class AltingChannelInputInt extends Guard implements ChannelInpu
      * @return state of the channel.
      */
     public abstract boolean pending();
+
+    /**
+     * Waits up to the given time for data to be pending on this channel, and
+     * returns whether there is.  Together with <tt>read</tt>, this gives a
+     * timed read:
+     * <PRE>
+     *   if (in.pending (timeout)) {
+     *     x = in.read ();
+     *   } else {
+     *     ...  timed out
+     *   }
+     * </PRE>
+     * The timeout is measured with {@link System#nanoTime()} (see {@link NanoTimer}).
+     * <P>
+     * <I>Note: if this returns true, the data won't go away until you read it.</I>
+     *
+     * @param timeout the maximum time to wait, in nanoseconds.
+     * @return true if and only if there is data pending on the channel.
+     */
+    public boolean pending(long timeout)
+    {
+        return NanoTimer.awaitReady(this, timeout);
+    }
 }
@@ -43,16 +43,34 @@ package jcsp.lang;
 		return channel.readerEnable(alt);
 	}
 
+	boolean mayStayEnabled() {
+		return true;
+	}
+
+	Object waitResource() {
+		return channel.resource();
+	}
+
 	public void endRead() {
 		channel.endRead();
 	}
 
 	public int read() {
-		return channel.read();
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.read();
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public int startRead() {
-		return channel.startRead();
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.startRead();
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public void poison(int strength) {
@@ -36,6 +36,10 @@ package jcsp.lang;
     this.in = in;
   }
 
+  AltingBarrierCoordinate coordinate () {
+    return ab.coordinate ();
+  }
+
   boolean enable (Alternative alt) {
     syncDone = ab.enable (alt);
     return syncDone;
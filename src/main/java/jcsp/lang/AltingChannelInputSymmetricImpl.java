@@ -36,6 +36,10 @@ class AltingChannelInputSymmetricImpl<T> extends AltingChannelInput<T>
     this.in = in;
   }
 
+  AltingBarrierCoordinate coordinate () {
+    return ab.coordinate ();
+  }
+
   boolean enable (Alternative alt) {
     syncDone = ab.enable (alt);
     return syncDone;
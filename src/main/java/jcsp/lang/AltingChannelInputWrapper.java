@@ -161,6 +161,23 @@ public class AltingChannelInputWrapper<T> extends AltingChannelInput<T>
         return channel.disable();
     }
 
+    /**
+     * Returns true if the wrapped channel may be left enabled between selections.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative classes</I>
+     *
+     * @return true if and only if the guard may stay enabled between selections
+     */
+    boolean mayStayEnabled()
+    {
+        return (channel != null) && channel.mayStayEnabled();
+    }
+
+    Object waitResource()
+    {
+        return (channel == null) ? null : channel.waitResource();
+    }
+
 	public void poison(int strength) 
 	{
 		channel.poison(strength);	
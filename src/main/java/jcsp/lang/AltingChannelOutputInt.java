@@ -94,4 +94,19 @@ public abstract class AltingChannelOutputInt extends Guard implements ChannelOut
    */
   public abstract boolean pending ();
 
+  /**
+   * Waits up to the given time for the receiver to commit to read from this
+   * channel, and returns whether it has.  Together with <tt>write</tt>, this
+   * gives a timed write.
+   * The timeout is measured with {@link System#nanoTime()} (see {@link NanoTimer}).
+   * <P>
+   * <I>Note: if this returns true, you must commit to write down this channel.</I>
+   *
+   * @param timeout the maximum time to wait, in nanoseconds.
+   * @return true if and only if the receiver is committed to read from this channel.
+   */
+  public boolean pending (long timeout) {
+    return NanoTimer.awaitReady (this, timeout);
+  }
+
 }
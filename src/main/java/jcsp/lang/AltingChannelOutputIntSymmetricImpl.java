@@ -36,6 +36,10 @@ package jcsp.lang;
     this.out = out;
   }
 
+  AltingBarrierCoordinate coordinate () {
+    return ab.coordinate ();
+  }
+
   boolean enable (Alternative alt) {
     syncDone = ab.enable (alt);
     return syncDone;
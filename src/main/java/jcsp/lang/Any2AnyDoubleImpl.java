@@ -0,0 +1,120 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+    class Any2AnyDoubleImpl implements Any2AnyChannelDouble, ChannelInternalsDouble {
+
+	private ChannelInternalsDouble channel;
+	/** The mutex on which readers must synchronize */
+    private final Mutex readMutex = new Mutex();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    Any2AnyDoubleImpl(ChannelInternalsDouble _channel) {
+		channel = _channel;
+	}
+	
+	public SharedChannelInputDouble in() {
+		return new SharedChannelInputDoubleImpl(this,0);
+	}
+
+	public SharedChannelOutputDouble out() { 
+		return new SharedChannelOutputDoubleImpl(this,0);
+	}
+
+	public void endRead() {
+		channel.endRead();
+		readMutex.release();
+
+	}
+
+	public double read() {
+		readMutex.claim();
+//		A poison exception might be thrown, hence the try/finally:		
+		try
+		{
+			return channel.read();
+		}
+		finally
+		{
+			readMutex.release();		
+		}		
+	}
+
+	//begin never used:
+	public boolean readerDisable() {
+		return false;
+	}
+
+	public boolean readerEnable(Alternative alt) {
+		return false;
+	}
+
+	public boolean readerPending() {
+		return false;
+	}
+	//end never used
+
+	public void readerPoison(int strength) {
+		readMutex.claim();
+		channel.readerPoison(strength);
+		readMutex.release();
+	}
+
+	public double startRead() {
+		readMutex.claim();		
+		try
+		{
+			return channel.startRead();
+		}
+		catch (RuntimeException e)
+		{
+			channel.endRead();
+			readMutex.release();
+			throw e;
+		}
+		
+	}
+
+	public void write(double n) {
+		writeLock.lock();
+		try {
+			channel.write(n);
+		} finally {
+			writeLock.unlock();
+		}		
+	}
+
+	public void writerPoison(int strength) {
+		writeLock.lock();
+		try {
+			channel.writerPoison(strength);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	public Object resource() {
+		return channel.resource();
+	}
+
+}
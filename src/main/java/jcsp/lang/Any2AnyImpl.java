@@ -20,12 +20,14 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 class Any2AnyImpl<T> implements Any2AnyChannel<T>, ChannelInternals<T> {
 
         private ChannelInternals<T> channel;
         /** The mutex on which readers must synchronize */
         private final Mutex readMutex = new Mutex();
-        private final Object writeMonitor = new Object();
+        private final ReentrantLock writeLock = new ReentrantLock();
     
         Any2AnyImpl(ChannelInternals<T> _channel) {
                 channel = _channel;
@@ -94,15 +96,58 @@ class Any2AnyImpl<T> implements Any2AnyChannel<T>, ChannelInternals<T> {
         }
 
         public void write(T obj) {
-                synchronized (writeMonitor) {
+                writeLock.lock();
+                try {
                         channel.write(obj);
+                } finally {
+                        writeLock.unlock();
                 }                
         }
 
+        public void writeAll(T[] values, int offset, int length) {
+                writeLock.lock();
+                try {
+                        channel.writeAll(values, offset, length);
+                } finally {
+                        writeLock.unlock();
+                }
+        }
+
+        public int drainTo(java.util.Collection<? super T> collection, int max) {
+                readMutex.claim();
+                try
+                {
+                        return channel.drainTo(collection, max);
+                }
+                finally
+                {
+                        readMutex.release();
+                }
+        }
+
+        public int drainTo(T[] values, int offset, int max) {
+                readMutex.claim();
+                try
+                {
+                        return channel.drainTo(values, offset, max);
+                }
+                finally
+                {
+                        readMutex.release();
+                }
+        }
+
         public void writerPoison(int strength) {
-                synchronized (writeMonitor) {                
+                writeLock.lock();
+                try {
                         channel.writerPoison(strength);
+                } finally {
+                        writeLock.unlock();
                 }
         }
 
+	public Object resource() {
+		return channel.resource();
+	}
+
 }
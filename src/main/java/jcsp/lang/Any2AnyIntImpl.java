@@ -20,12 +20,14 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.ReentrantLock;
+
     class Any2AnyIntImpl implements Any2AnyChannelInt, ChannelInternalsInt {
 
 	private ChannelInternalsInt channel;
 	/** The mutex on which readers must synchronize */
     private final Mutex readMutex = new Mutex();
-    private final Object writeMonitor = new Object();
+    private final ReentrantLock writeLock = new ReentrantLock();
     
     Any2AnyIntImpl(ChannelInternalsInt _channel) {
 		channel = _channel;
@@ -94,15 +96,25 @@ package jcsp.lang;
 	}
 
 	public void write(int n) {
-		synchronized (writeMonitor) {
+		writeLock.lock();
+		try {
 			channel.write(n);
+		} finally {
+			writeLock.unlock();
 		}		
 	}
 
 	public void writerPoison(int strength) {
-		synchronized (writeMonitor) {		
+		writeLock.lock();
+		try {
 			channel.writerPoison(strength);
+		} finally {
+			writeLock.unlock();
 		}
 	}
 
+	public Object resource() {
+		return channel.resource();
+	}
+
 }
@@ -691,8 +691,16 @@ public abstract class Any2OneCallChannel extends AltingChannelAccept implements
     {
         // invoked by the callee
         this.server = server;
-        c.read(); // ready to ACCEPT the CALL
-        d.read(); // wait until the CALL is complete
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.READ);
+        try
+        {
+            c.read(); // ready to ACCEPT the CALL
+            d.read(); // wait until the CALL is complete
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
         return selected;
     }
 
@@ -706,7 +714,15 @@ public abstract class Any2OneCallChannel extends AltingChannelAccept implements
     protected void join()
     {
         // indirectly invoked by the caller
-        c.write(null);
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.WRITE);
+        try
+        {
+            c.write(null);
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
     }
 
     /**
@@ -739,4 +755,12 @@ public abstract class Any2OneCallChannel extends AltingChannelAccept implements
         // ignore this!
         return c.readerDisable();
     }
+
+    /**
+     * This is one of the {@link Guard} methods needed by the {@link ProcessRegistry}.
+     */
+    Object waitResource()
+    {
+        return this;
+    }
 }
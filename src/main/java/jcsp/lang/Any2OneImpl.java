@@ -20,10 +20,12 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 class Any2OneImpl<T> implements ChannelInternals<T>, Any2OneChannel<T> {
 
 	private ChannelInternals<T> channel;
-	private final Object writeMonitor = new Object();
+	private final ReentrantLock writeLock = new ReentrantLock();
 	
 	Any2OneImpl(ChannelInternals<T> _channel) {
 		channel = _channel;
@@ -61,15 +63,30 @@ class Any2OneImpl<T> implements ChannelInternals<T>, Any2OneChannel<T> {
 	//End never used
 
 	public void write(T obj) {
-		synchronized (writeMonitor) {
+		writeLock.lock();
+		try {
 			channel.write(obj);
+		} finally {
+			writeLock.unlock();
 		}
 
 	}
 
+	public void writeAll(T[] values, int offset, int length) {
+		writeLock.lock();
+		try {
+			channel.writeAll(values, offset, length);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
 	public void writerPoison(int strength) {
-		synchronized (writeMonitor) {
+		writeLock.lock();
+		try {
 			channel.writerPoison(strength);
+		} finally {
+			writeLock.unlock();
 		}
 
 	}
@@ -84,4 +101,8 @@ class Any2OneImpl<T> implements ChannelInternals<T>, Any2OneChannel<T> {
 		return new SharedChannelOutputImpl<T>(this,0);
 	}
 
+	public Object resource() {
+		return channel.resource();
+	}
+
 }
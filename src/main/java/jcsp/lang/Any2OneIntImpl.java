@@ -20,10 +20,12 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.ReentrantLock;
+
     class Any2OneIntImpl implements ChannelInternalsInt, Any2OneChannelInt {
 
 	private ChannelInternalsInt channel;
-	private final Object writeMonitor = new Object();
+	private final ReentrantLock writeLock = new ReentrantLock();
 	
 	Any2OneIntImpl(ChannelInternalsInt _channel) {
 		channel = _channel;
@@ -61,15 +63,21 @@ package jcsp.lang;
 	//End never used
 
 	public void write(int n) {
-		synchronized (writeMonitor) {
+		writeLock.lock();
+		try {
 			channel.write(n);
+		} finally {
+			writeLock.unlock();
 		}
 
 	}
 
 	public void writerPoison(int strength) {
-		synchronized (writeMonitor) {
+		writeLock.lock();
+		try {
 			channel.writerPoison(strength);
+		} finally {
+			writeLock.unlock();
 		}
 
 	}
@@ -82,4 +90,8 @@ package jcsp.lang;
 		return new SharedChannelOutputIntImpl(this,0);
 	}
 
+	public Object resource() {
+		return channel.resource();
+	}
+
 }
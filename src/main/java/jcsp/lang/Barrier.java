@@ -21,6 +21,8 @@
 package jcsp.lang;
 
 import java.io.Serializable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This enables <I>barrier</I> synchronisation between a set of processes.
@@ -338,8 +340,8 @@ import java.io.Serializable;
  * operations - together with <I>most</I> of the {@link #sync sync}s - have unit time
  * costs.  The <I>final</I> <TT>sync</TT>, which releases all the other (<TT>n</TT>)
  * processes blocked on the barrier, takes <TT>O(n)</TT> time.  The unit time costs
- * for this implementation are comparable with those of a <TT>synchronized</TT> method
- * invocation followed by an <TT>Object.wait</TT>.
+ * for this implementation are comparable with those of a <TT>ReentrantLock</TT>
+ * acquisition followed by a <TT>Condition.await</TT>.
  * <P>
  * [<I>Note:</I> CSP synchronisation primitives can be implemented with much lighter
  * overheads.  For example,
@@ -370,9 +372,15 @@ public class Barrier implements Serializable
   private int countDown = 0;
 
   /**
-   * The monitor lock used for synchronisation.
+   * The lock used for synchronisation.  This is not a Java monitor, so that
+   * processes running on virtual threads do not pin their carriers while blocked.
    */
-  private Object barrierLock = new Object ();
+  private final ReentrantLock barrierLock = new ReentrantLock ();
+
+  /**
+   * The condition on which processes wait for the barrier to complete.
+   */
+  private final Condition barrierComplete = barrierLock.newCondition ();
 
   /**
    * The even/odd flag used to detect spurious wakeups.
@@ -428,31 +436,56 @@ public class Barrier implements Serializable
         "*** Attempt to set a negative enrollment on a barrier\n"
       );
     }
-    synchronized (barrierLock) {
+    barrierLock.lock ();
+    try {
       this.nEnrolled = nEnrolled;
       countDown = nEnrolled;
+    } finally {
+      barrierLock.unlock ();
     }
 //System.out.println ("Barrier.reset : " + nEnrolled + ", " + countDown);
   }
 
+  /**
+   * Returns the number of processes currently enrolled (used by {@link ProcessRegistry}).
+   */
+  int enrolled () {
+    barrierLock.lock ();
+    try {
+      return nEnrolled;
+    } finally {
+      barrierLock.unlock ();
+    }
+  }
+
   /**
    * Synchronise the invoking process on this barrier.
    * <I>Any</I> process synchronising on this barrier will be blocked until <I>all</I>
    * processes associated with the barrier have synchronised (or resigned).
    */
   public void sync () {
-    synchronized (barrierLock) {
+    final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block (this, ProcessRegistry.Role.SYNC);
+    try {
+      doSync ();
+    } finally {
+      ProcessRegistry.unblock (blocked);
+    }
+  }
+
+  private void doSync () {
+    barrierLock.lock ();
+    try {
       countDown--;
 //System.out.println ("Barrier.sync : " + nEnrolled + ", " + countDown);
       if (countDown > 0) {
         try {
           boolean spuriousCycle = evenOddCycle;
-          barrierLock.wait ();
+          barrierComplete.await ();
 	  while (spuriousCycle == evenOddCycle) {
 	    if (Spurious.logging) {
 	      SpuriousLog.record (SpuriousLog.BarrierSync);
 	    }
-	    barrierLock.wait ();
+	    barrierComplete.await ();
           }	  
         }
         catch (InterruptedException e) {
@@ -464,8 +497,10 @@ public class Barrier implements Serializable
         countDown = nEnrolled;
         evenOddCycle = !evenOddCycle;         // to detect spurious wakeups  :(
 //System.out.println ("Barrier.sync : " + nEnrolled + ", " + countDown);
-        barrierLock.notifyAll ();
+        barrierComplete.signalAll ();
       }
+    } finally {
+      barrierLock.unlock ();
     }
   }
 
@@ -497,9 +532,12 @@ public class Barrier implements Serializable
    * If not honoured, things will go wrong.
    */
   public void enroll () {
-    synchronized (barrierLock) {
+    barrierLock.lock ();
+    try {
       nEnrolled++;
       countDown++;
+    } finally {
+      barrierLock.unlock ();
     }
 //System.out.println ("Barrier.enroll : " + nEnrolled + ", " + countDown);
   }
@@ -528,7 +566,8 @@ public class Barrier implements Serializable
    * 
    */
   public void resign () {
-    synchronized (barrierLock) {
+    barrierLock.lock ();
+    try {
       nEnrolled--;
       countDown--;
 //System.out.println ("Barrier.resign : " + nEnrolled + ", " + countDown);
@@ -536,13 +575,15 @@ public class Barrier implements Serializable
         countDown = nEnrolled;
         evenOddCycle = !evenOddCycle;         // to detect spurious wakeups  :(
 //System.out.println ("Barrier.resign : " + nEnrolled + ", " + countDown);
-        barrierLock.notifyAll ();
+        barrierComplete.signalAll ();
       }
       else if (countDown < 0) {
         throw new BarrierError (
 	  "*** A process has resigned on a barrier without first enrolling\n"
 	);
       }
+    } finally {
+      barrierLock.unlock ();
     }
   }
 
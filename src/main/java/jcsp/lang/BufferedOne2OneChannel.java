@@ -165,6 +165,114 @@ class BufferedOne2OneChannel<T> implements One2OneChannel<T>, ChannelInternals<T
       }
     }
 
+    /**
+     * Writes a batch of <TT>Object</TT>s to the channel.  As many as the buffer
+     * will accept are deposited together, with a single wake-up of the reader,
+     * before blocking (only) if the buffer is full.
+     *
+     * @param values the array holding the objects to write to the channel.
+     * @param offset the index in <TT>values</TT> of the first object to write.
+     * @param length the number of objects to write.
+     */
+    public void writeAll (T[] values, int offset, int length) {
+      synchronized (rwMonitor) {
+        int done = 0;
+        while (done < length) {
+          done += data.putAll (values, offset + done, length - done);
+          if (alt != null) {
+            alt.schedule ();
+          } else {
+            rwMonitor.notify ();
+          }
+          if (data.getState () == ChannelDataStore.FULL) {
+            try {
+              rwMonitor.wait ();
+              while (data.getState () == ChannelDataStore.FULL) {
+                if (Spurious.logging) {
+                  SpuriousLog.record (SpuriousLog.One2OneChannelXWrite);
+                }
+                rwMonitor.wait ();
+              }
+            }
+            catch (InterruptedException e) {
+              throw new ProcessInterruptedException (
+                "*** Thrown from One2OneChannel.writeAll (Object[], int, int)\n" + e.toString ()
+              );
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Reads a batch of <TT>Object</TT>s from the channel into a collection.
+     * This blocks until the buffer is non-empty and then takes up to <TT>max</TT>
+     * of the buffered objects, with a single wake-up of the writer.
+     *
+     * @param collection the collection to which the objects are added.
+     * @param max the maximum number of objects to read.
+     * @return the number of objects read.
+     */
+    public int drainTo (java.util.Collection<? super T> collection, int max) {
+      if (max <= 0) {
+        return 0;
+      }
+      synchronized (rwMonitor) {
+        waitWhileEmpty ();
+        int n = 0;
+        while ((n < max) && (data.getState () != ChannelDataStore.EMPTY)) {
+          collection.add (data.get ());
+          n++;
+        }
+        rwMonitor.notify ();
+        return n;
+      }
+    }
+
+    /**
+     * Reads a batch of <TT>Object</TT>s from the channel into an array.
+     * This blocks until the buffer is non-empty and then takes up to <TT>max</TT>
+     * of the buffered objects, with a single wake-up of the writer.
+     *
+     * @param values the array in which the objects are stored.
+     * @param offset the index in <TT>values</TT> of the first object read.
+     * @param max the maximum number of objects to read.
+     * @return the number of objects read.
+     */
+    public int drainTo (T[] values, int offset, int max) {
+      if (max <= 0) {
+        return 0;
+      }
+      synchronized (rwMonitor) {
+        waitWhileEmpty ();
+        final int n = data.getAll (values, offset, max);
+        rwMonitor.notify ();
+        return n;
+      }
+    }
+
+    /**
+     * Waits (holding <TT>rwMonitor</TT>) until the buffer is non-empty.
+     */
+    private void waitWhileEmpty () {
+      if (data.getState () == ChannelDataStore.EMPTY) {
+        try {
+          rwMonitor.wait ();
+          while (data.getState () == ChannelDataStore.EMPTY) {
+            if (Spurious.logging) {
+              SpuriousLog.record (SpuriousLog.One2OneChannelXRead);
+            }
+            rwMonitor.wait ();
+          }
+        }
+        catch (InterruptedException e) {
+          throw new ProcessInterruptedException (
+            "*** Thrown from One2OneChannel.drainTo ()\n" + e.toString ()
+          );
+        }
+      }
+    }
+
     /**
      * turns on Alternative selection for the channel. Returns true if the
      * channel has data that can be read immediately.
@@ -112,6 +112,38 @@ public class CSTimer extends Guard
      */
     private long msecs = 0;
 
+    /**
+     * The shared timing wheel that fires this timer's timeouts (or <TT>null</TT>
+     * if the <TT>Alternative</TT> is to time out by itself).
+     */
+    private final TimerService service;
+
+    /**
+     * The alarm registered with the service by the current <I>select</I>, if any.
+     */
+    private TimerService.Alarm alarm = null;
+
+    /**
+     * Constructs a <TT>CSTimer</TT> whose timeouts are awaited by the
+     * selecting <TT>Alternative</TT> itself.
+     */
+    public CSTimer()
+    {
+        this.service = null;
+    }
+
+    /**
+     * Constructs a <TT>CSTimer</TT> whose timeouts are registered with
+     * (and fired by) a shared {@link TimerService}.  This is worthwhile when
+     * very many processes have timeouts pending at the same time.
+     *
+     * @param service the timing wheel with which to register timeouts.
+     */
+    public CSTimer(final TimerService service)
+    {
+        this.service = service;
+    }
+
     /**
      * Sets the absolute timeout value that will trigger an <TT>Alternative</TT>
      * <I>select</I> operation (when this <TT>CSTimer</TT> is one of the guards
@@ -205,9 +237,16 @@ public class CSTimer extends Guard
     boolean enable (Alternative alt) {
         if ((msecs - System.currentTimeMillis ()) <= Spurious.earlyTimeout) {
           return true;
-        } else {
+        } else if (service == null) {
           alt.setTimeout (msecs);
           return false;
+        } else {
+          long delay = msecs - System.currentTimeMillis ();
+          if (delay > Alternative.MAX_DELAY_MSECS) {
+            delay = Alternative.MAX_DELAY_MSECS;
+          }
+          alarm = service.register (alt, System.nanoTime () + (delay * 1000000L));
+          return false;
         }
       }
 
@@ -215,6 +254,15 @@ public class CSTimer extends Guard
        * Disables this guard.
        */
       boolean disable () {
+        if (alarm != null) {
+          final boolean fired = alarm.cancel ();
+          alarm = null;
+          if (fired) {
+            // The service has woken the ALT for this guard, whatever the clock
+            // now says: the Alternative has no timeIndex to fall back on.
+            return true;
+          }
+        }
         // final long now = System.currentTimeMillis ();
         // System.out.println ("*** CSTimer.disable: " + msecs + ", " + now);
         // return (msecs <= now);
@@ -21,14 +21,16 @@
 package jcsp.lang;
 
 import jcsp.util.ChannelDataStore;
+import jcsp.util.doubles.ChannelDataStoreDouble;
 import jcsp.util.ints.ChannelDataStoreInt;
+import jcsp.util.longs.ChannelDataStoreLong;
 
 /**
  * <p>This class provides static factory methods for constructing
  * all the different types of channel.
  * </p>
  * <p>
- * Channels carry either <i>Objects</i> or <i>integers</i>.
+ * Channels carry <i>Objects</i>, <i>integers</i>, <i>longs</i> or <i>doubles</i>.
  * </p>
  * <p>
  * Basic channels are zero-buffered: the writer and reader processes must synchronise.
@@ -205,6 +207,95 @@ public class Channel
     	return new BufferedAny2AnyChannel<T>(buffer);
     }
     
+    /**
+     * This constructs a buffered <i>one-one</i> Object channel with a blocking FIFO
+     * of capacity <tt>size</tt> (the semantics of {@link jcsp.util.Buffer}).
+     * <p>
+     * The buffer is a lock-free <i>single-producer</i> ring: the writer and reader only
+     * block (and wake each other) when it is full or empty, respectively.
+     * This suits high-rate streaming between a pair of processes.
+     *
+     * @param size the capacity of the channel (must be positive).
+     * @return the channel.
+     */
+    public static <T> One2OneChannel<T> one2oneRing(int size)
+    {
+    	return new RingBufferedOne2OneChannel<T>(size);
+    }
+
+    /**
+     * This constructs a buffered <i>any-one</i> Object channel with a blocking FIFO
+     * of capacity <tt>size</tt> (the semantics of {@link jcsp.util.Buffer}).
+     * <p>
+     * The buffer is a lock-free <i>multi-producer</i> ring: writers do not contend for
+     * a lock, and the reader and writers only block when it is empty or full, respectively.
+     *
+     * @param size the capacity of the channel (must be positive).
+     * @return the channel.
+     */
+    public static <T> Any2OneChannel<T> any2oneRing(int size)
+    {
+    	return new RingBufferedAny2OneChannel<T>(size);
+    }
+
+    /**
+     * This constructs a <i>one-one</i> channel of binary messages, buffered in a
+     * preallocated off-heap slab of <tt>slots</tt> slots of <tt>slotSize</tt> bytes.
+     * <p>
+     * The writer may build messages in place ({@link SlabChannelOutput#claim()},
+     * {@link SlabChannelOutput#commit()}) and the reader may consume them in place
+     * ({@link ChannelInput#startRead()}, {@link ChannelInput#endRead()}), so that
+     * no bytes are copied and nothing is allocated per message.
+     *
+     * @param slots the number of messages the channel may hold (must be positive).
+     * @param slotSize the maximum size of a message in bytes (must be positive).
+     * @return the channel.
+     */
+    public static One2OneChannelSlab one2oneSlab(int slots, int slotSize)
+    {
+    	return new One2OneChannelSlabImpl(slots, slotSize);
+    }
+
+    /**
+     * This meters a <i>one-one</i> Object channel (built by any of the <tt>one2one</tt>
+     * methods, buffered or not): the returned channel records messages transferred,
+     * reader and writer wait times, occupancy and poison events into a
+     * {@link ChannelMetrics} registered under the given name.
+     * <p>
+     * If metrics are not {@link ChannelMetrics#setEnabled enabled}, the channel
+     * is returned unchanged.
+     *
+     * @param name the name under which the metrics are registered.
+     * @param channel the channel to be metered.
+     * @return the metered channel.
+     */
+    public static <T> One2OneChannel<T> metered(String name, One2OneChannel<T> channel)
+    {
+    	if (!ChannelMetrics.isEnabled())
+    		return channel;
+    	return new MeteredOne2OneChannel<T>(channel, ChannelMetrics.create(name));
+    }
+
+    /**
+     * This meters an <i>any-one</i> Object channel (built by any of the <tt>any2one</tt>
+     * methods, buffered or not): the returned channel records messages transferred,
+     * reader and writer wait times, occupancy and poison events into a
+     * {@link ChannelMetrics} registered under the given name.
+     * <p>
+     * If metrics are not {@link ChannelMetrics#setEnabled enabled}, the channel
+     * is returned unchanged.
+     *
+     * @param name the name under which the metrics are registered.
+     * @param channel the channel to be metered.
+     * @return the metered channel.
+     */
+    public static <T> Any2OneChannel<T> metered(String name, Any2OneChannel<T> channel)
+    {
+    	if (!ChannelMetrics.isEnabled())
+    		return channel;
+    	return new MeteredAny2OneChannel<T>(channel, ChannelMetrics.create(name));
+    }
+
     /**
      * This constructs a poisonable <i>one-one</i> Object channel.
      *
@@ -600,6 +691,41 @@ public class Channel
     	return r;
     }
     
+    /**
+     * This constructs an <i>Object carrying</i> channel that
+     * may only be connected to <i>one</i> writer and <i>one</i> reader process at a time.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
+     * <p>
+     * The semantics are exactly those of {@link #one2one()}.  The implementation, however,
+     * uses no locks: a waiting process <i>spins</i> briefly before parking, so that
+     * a writer and reader running on different processors can exchange messages
+     * without being descheduled.  This suits hot producer/consumer pairs on multiprocessors.
+     *
+     * @return the channel.
+     */
+    public static <T> One2OneChannel<T> one2oneSpinning()
+    {
+        return new SpinningOne2OneChannelImpl<T>();
+    }
+
+    /**
+     * This constructs an array of spinning <i>one-one</i> Object channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     *
+     * @see #one2oneSpinning()
+     */
+    public static <T> One2OneChannel<T>[] one2oneSpinningArray(int size)
+    {
+    	One2OneChannel<T>[] r = (One2OneChannel<T>[]) new One2OneChannel[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneSpinning();
+    	}
+    	return r;
+    }
+
     /**
      * This constructs an <i>integer carrying</i> channel that
      * may only be connected to <i>one</i> writer and <i>one</i> reader process at a time.
@@ -1070,222 +1196,1160 @@ public class Channel
     }
 
     /**
-     * This constructs an <i>integer carrying</i> channel that
+     * This constructs an <i>long carrying</i> channel that
      * may only be connected to <i>one</i> writer and <i>one</i> reader process at a time.
      * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
-     * <p>
-     * The <i>symmetry</i> relates to the use of the channel's ends as {@link Guard <i>guards</i>}
-     * in an {@link Alternative}: both ends may be so used.
      *
      * @return the channel.
      */
-    public static One2OneChannelSymmetricInt one2oneSymmetricInt ()
+    public static One2OneChannelLong one2oneLong()
     {
-        return new BasicOne2OneChannelSymmetricInt ();
+    	return new One2OneChannelLongImpl();
     }
     
     /**
-     * This constructs an array of symmetric <i>one-one</i> integer channels.
+     * This constructs an <i>long carrying</i> channel that
+     * may only be connected to <i>one</i> writer at a time,
+     * but <i>any</i> number of reader processes.
+     * The readers contend safely with each other to take the next message.
+     * Each message flows from the writer to <i>just one</i> of the readers &ndash;
+     * this is not a broadcasting channel.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
      *
-     * @param size defines size of the array (must be positive).
-     * @return the channel array.
+     * @return the channel.
      */
-    public static One2OneChannelSymmetricInt[] one2oneSymmetricIntArray(int size)
+    public static One2AnyChannelLong one2anyLong()
     {
-    	One2OneChannelSymmetricInt[] r = new One2OneChannelSymmetricInt[size];
-    	for (int i = 0;i < size;i++)
-    	{
-    		r[i] = one2oneSymmetricInt();    	
-    	}
-    	return r;
+    	return new One2AnyChannelLongImpl();
     }
     
-    /* Helper methods to get arrays of channel ends ... */
-
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs an <i>long carrying</i> channel that
+     * may be connected to <i>any</i> number of writer processes,
+     * but only <i>one</i> reader at a time.
+     * The writers contend safely with each other to send the next message.
+     * Each message flows from <i>just one</i> of the writers to the reader &ndash;
+     * this is not a combining channel.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @return the channel.
      */
-    public static <T> AltingChannelInput<T>[] getInputArray(One2OneChannel<T>[] c)
+    public static Any2OneChannelLong any2oneLong()
     {
-        AltingChannelInput<T>[] in = (AltingChannelInput<T>[]) new AltingChannelInput[c.length];
-        for (int i = 0; i < c.length; i++)
-           in[i] = c[i].in();
-        return in;
+    	return new Any2OneChannelLongImpl();
     }
-
+    
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs an <i>long carrying</i> channel that
+     * may be connected to <i>any</i> number of writer processes
+     * and <i>any</i> number of reader processes.
+     * The writers contend safely with each other to send the next message.
+     * The readers contend safely with each other to take the next message.
+     * Each message flows from <i>just one</i> of the writers to <i>just one</i> of the readers &ndash;
+     * this is not a broadcasting-and-combining channel.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @return the channel.
      */
-    public static <T> SharedChannelInput<T>[] getInputArray(One2AnyChannel<T>[] c)
+    public static Any2AnyChannelLong any2anyLong()
     {
-        SharedChannelInput<T>[] in = (SharedChannelInput<T>[]) new SharedChannelInput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].in();
-        return in;
+    	return new Any2AnyChannelLongImpl();
     }
-
+    
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a <i>one-one</i> long channel with user chosen buffering size and policy.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
      */
-    public static <T> AltingChannelInput<T>[] getInputArray(Any2OneChannel<T>[] c)
+    public static One2OneChannelLong one2oneLong(ChannelDataStoreLong buffer)
     {
-        AltingChannelInput<T>[] in = (AltingChannelInput<T>[]) new AltingChannelInput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].in();
-        return in;
+    	return new BufferedOne2OneChannelLongImpl(buffer);
     }
     
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a <i>one-any</i> long channel with user chosen buffering size and policy.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
      */
-    public static <T> SharedChannelInput<T>[] getInputArray(Any2AnyChannel<T>[] c)
+    public static One2AnyChannelLong one2anyLong(ChannelDataStoreLong buffer)
     {
-        SharedChannelInput<T>[] in = (SharedChannelInput<T>[]) new SharedChannelInput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].in();
-        return in;
+    	return new BufferedOne2AnyChannelLongImpl(buffer);
     }
-
+    
     /**
-     * This extracts the <i>output-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>output-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs an <i>any-one</i> long channel with user chosen buffering size and policy.
      *
-     * @param c an array of channels.
-     * @return the array of <i>output-ends</i> from the given channel array.
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
      */
-    public static <T> ChannelOutput<T>[] getOutputArray(One2OneChannel<T>[] c)
+    public static Any2OneChannelLong any2oneLong(ChannelDataStoreLong buffer)
     {
-        ChannelOutput<T>[] in = (ChannelOutput<T>[]) new ChannelOutput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].out();
-        return in;
+    	return new BufferedAny2OneChannelLongImpl(buffer);
     }
-
+    
     /**
-     * This extracts the <i>output-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>output-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs an <i>any-any</i> long channel with user chosen buffering size and policy.
      *
-     * @param c an array of channels.
-     * @return the array of <i>output-ends</i> from the given channel array.
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
      */
-    public static <T> ChannelOutput<T>[] getOutputArray(One2AnyChannel<T>[] c)
+    public static Any2AnyChannelLong any2anyLong(ChannelDataStoreLong buffer)
     {
-        ChannelOutput<T>[] in = (ChannelOutput<T>[]) new ChannelOutput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].out();
-        return in;
+    	return new BufferedAny2AnyChannelLongImpl(buffer);
     }
-
+    
     /**
-     * This extracts the <i>output-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>output-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a poisonable <i>one-one</i> long channel.
      *
-     * @param c an array of channels.
-     * @return the array of <i>output-ends</i> from the given channel array.
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
      */
-    public static <T> SharedChannelOutput<T>[] getOutputArray(Any2OneChannel<T>[] c)
+    public static One2OneChannelLong one2oneLong(int immunity)
     {
-        SharedChannelOutput<T>[] in = (SharedChannelOutput<T>[]) new SharedChannelOutput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].out();
-        return in;
+    	return new PoisonableOne2OneChannelLongImpl(immunity);
     }
-
+    
     /**
-     * This extracts the <i>output-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>output-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a poisonable <i>one-any</i> long channel.
      *
-     * @param c an array of channels.
-     * @return the array of <i>output-ends</i> from the given channel array.
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
      */
-    public static <T> SharedChannelOutput<T>[] getOutputArray(Any2AnyChannel<T>[] c)
+    public static One2AnyChannelLong one2anyLong(int immunity)
     {
-        SharedChannelOutput<T>[] in = (SharedChannelOutput<T>[]) new SharedChannelOutput[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].out();
-        return in;
+    	return new PoisonableOne2AnyChannelLongImpl(immunity);
     }
-
+    
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a poisonable <i>any-one</i> long channel.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
      */
-    public static AltingChannelInputInt[] getInputArray(One2OneChannelInt[] c)
+    public static Any2OneChannelLong any2oneLong(int immunity)
     {
-        AltingChannelInputInt[] in = new AltingChannelInputInt[c.length];
-        for (int i = 0; i < c.length; i++)
-           in[i] = c[i].in();
-        return in;
+    	return new PoisonableAny2OneChannelLongImpl(immunity);
     }
-
+    
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a poisonable <i>any-any</i> long channel.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
      */
-    public static SharedChannelInputInt[] getInputArray(One2AnyChannelInt[] c)
+    public static Any2AnyChannelLong any2anyLong(int immunity)
     {
-        SharedChannelInputInt[] in = new SharedChannelInputInt[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].in();
-        return in;
+    	return new PoisonableAny2AnyChannelLongImpl(immunity);
     }
-
+    
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a buffered poisonable <i>one-one</i> long channel.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
      */
-    public static AltingChannelInputInt[] getInputArray(Any2OneChannelInt[] c)
+    public static One2OneChannelLong one2oneLong(ChannelDataStoreLong buffer, int immunity)
     {
-        AltingChannelInputInt[] in = new AltingChannelInputInt[c.length];
-        for (int i = 0; i < c.length; i++)
-            in[i] = c[i].in();
-        return in;
+    	return new PoisonableBufferedOne2OneChannelLong(buffer, immunity);
     }
     
     /**
-     * This extracts the <i>input-ends</i> from the given channel array.
-     * Each element of the returned array is the <i>input-end</i> of the channel
-     * at the corresponding index in the given channel array.
+     * This constructs a buffered poisonable <i>one-any</i> long channel.
      *
-     * @param c an array of channels.
-     * @return the array of <i>input-ends</i> from the given channel array.
-     */
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static One2AnyChannelLong one2anyLong(ChannelDataStoreLong buffer, int immunity)
+    {
+    	return new PoisonableBufferedOne2AnyChannelLong(buffer, immunity);
+    }
+    
+    /**
+     * This constructs a buffered poisonable <i>any-one</i> long channel.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static Any2OneChannelLong any2oneLong(ChannelDataStoreLong buffer, int immunity)
+    {
+    	return new PoisonableBufferedAny2OneChannelLong(buffer, immunity);
+    }
+    
+    /**
+     * This constructs a buffered poisonable <i>any-any</i> long channel.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static Any2AnyChannelLong any2anyLong(ChannelDataStoreLong buffer, int immunity)
+    {
+    	return new PoisonableBufferedAny2AnyChannelLong(buffer, immunity);
+    }
+    
+    /**
+     * This constructs an array of <i>one-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static One2OneChannelLong[] one2oneLongArray(int size)
+    {
+    	One2OneChannelLong[] r = new One2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneLong();    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of <i>one-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static One2AnyChannelLong[] one2anyLongArray(int size)
+    {
+    	One2AnyChannelLong[] r = new One2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyLong();    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of <i>any-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static Any2OneChannelLong[] any2oneLongArray(int size)
+    {
+    	Any2OneChannelLong[] r = new Any2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneLong();    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of <i>any-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static Any2AnyChannelLong[] any2anyLongArray(int size)
+    {
+    	Any2AnyChannelLong[] r = new Any2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyLong();
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>one-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2OneChannelLong[] one2oneLongArray(int size, int immunity)
+    {
+    	One2OneChannelLong[] r = new One2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneLong(immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>one-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2AnyChannelLong[] one2anyLongArray(int size, int immunity)
+    {
+    	One2AnyChannelLong[] r = new One2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyLong(immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>any-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2OneChannelLong[] any2oneLongArray(int size, int immunity)
+    {
+    	Any2OneChannelLong[] r = new Any2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneLong(immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>any-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2AnyChannelLong[] any2anyLongArray(int size, int immunity)
+    {
+    	Any2AnyChannelLong[] r = new Any2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyLong(immunity);
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>one-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static One2OneChannelLong[] one2oneLongArray(int size, ChannelDataStoreLong buffer)
+    {
+    	One2OneChannelLong[] r = new One2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneLong(buffer);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>one-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static One2AnyChannelLong[] one2anyLongArray(int size, ChannelDataStoreLong buffer)
+    {
+    	One2AnyChannelLong[] r = new One2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyLong(buffer);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>any-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static Any2OneChannelLong[] any2oneLongArray(int size, ChannelDataStoreLong buffer)
+    {
+    	Any2OneChannelLong[] r = new Any2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneLong(buffer);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>any-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static Any2AnyChannelLong[] any2anyLongArray(int size, ChannelDataStoreLong buffer)
+    {
+    	Any2AnyChannelLong[] r = new Any2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyLong(buffer);
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>one-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2OneChannelLong[] one2oneLongArray(int size, ChannelDataStoreLong buffer, int immunity)
+    {
+    	One2OneChannelLong[] r = new One2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneLong(buffer,immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>one-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2AnyChannelLong[] one2anyLongArray(int size, ChannelDataStoreLong buffer, int immunity)
+    {
+    	One2AnyChannelLong[] r = new One2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyLong(buffer,immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>any-one</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2OneChannelLong[] any2oneLongArray(int size, ChannelDataStoreLong buffer, int immunity)
+    {
+    	Any2OneChannelLong[] r = new Any2OneChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneLong(buffer,immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>any-any</i> long channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2AnyChannelLong[] any2anyLongArray(int size, ChannelDataStoreLong buffer, int immunity)
+    {
+    	Any2AnyChannelLong[] r = new Any2AnyChannelLong[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyLong(buffer,immunity);
+    	}
+    	return r;
+    }
+
+    /**
+     * This constructs an <i>double carrying</i> channel that
+     * may only be connected to <i>one</i> writer and <i>one</i> reader process at a time.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
+     *
+     * @return the channel.
+     */
+    public static One2OneChannelDouble one2oneDouble()
+    {
+    	return new One2OneChannelDoubleImpl();
+    }
+    
+    /**
+     * This constructs an <i>double carrying</i> channel that
+     * may only be connected to <i>one</i> writer at a time,
+     * but <i>any</i> number of reader processes.
+     * The readers contend safely with each other to take the next message.
+     * Each message flows from the writer to <i>just one</i> of the readers &ndash;
+     * this is not a broadcasting channel.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
+     *
+     * @return the channel.
+     */
+    public static One2AnyChannelDouble one2anyDouble()
+    {
+    	return new One2AnyChannelDoubleImpl();
+    }
+    
+    /**
+     * This constructs an <i>double carrying</i> channel that
+     * may be connected to <i>any</i> number of writer processes,
+     * but only <i>one</i> reader at a time.
+     * The writers contend safely with each other to send the next message.
+     * Each message flows from <i>just one</i> of the writers to the reader &ndash;
+     * this is not a combining channel.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
+     *
+     * @return the channel.
+     */
+    public static Any2OneChannelDouble any2oneDouble()
+    {
+    	return new Any2OneChannelDoubleImpl();
+    }
+    
+    /**
+     * This constructs an <i>double carrying</i> channel that
+     * may be connected to <i>any</i> number of writer processes
+     * and <i>any</i> number of reader processes.
+     * The writers contend safely with each other to send the next message.
+     * The readers contend safely with each other to take the next message.
+     * Each message flows from <i>just one</i> of the writers to <i>just one</i> of the readers &ndash;
+     * this is not a broadcasting-and-combining channel.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
+     *
+     * @return the channel.
+     */
+    public static Any2AnyChannelDouble any2anyDouble()
+    {
+    	return new Any2AnyChannelDoubleImpl();
+    }
+    
+    /**
+     * This constructs a <i>one-one</i> double channel with user chosen buffering size and policy.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
+     */
+    public static One2OneChannelDouble one2oneDouble(ChannelDataStoreDouble buffer)
+    {
+    	return new BufferedOne2OneChannelDoubleImpl(buffer);
+    }
+    
+    /**
+     * This constructs a <i>one-any</i> double channel with user chosen buffering size and policy.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
+     */
+    public static One2AnyChannelDouble one2anyDouble(ChannelDataStoreDouble buffer)
+    {
+    	return new BufferedOne2AnyChannelDoubleImpl(buffer);
+    }
+    
+    /**
+     * This constructs an <i>any-one</i> double channel with user chosen buffering size and policy.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
+     */
+    public static Any2OneChannelDouble any2oneDouble(ChannelDataStoreDouble buffer)
+    {
+    	return new BufferedAny2OneChannelDoubleImpl(buffer);
+    }
+    
+    /**
+     * This constructs an <i>any-any</i> double channel with user chosen buffering size and policy.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel.
+     */
+    public static Any2AnyChannelDouble any2anyDouble(ChannelDataStoreDouble buffer)
+    {
+    	return new BufferedAny2AnyChannelDoubleImpl(buffer);
+    }
+    
+    /**
+     * This constructs a poisonable <i>one-one</i> double channel.
+     *
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static One2OneChannelDouble one2oneDouble(int immunity)
+    {
+    	return new PoisonableOne2OneChannelDoubleImpl(immunity);
+    }
+    
+    /**
+     * This constructs a poisonable <i>one-any</i> double channel.
+     *
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static One2AnyChannelDouble one2anyDouble(int immunity)
+    {
+    	return new PoisonableOne2AnyChannelDoubleImpl(immunity);
+    }
+    
+    /**
+     * This constructs a poisonable <i>any-one</i> double channel.
+     *
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static Any2OneChannelDouble any2oneDouble(int immunity)
+    {
+    	return new PoisonableAny2OneChannelDoubleImpl(immunity);
+    }
+    
+    /**
+     * This constructs a poisonable <i>any-any</i> double channel.
+     *
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static Any2AnyChannelDouble any2anyDouble(int immunity)
+    {
+    	return new PoisonableAny2AnyChannelDoubleImpl(immunity);
+    }
+    
+    /**
+     * This constructs a buffered poisonable <i>one-one</i> double channel.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static One2OneChannelDouble one2oneDouble(ChannelDataStoreDouble buffer, int immunity)
+    {
+    	return new PoisonableBufferedOne2OneChannelDouble(buffer, immunity);
+    }
+    
+    /**
+     * This constructs a buffered poisonable <i>one-any</i> double channel.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static One2AnyChannelDouble one2anyDouble(ChannelDataStoreDouble buffer, int immunity)
+    {
+    	return new PoisonableBufferedOne2AnyChannelDouble(buffer, immunity);
+    }
+    
+    /**
+     * This constructs a buffered poisonable <i>any-one</i> double channel.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static Any2OneChannelDouble any2oneDouble(ChannelDataStoreDouble buffer, int immunity)
+    {
+    	return new PoisonableBufferedAny2OneChannelDouble(buffer, immunity);
+    }
+    
+    /**
+     * This constructs a buffered poisonable <i>any-any</i> double channel.
+     *
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channel is immune to poison strengths up to and including this level.
+     * @return the channel.
+     */
+    public static Any2AnyChannelDouble any2anyDouble(ChannelDataStoreDouble buffer, int immunity)
+    {
+    	return new PoisonableBufferedAny2AnyChannelDouble(buffer, immunity);
+    }
+    
+    /**
+     * This constructs an array of <i>one-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static One2OneChannelDouble[] one2oneDoubleArray(int size)
+    {
+    	One2OneChannelDouble[] r = new One2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneDouble();    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of <i>one-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static One2AnyChannelDouble[] one2anyDoubleArray(int size)
+    {
+    	One2AnyChannelDouble[] r = new One2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyDouble();    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of <i>any-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static Any2OneChannelDouble[] any2oneDoubleArray(int size)
+    {
+    	Any2OneChannelDouble[] r = new Any2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneDouble();    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of <i>any-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static Any2AnyChannelDouble[] any2anyDoubleArray(int size)
+    {
+    	Any2AnyChannelDouble[] r = new Any2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyDouble();
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>one-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2OneChannelDouble[] one2oneDoubleArray(int size, int immunity)
+    {
+    	One2OneChannelDouble[] r = new One2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneDouble(immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>one-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2AnyChannelDouble[] one2anyDoubleArray(int size, int immunity)
+    {
+    	One2AnyChannelDouble[] r = new One2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyDouble(immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>any-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2OneChannelDouble[] any2oneDoubleArray(int size, int immunity)
+    {
+    	Any2OneChannelDouble[] r = new Any2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneDouble(immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of poisonable <i>any-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2AnyChannelDouble[] any2anyDoubleArray(int size, int immunity)
+    {
+    	Any2AnyChannelDouble[] r = new Any2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyDouble(immunity);
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>one-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static One2OneChannelDouble[] one2oneDoubleArray(int size, ChannelDataStoreDouble buffer)
+    {
+    	One2OneChannelDouble[] r = new One2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneDouble(buffer);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>one-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static One2AnyChannelDouble[] one2anyDoubleArray(int size, ChannelDataStoreDouble buffer)
+    {
+    	One2AnyChannelDouble[] r = new One2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyDouble(buffer);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>any-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static Any2OneChannelDouble[] any2oneDoubleArray(int size, ChannelDataStoreDouble buffer)
+    {
+    	Any2OneChannelDouble[] r = new Any2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneDouble(buffer);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered <i>any-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @return the channel array.
+     */
+    public static Any2AnyChannelDouble[] any2anyDoubleArray(int size, ChannelDataStoreDouble buffer)
+    {
+    	Any2AnyChannelDouble[] r = new Any2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyDouble(buffer);
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>one-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2OneChannelDouble[] one2oneDoubleArray(int size, ChannelDataStoreDouble buffer, int immunity)
+    {
+    	One2OneChannelDouble[] r = new One2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneDouble(buffer,immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>one-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static One2AnyChannelDouble[] one2anyDoubleArray(int size, ChannelDataStoreDouble buffer, int immunity)
+    {
+    	One2AnyChannelDouble[] r = new One2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2anyDouble(buffer,immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>any-one</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2OneChannelDouble[] any2oneDoubleArray(int size, ChannelDataStoreDouble buffer, int immunity)
+    {
+    	Any2OneChannelDouble[] r = new Any2OneChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2oneDouble(buffer,immunity);    	
+    	}
+    	return r;
+    }
+    
+    /**
+     * This constructs an array of buffered poisonable <i>any-any</i> double channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @param buffer defines size and policy (the channel will clone its own).
+     * @param immunity the channels are immune to poison strengths up to and including this level.
+     * @return the channel array.
+     */
+    public static Any2AnyChannelDouble[] any2anyDoubleArray(int size, ChannelDataStoreDouble buffer, int immunity)
+    {
+    	Any2AnyChannelDouble[] r = new Any2AnyChannelDouble[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = any2anyDouble(buffer,immunity);
+    	}
+    	return r;
+    }
+
+    /**
+     * This constructs an <i>integer carrying</i> channel that
+     * may only be connected to <i>one</i> writer and <i>one</i> reader process at a time.
+     * The channel is zero-buffered &ndash; the writer and reader processes must synchronise.
+     * <p>
+     * The <i>symmetry</i> relates to the use of the channel's ends as {@link Guard <i>guards</i>}
+     * in an {@link Alternative}: both ends may be so used.
+     *
+     * @return the channel.
+     */
+    public static One2OneChannelSymmetricInt one2oneSymmetricInt ()
+    {
+        return new BasicOne2OneChannelSymmetricInt ();
+    }
+    
+    /**
+     * This constructs an array of symmetric <i>one-one</i> integer channels.
+     *
+     * @param size defines size of the array (must be positive).
+     * @return the channel array.
+     */
+    public static One2OneChannelSymmetricInt[] one2oneSymmetricIntArray(int size)
+    {
+    	One2OneChannelSymmetricInt[] r = new One2OneChannelSymmetricInt[size];
+    	for (int i = 0;i < size;i++)
+    	{
+    		r[i] = one2oneSymmetricInt();    	
+    	}
+    	return r;
+    }
+    
+    /* Helper methods to get arrays of channel ends ... */
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static <T> AltingChannelInput<T>[] getInputArray(One2OneChannel<T>[] c)
+    {
+        AltingChannelInput<T>[] in = (AltingChannelInput<T>[]) new AltingChannelInput[c.length];
+        for (int i = 0; i < c.length; i++)
+           in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static <T> SharedChannelInput<T>[] getInputArray(One2AnyChannel<T>[] c)
+    {
+        SharedChannelInput<T>[] in = (SharedChannelInput<T>[]) new SharedChannelInput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static <T> AltingChannelInput<T>[] getInputArray(Any2OneChannel<T>[] c)
+    {
+        AltingChannelInput<T>[] in = (AltingChannelInput<T>[]) new AltingChannelInput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+    
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static <T> SharedChannelInput<T>[] getInputArray(Any2AnyChannel<T>[] c)
+    {
+        SharedChannelInput<T>[] in = (SharedChannelInput<T>[]) new SharedChannelInput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static <T> ChannelOutput<T>[] getOutputArray(One2OneChannel<T>[] c)
+    {
+        ChannelOutput<T>[] in = (ChannelOutput<T>[]) new ChannelOutput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static <T> ChannelOutput<T>[] getOutputArray(One2AnyChannel<T>[] c)
+    {
+        ChannelOutput<T>[] in = (ChannelOutput<T>[]) new ChannelOutput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static <T> SharedChannelOutput<T>[] getOutputArray(Any2OneChannel<T>[] c)
+    {
+        SharedChannelOutput<T>[] in = (SharedChannelOutput<T>[]) new SharedChannelOutput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static <T> SharedChannelOutput<T>[] getOutputArray(Any2AnyChannel<T>[] c)
+    {
+        SharedChannelOutput<T>[] in = (SharedChannelOutput<T>[]) new SharedChannelOutput[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static AltingChannelInputInt[] getInputArray(One2OneChannelInt[] c)
+    {
+        AltingChannelInputInt[] in = new AltingChannelInputInt[c.length];
+        for (int i = 0; i < c.length; i++)
+           in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static SharedChannelInputInt[] getInputArray(One2AnyChannelInt[] c)
+    {
+        SharedChannelInputInt[] in = new SharedChannelInputInt[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static AltingChannelInputInt[] getInputArray(Any2OneChannelInt[] c)
+    {
+        AltingChannelInputInt[] in = new AltingChannelInputInt[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+    
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
     public static SharedChannelInputInt[] getInputArray(Any2AnyChannelInt[] c)
     {
         SharedChannelInputInt[] in = new SharedChannelInputInt[c.length];
@@ -1357,6 +2421,262 @@ public class Channel
             in[i] = c[i].out();
         return in;
     }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static AltingChannelInputLong[] getInputArray(One2OneChannelLong[] c)
+    {
+        AltingChannelInputLong[] in = new AltingChannelInputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+           in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static SharedChannelInputLong[] getInputArray(One2AnyChannelLong[] c)
+    {
+        SharedChannelInputLong[] in = new SharedChannelInputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static AltingChannelInputLong[] getInputArray(Any2OneChannelLong[] c)
+    {
+        AltingChannelInputLong[] in = new AltingChannelInputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+    
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static SharedChannelInputLong[] getInputArray(Any2AnyChannelLong[] c)
+    {
+        SharedChannelInputLong[] in = new SharedChannelInputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static ChannelOutputLong[] getOutputArray(One2OneChannelLong[] c)
+    {
+        ChannelOutputLong[] in = new ChannelOutputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static ChannelOutputLong[] getOutputArray(One2AnyChannelLong[] c)
+    {
+        ChannelOutputLong[] in = new ChannelOutputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static SharedChannelOutputLong[] getOutputArray(Any2OneChannelLong[] c)
+    {
+        SharedChannelOutputLong[] in = new SharedChannelOutputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static SharedChannelOutputLong[] getOutputArray(Any2AnyChannelLong[] c)
+    {
+        SharedChannelOutputLong[] in = new SharedChannelOutputLong[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static AltingChannelInputDouble[] getInputArray(One2OneChannelDouble[] c)
+    {
+        AltingChannelInputDouble[] in = new AltingChannelInputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+           in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static SharedChannelInputDouble[] getInputArray(One2AnyChannelDouble[] c)
+    {
+        SharedChannelInputDouble[] in = new SharedChannelInputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static AltingChannelInputDouble[] getInputArray(Any2OneChannelDouble[] c)
+    {
+        AltingChannelInputDouble[] in = new AltingChannelInputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+    
+    /**
+     * This extracts the <i>input-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>input-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>input-ends</i> from the given channel array.
+     */
+    public static SharedChannelInputDouble[] getInputArray(Any2AnyChannelDouble[] c)
+    {
+        SharedChannelInputDouble[] in = new SharedChannelInputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].in();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static ChannelOutputDouble[] getOutputArray(One2OneChannelDouble[] c)
+    {
+        ChannelOutputDouble[] in = new ChannelOutputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static ChannelOutputDouble[] getOutputArray(One2AnyChannelDouble[] c)
+    {
+        ChannelOutputDouble[] in = new ChannelOutputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static SharedChannelOutputDouble[] getOutputArray(Any2OneChannelDouble[] c)
+    {
+        SharedChannelOutputDouble[] in = new SharedChannelOutputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
+
+    /**
+     * This extracts the <i>output-ends</i> from the given channel array.
+     * Each element of the returned array is the <i>output-end</i> of the channel
+     * at the corresponding index in the given channel array.
+     *
+     * @param c an array of channels.
+     * @return the array of <i>output-ends</i> from the given channel array.
+     */
+    public static SharedChannelOutputDouble[] getOutputArray(Any2AnyChannelDouble[] c)
+    {
+        SharedChannelOutputDouble[] in = new SharedChannelOutputDouble[c.length];
+        for (int i = 0; i < c.length; i++)
+            in[i] = c[i].out();
+        return in;
+    }
     
     /* Methods that are the same as the Factory Methods (all now deprecated) */
 
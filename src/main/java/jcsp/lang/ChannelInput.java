@@ -157,4 +157,50 @@ public interface ChannelInput<T> extends Poisonable
      * a {@link #startRead <code>startRead</code>}.
      */
     public void endRead();
+
+    /**
+     * Reads a batch of Objects from the channel into a collection.
+     * This blocks until at least one <TT>Object</TT> is available (just like
+     * {@link #read <code>read</code>}) and then takes, without further blocking,
+     * as many of those already buffered in the channel as it can -- up to
+     * <code>max</code> -- adding them (in order) to the collection.
+     * <p>
+     * The buffered channels built by {@link Channel} with a
+     * {@link jcsp.util.ChannelDataStore ChannelDataStore} (poisonable or not)
+     * transfer the whole batch in a single synchronisation with the writer, and
+     * the ring-buffered ones take it without synchronising at all.  For other
+     * channels, a batch is a single <TT>Object</TT>.
+     * As with {@link #read <code>read</code>}, this may follow the selection of
+     * the channel's Guard by an {@link Alternative}.
+     * </p>
+     *
+     * @param collection the collection to which the Objects are added.
+     * @param max the maximum number of Objects to read.
+     * @return the number of Objects read (zero only if <code>max</code> is not positive).
+     */
+    public default int drainTo(java.util.Collection<? super T> collection, int max)
+    {
+        if (max <= 0)
+            return 0;
+        collection.add(read());
+        return 1;
+    }
+
+    /**
+     * Reads a batch of Objects from the channel into an array.
+     * This behaves as {@link #drainTo(java.util.Collection, int)}, storing the
+     * Objects from <code>values[offset]</code> onwards.
+     *
+     * @param values the array in which the Objects are stored.
+     * @param offset the index in <code>values</code> of the first Object read.
+     * @param max the maximum number of Objects to read.
+     * @return the number of Objects read (zero only if <code>max</code> is not positive).
+     */
+    public default int drainTo(T[] values, int offset, int max)
+    {
+        if (max <= 0)
+            return 0;
+        values[offset] = read();
+        return 1;
+    }
 }
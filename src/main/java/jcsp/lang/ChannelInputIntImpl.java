@@ -36,11 +36,21 @@ package jcsp.lang;
 	}
 
 	public int read() {
-		return channel.read();
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.read();
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public int startRead() {
-		return channel.startRead();
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.startRead();
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public void poison(int strength) {
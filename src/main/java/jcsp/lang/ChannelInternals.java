@@ -40,5 +40,28 @@ interface ChannelInternals<T> {
 	
 	public void readerPoison(int strength);
 	public void writerPoison(int strength);
+	
+	//Batch transfers -- channels with buffers override these:
+	public default int drainTo(java.util.Collection<? super T> collection, int max) {
+		if (max <= 0)
+			return 0;
+		collection.add(read());
+		return 1;
+	}
+	public default int drainTo(T[] values, int offset, int max) {
+		if (max <= 0)
+			return 0;
+		values[offset] = read();
+		return 1;
+	}
+	public default void writeAll(T[] values, int offset, int length) {
+		for (int i = 0; i < length; i++)
+			write(values[offset + i]);
+	}
+
+	//The object identifying this channel to the ProcessRegistry -- wrappers return the channel they wrap:
+	public default Object resource() {
+		return this;
+	}
 
 }
@@ -41,5 +41,10 @@ package jcsp.lang;
 	public void readerPoison(int strength);
 	public void writerPoison(int strength);
 
+	//The object identifying this channel to the ProcessRegistry -- wrappers return the channel they wrap:
+	public default Object resource() {
+		return this;
+	}
+
 }
 
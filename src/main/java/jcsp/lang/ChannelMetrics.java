@@ -0,0 +1,343 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Runtime metrics for a channel: messages transferred, reader and writer
+ * blocking times, buffer occupancy and poison events.
+ * <H2>Description</H2>
+ * Metrics are opt-in, per channel.  A channel built by one of the {@link Channel}
+ * factories is metered by passing it through {@link Channel#metered(String, One2OneChannel)}
+ * (or its <I>any-one</I> counterpart), which returns a channel whose ends record into a
+ * <TT>ChannelMetrics</TT> of the given name:
+ * <PRE>
+ *   final Any2OneChannel requests = Channel.metered ("requests", Channel.any2one (new Buffer (64)));
+ * </PRE>
+ * Metering is only done while it is {@link #setEnabled enabled} (by this method,
+ * or by setting the <TT>jcsp.metrics</TT> system property to <TT>true</TT>).
+ * Otherwise, <TT>metered</TT> returns the channel it is given, so that disabled
+ * metrics cost nothing.
+ * <P>
+ * The metrics of every metered channel can be pulled from here (see {@link #get(String)}
+ * and {@link #getAll()}) and are also registered with the platform MBean server,
+ * under the name <TT>jcsp.lang:type=ChannelMetrics,name=</TT><I>name</I>, as
+ * {@link ChannelMetricsMXBean}s.  Names are made unique by a numeric suffix if need be.
+ * When a metered channel is finished with, its metrics should be {@link #unregister unregistered}.
+ * <P>
+ * Reader and writer wait times are the times spent in <TT>read</TT> (or <TT>startRead</TT>)
+ * and <TT>write</TT>, including the synchronisation with the other end.  They are kept
+ * both as totals and as histograms with power-of-two buckets of nanoseconds.  The
+ * occupancy is the number of messages offered by writers but not yet taken by readers:
+ * for a buffered channel, this is the number of messages buffered (plus any writers
+ * blocked on a full buffer).
+ * <P>
+ * <I>Note</I>: only the metered ends themselves are timed.  A reader that waits in an
+ * {@link Alternative} (as a server usually does) is not timed while it waits there,
+ * only for the <TT>read</TT> that follows its selection, so its reader wait time shows
+ * little more than the transfer itself.  The writers' wait times and the occupancy
+ * show how busy such a channel is.
+ *
+ * @see Channel
+ * @see ChannelMetricsMXBean
+ */
+public final class ChannelMetrics implements ChannelMetricsMXBean
+{
+    /** The number of buckets in each wait-time histogram. */
+    public static final int BUCKETS = 48;
+
+    private static volatile boolean enabled = Boolean.getBoolean("jcsp.metrics");
+
+    private static final ConcurrentHashMap<String, ChannelMetrics> registry =
+            new ConcurrentHashMap<String, ChannelMetrics>();
+
+    private final String name;
+
+    private final ObjectName objectName;
+
+    private final LongAdder messages = new LongAdder();
+
+    private final LongAdder poisonEvents = new LongAdder();
+
+    /** Set once poison has been recorded, so that refused operations are not counted again. */
+    private final AtomicBoolean poisonSeen = new AtomicBoolean();
+
+    private final LongAdder readerWaitNanos = new LongAdder();
+
+    private final LongAdder writerWaitNanos = new LongAdder();
+
+    private final AtomicLongArray readerHistogram = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLongArray writerHistogram = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong occupancy = new AtomicLong();
+
+    private final AtomicLong highWaterMark = new AtomicLong();
+
+    private ChannelMetrics(final String name)
+    {
+        this.name = name;
+        ObjectName on = null;
+        try
+        {
+            on = new ObjectName("jcsp.lang:type=ChannelMetrics,name=" + ObjectName.quote(name));
+        }
+        catch (JMException e)
+        {
+            // cannot happen for a quoted name - leave it unregistered
+        }
+        this.objectName = on;
+    }
+
+    /**
+     * Enables or disables the metering of channels subsequently passed to
+     * {@link Channel#metered(String, One2OneChannel) Channel.metered}.
+     * Channels already metered stay metered.
+     *
+     * @param enable true to meter channels.
+     */
+    public static void setEnabled(final boolean enable)
+    {
+        enabled = enable;
+    }
+
+    /**
+     * Returns whether channels are being metered.
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Creates and registers the metrics for a newly metered channel.
+     */
+    static ChannelMetrics create(final String name)
+    {
+        if (name == null)
+            throw new IllegalArgumentException("*** Attempt to meter a channel with a null name");
+        ChannelMetrics metrics = new ChannelMetrics(name);
+        int suffix = 1;
+        while (registry.putIfAbsent(metrics.name, metrics) != null)
+            metrics = new ChannelMetrics(name + "#" + (suffix++));
+        if (metrics.objectName != null)
+        {
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, metrics.objectName);
+            }
+            catch (JMException e)
+            {
+                // still available through the pull API
+            }
+            catch (SecurityException e)
+            {
+                // still available through the pull API
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics registered under the given name (or null if there are none).
+     *
+     * @param name the name of the metered channel.
+     */
+    public static ChannelMetrics get(final String name)
+    {
+        return registry.get(name);
+    }
+
+    /**
+     * Returns (a copy of the collection of) the metrics of all registered metered channels.
+     */
+    public static Collection<ChannelMetrics> getAll()
+    {
+        return new ArrayList<ChannelMetrics>(registry.values());
+    }
+
+    /**
+     * Removes these metrics from the registry and the MBean server.  The channel
+     * still records into them, but they are no longer reachable from here.
+     */
+    public void unregister()
+    {
+        registry.remove(name, this);
+        if (objectName != null)
+        {
+            try
+            {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(objectName))
+                    server.unregisterMBean(objectName);
+            }
+            catch (JMException e)
+            {
+                // already gone
+            }
+        }
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public long getMessages()
+    {
+        return messages.sum();
+    }
+
+    public long getPoisonEvents()
+    {
+        return poisonEvents.sum();
+    }
+
+    public long getOccupancy()
+    {
+        return occupancy.get();
+    }
+
+    public long getOccupancyHighWaterMark()
+    {
+        return highWaterMark.get();
+    }
+
+    public long getReaderWaitNanos()
+    {
+        return readerWaitNanos.sum();
+    }
+
+    public long getWriterWaitNanos()
+    {
+        return writerWaitNanos.sum();
+    }
+
+    public long[] getReaderWaitHistogram()
+    {
+        return snapshot(readerHistogram);
+    }
+
+    public long[] getWriterWaitHistogram()
+    {
+        return snapshot(writerHistogram);
+    }
+
+    public void reset()
+    {
+        messages.reset();
+        poisonEvents.reset();
+        readerWaitNanos.reset();
+        writerWaitNanos.reset();
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            readerHistogram.set(i, 0);
+            writerHistogram.set(i, 0);
+        }
+        highWaterMark.set(occupancy.get());
+    }
+
+    public String toString()
+    {
+        return "ChannelMetrics[" + name + ": messages=" + getMessages() + ", occupancy=" + getOccupancy()
+                + ", highWaterMark=" + getOccupancyHighWaterMark() + ", readerWaitNanos=" + getReaderWaitNanos()
+                + ", writerWaitNanos=" + getWriterWaitNanos() + ", poisonEvents=" + getPoisonEvents() + "]";
+    }
+
+    private static long[] snapshot(final AtomicLongArray histogram)
+    {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = histogram.get(i);
+        return counts;
+    }
+
+    private static int bucket(final long nanos)
+    {
+        final int b = 63 - Long.numberOfLeadingZeros(nanos | 1L);
+        return (b < BUCKETS) ? b : BUCKETS - 1;
+    }
+
+    /** Records messages offered by a writer. */
+    void offered(final int count)
+    {
+        final long n = occupancy.addAndGet(count);
+        long high = highWaterMark.get();
+        while ((n > high) && !highWaterMark.compareAndSet(high, n))
+            high = highWaterMark.get();
+    }
+
+    /** Records messages taken by a reader. */
+    void taken(final int n)
+    {
+        occupancy.addAndGet(-n);
+        messages.add(n);
+    }
+
+    /** Records offered messages that were not written (the channel was poisoned). */
+    void withdrawn(final int count)
+    {
+        occupancy.addAndGet(-count);
+    }
+
+    void readerWaited(final long nanos)
+    {
+        readerWaitNanos.add(nanos);
+        readerHistogram.incrementAndGet(bucket(nanos));
+    }
+
+    void writerWaited(final long nanos)
+    {
+        writerWaitNanos.add(nanos);
+        writerHistogram.incrementAndGet(bucket(nanos));
+    }
+
+    /** Records poison injected at either end. */
+    void poisoned()
+    {
+        poisonSeen.set(true);
+        poisonEvents.increment();
+    }
+
+    /**
+     * Records a read or write refused because the channel is poisoned.  This
+     * only counts if no poison has been recorded yet (the channel was poisoned
+     * through an unmetered end), so that each poisoning counts once, however
+     * many operations it refuses.
+     */
+    void refused()
+    {
+        if (poisonSeen.compareAndSet(false, true))
+            poisonEvents.increment();
+    }
+}
@@ -0,0 +1,86 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+/**
+ * The management interface of a {@link ChannelMetrics}, under which each
+ * metered channel is registered with the platform MBean server.
+ *
+ * @see ChannelMetrics
+ */
+public interface ChannelMetricsMXBean
+{
+    /**
+     * Returns the name given to the metered channel.
+     */
+    public String getName();
+
+    /**
+     * Returns the number of messages transferred (read) through the channel.
+     */
+    public long getMessages();
+
+    /**
+     * Returns the number of poison events: poison injected at either end,
+     * or (once) reads or writes refused because the channel was poisoned by
+     * other means.
+     */
+    public long getPoisonEvents();
+
+    /**
+     * Returns the number of messages currently offered to the channel but not yet
+     * taken by a reader (those held in its buffer, plus any being written).
+     */
+    public long getOccupancy();
+
+    /**
+     * Returns the highest value reached by {@link #getOccupancy()}.
+     */
+    public long getOccupancyHighWaterMark();
+
+    /**
+     * Returns the total time (in nanoseconds) readers have spent in reads (not
+     * including any wait in an Alternative before a read).
+     */
+    public long getReaderWaitNanos();
+
+    /**
+     * Returns the total time (in nanoseconds) writers have spent in writes.
+     */
+    public long getWriterWaitNanos();
+
+    /**
+     * Returns the histogram of reader wait times: element <TT>i</TT> counts the reads
+     * that took at least 2<sup>i</sup> (and less than 2<sup>i+1</sup>) nanoseconds.
+     */
+    public long[] getReaderWaitHistogram();
+
+    /**
+     * Returns the histogram of writer wait times, with the same buckets as
+     * {@link #getReaderWaitHistogram()}.
+     */
+    public long[] getWriterWaitHistogram();
+
+    /**
+     * Clears all the counts (except the current occupancy).
+     */
+    public void reset();
+}
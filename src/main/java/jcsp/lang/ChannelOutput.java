@@ -73,4 +73,23 @@ public interface ChannelOutput<T> extends Poisonable
      * @param object the object to write to the channel
      */
     public void write(T object);
+
+    /**
+     * Write a batch of Objects to the channel.
+     * This has the same effect as writing <code>values[offset]</code>
+     * to <code>values[offset + length - 1]</code> in turn, but the buffered channels
+     * built by {@link Channel} with a {@link jcsp.util.ChannelDataStore ChannelDataStore}
+     * (poisonable or not) deposit as many as they can hold in a single
+     * synchronisation with the reader (waking it at most once for each such deposit).
+     * Other channels write the <code>Object</code>s one at a time.
+     *
+     * @param values the array holding the Objects to write.
+     * @param offset the index in <code>values</code> of the first Object to write.
+     * @param length the number of Objects to write.
+     */
+    public default void writeAll(T[] values, int offset, int length)
+    {
+        for (int i = 0; i < length; i++)
+            write(values[offset + i]);
+    }
 }
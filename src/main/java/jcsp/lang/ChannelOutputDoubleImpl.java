@@ -0,0 +1,48 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+    class ChannelOutputDoubleImpl implements ChannelOutputDouble {
+	
+	private ChannelInternalsDouble channel;
+	private int immunity;
+	
+	ChannelOutputDoubleImpl(ChannelInternalsDouble _channel, int _immunity) {
+		channel = _channel;
+		immunity = _immunity;
+	}
+
+	public void write(double object) {
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.WRITE);
+		try {
+			channel.write(object);
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
+	}
+
+	public void poison(int strength) {
+		if (strength > immunity) {
+			channel.writerPoison(strength);
+		}
+	}
+
+}
@@ -31,8 +31,12 @@ package jcsp.lang;
 	}
 
 	public void write(int object) {
-		channel.write(object);
-
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.WRITE);
+		try {
+			channel.write(object);
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public void poison(int strength) {
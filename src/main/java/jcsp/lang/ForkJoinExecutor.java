@@ -0,0 +1,198 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is an <TT>Executor</TT> that runs processes on a work-stealing
+ * <TT>java.util.concurrent.ForkJoinPool</TT>.
+ * <H2>Description</H2>
+ * A <TT>ForkJoinExecutor</TT> may be given to a {@link Parallel} (or installed
+ * as the default with {@link Parallel#setDefaultExecutor(Executor)}).  Each
+ * run of a <TT>Parallel</TT> on a worker of this executor's pool runs the last
+ * process on that worker and <I>forks</I> the others on to the worker's own
+ * queue, from where idle workers steal them; the worker then <I>joins</I> them,
+ * running any that have not been stolen itself.  So a nested <TT>Parallel</TT>
+ * costs no more than the tasks it forks, and no thread is created or parked per
+ * process, which makes this well suited to short-lived fan-out that is run over
+ * and over again -- for example, the internal <TT>Parallel</TT> of
+ * {@link jcsp.plugNplay.Delta}, which is run once per input.  A
+ * <TT>Parallel</TT> run from any other thread is invoked as a whole on the pool,
+ * and its invoking thread waits (uninterruptibly) for it to terminate.
+ * <P>
+ * A worker that waits for a forked process that has been stolen, and cannot
+ * find other work, may be replaced by a spare worker.  The pool is <I>not</I>
+ * told when a process blocks on a channel,
+ * barrier or alternative.  Processes that communicate only with processes
+ * outside the pool (as in a <TT>Delta</TT>) are always safe; networks in which
+ * more processes run on the pool (and block on each other) than the pool has
+ * workers may deadlock.  Such networks should be given a larger
+ * <TT>parallelism</TT>, or run on {@link ParThread}s or a
+ * {@link VirtualThreadExecutor}.
+ *
+ * @see Parallel#setExecutor(Executor)
+ * @see VirtualThreadExecutor
+ */
+public class ForkJoinExecutor implements Executor
+{
+    /** Distinguishes the pools of different executors in their worker names */
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    /** The pool running the processes */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new <TT>ForkJoinExecutor</TT> with one worker per
+     * available processor.
+     */
+    public ForkJoinExecutor()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new <TT>ForkJoinExecutor</TT> whose pool has the given
+     * target parallelism.  Its workers are daemon threads.
+     *
+     * @param parallelism the number of workers normally active in the pool.
+     *
+     * @throws IllegalArgumentException if <TT>parallelism</TT> is not positive.
+     */
+    public ForkJoinExecutor(final int parallelism)
+    {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException
+                ("*** Attempt to create a ForkJoinExecutor with parallelism " + parallelism + "\n");
+        final String prefix = "jcsp-fj-" + poolNumber.incrementAndGet() + "-";
+        final ForkJoinPool.ForkJoinWorkerThreadFactory factory =
+            new ForkJoinPool.ForkJoinWorkerThreadFactory()
+            {
+                private final AtomicInteger workerNumber = new AtomicInteger();
+
+                public ForkJoinWorkerThread newThread(final ForkJoinPool pool)
+                {
+                    final ForkJoinWorkerThread thread =
+                        ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName(prefix + workerNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+        // asyncMode: forked processes are taken in the order in which they were forked
+        this.pool = new ForkJoinPool(parallelism, factory, null, true);
+    }
+
+    /**
+     * Constructs a new <TT>ForkJoinExecutor</TT> running processes on the
+     * given pool.
+     *
+     * @param pool the pool to use.
+     */
+    public ForkJoinExecutor(final ForkJoinPool pool)
+    {
+        if (pool == null)
+            throw new IllegalArgumentException
+                ("*** Attempt to create a ForkJoinExecutor with a null pool\n");
+        this.pool = pool;
+    }
+
+    /**
+     * @return the pool running the processes.
+     */
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Runs the given task on the pool -- forking it on to the invoking
+     * worker's own queue if the invoking thread belongs to the pool.
+     *
+     * @param task the task to run.
+     */
+    public void execute(final Runnable task)
+    {
+        if (ForkJoinTask.getPool() == pool)
+            ForkJoinTask.adapt(task).fork();
+        else
+            pool.execute(task);
+    }
+
+    /**
+     * Runs the processes of a PAR as tasks of the pool and waits for them to
+     * terminate.  If the invoking thread is a worker of the pool, it runs the
+     * last process itself and forks the others on to its own queue; while it
+     * waits, it runs any that have not been stolen, or other tasks of the pool.
+     * Any other thread invokes the whole PAR on the pool and waits for it.
+     *
+     * @param tasks the tasks running all but the last process.
+     * @param last runs the last process.
+     */
+    void invokeAll(final ParTask[] tasks, final Runnable last)
+    {
+        final ForkJoinTask<?>[] all = new ForkJoinTask<?>[tasks.length + 1];
+        all[0] = ForkJoinTask.adapt(last);
+        for (int i = 0; i < tasks.length; i++)
+            all[i + 1] = new Forked(tasks[i]);
+        if (ForkJoinTask.getPool() == pool)
+            ForkJoinTask.invokeAll(all);
+        else
+            pool.invoke(new RecursiveAction()
+            {
+                protected void compute()
+                {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+    }
+
+    /**
+     * Runs the process of a <TT>ParTask</TT> as a task of the pool.
+     */
+    private static final class Forked extends RecursiveAction
+    {
+        private final ParTask task;
+
+        Forked(final ParTask task)
+        {
+            this.task = task;
+        }
+
+        protected void compute()
+        {
+            task.runProcess();
+        }
+    }
+
+    /**
+     * Shuts down the pool once the processes already submitted have terminated.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+}
@@ -63,6 +63,49 @@ public abstract class Guard
      * @return true if and only if the event was ready
      */
     abstract boolean disable();
+
+    /**
+     * Returns true if this guard may be left enabled from one selection to the
+     * next, as it is by a {@link ScalableAlternative}.  This holds for the
+     * single-reader channel inputs, which keep (or wake once) the Alternative
+     * passed to {@link #enable(Alternative)} until disabled; it does not for
+     * timeouts, skips or barriers, which must be enabled afresh each time.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative classes</I>
+     *
+     * @return true if and only if the guard may stay enabled between selections
+     */
+    boolean mayStayEnabled()
+    {
+        return false;
+    }
+
+    /**
+     * Returns the coordinate of the barrier family to which this guard belongs, if it
+     * is (or is built on) an {@link AltingBarrier}.  Alternatives use this to share
+     * the coordinate of all the barriers among their guards.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative classes</I>
+     *
+     * @return the barrier coordinate, or null if this guard is not a barrier
+     */
+    AltingBarrierCoordinate coordinate()
+    {
+        return null;
+    }
+
+    /**
+     * Returns the channel (or CALL channel) this guard waits on, for the
+     * {@link ProcessRegistry}, or null if it is not a channel input.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative classes</I>
+     *
+     * @return the channel, or null
+     */
+    Object waitResource()
+    {
+        return null;
+    }
     
     /**
      * Schedules the process performing the given Alternative to run again.
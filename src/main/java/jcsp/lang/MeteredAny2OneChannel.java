@@ -0,0 +1,49 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+/**
+ * An <i>any-one</i> channel whose ends record into a {@link ChannelMetrics}.
+ *
+ * @see Channel#metered(String, Any2OneChannel)
+ */
+class MeteredAny2OneChannel<T> implements Any2OneChannel<T>
+{
+    private final AltingChannelInput<T> in;
+
+    private final SharedChannelOutput<T> out;
+
+    MeteredAny2OneChannel(final Any2OneChannel<T> channel, final ChannelMetrics metrics)
+    {
+        this.in = new MeteredChannelInput<T>(channel.in(), metrics);
+        this.out = new MeteredChannelOutput<T>(channel.out(), metrics);
+    }
+
+    public AltingChannelInput<T> in()
+    {
+        return in;
+    }
+
+    public SharedChannelOutput<T> out()
+    {
+        return out;
+    }
+}
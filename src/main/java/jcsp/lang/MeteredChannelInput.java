@@ -0,0 +1,155 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.util.Collection;
+
+/**
+ * The reading end of a metered channel: delegates to the real end,
+ * recording into the channel's {@link ChannelMetrics}.
+ */
+class MeteredChannelInput<T> extends AltingChannelInput<T>
+{
+    private final AltingChannelInput<T> in;
+
+    private final ChannelMetrics metrics;
+
+    MeteredChannelInput(final AltingChannelInput<T> in, final ChannelMetrics metrics)
+    {
+        this.in = in;
+        this.metrics = metrics;
+    }
+
+    public T read()
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            final T value = in.read();
+            metrics.taken(1);
+            return value;
+        }
+        catch (PoisonException e)
+        {
+            metrics.refused();
+            throw e;
+        }
+        finally
+        {
+            metrics.readerWaited(System.nanoTime() - start);
+        }
+    }
+
+    public T startRead()
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            return in.startRead();
+        }
+        catch (PoisonException e)
+        {
+            metrics.refused();
+            throw e;
+        }
+        finally
+        {
+            metrics.readerWaited(System.nanoTime() - start);
+        }
+    }
+
+    public void endRead()
+    {
+        in.endRead();
+        metrics.taken(1);
+    }
+
+    public int drainTo(final Collection<? super T> collection, final int max)
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            final int n = in.drainTo(collection, max);
+            metrics.taken(n);
+            return n;
+        }
+        catch (PoisonException e)
+        {
+            metrics.refused();
+            throw e;
+        }
+        finally
+        {
+            metrics.readerWaited(System.nanoTime() - start);
+        }
+    }
+
+    public int drainTo(final T[] values, final int offset, final int max)
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            final int n = in.drainTo(values, offset, max);
+            metrics.taken(n);
+            return n;
+        }
+        catch (PoisonException e)
+        {
+            metrics.refused();
+            throw e;
+        }
+        finally
+        {
+            metrics.readerWaited(System.nanoTime() - start);
+        }
+    }
+
+    public boolean pending()
+    {
+        return in.pending();
+    }
+
+    boolean enable(final Alternative alt)
+    {
+        return in.enable(alt);
+    }
+
+    boolean disable()
+    {
+        return in.disable();
+    }
+
+    boolean mayStayEnabled()
+    {
+        return in.mayStayEnabled();
+    }
+
+    Object waitResource()
+    {
+        return in.waitResource();
+    }
+
+    public void poison(final int strength)
+    {
+        metrics.poisoned();
+        in.poison(strength);
+    }
+}
@@ -0,0 +1,75 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+/**
+ * The writing end of a metered channel: delegates to the real end,
+ * recording into the channel's {@link ChannelMetrics}.
+ */
+class MeteredChannelOutput<T> implements SharedChannelOutput<T>
+{
+    private final ChannelOutput<T> out;
+
+    private final ChannelMetrics metrics;
+
+    MeteredChannelOutput(final ChannelOutput<T> out, final ChannelMetrics metrics)
+    {
+        this.out = out;
+        this.metrics = metrics;
+    }
+
+    public void write(final T value)
+    {
+        metrics.offered(1);
+        final long start = System.nanoTime();
+        try
+        {
+            out.write(value);
+        }
+        catch (PoisonException e)
+        {
+            metrics.withdrawn(1);
+            metrics.refused();
+            throw e;
+        }
+        finally
+        {
+            metrics.writerWaited(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Writes the batch one message at a time, so that a batch cut short by
+     * poison withdraws only the messages not written (the real end gives no
+     * count of those it transferred before the poison).
+     */
+    public void writeAll(final T[] values, final int offset, final int length)
+    {
+        for (int i = 0; i < length; i++)
+            write(values[offset + i]);
+    }
+
+    public void poison(final int strength)
+    {
+        metrics.poisoned();
+        out.poison(strength);
+    }
+}
@@ -20,22 +20,29 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
     /**
  * A package-visible class that implements a straightforward mutex, for use by 
- * One2AnyChannel and Any2AnyChannel
+ * One2AnyChannel and Any2AnyChannel.  It blocks on a <TT>ReentrantLock</TT>
+ * rather than a Java monitor, so that a waiting virtual thread does not pin its carrier.
  * 
  * @author N.C.C. Brown
  *
  */
 class Mutex {
 
+  private final ReentrantLock lock = new ReentrantLock ();
+  private final Condition released = lock.newCondition ();
   private boolean claimed = false;
   
   public void claim() {
-    synchronized (this) {
+    lock.lock ();
+    try {
       while (claimed) {
         try {
-          wait();
+          released.await ();
         } catch (InterruptedException e) {
           throw new ProcessInterruptedException(
               "*** Thrown from Mutex.claim()\n" + e.toString ()
@@ -43,13 +50,18 @@ class Mutex {
         }        
       }
       claimed = true;
-    } 
+    } finally {
+      lock.unlock ();
+    }
   }
   
   public void release() {
-    synchronized (this) {
+    lock.lock ();
+    try {
       claimed = false;
-      notify();
+      released.signal ();
+    } finally {
+      lock.unlock ();
     }
   }
 
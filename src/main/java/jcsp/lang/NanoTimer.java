@@ -0,0 +1,173 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+package jcsp.lang;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This is a {@link Guard} for setting high-resolution timeouts in an {@link Alternative}.
+ * <H2>Description</H2>
+ * <TT>NanoTimer</TT> is the nanosecond counterpart of {@link CSTimer}: it provides
+ * the same operations (a guard with an <I>absolute</I> alarm time, committed
+ * {@link #after <TT>after</TT>} and {@link #sleep <TT>sleep</TT>} timeouts and
+ * the current time), but its times are the values of
+ * {@link System#nanoTime() <TT>System.nanoTime</TT>}.
+ * <P>
+ * That clock is monotonic, so timeouts are not disturbed by adjustments to the
+ * wall-clock time, and its resolution allows periods well below a millisecond.
+ * Unlike a <TT>CSTimer</TT>, no {@link SpuriousLog#setEarlyTimeout <i>early timeout</i>}
+ * slack is allowed: a <TT>NanoTimer</TT> guard is only ready once its alarm time has
+ * been reached.  Committed timeouts park the process until just before the alarm
+ * time and then yield until it is reached, which keeps the jitter of a regular
+ * sequence of events down to a few microseconds.
+ * <P>
+ * As with <TT>CSTimer</TT>, <I>different</I> <TT>NanoTimer</TT>s must be used by
+ * <I>different</I> processes.  Note that, as with <TT>System.nanoTime</TT>, the
+ * times are only meaningful relative to each other: they should be compared by
+ * subtraction (<TT>t1 - t0 &lt; 0</TT>), never directly.
+ * <H2>Example</H2>
+ * <PRE>
+ *   final NanoTimer tim = new NanoTimer ();
+ *   long timeout = tim.read ();       // read the (absolute) time once only
+ *   while (true) {
+ *     out.write (sample ());
+ *     timeout += 250000;              // every 250 microseconds
+ *     tim.after (timeout);
+ *   }
+ * </PRE>
+ *
+ * @see CSTimer
+ * @see Alternative
+ * @see Guard
+ */
+
+public class NanoTimer extends Guard
+{
+    /**
+     * The time (in nanoseconds) before an alarm at which a committed timeout
+     * stops parking and starts yielding.
+     */
+    static final long YIELD_NANOS = 50000;
+
+    /**
+     * The absolute timeout value set for the <TT>Alternative</TT>.  Initially
+     * the time of construction, which is in the past.
+     */
+    private long nanos = System.nanoTime();
+
+    /**
+     * Sets the absolute timeout value that will trigger an <TT>Alternative</TT>
+     * <I>select</I> operation (when this <TT>NanoTimer</TT> is one of the guards
+     * with which that <TT>Alternative</TT> was constructed).
+     *
+     * @param nanos the absolute timeout value (in terms of {@link #read()}).
+     */
+    public void setAlarm(final long nanos)
+    {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Returns the alarm value that has been set by the previous call to
+     * {@link #setAlarm(long)}.
+     *
+     * @return the alarm value.
+     */
+    public long getAlarm()
+    {
+        return nanos;
+    }
+
+    /**
+     * Returns the current time in nanoseconds (<TT>System.nanoTime</TT>).
+     *
+     * @return the current time.
+     */
+    public long read()
+    {
+        return System.nanoTime();
+    }
+
+    /**
+     * Puts the process to sleep until the given absolute time.
+     *
+     * @param nanos the absolute time (in terms of {@link #read()}) at which to wake up.
+     */
+    public void after(final long nanos)
+    {
+        awaitNanos(nanos, "*** Thrown from NanoTimer.after (long)\n");
+    }
+
+    /**
+     * Puts the process to sleep for the given number of nanoseconds.
+     *
+     * @param nanos the delay.
+     */
+    public void sleep(final long nanos)
+    {
+        if (nanos > 0)
+            awaitNanos(System.nanoTime() + nanos, "*** Thrown from NanoTimer.sleep (long)\n");
+    }
+
+    /**
+     * Blocks until the given absolute time, parking until just before it.
+     */
+    private static void awaitNanos(final long deadline, final String where)
+    {
+        long delay;
+        while ((delay = deadline - System.nanoTime()) > 0)
+        {
+            if (delay > YIELD_NANOS)
+                LockSupport.parkNanos(delay - YIELD_NANOS);
+            else
+                Thread.yield();
+            if (Thread.interrupted())
+                throw new ProcessInterruptedException(where);
+        }
+    }
+
+    /**
+     * Waits up to the given number of nanoseconds for a guard to become ready.
+     * This is the implementation of the timed <TT>pending</TT> operations of the
+     * alting channel ends.
+     *
+     * @param guard the guard.
+     * @param timeout the maximum time to wait (in nanoseconds).
+     * @return true if and only if the guard became ready in time.
+     */
+    static boolean awaitReady(final Guard guard, final long timeout)
+    {
+        final NanoTimer tim = new NanoTimer();
+        tim.setAlarm(tim.read() + timeout);
+        return new Alternative(new Guard[] {guard, tim}).priSelect() == 0;
+    }
+
+    boolean enable(Alternative alt)
+    {
+        if (nanos - System.nanoTime() <= 0)
+            return true;
+        alt.setTimeoutNanos(nanos);
+        return false;
+    }
+
+    boolean disable()
+    {
+        return nanos - System.nanoTime() <= 0;
+    }
+}
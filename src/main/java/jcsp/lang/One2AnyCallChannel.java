@@ -193,8 +193,16 @@ public abstract class One2AnyCallChannel implements ChannelAccept, Serializable
     public synchronized int accept(CSProcess server)
     {
         this.server = server;
-        c.read(); // ready to ACCEPT the CALL
-        c.read(); // wait until the CALL is complete
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.READ);
+        try
+        {
+            c.read(); // ready to ACCEPT the CALL
+            c.read(); // wait until the CALL is complete
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
         return selected;
     }
 
@@ -207,7 +215,15 @@ public abstract class One2AnyCallChannel implements ChannelAccept, Serializable
      */
     protected void join()
     {
-        c.write(null);
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.WRITE);
+        try
+        {
+            c.write(null);
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
     }
 
     /**
@@ -92,6 +92,30 @@ class One2AnyImpl<T> implements One2AnyChannel<T>, ChannelInternals<T> {
 		
 	}
 
+	public int drainTo(java.util.Collection<? super T> collection, int max) {
+		readMutex.claim();
+		try
+		{
+			return channel.drainTo(collection, max);
+		}
+		finally
+		{
+			readMutex.release();
+		}
+	}
+
+	public int drainTo(T[] values, int offset, int max) {
+		readMutex.claim();
+		try
+		{
+			return channel.drainTo(values, offset, max);
+		}
+		finally
+		{
+			readMutex.release();
+		}
+	}
+
 	//begin never used
 	public void write(T obj) {
 		channel.write(obj);
@@ -102,4 +126,8 @@ class One2AnyImpl<T> implements One2AnyChannel<T>, ChannelInternals<T> {
 	}
 	//end never used
 
+	public Object resource() {
+		return channel.resource();
+	}
+
 }
@@ -102,4 +102,8 @@ package jcsp.lang;
 	}
 	//end never used
 
+	public Object resource() {
+		return channel.resource();
+	}
+
 }
@@ -0,0 +1,109 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+    class One2AnyLongImpl implements One2AnyChannelLong, ChannelInternalsLong {
+
+	private ChannelInternalsLong channel;
+	/** The mutex on which readers must synchronize */
+    private final Mutex readMutex = new Mutex();
+    
+    One2AnyLongImpl(ChannelInternalsLong _channel) {
+		channel = _channel;
+	}
+	
+	public SharedChannelInputLong in() {
+		return new SharedChannelInputLongImpl(this,0);
+	}
+
+	public ChannelOutputLong out() { 
+		return new ChannelOutputLongImpl(channel,0);
+	}
+
+	public void endRead() {
+		channel.endRead();
+		readMutex.release();
+
+	}
+
+	public long read() {
+		readMutex.claim();
+		//A poison exception might be thrown, hence the try/finally:		
+		try
+		{
+			return channel.read();
+		}
+		finally
+		{
+			readMutex.release();		
+		}		
+	}
+
+	//begin never used:
+	public boolean readerDisable() {
+		return false;
+	}
+
+	public boolean readerEnable(Alternative alt) {
+		return false;
+	}
+
+	public boolean readerPending() {
+		return false;
+	}
+	//end never used
+
+	public void readerPoison(int strength) {
+		readMutex.claim();
+		channel.readerPoison(strength);
+		readMutex.release();
+	}
+
+	public long startRead() {
+		readMutex.claim();		
+		try
+		{
+			return channel.startRead();
+		}
+		catch (RuntimeException e)
+		{
+			channel.endRead();
+			readMutex.release();
+			throw e;
+		}
+		
+	}
+
+	//begin never used
+	public void write(long n) {
+		channel.write(n);
+	}
+
+	public void writerPoison(int strength) { 
+		channel.writerPoison(strength);
+	}
+	//end never used
+
+	public Object resource() {
+		return channel.resource();
+	}
+
+}
@@ -352,8 +352,16 @@ public abstract class One2OneCallChannel extends AltingChannelAccept implements
     public int accept(CSProcess server)
     {
         this.server = server;
-        c.read(); // ready to ACCEPT the CALL
-        c.read(); // wait until the CALL is complete
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.READ);
+        try
+        {
+            c.read(); // ready to ACCEPT the CALL
+            c.read(); // wait until the CALL is complete
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
         return selected;
     }
 
@@ -366,7 +374,15 @@ public abstract class One2OneCallChannel extends AltingChannelAccept implements
      */
     protected void join()
     {
-        c.write(null);
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.WRITE);
+        try
+        {
+            c.write(null);
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
     }
 
     /**
@@ -396,4 +412,12 @@ public abstract class One2OneCallChannel extends AltingChannelAccept implements
     {
         return c.readerDisable();
     }
+
+    /**
+     * This is one of the {@link Guard} methods needed by the {@link ProcessRegistry}.
+     */
+    Object waitResource()
+    {
+        return this;
+    }
 }
@@ -20,6 +20,9 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
     /**
  * This implements a one-to-one object channel.
  * <H2>Description</H2>
@@ -45,6 +48,11 @@ package jcsp.lang;
  * policies) etc..
  * Standard examples are given in the <TT>jcsp.util</TT> package, but
  * <I>careful users</I> may write their own.
+ * <P>
+ * <I>Implementation note</I>: reader and writer synchronise on a
+ * <TT>ReentrantLock</TT> rather than a Java monitor, so that processes running on
+ * virtual threads (see {@link VirtualThreadExecutor}) do not pin their carrier
+ * threads while blocked on this channel.
  *
  * @see Alternative
  * @see Any2OneChannelImpl
@@ -58,8 +66,11 @@ package jcsp.lang;
 
 class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 {
-	/** The monitor synchronising reader and writer on this channel */
-	  private Object rwMonitor = new Object ();
+	/** The lock synchronising reader and writer on this channel */
+	  private final ReentrantLock rwLock = new ReentrantLock ();
+
+	  /** The condition on which the reader or writer waits */
+	  private final Condition rwCondition = rwLock.newCondition ();
 
 	  /** The (invisible-to-users) buffer used to store the data for the channel */
 	  private T hold;
@@ -111,7 +122,8 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	   * @param value the object to write to the channel.
 	   */
   public void write(T value) {
-    synchronized (rwMonitor) {      
+    rwLock.lock ();
+    try {
       hold = value;
       if (empty) {
         empty = false;
@@ -120,21 +132,23 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
         }
       } else {
         empty = true;
-        rwMonitor.notify();
+        rwCondition.signal ();
       }
       try {
-        rwMonitor.wait();        
+        rwCondition.await ();
         while (spuriousWakeUp) {
           if (Spurious.logging) {
             SpuriousLog.record(SpuriousLog.One2OneChannelWrite);
           }
-          rwMonitor.wait();
+          rwCondition.await ();
         }        
         spuriousWakeUp = true;        
       } catch (InterruptedException e) {
         throw new ProcessInterruptedException(
             "*** Thrown from One2OneChannel.write (Object)\n" + e.toString());
       }
+    } finally {
+      rwLock.unlock ();
     }
   }
 
@@ -146,16 +160,17 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	   * @return the object read from the channel.
 	   */
 	  public T read () {
-	    synchronized (rwMonitor) {          
+	    rwLock.lock ();
+	    try {
 	      if (empty) {
 	        empty = false;
 	        try {
-	          rwMonitor.wait ();
+	          rwCondition.await ();
 		  while (!empty) {
 		    if (Spurious.logging) {
 		      SpuriousLog.record (SpuriousLog.One2OneChannelRead);
 		    }
-		    rwMonitor.wait ();
+		    rwCondition.await ();
 		  }          
 	        }
 	        catch (InterruptedException e) {
@@ -166,22 +181,25 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	        empty = true;
 	      }
 	      spuriousWakeUp = false;
-	      rwMonitor.notify ();
+	      rwCondition.signal ();
 	      return hold;
+	    } finally {
+	      rwLock.unlock ();
 	    }
 	  }
 	  
 	  public T startRead() {
-		    synchronized (rwMonitor) {              
+		    rwLock.lock ();
+		    try {
 		      if (empty) {
 		        empty = false;
 		        try {
-		          rwMonitor.wait ();
+		          rwCondition.await ();
 			  while (!empty) {
 			    if (Spurious.logging) {
 			      SpuriousLog.record (SpuriousLog.One2OneChannelRead);
 			    }
-			    rwMonitor.wait ();
+			    rwCondition.await ();
 			  }              
 		        }
 		        catch (InterruptedException e) {
@@ -193,13 +211,18 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 		      }
 		      
 		      return hold;
+		    } finally {
+		      rwLock.unlock ();
 		    }
 	  }	  
       
   public void endRead() {
-    synchronized (rwMonitor) {      
+    rwLock.lock ();
+    try {
       spuriousWakeUp = false;
-      rwMonitor.notify ();
+      rwCondition.signal ();
+    } finally {
+      rwLock.unlock ();
     }
   }
 
@@ -215,7 +238,8 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	   */
 
 	  public boolean readerEnable (Alternative alt) {
-	    synchronized (rwMonitor) {
+	    rwLock.lock ();
+	    try {
 	      if (empty) {
 	        this.alt = alt;
 	        return false;
@@ -223,6 +247,8 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	      else {
 	        return true;
 	      }
+	    } finally {
+	      rwLock.unlock ();
 	    }
 	  }
 
@@ -235,9 +261,12 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	   * @return true if the channel has data that can be read, else false
 	   */
 	  public boolean readerDisable () {
-	    synchronized (rwMonitor) {
+	    rwLock.lock ();
+	    try {
 	      alt = null;
 	      return !empty;
+	    } finally {
+	      rwLock.unlock ();
 	    }
 	  }
 
@@ -277,8 +306,11 @@ class One2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
 	   * @return state of the channel.
 	   */
 	  public boolean readerPending () {
-	    synchronized (rwMonitor) {          
+	    rwLock.lock ();
+	    try {
 	      return !empty;
+	    } finally {
+	      rwLock.unlock ();
 	    }
 	  }
 	  
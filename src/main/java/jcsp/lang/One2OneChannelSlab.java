@@ -0,0 +1,67 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This defines the interface for a <i>one-to-one</i> channel of binary messages,
+ * held in a preallocated off-heap slab.
+ * <H2>Description</H2>
+ * The channel's buffer is a single direct <tt>ByteBuffer</tt> divided into a
+ * fixed number of fixed-size slots.  The writing process builds each message
+ * directly in a slot ({@link SlabChannelOutput#claim()},
+ * {@link SlabChannelOutput#commit()}) and the reading process inspects it in
+ * place through an {@link ChannelInput#startRead() <i>extended rendezvous</i>}:
+ * <PRE>
+ *   ByteBuffer message = in.startRead ();   // a read-only view of the slot
+ *   ...  consume message
+ *   in.endRead ();                          // the slot may now be reused
+ * </PRE>
+ * Neither side allocates or copies anything.  A plain {@link ChannelInput#read()
+ * <tt>read</tt>} returns a (heap) copy of the message, since its slot is released
+ * before the reader sees it; likewise a plain {@link ChannelOutput#write(Object)
+ * <tt>write</tt>} copies the remaining bytes of the given buffer into a slot.
+ * <P>
+ * The channel buffers up to the given number of messages: the writer only blocks
+ * when every slot is full (or held by the reader's extended rendezvous) and the
+ * reader only when none is.  The reading process may {@link Alternative <TT>ALT</TT>}
+ * on this channel.  These channels are not poisonable.
+ *
+ * @see SlabChannelOutput
+ * @see Channel#one2oneSlab(int, int)
+ */
+
+public interface One2OneChannelSlab
+{
+    /**
+     * Returns the input end of the channel.
+     *
+     * @return the input end.
+     */
+    public AltingChannelInput<ByteBuffer> in();
+
+    /**
+     * Returns the output end of the channel.
+     *
+     * @return the output end.
+     */
+    public SlabChannelOutput out();
+}
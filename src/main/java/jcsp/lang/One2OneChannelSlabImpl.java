@@ -0,0 +1,341 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This implements a one-to-one channel of binary messages held in a
+ * preallocated off-heap slab.
+ * <H2>Description</H2>
+ * The slab is one direct <tt>ByteBuffer</tt> of <tt>slots * slotSize</tt> bytes.
+ * A writable and a read-only view of each slot are made once, at construction,
+ * so that passing a message allocates nothing.  Messages occupy slots in
+ * sequence: <tt>head</tt> counts the messages released by the reader and
+ * <tt>tail</tt> those committed by the writer, so that the slot of message
+ * <tt>n</tt> is <tt>n % slots</tt>.  A slot is free for the writer when
+ * <tt>tail - head &lt; slots</tt>; the slot at the head stays in use for the
+ * whole of the reader's extended rendezvous.
+ *
+ * @see One2OneChannelSlab
+ * @see Channel#one2oneSlab(int, int)
+ */
+
+class One2OneChannelSlabImpl implements One2OneChannelSlab, ChannelInternals<ByteBuffer>
+{
+    /** The lock synchronising reader and writer on this channel */
+    private final ReentrantLock rwLock = new ReentrantLock();
+
+    /** The condition on which the reader waits for a message */
+    private final Condition notEmpty = rwLock.newCondition();
+
+    /** The condition on which the writer waits for a free slot */
+    private final Condition notFull = rwLock.newCondition();
+
+    /** The writer's views of the slots */
+    private final ByteBuffer[] writeViews;
+
+    /** The reader's (read-only) views of the slots */
+    private final ByteBuffer[] readViews;
+
+    /** The length of the message in each slot */
+    private final int[] lengths;
+
+    /** The number of bytes in each slot */
+    private final int slotSize;
+
+    /** The number of messages released by the reader */
+    private long head = 0;
+
+    /** The number of messages committed by the writer */
+    private long tail = 0;
+
+    /** Whether the writer has claimed the slot at the tail */
+    private boolean claimed = false;
+
+    /** Whether the reader is in an extended rendezvous on the slot at the head */
+    private boolean reading = false;
+
+    /** The Alternative class that controls the selection */
+    private Alternative alt;
+
+    /**
+     * Constructs a channel of <TT>slots</TT> slots of <TT>slotSize</TT> bytes.
+     *
+     * @param slots the number of messages the channel may hold.
+     * @param slotSize the maximum size of a message.
+     * @throws jcsp.util.BufferSizeError if either is not positive.
+     */
+    One2OneChannelSlabImpl(int slots, int slotSize)
+    {
+        if ((slots <= 0) || (slotSize <= 0))
+            throw new jcsp.util.BufferSizeError(
+                    "\n*** Attempt to create a slab channel with non-positive capacity or slot size");
+        if ((long) slots * slotSize > Integer.MAX_VALUE)
+            throw new jcsp.util.BufferSizeError(
+                    "\n*** Attempt to create a slab channel larger than 2^31 bytes");
+        final ByteBuffer slab = ByteBuffer.allocateDirect(slots * slotSize);
+        writeViews = new ByteBuffer[slots];
+        readViews = new ByteBuffer[slots];
+        lengths = new int[slots];
+        this.slotSize = slotSize;
+        for (int i = 0; i < slots; i++)
+        {
+            slab.limit((i + 1) * slotSize).position(i * slotSize);
+            writeViews[i] = slab.slice();
+            readViews[i] = writeViews[i].asReadOnlyBuffer();
+        }
+    }
+
+    public AltingChannelInput<ByteBuffer> in()
+    {
+        return new AltingChannelInputImpl<ByteBuffer>(this, 0);
+    }
+
+    public SlabChannelOutput out()
+    {
+        return new SlabChannelOutputImpl(this);
+    }
+
+    /*************Writer side*********************************************/
+
+    /**
+     * Returns the next free slot, cleared, blocking until there is one.
+     *
+     * @return the slot in which to write the next message.
+     */
+    ByteBuffer claim()
+    {
+        rwLock.lock();
+        try
+        {
+            while (tail - head >= writeViews.length)
+            {
+                notFull.await();
+            }
+            claimed = true;
+            final ByteBuffer slot = writeViews[(int) (tail % writeViews.length)];
+            slot.clear();
+            return slot;
+        }
+        catch (InterruptedException e)
+        {
+            throw new ProcessInterruptedException(
+                    "*** Thrown from One2OneChannelSlab.claim ()\n" + e.toString());
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    /**
+     * Passes the message in the claimed slot on to the reader.
+     */
+    void commit()
+    {
+        rwLock.lock();
+        try
+        {
+            if (!claimed)
+                throw new IllegalStateException("*** One2OneChannelSlab.commit () without a claimed slot\n");
+            final int slot = (int) (tail % writeViews.length);
+            lengths[slot] = writeViews[slot].position();
+            claimed = false;
+            tail++;
+            if (alt != null)
+                alt.schedule();
+            else
+                notEmpty.signal();
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a copy of the remaining bytes of the given buffer to the channel.
+     * The position of <TT>value</TT> is left unchanged.
+     *
+     * @param value the message to write.
+     * @throws IllegalArgumentException if the message is larger than a slot.
+     */
+    public void write(ByteBuffer value)
+    {
+        if (value.remaining() > slotSize)
+            throw new IllegalArgumentException(
+                    "*** One2OneChannelSlab.write (ByteBuffer) of " + value.remaining()
+                    + " bytes exceeds the slot size of " + slotSize + "\n");
+        final ByteBuffer slot = claim();
+        final int position = value.position();
+        slot.put(value);
+        value.position(position);
+        commit();
+    }
+
+    /*************Reader side*********************************************/
+
+    /**
+     * Reads a message from the channel.  As the slot is released before
+     * returning, the message is copied into a new (heap) buffer; use
+     * {@link #startRead()}/{@link #endRead()} to avoid the copy.
+     *
+     * @return a copy of the message.
+     */
+    public ByteBuffer read()
+    {
+        final ByteBuffer view = startRead();
+        final ByteBuffer copy = ByteBuffer.allocate(view.remaining());
+        copy.put(view).flip();
+        endRead();
+        return copy;
+    }
+
+    /**
+     * Returns a read-only view of the oldest message, blocking until there
+     * is one.  The view is valid until {@link #endRead()}.
+     *
+     * @return the message.
+     */
+    public ByteBuffer startRead()
+    {
+        rwLock.lock();
+        try
+        {
+            while (head == tail)
+            {
+                notEmpty.await();
+            }
+            reading = true;
+            final int slot = (int) (head % readViews.length);
+            final ByteBuffer view = readViews[slot];
+            view.limit(lengths[slot]).position(0);
+            return view;
+        }
+        catch (InterruptedException e)
+        {
+            throw new ProcessInterruptedException(
+                    "*** Thrown from One2OneChannelSlab.startRead ()\n" + e.toString());
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    /**
+     * Releases the slot of the oldest message back to the writer.
+     *
+     * @throws IllegalStateException if there is no matching {@link #startRead()}.
+     */
+    public void endRead()
+    {
+        rwLock.lock();
+        try
+        {
+            if (!reading)
+                throw new IllegalStateException("*** One2OneChannelSlab.endRead () without a startRead ()\n");
+            reading = false;
+            head++;
+            notFull.signal();
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    /**
+     * turns on Alternative selection for the channel. Returns true if the
+     * channel has data that can be read immediately.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative class</I>
+     *
+     * @param alt the Alternative class which will control the selection
+     * @return true if the channel has data that can be read, else false
+     */
+    public boolean readerEnable(Alternative alt)
+    {
+        rwLock.lock();
+        try
+        {
+            if (head != tail)
+                return true;
+            this.alt = alt;
+            return false;
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    /**
+     * turns off Alternative selection for the channel. Returns true if the
+     * channel contained data that can be read.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative class</I>
+     *
+     * @return true if the channel has data that can be read, else false
+     */
+    public boolean readerDisable()
+    {
+        rwLock.lock();
+        try
+        {
+            alt = null;
+            return head != tail;
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether there is data pending on this channel.
+     *
+     * @return state of the channel.
+     */
+    public boolean readerPending()
+    {
+        rwLock.lock();
+        try
+        {
+            return head != tail;
+        }
+        finally
+        {
+            rwLock.unlock();
+        }
+    }
+
+    //No poison in these channels:
+    public void writerPoison(int strength)
+    {
+    }
+
+    public void readerPoison(int strength)
+    {
+    }
+}
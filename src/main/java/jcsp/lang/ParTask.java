@@ -0,0 +1,141 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+/**
+ * This is the <TT>Runnable</TT> used by {@link Parallel} to run all but
+ * one of its given processes when an <TT>Executor</TT> has been set.
+ *
+ * <H2>Description</H2>
+ * A <TT>ParTask</TT> is the counterpart of a {@link ParThread} for a
+ * <TT>Parallel</TT> whose processes are run by an
+ * <TT>java.util.concurrent.Executor</TT> (for example, a
+ * {@link VirtualThreadExecutor}).  Each time it is executed it runs its
+ * process once, resigning from the barrier at the end of the PAR when the
+ * process terminates; it is reused by later runs of the <TT>Parallel</TT>
+ * until its set of processes changes.  It remembers the thread it is running on so that it may be interrupted.
+ * A {@link ForkJoinExecutor} joins its tasks instead, and runs only their
+ * processes (see {@link #runProcess()}).
+ *
+ * @see Parallel#setExecutor(java.util.concurrent.Executor)
+ * @see ParThread
+ */
+
+class ParTask implements Runnable
+{
+    /** the process to be executed */
+    private final CSProcess process;
+
+    /** the barrier at the end of a PAR */
+    private final Barrier barrier;
+
+    /** the thread currently executing the process (null if not running) */
+    private volatile Thread runner;
+
+    /** set if an interrupt was requested before the process started */
+    private volatile boolean interrupted = false;
+
+    /**
+     * Construct a new ParTask.
+     *
+     * @param process the process to be executed
+     * @param barrier the barrier for then end of the PAR
+     */
+    ParTask(CSProcess process, Barrier barrier)
+    {
+        this.process = process;
+        this.barrier = barrier;
+    }
+
+    /**
+     * Prepares this task to be executed again, for the next run of the PAR.
+     */
+    void reset()
+    {
+        interrupted = false;
+    }
+
+    /**
+     * Interrupts the thread running the process (or, if the process has not
+     * yet started, arranges for it to start interrupted).
+     */
+    void interrupt()
+    {
+        interrupted = true;
+        final Thread t = runner;
+        if (t != null)
+            t.interrupt();
+    }
+
+    /**
+     * The main body of this task.
+     */
+    public void run()
+    {
+        try
+        {
+            runProcess();
+        }
+        finally
+        {
+            barrier.resign();
+        }
+    }
+
+    /**
+     * Runs the process once, without resigning from the barrier.  A
+     * fork/join worker may run a task while it waits for another (possibly
+     * nested) task on the same thread, so the thread is only registered and
+     * cleared of interrupts by the outermost task it runs.
+     */
+    void runProcess()
+    {
+        final Thread thread = Thread.currentThread();
+        boolean outermost = false;
+        try
+        {
+            outermost = Parallel.addToAllParThreads(thread);
+            runner = thread;
+            if (interrupted)
+                thread.interrupt();
+            try
+            {
+                ProcessRegistry.run(process);
+            }
+            catch (Throwable e)
+            {
+                Parallel.uncaughtException("jcsp.lang.Parallel", e);
+            }
+        }
+        catch (Throwable t)
+        {
+            Parallel.uncaughtException("jcsp.lang.Parallel", t);
+        }
+        finally
+        {
+            runner = null;
+            if (outermost)
+            {
+                Thread.interrupted();       // do not leak an interrupt into a pooled thread
+                Parallel.removeFromAllParThreads(thread);
+            }
+        }
+    }
+}
@@ -111,7 +111,7 @@ class ParThread extends Thread
             {
                 try
                 {
-                    process.run();
+                    ProcessRegistry.run(process);
                 }
                 catch (Throwable e)
                 {
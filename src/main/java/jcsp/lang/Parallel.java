@@ -21,6 +21,7 @@
 package jcsp.lang;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * This process constructor taks an array of <TT>CSProcess</TT>es
@@ -230,6 +231,16 @@ package jcsp.plugNplay.ints;
  * to be used again, its parked threads may be unparked and terminated by invoking
  * its {@link #releaseAllThreads <TT>releaseAllThreads</TT>} method.  This will release
  * the memory used by those threads.
+ * <P>
+ * Alternatively, the processes may be run by a <TT>java.util.concurrent.Executor</TT>
+ * -- set with {@link #setExecutor(Executor) <TT>setExecutor</TT>} (or, for all
+ * subsequently constructed <TT>Parallel</TT> and {@link ProcessManager} objects,
+ * {@link #setDefaultExecutor(Executor) <TT>setDefaultExecutor</TT>}).  In this case,
+ * each <TT>run</TT> submits the first <TT>(n - 1)</TT> processes to the executor
+ * and no threads are parked between runs.  For very large networks, a
+ * {@link VirtualThreadExecutor} runs each process on its own <I>virtual</I> thread.
+ * Thread priorities (see {@link PriParallel}) are not applied to processes
+ * run by an executor.
  *
  * @see CSProcess
  * @see ProcessManager
@@ -262,12 +273,23 @@ public class Parallel implements CSProcess
     // invariant : (0 <= nThreads <= parThreads.length)
 
     /** Used to synchronise the termination of processes in each run of <TT>Parallel</TT> */
-    private Barrier barrier = new Barrier();
+    private Barrier barrier = new ScalableBarrier();
 
     private boolean priority;
 
     private boolean processesChanged;
 
+    /** The executor running the processes -- or null to use the pool of ParThreads */
+    private Executor executor = defaultExecutor;
+
+    /** The tasks submitted to the executor -- reused between runs while the processes are unchanged */
+    private ParTask[] parTasks = new ParTask[0];
+
+    /**
+     * The executor given to newly constructed <TT>Parallel</TT> and {@link ProcessManager} objects.
+     */
+    private static volatile Executor defaultExecutor = null;
+
     /**
      * The threads created by <I>all</I> <TT>Parallel</TT> and {@link ProcessManager} objects.
      */
@@ -282,14 +304,15 @@ public class Parallel implements CSProcess
      * Adds the thread object to the <code>allParThreads</code> collection. This should be called by any infrastructure threads when they start.
      *
      * @param newThread the thread to be added to the collection.
+     * @return true if the thread was not already in the collection.
      */
-    static void addToAllParThreads(final Thread newThread) throws InterruptedException
+    static boolean addToAllParThreads(final Thread newThread) throws InterruptedException
     {
         synchronized (allParThreads)
         {
             if (destroyCalled)
                 throw new InterruptedException("Parallel.destroy() has been called");
-            allParThreads.add(newThread);
+            return allParThreads.add(newThread);
         }
     }
 
@@ -334,6 +357,34 @@ public class Parallel implements CSProcess
         }
     }
 
+    /**
+     * Sets the executor given to all subsequently constructed <TT>Parallel</TT>
+     * (and {@link PriParallel}) and {@link ProcessManager} objects.  A <TT>null</TT>
+     * value restores the default behaviour of running processes on
+     * {@link ParThread}s (or, for a <TT>ProcessManager</TT>, on a new thread).
+     *
+     * @param executor the executor to use (or null).
+     *
+     * @see VirtualThreadExecutor
+     * @see ForkJoinExecutor
+     * @see ProcessPool
+     */
+    public static void setDefaultExecutor(final Executor executor)
+    {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Returns the executor given to newly constructed <TT>Parallel</TT> and
+     * {@link ProcessManager} objects.
+     *
+     * @return the default executor (or null if none has been set).
+     */
+    public static Executor getDefaultExecutor()
+    {
+        return defaultExecutor;
+    }
+
     /**
      * Cancels a call to <TT>destroy</TT> allowing the JCSP system to be reused. This is provided to that <TT>destroy</TT>
      * can be called from an Applet's termination method, but the Applet can be restarted later.
@@ -599,6 +650,35 @@ public class Parallel implements CSProcess
         }
     }
 
+    /**
+     * Sets the executor used to run the processes of this <TT>Parallel</TT>.
+     * A <TT>null</TT> value means that the processes are run on
+     * {@link ParThread}s, which are parked for reuse between runs.  Any threads
+     * parked from previous runs are released.
+     * This should only be executed when the <TT>Parallel</TT> object is not running.
+     *
+     * @param executor the executor to use (or null).
+     *
+     * @see VirtualThreadExecutor
+     * @see ForkJoinExecutor
+     * @see ProcessPool
+     */
+    public void setExecutor(final Executor executor) {
+        releaseAllThreads();
+        synchronized (sync) {
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * @return the executor used to run the processes (or null if they are run on {@link ParThread}s).
+     */
+    public Executor getExecutor() {
+        synchronized (sync) {
+            return executor;
+        }
+    }
+
     /**
      * @return the number of processes currently registered.
      */
@@ -623,6 +703,11 @@ public class Parallel implements CSProcess
      */
     public void run() {
 
+        if (getExecutor() != null) {
+            runOnExecutor();
+            return;
+        }
+
         boolean emptyRun = true;
 
         CSProcess myProcess = null;
@@ -700,7 +785,7 @@ public class Parallel implements CSProcess
         if (! emptyRun) {
 
             try {
-                myProcess.run();
+                ProcessRegistry.run(myProcess);
             } catch (ProcessInterruptedException e) {
                 // If this was raised then we must propogate the interrupt signal to other processes
                 // PHW: Why?  This seems unnecessary ... and, in any case, isn't done if sibling
@@ -726,6 +811,81 @@ public class Parallel implements CSProcess
         }
     }
 
+    /**
+     * Runs the processes when an executor has been set: the first <TT>(n - 1)</TT>
+     * are submitted to the executor and the last is run by the invoking thread.
+     * A {@link ForkJoinExecutor} instead forks and joins them as tasks of its
+     * pool, without the barrier.
+     */
+    private void runOnExecutor() {
+
+        final CSProcess myProcess;
+        final ParTask[] tasks;
+        final Executor runner;
+
+        synchronized (sync) {
+            if (nProcesses == 0) {
+                return;
+            }
+            runner = executor;
+            if (!(runner instanceof ForkJoinExecutor)) {
+                barrier.reset(nProcesses);
+            }
+            myProcess = processes[nProcesses - 1];
+            if (processesChanged) {
+                if (parTasks.length != nProcesses - 1) {
+                    parTasks = new ParTask[nProcesses - 1];
+                }
+                for (int i = 0; i < nProcesses - 1; i++) {
+                    parTasks[i] = new ParTask(processes[i], barrier);
+                }
+                processesChanged = false;
+            } else {
+                for (int i = 0; i < nProcesses - 1; i++) {
+                    parTasks[i].reset();
+                }
+            }
+            tasks = parTasks;
+        }   // end synchronized block
+
+        if (runner instanceof ForkJoinExecutor) {
+            ((ForkJoinExecutor) runner).invokeAll(tasks, new Runnable() {
+                public void run() {
+                    runLast(myProcess, tasks);
+                }
+            });
+            return;
+        }
+
+        for (int i = 0; i < tasks.length; i++) {
+            runner.execute(tasks[i]);
+        }
+
+        runLast(myProcess, tasks);
+
+        barrier.sync();
+
+    }
+
+    /**
+     * Runs the last process of a PAR whose other processes are run by an executor.
+     *
+     * @param myProcess the last process.
+     * @param tasks the tasks running the other processes.
+     */
+    private static void runLast(final CSProcess myProcess, final ParTask[] tasks) {
+        try {
+            ProcessRegistry.run(myProcess);
+        } catch (ProcessInterruptedException e) {
+            // as above, propagate the interrupt signal to the other processes
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i].interrupt();
+            }
+        } catch (Throwable e) {
+            uncaughtException("jcsp.lang.Parallel", e);
+        }
+    }
+
     /**
      * TRUE iff uncaught exceptions are to be displayed.
      */
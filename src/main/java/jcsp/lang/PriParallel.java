@@ -38,6 +38,11 @@ package jcsp.lang;
  * the spawning process, the higher requested priorities will be truncated
  * to that maximum.  Also, the semantics of priority will be that implemented
  * by the JVM being used.
+ * <P>
+ * If an executor has been set (see {@link Parallel#setExecutor(java.util.concurrent.Executor)}),
+ * the processes are run by that executor and their priorities are ignored -- in
+ * particular, <I>virtual</I> threads (see {@link VirtualThreadExecutor}) do not
+ * support priorities.
  *
  * @author P.D. Austin
  */
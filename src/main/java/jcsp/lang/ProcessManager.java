@@ -20,6 +20,9 @@
 
 package jcsp.lang;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
     /**
  * This enables a {@link CSProcess} to be spawned
  * <I>concurrently</I> with the process doing the spawning.
@@ -165,15 +168,57 @@ public class ProcessManager implements CSProcess
     /** The CSProcess to be executed by this ProcessManager */
     private final CSProcess process;
 
-    /** The thread supporting the CSProcess being executed by this ProcessManager */
+    /** The thread supporting the CSProcess being executed by this ProcessManager (null if run by an executor) */
     private Thread thread;
 
+    /** The executor supporting the CSProcess being executed by this ProcessManager (null if run by a thread) */
+    private final Executor executor;
+
+    /** The executor thread currently running the CSProcess (executor mode only) */
+    private volatile Thread runner;
+
+    /** Set if an interrupt is requested before the CSProcess starts (executor mode only) */
+    private volatile boolean interruptRequested = false;
+
+    /** The priority at which the CSProcess is to be run (executor mode only) */
+    private int priority;
+
+    /** Released when the CSProcess terminates (executor mode only) */
+    private final CountDownLatch finished;
+
     /**
+     * Constructs a <TT>ProcessManager</TT> that will run its process using the
+     * {@link Parallel#getDefaultExecutor() default executor} -- or, if none has
+     * been set, on a new thread.
+     *
      * @param proc the {@link CSProcess} to be executed by this ProcessManager
      */
     public ProcessManager(CSProcess proc)
+    {
+        this(proc, Parallel.getDefaultExecutor());
+    }
+
+    /**
+     * Constructs a <TT>ProcessManager</TT> that will run its process using the given
+     * executor (for example, a {@link VirtualThreadExecutor}).  A <TT>null</TT>
+     * executor means that the process is run on a new thread.
+     * <P>
+     * Thread priorities are not applied to processes run by an executor.
+     *
+     * @param proc the {@link CSProcess} to be executed by this ProcessManager
+     * @param executor the executor to run the process (or null).
+     */
+    public ProcessManager(CSProcess proc, Executor executor)
     {
         this.process = proc;
+        this.executor = executor;
+        if (executor != null)
+        {
+            priority = Thread.currentThread().getPriority();
+            finished = new CountDownLatch(1);
+            return;
+        }
+        finished = null;
         thread = new Thread()
         {
             public void run()
@@ -181,7 +226,7 @@ public class ProcessManager implements CSProcess
                 try
                 {
                     Parallel.addToAllParThreads(this);
-                    process.run();
+                    ProcessRegistry.run(process);
                 }
                 catch (Throwable e)
                 {
@@ -204,7 +249,37 @@ public class ProcessManager implements CSProcess
      */
     public void start()
     {
-        thread.start();
+        if (executor == null)
+        {
+            thread.start();
+            return;
+        }
+        executor.execute(new Runnable()
+        {
+            public void run()
+            {
+                final Thread current = Thread.currentThread();
+                try
+                {
+                    Parallel.addToAllParThreads(current);
+                    runner = current;
+                    if (interruptRequested)
+                        current.interrupt();
+                    ProcessRegistry.run(process);
+                }
+                catch (Throwable e)
+                {
+                    Parallel.uncaughtException("jcsp.lang.ProcessManager", e);
+                }
+                finally
+                {
+                    runner = null;
+                    Thread.interrupted();       // do not leak an interrupt into a pooled thread
+                    Parallel.removeFromAllParThreads(current);
+                    finished.countDown();
+                }
+            }
+        });
     }
 
     /**
@@ -221,7 +296,7 @@ public class ProcessManager implements CSProcess
      */
     public void start(int priority)
     {
-        thread.setPriority(priority);
+        setPriority(priority);
         start();
     }
 
@@ -243,7 +318,15 @@ public class ProcessManager implements CSProcess
      */
     public void interrupt()
     {
-        thread.interrupt();
+        if (executor == null)
+        {
+            thread.interrupt();
+            return;
+        }
+        interruptRequested = true;
+        final Thread t = runner;
+        if (t != null)
+            t.interrupt();
     }
 
     /**
@@ -253,7 +336,10 @@ public class ProcessManager implements CSProcess
     {
         try
         {
-            thread.join();
+            if (executor == null)
+                thread.join();
+            else
+                finished.await();
         }
         catch (InterruptedException e)
         {
@@ -277,8 +363,8 @@ public class ProcessManager implements CSProcess
     public void run()
     {
         int oldPriority = Thread.currentThread().getPriority();
-        Thread.currentThread().setPriority(thread.getPriority());
-        process.run();
+        Thread.currentThread().setPriority(getPriority());
+        ProcessRegistry.run(process);
         Thread.currentThread().setPriority(oldPriority);
     }
 
@@ -296,7 +382,12 @@ public class ProcessManager implements CSProcess
      */
     public void setPriority(int priority)
     {
-        thread.setPriority(priority);
+        if (executor == null)
+            thread.setPriority(priority);
+        else if ((priority < PRIORITY_MIN) || (priority > PRIORITY_MAX))
+            throw new IllegalArgumentException("*** Illegal priority: " + priority);
+        else
+            this.priority = priority;
     }
 
     /**
@@ -310,6 +401,6 @@ public class ProcessManager implements CSProcess
      */
     public int getPriority()
     {
-        return thread.getPriority();
+        return (executor == null) ? thread.getPriority() : priority;
     }
 }
@@ -0,0 +1,585 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This is a bounded pool of threads on which processes may be run, shared by
+ * any number of {@link Parallel}, {@link PriParallel} and {@link ProcessManager}
+ * objects.
+ * <H2>Description</H2>
+ * By default, each <TT>Parallel</TT> keeps its own {@link ParThread}s and each
+ * <TT>ProcessManager</TT> starts a new thread, so a burst of spawned processes
+ * creates a burst of native threads.  A <TT>ProcessPool</TT> puts a ceiling on
+ * that: at most <TT>maxThreads</TT> pooled threads run processes, threads left
+ * idle for longer than the <I>keep-alive</I> time are released, and processes
+ * submitted while every pooled thread is busy wait in a queue.  What happens
+ * when the queue is full is decided by the {@link QueuePolicy}.  Under the
+ * {@link QueuePolicy#OVERFLOW OVERFLOW} policy there is no queue: a process
+ * submitted while every pooled thread is busy runs on an <I>overflow</I>
+ * thread, of which there are at most <TT>queueCapacity</TT> at once.
+ * <P>
+ * A pool is shared by installing it as the default executor:
+ * <PRE>
+ *   ProcessPool pool = new ProcessPool ("server", 256, 30000, 1024,
+ *                                       ProcessPool.QueuePolicy.OVERFLOW);
+ *   Parallel.setDefaultExecutor (pool);
+ * </PRE>
+ * or by giving it to individual objects with {@link Parallel#setExecutor(Executor)}
+ * and {@link ProcessManager#ProcessManager(CSProcess, Executor)}.
+ * <P>
+ * Each pool is registered with the platform MBean server under the name
+ * <TT>jcsp.lang:type=ProcessPool,name="<I>name</I>"</TT> (a pool given the
+ * name of one already registered is registered as <TT><I>name</I>#1</TT>,
+ * <TT><I>name</I>#2</TT>, ...), and its saturation metrics may also be read
+ * directly through the {@link ProcessPoolMXBean} methods.
+ * <P>
+ * <I>Note</I>: a queued process does not start until a pooled thread is free.
+ * A network needing more of its processes to be alive at once than the pool
+ * has threads will deadlock under the {@link QueuePolicy#BLOCK BLOCK} and
+ * {@link QueuePolicy#REJECT REJECT} policies if its processes wait for each
+ * other.  The {@link QueuePolicy#OVERFLOW OVERFLOW} policy never queues a
+ * process, but its submitters wait once every overflow thread is busy too: a
+ * network needing more than <TT>maxThreads</TT> plus <TT>queueCapacity</TT>
+ * of its processes alive at once will deadlock under that policy.
+ *
+ * @see Parallel#setDefaultExecutor(Executor)
+ * @see ProcessPoolMXBean
+ */
+public class ProcessPool implements Executor, ProcessPoolMXBean
+{
+    /**
+     * What a <TT>ProcessPool</TT> does with a process submitted when every pooled
+     * thread is busy and its queue is full.
+     */
+    public enum QueuePolicy
+    {
+        /** The submitter waits until there is room in the queue (back-pressure). */
+        BLOCK,
+
+        /**
+         * The process is run on a new overflow thread.  Under this policy,
+         * processes are never queued: a process submitted when no pooled thread
+         * is idle goes straight to an overflow thread.  The pool's
+         * <TT>queueCapacity</TT> bounds the number of overflow threads: when
+         * they are all busy, the submitter waits for one of them (or a pooled
+         * thread) to become free.
+         */
+        OVERFLOW,
+
+        /** The submitter is thrown a <TT>RejectedExecutionException</TT>. */
+        REJECT
+    }
+
+    /** The default time (in milliseconds) for which idle pooled threads are kept */
+    public static final long DEFAULT_KEEP_ALIVE = 60000;
+
+    /** How often (in milliseconds) a submitter waiting for an overflow thread checks for an idle pooled thread */
+    private static final long OVERFLOW_POLL = 10;
+
+    /** The pools registered with the MBean server, by (unique) name */
+    private static final ConcurrentHashMap<String, ProcessPool> registry =
+        new ConcurrentHashMap<String, ProcessPool>();
+
+    private final String name;
+
+    private final int maxThreads;
+
+    private final QueuePolicy policy;
+
+    private final ThreadFactory threadFactory;
+
+    private final ThreadFactory overflowFactory;
+
+    /** The overflow threads that may yet be started (OVERFLOW policy only) */
+    private final Semaphore overflowSlots;
+
+    private final int maxOverflowThreads;
+
+    /** A synchronous hand-off to an idle pooled thread -- never holding a process -- under the OVERFLOW policy */
+    private final BlockingQueue<Runnable> queue;
+
+    private final ThreadPoolExecutor executor;
+
+    /** The name under which the pool is registered -- unique among the pools not shut down */
+    private final String registeredName;
+
+    private final ObjectName objectName;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger queueHighWaterMark = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong saturated = new AtomicLong();
+
+    private final AtomicLong blocked = new AtomicLong();
+
+    private final AtomicLong blockedNanos = new AtomicLong();
+
+    private final AtomicLong overflowed = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructs a new <TT>ProcessPool</TT> with the {@link QueuePolicy#OVERFLOW OVERFLOW}
+     * policy and the {@link #DEFAULT_KEEP_ALIVE default} keep-alive time.  Processes
+     * submitted while every pooled thread is busy run on up to <TT>maxThreads</TT>
+     * overflow threads, so a network whose processes wait for each other does not
+     * deadlock unless it needs more than twice <TT>maxThreads</TT> of them alive at once.
+     *
+     * @param name the name of the pool (also used to name its threads).
+     * @param maxThreads the maximum number of pooled threads.
+     */
+    public ProcessPool(final String name, final int maxThreads)
+    {
+        this(name, maxThreads, DEFAULT_KEEP_ALIVE, maxThreads, QueuePolicy.OVERFLOW);
+    }
+
+    /**
+     * Constructs a new <TT>ProcessPool</TT> whose threads are daemons named
+     * <TT><I>name</I>-1</TT>, <TT><I>name</I>-2</TT>, ... (and whose overflow
+     * threads are named <TT><I>name</I>-overflow-1</TT>, ...)
+     *
+     * @param name the name of the pool (also used to name its threads).
+     * @param maxThreads the maximum number of pooled threads.
+     * @param keepAlive the time (in milliseconds) for which an idle pooled thread
+     *  is kept -- zero (or less) to keep it for the life of the pool.
+     * @param queueCapacity the number of processes that may wait for a pooled thread
+     *  (or, under the {@link QueuePolicy#OVERFLOW OVERFLOW} policy, the maximum number
+     *  of overflow threads).
+     * @param policy what to do with a process when the queue is full.
+     */
+    public ProcessPool(final String name, final int maxThreads, final long keepAlive,
+                       final int queueCapacity, final QueuePolicy policy)
+    {
+        this(name, maxThreads, keepAlive, queueCapacity, policy, null);
+    }
+
+    /**
+     * Constructs a new <TT>ProcessPool</TT>.
+     *
+     * @param name the name of the pool.
+     * @param maxThreads the maximum number of pooled threads.
+     * @param keepAlive the time (in milliseconds) for which an idle pooled thread
+     *  is kept -- zero (or less) to keep it for the life of the pool.
+     * @param queueCapacity the number of processes that may wait for a pooled thread
+     *  (or, under the {@link QueuePolicy#OVERFLOW OVERFLOW} policy, the maximum number
+     *  of overflow threads).
+     * @param policy what to do with a process when the queue is full.
+     * @param threadFactory creates the pooled (and overflow) threads -- or null for
+     *  daemon threads named after the pool.
+     *
+     * @throws IllegalArgumentException if <TT>maxThreads</TT> or <TT>queueCapacity</TT>
+     *  is not positive, or <TT>name</TT> or <TT>policy</TT> is null.
+     */
+    public ProcessPool(final String name, final int maxThreads, final long keepAlive,
+                       final int queueCapacity, final QueuePolicy policy,
+                       final ThreadFactory threadFactory)
+    {
+        if (name == null)
+            throw new IllegalArgumentException("*** Attempt to create a ProcessPool with a null name\n");
+        if (maxThreads <= 0)
+            throw new IllegalArgumentException
+                ("*** Attempt to create a ProcessPool with maxThreads " + maxThreads + "\n");
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException
+                ("*** Attempt to create a ProcessPool with queueCapacity " + queueCapacity + "\n");
+        if (policy == null)
+            throw new IllegalArgumentException("*** Attempt to create a ProcessPool with a null policy\n");
+        this.name = name;
+        this.maxThreads = maxThreads;
+        this.policy = policy;
+        this.threadFactory = (threadFactory != null) ? threadFactory : new NamedThreadFactory(name);
+        this.overflowFactory = (threadFactory != null) ? threadFactory : new NamedThreadFactory(name + "-overflow");
+        this.maxOverflowThreads = (policy == QueuePolicy.OVERFLOW) ? queueCapacity : 0;
+        this.overflowSlots = new Semaphore(maxOverflowThreads);
+        this.queue = (policy == QueuePolicy.OVERFLOW)
+            ? new SynchronousQueue<Runnable>()
+            : new LinkedBlockingQueue<Runnable>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                                               (keepAlive > 0) ? keepAlive : Long.MAX_VALUE,
+                                               TimeUnit.MILLISECONDS, queue, this.threadFactory,
+                                               new SaturationHandler());
+        if (keepAlive > 0)
+            executor.allowCoreThreadTimeOut(true);
+        String unique = name;
+        int suffix = 1;
+        while (registry.putIfAbsent(unique, this) != null)
+            unique = name + "#" + (suffix++);
+        this.registeredName = unique;
+        this.objectName = register(unique, this);
+    }
+
+    private static ObjectName register(final String name, final ProcessPool pool)
+    {
+        try
+        {
+            final ObjectName on = new ObjectName("jcsp.lang:type=ProcessPool,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(pool, on);
+            return on;
+        }
+        catch (JMException e)
+        {
+            // still available through the pull API
+            return null;
+        }
+        catch (SecurityException e)
+        {
+            // still available through the pull API
+            return null;
+        }
+    }
+
+    /**
+     * Runs the given process (wrapped as a <TT>Runnable</TT>) on a pooled thread,
+     * queueing it if every pooled thread is busy.
+     *
+     * @param task the task to run.
+     *
+     * @throws RejectedExecutionException if the pool has been shut down, or its
+     *  queue is full and its policy is {@link QueuePolicy#REJECT REJECT}.
+     * @throws ProcessInterruptedException if interrupted while waiting for room
+     *  in the queue.
+     */
+    public void execute(final Runnable task)
+    {
+        if (active.get() - getOverflowThreads() >= maxThreads)
+            saturated.incrementAndGet();
+        executor.execute(new Job(task));
+        final int queued = queue.size();
+        int high;
+        while (queued > (high = queueHighWaterMark.get()))
+        {
+            if (queueHighWaterMark.compareAndSet(high, queued))
+                break;
+        }
+    }
+
+    /**
+     * Returns the policy applied when the queue is full.
+     */
+    public QueuePolicy getQueuePolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * Stops the pool accepting processes.  Processes already submitted (and
+     * those queued) are run to completion, after which the pooled threads
+     * terminate.  The pool is removed from the MBean server.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+        registry.remove(registeredName, this);
+        if (objectName != null)
+        {
+            try
+            {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(objectName))
+                    server.unregisterMBean(objectName);
+            }
+            catch (JMException e)
+            {
+                // already gone
+            }
+        }
+    }
+
+    /**
+     * Waits for the pool to terminate after a {@link #shutdown()}.
+     *
+     * @param timeout the maximum time to wait (in milliseconds).
+     *
+     * @return true if the pool has terminated.
+     *
+     * @throws ProcessInterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(final long timeout)
+    {
+        try
+        {
+            return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            throw new ProcessInterruptedException("*** Thrown from ProcessPool.awaitTermination ()\n"
+                                                  + e.toString());
+        }
+    }
+
+    public String getName()
+    {
+        return registeredName;
+    }
+
+    public int getMaxThreads()
+    {
+        return maxThreads;
+    }
+
+    public int getMaxOverflowThreads()
+    {
+        return maxOverflowThreads;
+    }
+
+    public int getOverflowThreads()
+    {
+        return maxOverflowThreads - overflowSlots.availablePermits();
+    }
+
+    public int getPoolSize()
+    {
+        return executor.getPoolSize();
+    }
+
+    public int getLargestPoolSize()
+    {
+        return executor.getLargestPoolSize();
+    }
+
+    public int getActiveProcesses()
+    {
+        return active.get();
+    }
+
+    public int getQueuedProcesses()
+    {
+        return queue.size();
+    }
+
+    public int getQueueHighWaterMark()
+    {
+        return queueHighWaterMark.get();
+    }
+
+    public long getCompletedProcesses()
+    {
+        return completed.get();
+    }
+
+    public long getSaturatedSubmissions()
+    {
+        return saturated.get();
+    }
+
+    public long getBlockedSubmissions()
+    {
+        return blocked.get();
+    }
+
+    public long getBlockedNanos()
+    {
+        return blockedNanos.get();
+    }
+
+    public long getOverflowProcesses()
+    {
+        return overflowed.get();
+    }
+
+    public long getRejectedProcesses()
+    {
+        return rejected.get();
+    }
+
+    public String toString()
+    {
+        return "ProcessPool[" + registeredName + ": threads=" + getPoolSize() + "/" + maxThreads
+            + ", active=" + getActiveProcesses() + ", queued=" + getQueuedProcesses()
+            + ", saturated=" + getSaturatedSubmissions() + ", blocked=" + getBlockedSubmissions()
+            + ", overflow=" + getOverflowThreads() + "/" + maxOverflowThreads + " (" + getOverflowProcesses() + " run)"
+            + ", rejected=" + getRejectedProcesses() + "]";
+    }
+
+    /**
+     * Counts a submitted task as active while it runs (on a pooled or overflow thread).
+     */
+    private final class Job implements Runnable
+    {
+        private final Runnable task;
+
+        Job(final Runnable task)
+        {
+            this.task = task;
+        }
+
+        public void run()
+        {
+            active.incrementAndGet();
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Applies the queue policy when every pooled thread is busy and the queue is full.
+     */
+    private final class SaturationHandler implements RejectedExecutionHandler
+    {
+        public void rejectedExecution(final Runnable job, final ThreadPoolExecutor executor)
+        {
+            if (executor.isShutdown())
+            {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("*** ProcessPool " + name + " has been shut down\n");
+            }
+            switch (policy)
+            {
+                case BLOCK:
+                    blocked.incrementAndGet();
+                    final long start = System.nanoTime();
+                    try
+                    {
+                        queue.put(job);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new ProcessInterruptedException("*** Thrown from ProcessPool.execute ()\n"
+                                                              + e.toString());
+                    }
+                    finally
+                    {
+                        blockedNanos.addAndGet(System.nanoTime() - start);
+                    }
+                    break;
+                case OVERFLOW:
+                    if (!overflowSlots.tryAcquire())
+                    {
+                        blocked.incrementAndGet();
+                        final long wait = System.nanoTime();
+                        try
+                        {
+                            // a pooled thread that has become idle takes the job from the (synchronous) queue
+                            while (!overflowSlots.tryAcquire(OVERFLOW_POLL, TimeUnit.MILLISECONDS))
+                            {
+                                if (queue.offer(job))
+                                    return;
+                            }
+                        }
+                        catch (InterruptedException e)
+                        {
+                            throw new ProcessInterruptedException("*** Thrown from ProcessPool.execute ()\n"
+                                                                  + e.toString());
+                        }
+                        finally
+                        {
+                            blockedNanos.addAndGet(System.nanoTime() - wait);
+                        }
+                    }
+                    overflowed.incrementAndGet();
+                    try
+                    {
+                        overflowFactory.newThread(new Overflow(job)).start();
+                    }
+                    catch (RuntimeException e)
+                    {
+                        overflowSlots.release();
+                        throw e;
+                    }
+                    catch (Error e)
+                    {
+                        overflowSlots.release();
+                        throw e;
+                    }
+                    break;
+                default:
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("*** ProcessPool " + name + " is saturated\n");
+            }
+        }
+    }
+
+    /**
+     * Runs a job on an overflow thread, freeing its slot when it terminates.
+     */
+    private final class Overflow implements Runnable
+    {
+        private final Runnable job;
+
+        Overflow(final Runnable job)
+        {
+            this.job = job;
+        }
+
+        public void run()
+        {
+            try
+            {
+                job.run();
+            }
+            finally
+            {
+                overflowSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Creates daemon threads named after the pool.
+     */
+    private static final class NamedThreadFactory implements ThreadFactory
+    {
+        private final String prefix;
+
+        private final AtomicInteger number = new AtomicInteger();
+
+        NamedThreadFactory(final String name)
+        {
+            this.prefix = name + "-";
+        }
+
+        public Thread newThread(final Runnable r)
+        {
+            final Thread thread = new Thread(r, prefix + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+/**
+ * The management interface of a {@link ProcessPool}, under which each pool
+ * is registered with the platform MBean server.
+ *
+ * @see ProcessPool
+ */
+public interface ProcessPoolMXBean
+{
+    /**
+     * Returns the name under which the pool is registered: the name given to
+     * it, followed by <TT>#<I>n</I></TT> if another pool of that name was
+     * registered first.
+     */
+    public String getName();
+
+    /**
+     * Returns the maximum number of pooled threads.
+     */
+    public int getMaxThreads();
+
+    /**
+     * Returns the maximum number of overflow threads (zero unless the policy is
+     * {@link ProcessPool.QueuePolicy#OVERFLOW OVERFLOW}).
+     */
+    public int getMaxOverflowThreads();
+
+    /**
+     * Returns the number of overflow threads currently running processes.
+     */
+    public int getOverflowThreads();
+
+    /**
+     * Returns the number of pooled threads currently alive (busy or idle).
+     */
+    public int getPoolSize();
+
+    /**
+     * Returns the largest number of pooled threads that have ever been alive at once.
+     */
+    public int getLargestPoolSize();
+
+    /**
+     * Returns the number of processes currently running on pooled or overflow threads.
+     */
+    public int getActiveProcesses();
+
+    /**
+     * Returns the number of processes waiting in the queue for a pooled thread.
+     */
+    public int getQueuedProcesses();
+
+    /**
+     * Returns the highest value reached by {@link #getQueuedProcesses()}.
+     */
+    public int getQueueHighWaterMark();
+
+    /**
+     * Returns the number of processes that have terminated on pooled or overflow threads.
+     */
+    public long getCompletedProcesses();
+
+    /**
+     * Returns the number of processes submitted while every pooled thread was busy.
+     */
+    public long getSaturatedSubmissions();
+
+    /**
+     * Returns the number of submissions that had to wait for room in the queue
+     * (under the {@link ProcessPool.QueuePolicy#BLOCK BLOCK} policy) or for an
+     * overflow thread (under the {@link ProcessPool.QueuePolicy#OVERFLOW OVERFLOW} policy).
+     */
+    public long getBlockedSubmissions();
+
+    /**
+     * Returns the total time (in nanoseconds) submitters have spent waiting for
+     * room in the queue or for an overflow thread.
+     */
+    public long getBlockedNanos();
+
+    /**
+     * Returns the number of processes run on overflow threads (under the
+     * {@link ProcessPool.QueuePolicy#OVERFLOW OVERFLOW} policy).
+     */
+    public long getOverflowProcesses();
+
+    /**
+     * Returns the number of processes refused (under the
+     * {@link ProcessPool.QueuePolicy#REJECT REJECT} policy, or after shutdown).
+     */
+    public long getRejectedProcesses();
+}
@@ -0,0 +1,599 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An optional registry of running processes, recording what each is blocked on,
+ * with a detector for deadlocked cycles of processes.
+ * <H2>Description</H2>
+ * When a process network stalls, a thread dump shows which threads are waiting
+ * but not which rendezvous they are waiting for - nor who, at the other end,
+ * should be completing it.  While the registry is {@link #setEnabled enabled}
+ * (by this method, or by setting the <TT>jcsp.registry</TT> system property to
+ * <TT>true</TT>), every process run by {@link Parallel} or {@link ProcessManager}
+ * is recorded, together with the channel end, {@link Barrier}, {@link Alternative}
+ * or CALL channel it is currently blocked on (if any).  Threads not started by
+ * JCSP are recorded too, the first time they block.  While it is disabled, each
+ * of those operations pays for one test of a flag.
+ * <P>
+ * {@link #getProcesses()} returns a snapshot of the registered processes.
+ * {@link #findDeadlocks(long)} looks for sets of processes each of which is blocked
+ * waiting only for others in the set: a process reading from a channel waits for
+ * the processes that have written to it, a writer for the readers, a barrier
+ * synchroniser for the other synchronisers (once as many have been seen as are
+ * enrolled on the barrier), and a process in an <TT>Alternative</TT>
+ * for the writers to all its guards (if it has a guard of another kind, such as a
+ * timeout, it is never considered deadlocked).  The processes at the other end of
+ * a channel or barrier are learnt as they use it - so a process that has never yet
+ * used its end of a channel does not count (and one that has finished is forgotten).
+ * {@link #startDetector startDetector} runs that search periodically in a daemon
+ * thread and reports each new deadlock found.
+ *
+ * @see Parallel
+ * @see ProcessManager
+ */
+public final class ProcessRegistry
+{
+    /**
+     * What a process is blocked doing.
+     */
+    public static enum Role
+    {
+        /** reading from a channel, or accepting a CALL */
+        READ,
+        /** writing to a channel, or making a CALL */
+        WRITE,
+        /** synchronising on a barrier */
+        SYNC,
+        /** waiting in an Alternative select */
+        SELECT
+    }
+
+    /**
+     * Receives the deadlocks found by the {@link #startDetector detector}.
+     */
+    public static interface DeadlockListener
+    {
+        /**
+         * Invoked (in the detector's thread) once for each newly detected deadlock.
+         *
+         * @param processes the processes that are waiting for each other.
+         */
+        public void deadlocked(List<ProcessInfo> processes);
+    }
+
+    /**
+     * The record of one run of a process, or of a thread not started by JCSP.
+     */
+    public static final class ProcessInfo
+    {
+        private final CSProcess process;
+        private final Thread thread;
+        private final ProcessInfo outer;
+        private volatile boolean finished = false;
+        private volatile Object blockedOn = null;
+        private volatile Role role = null;
+        private volatile Object[] guards = null;
+        private volatile long since;
+        /** the channels and barriers whose peers include this record (used only by its own thread) */
+        private final Set<Peers> seenAt = new HashSet<Peers>();
+
+        private ProcessInfo(final CSProcess process, final ProcessInfo outer)
+        {
+            this.process = process;
+            this.thread = Thread.currentThread();
+            this.outer = outer;
+        }
+
+        /**
+         * Returns the process (or null for a thread not started by JCSP).
+         */
+        public CSProcess getProcess()
+        {
+            return process;
+        }
+
+        /**
+         * Returns the thread running the process.
+         */
+        public Thread getThread()
+        {
+            return thread;
+        }
+
+        /**
+         * Returns the channel, barrier, Alternative or CALL channel on which
+         * the process is blocked (or null if it is not blocked).
+         */
+        public Object getBlockedOn()
+        {
+            return blockedOn;
+        }
+
+        /**
+         * Returns what the process is blocked doing (or null if it is not blocked).
+         */
+        public Role getRole()
+        {
+            return role;
+        }
+
+        /**
+         * Returns how long (in nanoseconds) the process has been blocked (or 0 if it is not blocked).
+         */
+        public long getBlockedNanos()
+        {
+            return (blockedOn == null) ? 0 : System.nanoTime() - since;
+        }
+
+        public String toString()
+        {
+            final Object on = blockedOn;
+            final String name = ((process == null) ? "thread" : process.getClass().getName())
+                    + " [" + thread.getName() + "]";
+            if (on == null)
+                return name + " running";
+            return name + " blocked in " + role + " on " + on.getClass().getName() + "@"
+                    + Integer.toHexString(System.identityHashCode(on))
+                    + " for " + (getBlockedNanos() / 1000000L) + " ms";
+        }
+    }
+
+    /**
+     * One stripe of the map from resources to their peers.
+     */
+    private static final class PeerStripe extends WeakHashMap<Object, Peers>
+    {
+    }
+
+    /**
+     * The processes seen at each end of a channel or barrier.
+     */
+    private static final class Peers
+    {
+        private final Set<ProcessInfo> readers = Collections.newSetFromMap(new ConcurrentHashMap<ProcessInfo, Boolean>());
+        private final Set<ProcessInfo> writers = Collections.newSetFromMap(new ConcurrentHashMap<ProcessInfo, Boolean>());
+    }
+
+    static volatile boolean enabled = Boolean.getBoolean("jcsp.registry");
+
+    private static final ConcurrentHashMap<Thread, ProcessInfo> processes = new ConcurrentHashMap<Thread, ProcessInfo>();
+
+    /**
+     * The peers of each resource, in stripes (selected by identity hash) so that unrelated
+     * resources do not contend for one lock.  Each stripe is locked by itself.
+     */
+    private static final PeerStripe[] peers = new PeerStripe[64];
+
+    static
+    {
+        for (int i = 0; i < peers.length; i++)
+            peers[i] = new PeerStripe();
+    }
+
+    private static Thread detector = null;
+
+    private ProcessRegistry()
+    {
+    }
+
+    /**
+     * Enables or disables the registry.  Processes already running when it is
+     * enabled are recorded when they next block.
+     *
+     * @param enable true to record processes.
+     */
+    public static void setEnabled(final boolean enable)
+    {
+        enabled = enable;
+        if (!enable)
+        {
+            processes.clear();
+            for (PeerStripe stripe : peers)
+            {
+                synchronized (stripe)
+                {
+                    stripe.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether processes are being recorded.
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Returns a snapshot of the processes currently recorded.
+     */
+    public static List<ProcessInfo> getProcesses()
+    {
+        final List<ProcessInfo> list = new ArrayList<ProcessInfo>();
+        for (ProcessInfo p : processes.values())
+        {
+            if (p.thread.isAlive())
+                list.add(p);
+            else
+                processes.remove(p.thread, p);
+        }
+        return list;
+    }
+
+    /**
+     * Runs a process, recording it while it runs.  Used wherever JCSP runs a process.
+     */
+    static void run(final CSProcess process)
+    {
+        if (!enabled)
+        {
+            process.run();
+            return;
+        }
+        final Thread thread = Thread.currentThread();
+        final ProcessInfo outer = processes.get(thread);
+        final ProcessInfo info = new ProcessInfo(process, outer);
+        processes.put(thread, info);
+        try
+        {
+            process.run();
+        }
+        finally
+        {
+            info.finished = true;
+            for (Peers p : info.seenAt)
+            {
+                p.readers.remove(info);
+                p.writers.remove(info);
+            }
+            info.seenAt.clear();
+            if (outer == null)
+                processes.remove(thread, info);
+            else
+                processes.replace(thread, info, outer);
+        }
+    }
+
+    private static ProcessInfo current()
+    {
+        final Thread thread = Thread.currentThread();
+        ProcessInfo info = processes.get(thread);
+        if (info == null)
+        {
+            info = new ProcessInfo(null, null);
+            processes.put(thread, info);
+        }
+        return info;
+    }
+
+    private static Peers peersOf(final Object resource)
+    {
+        final PeerStripe stripe = peers[System.identityHashCode(resource) & (peers.length - 1)];
+        synchronized (stripe)
+        {
+            Peers p = stripe.get(resource);
+            if (p == null)
+            {
+                p = new Peers();
+                stripe.put(resource, p);
+            }
+            return p;
+        }
+    }
+
+    /**
+     * Records that the invoking process is about to block on a channel, barrier
+     * or CALL channel.  Returns the record to pass to {@link #unblock}, or null
+     * if the registry is disabled.
+     */
+    static ProcessInfo block(final Object resource, final Role role)
+    {
+        if (!enabled)
+            return null;
+        final ProcessInfo info = current();
+        final Peers p = peersOf(resource);
+        if (role == Role.WRITE)
+            p.writers.add(info);
+        else
+            p.readers.add(info);
+        info.seenAt.add(p);
+        info.since = System.nanoTime();
+        info.role = role;
+        info.guards = null;
+        info.blockedOn = resource;
+        return info;
+    }
+
+    /**
+     * Records that the invoking process is about to wait in an Alternative.
+     * Returns the record to pass to {@link #unblock}, or null if the registry
+     * is disabled.
+     */
+    static ProcessInfo select(final Alternative alt, final Guard[] guard)
+    {
+        if (!enabled)
+            return null;
+        final ProcessInfo info = current();
+        final Object[] resources = new Object[guard.length];
+        for (int i = 0; i < guard.length; i++)
+        {
+            resources[i] = guard[i].waitResource();
+            if (resources[i] != null)
+            {
+                final Peers p = peersOf(resources[i]);
+                p.readers.add(info);
+                info.seenAt.add(p);
+            }
+        }
+        info.since = System.nanoTime();
+        info.role = Role.SELECT;
+        info.guards = resources;
+        info.blockedOn = alt;
+        return info;
+    }
+
+    /**
+     * Records that the process has stopped blocking (a null record is ignored).
+     */
+    static void unblock(final ProcessInfo info)
+    {
+        if (info == null)
+            return;
+        info.blockedOn = null;
+        info.role = null;
+        info.guards = null;
+    }
+
+    /**
+     * Returns the processes for which a blocked process is waiting
+     * (or null if it may be released by something other than a process).
+     */
+    private static Set<ProcessInfo> waitingFor(final ProcessInfo info, final Object on, final Role role)
+    {
+        final Set<ProcessInfo> result = new HashSet<ProcessInfo>();
+        if (role == Role.SELECT)
+        {
+            final Object[] resources = info.guards;
+            if (resources == null)
+                return null;
+            for (Object r : resources)
+            {
+                if (r == null)
+                    return null;
+                collect(peersOf(r).writers, result);
+            }
+        }
+        else
+        {
+            final Peers p = peersOf(on);
+            collect((role == Role.READ) ? p.writers : p.readers, result);
+        }
+        result.remove(info);
+        // a barrier party that has not yet synchronised is unknown, and may yet release the others
+        if ((role == Role.SYNC) && (on instanceof Barrier) && (result.size() + 1 < ((Barrier) on).enrolled()))
+            return null;
+        return result;
+    }
+
+    /**
+     * Adds the live processes in a peer set to the result, pruning from the set
+     * those that have finished (or whose thread has died without finishing).
+     */
+    private static void collect(final Set<ProcessInfo> from, final Set<ProcessInfo> into)
+    {
+        for (java.util.Iterator<ProcessInfo> i = from.iterator(); i.hasNext();)
+        {
+            final ProcessInfo q = i.next();
+            if (q.finished || !q.thread.isAlive())
+                i.remove();
+            else
+                into.add(q);
+        }
+    }
+
+    /**
+     * Finds the sets of processes that are deadlocked: every process in a set has
+     * been blocked for at least <TT>minBlockedNanos</TT>, waiting only for other
+     * processes in the set.
+     *
+     * @param minBlockedNanos how long a process must have been blocked to be considered.
+     * @return the deadlocked sets (empty if there are none).
+     */
+    public static List<List<ProcessInfo>> findDeadlocks(final long minBlockedNanos)
+    {
+        final long now = System.nanoTime();
+        final Map<ProcessInfo, Set<ProcessInfo>> graph = new IdentityHashMap<ProcessInfo, Set<ProcessInfo>>();
+        for (ProcessInfo p : getProcesses())
+        {
+            final Object on = p.blockedOn;
+            final Role role = p.role;
+            if ((on == null) || (role == null) || (now - p.since < minBlockedNanos))
+                continue;
+            final Set<ProcessInfo> waits = waitingFor(p, on, role);
+            if ((waits != null) && !waits.isEmpty())
+                graph.put(p, waits);
+        }
+        // discard processes that may yet be released by one that is not in the graph
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (java.util.Iterator<Map.Entry<ProcessInfo, Set<ProcessInfo>>> i = graph.entrySet().iterator(); i.hasNext();)
+            {
+                for (ProcessInfo q : i.next().getValue())
+                {
+                    if (!graph.containsKey(q))
+                    {
+                        i.remove();
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return components(graph);
+    }
+
+    /**
+     * Splits the remaining wait-for graph into its connected sets of processes.
+     */
+    private static List<List<ProcessInfo>> components(final Map<ProcessInfo, Set<ProcessInfo>> graph)
+    {
+        final Map<ProcessInfo, Set<ProcessInfo>> links = new IdentityHashMap<ProcessInfo, Set<ProcessInfo>>();
+        for (Map.Entry<ProcessInfo, Set<ProcessInfo>> e : graph.entrySet())
+        {
+            for (ProcessInfo q : e.getValue())
+            {
+                link(links, e.getKey(), q);
+                link(links, q, e.getKey());
+            }
+        }
+        final List<List<ProcessInfo>> result = new ArrayList<List<ProcessInfo>>();
+        final Set<ProcessInfo> seen = Collections.newSetFromMap(new IdentityHashMap<ProcessInfo, Boolean>());
+        for (ProcessInfo p : graph.keySet())
+        {
+            if (!seen.add(p))
+                continue;
+            final List<ProcessInfo> component = new ArrayList<ProcessInfo>();
+            final List<ProcessInfo> stack = new ArrayList<ProcessInfo>();
+            stack.add(p);
+            while (!stack.isEmpty())
+            {
+                final ProcessInfo q = stack.remove(stack.size() - 1);
+                component.add(q);
+                for (ProcessInfo r : links.get(q))
+                {
+                    if (seen.add(r))
+                        stack.add(r);
+                }
+            }
+            result.add(component);
+        }
+        return result;
+    }
+
+    private static void link(final Map<ProcessInfo, Set<ProcessInfo>> links, final ProcessInfo a, final ProcessInfo b)
+    {
+        Set<ProcessInfo> s = links.get(a);
+        if (s == null)
+        {
+            s = new HashSet<ProcessInfo>();
+            links.put(a, s);
+        }
+        s.add(b);
+    }
+
+    /**
+     * Starts a daemon thread that searches for deadlocks every <TT>periodMillis</TT>
+     * (considering processes blocked for at least that long), reporting each new one
+     * on <TT>System.err</TT>.  This also enables the registry.
+     *
+     * @param periodMillis the interval between searches.
+     */
+    public static void startDetector(final long periodMillis)
+    {
+        startDetector(periodMillis, new DeadlockListener()
+        {
+            public void deadlocked(final List<ProcessInfo> processes)
+            {
+                final StringBuilder sb = new StringBuilder("*** jcsp.lang.ProcessRegistry: deadlock between "
+                        + processes.size() + " processes:");
+                for (ProcessInfo p : processes)
+                    sb.append("\n    ").append(p);
+                System.err.println(sb);
+            }
+        });
+    }
+
+    /**
+     * Starts a daemon thread that searches for deadlocks every <TT>periodMillis</TT>
+     * (considering processes blocked for at least that long), passing each new one
+     * to the listener.  This also enables the registry.  Any detector already
+     * running is stopped.
+     *
+     * @param periodMillis the interval between searches.
+     * @param listener receives the deadlocks found.
+     */
+    public static synchronized void startDetector(final long periodMillis, final DeadlockListener listener)
+    {
+        if (periodMillis <= 0)
+            throw new IllegalArgumentException("*** Attempt to start a deadlock detector with period " + periodMillis);
+        stopDetector();
+        setEnabled(true);
+        final Thread t = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                final Map<Set<ProcessInfo>, Boolean> reported = new HashMap<Set<ProcessInfo>, Boolean>();
+                try
+                {
+                    while (!Thread.currentThread().isInterrupted())
+                    {
+                        Thread.sleep(periodMillis);
+                        final Map<Set<ProcessInfo>, Boolean> current = new HashMap<Set<ProcessInfo>, Boolean>();
+                        for (List<ProcessInfo> deadlock : findDeadlocks(periodMillis * 1000000L))
+                        {
+                            final Set<ProcessInfo> key = new HashSet<ProcessInfo>(deadlock);
+                            current.put(key, Boolean.TRUE);
+                            if (!reported.containsKey(key))
+                                listener.deadlocked(deadlock);
+                        }
+                        reported.clear();
+                        reported.putAll(current);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    // stopped
+                }
+            }
+        }, "jcsp-DeadlockDetector");
+        t.setDaemon(true);
+        detector = t;
+        t.start();
+    }
+
+    /**
+     * Stops the deadlock detector thread, if one is running.
+     */
+    public static synchronized void stopDetector()
+    {
+        if (detector != null)
+        {
+            detector.interrupt();
+            detector = null;
+        }
+    }
+}
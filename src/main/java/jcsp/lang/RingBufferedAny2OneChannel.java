@@ -0,0 +1,80 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+/**
+ * This implements an any-to-one object channel with a lock-free
+ * multi-producer/single-consumer ring buffer.
+ * <H2>Description</H2>
+ * <TT>RingBufferedAny2OneChannel</TT> gives the same semantics as a
+ * {@link BufferedAny2OneChannel} constructed with a {@link jcsp.util.Buffer}
+ * of the same size.  Unlike that channel, writers are not serialised by a
+ * shared monitor: each claims the next slot with a single compare-and-set
+ * on the tail and then deposits its message directly.  Messages are read
+ * in the order in which their slots were claimed.
+ *
+ * @see RingBufferedChannel
+ * @see Channel#any2oneRing(int)
+ */
+
+class RingBufferedAny2OneChannel<T> extends RingBufferedChannel<T> implements Any2OneChannel<T>
+{
+    /**
+     * Constructs a channel that will hold up to <TT>size</TT> messages.
+     *
+     * @param size the capacity of the channel.
+     */
+    RingBufferedAny2OneChannel(int size)
+    {
+        super(size);
+    }
+
+    /**
+     * Writes an <TT>Object</TT> to the channel.
+     *
+     * @param value the object to write to the channel.
+     */
+    public void write(T value)
+    {
+        while (true)
+        {
+            final long t = tail.get();
+            if (t - head.get() >= capacity)
+            {
+                awaitNotFull(t);
+            }
+            else if (tail.compareAndSet(t, t + 1))
+            {
+                publish(t, value);
+                return;
+            }
+        }
+    }
+
+    public AltingChannelInput<T> in()
+    {
+        return new AltingChannelInputImpl<T>(this, 0);
+    }
+
+    public SharedChannelOutput<T> out()
+    {
+        return new SharedChannelOutputImpl<T>(this, 0);
+    }
+}
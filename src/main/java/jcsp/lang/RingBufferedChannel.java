@@ -0,0 +1,411 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is the common (single reader) part of the lock-free, ring-buffered
+ * channels.
+ * <H2>Description</H2>
+ * Messages are held in a ring whose length is a power of two (so that slots
+ * are indexed by masking rather than by <TT>%</TT>).  The <I>head</I> (next
+ * message to be read) and <I>tail</I> (next slot to be claimed) are
+ * monotonically increasing sequence numbers, each in its own cache line.
+ * A slot is non-null if, and only if, it holds an unread message
+ * (<TT>null</TT> messages are carried by a marker object).
+ * <P>
+ * The reader only parks when the ring is <I>empty</I> and a writer only waits
+ * when the ring is <I>full</I>; otherwise no process is ever blocked or woken.
+ * A waiting reader (parked <TT>Thread</TT> or enabled {@link Alternative}) is
+ * recorded in <TT>readerWaiter</TT>; a writer that finds it there marks it
+ * <TT>SCHEDULING</TT> while it wakes the reader, so that the reader's
+ * <TT>disable</TT> cannot complete before the wake-up has been delivered.
+ * <P>
+ * Subclasses define how writers claim slots: {@link RingBufferedOne2OneChannel}
+ * for a single writer and {@link RingBufferedAny2OneChannel} for many.
+ *
+ * @see Channel#one2oneRing(int)
+ * @see Channel#any2oneRing(int)
+ */
+
+abstract class RingBufferedChannel<T> implements ChannelInternals<T>
+{
+    /** An <TT>AtomicLong</TT> padded to fill its own cache line */
+    static final class PaddedAtomicLong extends AtomicLong
+    {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    /** The marker recorded in <TT>readerWaiter</TT> while a writer wakes the reader */
+    private static final Object SCHEDULING = new Object();
+
+    /** The marker stored in place of a <TT>null</TT> message */
+    private static final Object NULL_MESSAGE = new Object();
+
+    /** The number of spins before blocking (zero on a uniprocessor) */
+    static final int SPINS = SpinningOne2OneChannelImpl.SPINS;
+
+    /** The ring of messages */
+    final AtomicReferenceArray<Object> ring;
+
+    /** The ring length less one */
+    final int mask;
+
+    /** The number of messages the channel may hold */
+    final int capacity;
+
+    /** The sequence number of the next message to be read (written only by the reader) */
+    final PaddedAtomicLong head = new PaddedAtomicLong();
+
+    /** The sequence number of the next slot to be written */
+    final PaddedAtomicLong tail = new PaddedAtomicLong();
+
+    /** null, the parked reader <TT>Thread</TT>, the enabled <TT>Alternative</TT> or <TT>SCHEDULING</TT> */
+    private final AtomicReference<Object> readerWaiter = new AtomicReference<Object>();
+
+    /** The number of writers blocked because the ring is full */
+    private final AtomicInteger writersWaiting = new AtomicInteger();
+
+    /** The lock on which writers block when the ring is full */
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    /** The condition on which writers block when the ring is full */
+    private final Condition notFull = writerLock.newCondition();
+
+    /**
+     * Constructs a channel that will hold up to <TT>size</TT> messages.
+     *
+     * @param size the capacity of the channel.
+     * @throws jcsp.util.BufferSizeError if <TT>size</TT> is not positive.
+     */
+    RingBufferedChannel(int size)
+    {
+        if (size <= 0)
+            throw new jcsp.util.BufferSizeError(
+                    "\n*** Attempt to create a ring-buffered channel with non-positive capacity");
+        if (size > (1 << 30))
+            throw new jcsp.util.BufferSizeError(
+                    "\n*** Attempt to create a ring-buffered channel with capacity above 2^30");
+        int length = 1;
+        while (length < size)
+            length <<= 1;
+        ring = new AtomicReferenceArray<Object>(length);
+        mask = length - 1;
+        capacity = size;
+    }
+
+    /*************Writer side*********************************************/
+
+    /**
+     * Deposits a message in the slot with the given (claimed) sequence number
+     * and wakes the reader if it is waiting.
+     */
+    final void publish(final long sequence, final T value)
+    {
+        ring.set((int) sequence & mask, (value == null) ? NULL_MESSAGE : value);
+        final Object w = readerWaiter.get();
+        if ((w != null) && (w != SCHEDULING) && readerWaiter.compareAndSet(w, SCHEDULING))
+        {
+            if (w instanceof Alternative)
+                ((Alternative) w).schedule();
+            else
+                LockSupport.unpark((Thread) w);
+            readerWaiter.set(null);
+        }
+    }
+
+    /**
+     * Blocks the writer until the slot with the given sequence number is
+     * within the capacity of the ring.
+     */
+    final void awaitNotFull(final long sequence)
+    {
+        for (int spins = SPINS; spins > 0; spins--)
+        {
+            if (sequence - head.get() < capacity)
+                return;
+        }
+        writersWaiting.incrementAndGet();
+        writerLock.lock();
+        try
+        {
+            while (sequence - head.get() >= capacity)
+            {
+                notFull.await();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            throw new ProcessInterruptedException(
+                    "*** Thrown from RingBufferedChannel.write (Object)\n" + e.toString());
+        }
+        finally
+        {
+            writerLock.unlock();
+            writersWaiting.decrementAndGet();
+        }
+    }
+
+    /*************Reader side*********************************************/
+
+    /**
+     * Reads an <TT>Object</TT> from the channel.
+     *
+     * @return the object read from the channel.
+     */
+    public T read()
+    {
+        final T value = startRead();
+        endRead();
+        return value;
+    }
+
+    /**
+     * Returns the oldest message, blocking if there is none, but does not
+     * remove it from the channel until {@link #endRead()}.
+     *
+     * @return the object read from the channel.
+     */
+    public T startRead()
+    {
+        Object value = ring.get((int) head.get() & mask);
+        if (value == null)
+        {
+            awaitNotEmpty();
+            value = ring.get((int) head.get() & mask);
+        }
+        return message(value);
+    }
+
+    /**
+     * Removes the oldest message from the channel, waking any writers
+     * blocked because it was full.
+     */
+    public void endRead()
+    {
+        final long h = head.get();
+        ring.set((int) h & mask, null);
+        advanceHead(h + 1);
+    }
+
+    /**
+     * Reads up to <TT>max</TT> messages into a collection, blocking only if
+     * there are none.  The head is advanced, and blocked writers woken, once
+     * for the whole batch.
+     *
+     * @param collection the collection to which the messages are added.
+     * @param max the maximum number of messages to read.
+     * @return the number of messages read.
+     */
+    public int drainTo(java.util.Collection<? super T> collection, int max)
+    {
+        if (max <= 0)
+            return 0;
+        if (isEmpty())
+            awaitNotEmpty();
+        final long h = head.get();
+        int n = 0;
+        Object value;
+        while ((n < max) && ((value = ring.get((int) (h + n) & mask)) != null))
+        {
+            collection.add(message(value));
+            ring.set((int) (h + n) & mask, null);
+            n++;
+        }
+        advanceHead(h + n);
+        return n;
+    }
+
+    /**
+     * Reads up to <TT>max</TT> messages into an array, blocking only if
+     * there are none.  The head is advanced, and blocked writers woken, once
+     * for the whole batch.
+     *
+     * @param values the array in which the messages are stored.
+     * @param offset the index in <TT>values</TT> of the first message read.
+     * @param max the maximum number of messages to read.
+     * @return the number of messages read.
+     */
+    public int drainTo(T[] values, int offset, int max)
+    {
+        if (max <= 0)
+            return 0;
+        if (isEmpty())
+            awaitNotEmpty();
+        final long h = head.get();
+        int n = 0;
+        Object value;
+        while ((n < max) && ((value = ring.get((int) (h + n) & mask)) != null))
+        {
+            values[offset + n] = message(value);
+            ring.set((int) (h + n) & mask, null);
+            n++;
+        }
+        advanceHead(h + n);
+        return n;
+    }
+
+    /**
+     * Converts an element of the ring back into the message written.
+     *
+     * @param value the element of the ring.
+     * @return the message.
+     */
+    @SuppressWarnings("unchecked")
+    private T message(Object value)
+    {
+        return (value == NULL_MESSAGE) ? null : (T) value;
+    }
+
+    /**
+     * Moves the head on to the given sequence number, waking any writers
+     * blocked because the ring was full.
+     */
+    private void advanceHead(final long h)
+    {
+        head.set(h);
+        if (writersWaiting.get() > 0)
+        {
+            writerLock.lock();
+            try
+            {
+                notFull.signalAll();
+            }
+            finally
+            {
+                writerLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the slot at the head holds no message.
+     */
+    private boolean isEmpty()
+    {
+        return ring.get((int) head.get() & mask) == null;
+    }
+
+    /**
+     * Blocks the reader (spinning, then parking) until there is a message.
+     */
+    private void awaitNotEmpty()
+    {
+        int spins = SPINS;
+        while (isEmpty())
+        {
+            if (spins > 0)
+            {
+                spins--;
+                continue;
+            }
+            final Thread me = Thread.currentThread();
+            if (readerWaiter.compareAndSet(null, me))
+            {
+                if (isEmpty())
+                    LockSupport.park(this);
+                if (!readerWaiter.compareAndSet(me, null))
+                    awaitScheduled();
+                if (Thread.interrupted())
+                    throw new ProcessInterruptedException("*** Thrown from RingBufferedChannel.read ()\n");
+            }
+            else
+            {
+                Thread.yield();        // SCHEDULING -- a writer is finishing a wake-up
+            }
+        }
+    }
+
+    /**
+     * Waits for a writer to finish delivering a wake-up to the reader.
+     */
+    private void awaitScheduled()
+    {
+        while (readerWaiter.get() != null)
+        {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * turns on Alternative selection for the channel. Returns true if the
+     * channel has data that can be read immediately.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative class</I>
+     *
+     * @param alt the Alternative class which will control the selection
+     * @return true if the channel has data that can be read, else false
+     */
+    public boolean readerEnable(Alternative alt)
+    {
+        if (!isEmpty())
+            return true;
+        while (!readerWaiter.compareAndSet(null, alt))
+        {
+            Thread.yield();            // SCHEDULING -- a writer is finishing a wake-up
+        }
+        if (isEmpty())
+            return false;
+        readerWaiter.compareAndSet(alt, null);    // if this fails, disable will wait for the wake-up
+        return true;
+    }
+
+    /**
+     * turns off Alternative selection for the channel. Returns true if the
+     * channel contained data that can be read.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative class</I>
+     *
+     * @return true if the channel has data that can be read, else false
+     */
+    public boolean readerDisable()
+    {
+        final Object w = readerWaiter.get();
+        if ((w == SCHEDULING) || ((w != null) && !readerWaiter.compareAndSet(w, null)))
+            awaitScheduled();
+        return !isEmpty();
+    }
+
+    /**
+     * Returns whether there is data pending on this channel.
+     *
+     * @return state of the channel.
+     */
+    public boolean readerPending()
+    {
+        return !isEmpty();
+    }
+
+    //No poison in these channels:
+    public void writerPoison(int strength)
+    {
+    }
+
+    public void readerPoison(int strength)
+    {
+    }
+}
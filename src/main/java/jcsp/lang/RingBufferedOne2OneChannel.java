@@ -0,0 +1,81 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+/**
+ * This implements a one-to-one object channel with a lock-free
+ * single-producer/single-consumer ring buffer.
+ * <H2>Description</H2>
+ * <TT>RingBufferedOne2OneChannel</TT> gives the same semantics as a
+ * {@link BufferedOne2OneChannel} constructed with a {@link jcsp.util.Buffer}
+ * of the same size: a blocking FIFO that never loses data.  As there is only
+ * one writer, it claims slots without any atomic read-modify-write and only
+ * re-reads the (shared) head when its cached copy says the ring is full.
+ *
+ * @see RingBufferedChannel
+ * @see Channel#one2oneRing(int)
+ */
+
+class RingBufferedOne2OneChannel<T> extends RingBufferedChannel<T> implements One2OneChannel<T>
+{
+    /** The writer's (possibly stale) copy of the head */
+    private long headCache = 0;
+
+    /**
+     * Constructs a channel that will hold up to <TT>size</TT> messages.
+     *
+     * @param size the capacity of the channel.
+     */
+    RingBufferedOne2OneChannel(int size)
+    {
+        super(size);
+    }
+
+    /**
+     * Writes an <TT>Object</TT> to the channel.
+     *
+     * @param value the object to write to the channel.
+     */
+    public void write(T value)
+    {
+        final long t = tail.get();
+        if (t - headCache >= capacity)
+        {
+            headCache = head.get();
+            if (t - headCache >= capacity)
+            {
+                awaitNotFull(t);
+                headCache = head.get();
+            }
+        }
+        tail.lazySet(t + 1);
+        publish(t, value);
+    }
+
+    public AltingChannelInput<T> in()
+    {
+        return new AltingChannelInputImpl<T>(this, 0);
+    }
+
+    public ChannelOutput<T> out()
+    {
+        return new ChannelOutputImpl<T>(this, 0);
+    }
+}
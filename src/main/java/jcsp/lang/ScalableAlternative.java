@@ -0,0 +1,392 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This enables a process to wait passively for and choose between a very
+ * large number of channel inputs, at a cost that depends on how many are
+ * <i>ready</i> rather than on how many there are.
+ * <H2>Description</H2>
+ * <TT>ScalableAlternative</TT> offers the same {@link #select() <tt>select</tt>},
+ * {@link #priSelect() <tt>priSelect</tt>} and {@link #fairSelect() <tt>fairSelect</tt>}
+ * operations (with and without <i>pre-conditions</i>) as {@link Alternative},
+ * with the same semantics.  However, an <tt>Alternative</tt> enables and then
+ * disables <i>every</i> guard on every selection, which dominates the cost of
+ * a server process ALTing over thousands of mostly idle clients.
+ * <P>
+ * Instead, a <tt>ScalableAlternative</tt> leaves its guards enabled from one
+ * selection to the next.  When a guard becomes ready, its channel wakes a
+ * per-guard call-back which records the guard's index in a <i>ready-set</i>
+ * (a two-level bitmap).  A selection just takes the lowest-indexed (for
+ * <tt>priSelect</tt>) or next-after-the-last-selected (for <tt>fairSelect</tt>)
+ * member of that set, disables and returns that one guard.  Only that guard is
+ * enabled again, at the start of the next selection.  Every guard is enabled
+ * once, at the first selection.
+ * <P>
+ * <I>Restrictions</I>: the guards must be channel inputs ({@link AltingChannelInput}
+ * and its <tt>int</tt>, <tt>long</tt> and <tt>double</tt> counterparts) obtained
+ * from the channels in {@link Channel} &ndash; an {@link AlternativeError} is thrown
+ * for any other kind of guard.  Between selections, the process must read only
+ * from the channel whose index was returned by the last selection (as it would
+ * anyway), since the others are still enabled.  If the channels are to be used
+ * in any other way once the process has finished selecting over them, it must
+ * first invoke {@link #disableAll()}.
+ *
+ * @see Alternative
+ * @see Guard
+ */
+
+public class ScalableAlternative
+{
+    /**
+     * The call-back left with an enabled guard: its channel invokes
+     * <tt>schedule</tt> when it becomes ready.
+     */
+    private static final class ReadyCallback extends Alternative
+    {
+        private static final Guard[] NO_GUARDS = new Guard[0];
+
+        private final ScalableAlternative owner;
+
+        private final int index;
+
+        ReadyCallback(ScalableAlternative owner, int index)
+        {
+            super(NO_GUARDS);
+            this.owner = owner;
+            this.index = index;
+        }
+
+        void schedule()
+        {
+            owner.ready(index);
+        }
+    }
+
+    /** The array of guard events from which we are selecting */
+    private final Guard[] guard;
+
+    /** The call-back enabled with each guard */
+    private final ReadyCallback[] callback;
+
+    /** The lock protecting the ready-set */
+    private final ReentrantLock readyLock = new ReentrantLock();
+
+    /** The condition on which the selecting process waits */
+    private final Condition notEmpty = readyLock.newCondition();
+
+    /** One bit per guard, set when the guard is (reported) ready */
+    private final long[] readyBits;
+
+    /** One bit per word of <tt>readyBits</tt>, set when the word is non-zero */
+    private final long[] readySummary;
+
+    /** Whether the selecting process is waiting */
+    private boolean waiting = false;
+
+    /** The indices of the guards to be enabled at the start of the next selection */
+    private final int[] toEnable;
+
+    /** The number of guards to be enabled at the start of the next selection */
+    private int nToEnable;
+
+    /** The index of the guard with highest priority for the next fair select */
+    private int favourite = 0;
+
+    /**
+     * Construct a <code>ScalableAlternative</code> object operating on the given
+     * array of channel inputs.
+     *
+     * @param guard the event guards over which the select operations will be made.
+     * @throws AlternativeError if any guard is not a channel input.
+     */
+    public ScalableAlternative(final Guard[] guard)
+    {
+        for (int i = 0; i < guard.length; i++)
+        {
+            if (!guard[i].mayStayEnabled())
+                throw new AlternativeError(
+                        "*** ScalableAlternative guard " + i + " is not a channel input: " + guard[i]);
+        }
+        this.guard = guard;
+        callback = new ReadyCallback[guard.length];
+        toEnable = new int[guard.length];
+        for (int i = 0; i < guard.length; i++)
+        {
+            callback[i] = new ReadyCallback(this, i);
+            toEnable[i] = i;
+        }
+        nToEnable = guard.length;
+        readyBits = new long[(guard.length + 63) >>> 6];
+        readySummary = new long[(readyBits.length + 63) >>> 6];
+    }
+
+    /**
+     * Returns the index of one of the ready guards. The method will block
+     * until one of the guards becomes ready.  If more than one is ready,
+     * an <I>arbitrary</I> choice is made.
+     *
+     * @return the index of the selected guard.
+     */
+    public final int select()
+    {
+        return fairSelect();
+    }
+
+    /**
+     * Returns the index of one of the ready guards. The method will block
+     * until one of the guards becomes ready.  If more than one is ready,
+     * the one with the lowest index is selected.
+     *
+     * @return the index of the selected guard.
+     */
+    public final int priSelect()
+    {
+        return doSelect(0, null);
+    }
+
+    /**
+     * Returns the index of one of the ready guards. The method will block
+     * until one of the guards becomes ready.  Consecutive invocations will
+     * service the guards `fairly' in the case when many guards are always
+     * ready.  <I>Implementation note: the last guard serviced has the lowest
+     * priority next time around.</I>
+     *
+     * @return the index of the selected guard.
+     */
+    public final int fairSelect()
+    {
+        return fairSelect(null);
+    }
+
+    /**
+     * Returns the index of one of the ready guards whose <code>preCondition</code>
+     * index is true. The method will block until one of these guards becomes
+     * ready.  If more than one is ready, an <I>arbitrary</I> choice is made.
+     *
+     * @param preCondition the guards from which to select
+     * @return the index of the selected guard.
+     */
+    public final int select(boolean[] preCondition)
+    {
+        return fairSelect(preCondition);
+    }
+
+    /**
+     * Returns the index of one of the ready guards whose <code>preCondition</code>
+     * index is true. The method will block until one of these guards becomes
+     * ready.  If more than one is ready, the one with the lowest index is selected.
+     *
+     * @param preCondition the guards from which to select
+     * @return the index of the selected guard.
+     */
+    public final int priSelect(boolean[] preCondition)
+    {
+        return doSelect(0, preCondition);
+    }
+
+    /**
+     * Returns the index of one of the ready guards whose <code>preCondition</code>
+     * index is true. The method will block until one of these guards becomes
+     * ready.  Consecutive invocations will service the guards `fairly' in the
+     * case when many guards are always ready.
+     *
+     * @param preCondition the guards from which to select
+     * @return the index of the selected guard.
+     */
+    public final int fairSelect(boolean[] preCondition)
+    {
+        final int selected = doSelect(favourite, preCondition);
+        favourite = (selected + 1 == guard.length) ? 0 : selected + 1;
+        return selected;
+    }
+
+    /**
+     * Disables all the guards left enabled by previous selections.  This must
+     * be invoked before the channels are used other than through this object
+     * (e.g. read without first selecting them, or selected by an {@link Alternative}).
+     * The next selection will enable them all again.
+     */
+    public void disableAll()
+    {
+        final boolean[] pending = new boolean[guard.length];
+        for (int k = 0; k < nToEnable; k++)
+        {
+            pending[toEnable[k]] = true;
+        }
+        nToEnable = 0;
+        for (int i = 0; i < guard.length; i++)
+        {
+            if (!pending[i])
+                guard[i].disable();
+            toEnable[nToEnable++] = i;
+        }
+        readyLock.lock();
+        try
+        {
+            java.util.Arrays.fill(readyBits, 0);
+            java.util.Arrays.fill(readySummary, 0);
+        }
+        finally
+        {
+            readyLock.unlock();
+        }
+    }
+
+    /**
+     * Enables the guards disabled by the last selection, waits for a guard
+     * (with a true pre-condition) to be ready and disables it.
+     *
+     * @param start the index from which to look (cyclically) for a ready guard.
+     * @param preCondition the guards from which to select, or null for all.
+     * @return the index of the selected guard.
+     */
+    private int doSelect(final int start, final boolean[] preCondition)
+    {
+        while (true)
+        {
+            for (int k = 0; k < nToEnable; k++)
+            {
+                final int i = toEnable[k];
+                if (guard[i].enable(callback[i]))
+                    ready(i);
+            }
+            nToEnable = 0;
+            int selected;
+            readyLock.lock();
+            try
+            {
+                while ((selected = findReady(start, preCondition)) < 0)
+                {
+                    waiting = true;
+                    try
+                    {
+                        notEmpty.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new ProcessInterruptedException(
+                                "*** Thrown from ScalableAlternative.select ()\n" + e.toString());
+                    }
+                    finally
+                    {
+                        waiting = false;
+                    }
+                }
+                clearReady(selected);
+            }
+            finally
+            {
+                readyLock.unlock();
+            }
+            toEnable[nToEnable++] = selected;
+            if (guard[selected].disable())
+                return selected;
+            // the readiness was reported but has gone: enable it again and carry on waiting
+        }
+    }
+
+    /**
+     * Records that a guard is ready, waking the selecting process if it is waiting.
+     * This is in the flow of control of the process that made the guard ready
+     * (or of the selecting process, if the guard was ready when enabled).
+     */
+    private void ready(final int i)
+    {
+        readyLock.lock();
+        try
+        {
+            readyBits[i >>> 6] |= 1L << i;
+            readySummary[i >>> 12] |= 1L << (i >>> 6);
+            if (waiting)
+                notEmpty.signal();
+        }
+        finally
+        {
+            readyLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a guard from the ready-set (which must be locked).
+     */
+    private void clearReady(final int i)
+    {
+        final int w = i >>> 6;
+        readyBits[w] &= ~(1L << i);
+        if (readyBits[w] == 0)
+            readySummary[w >>> 6] &= ~(1L << w);
+    }
+
+    /**
+     * Returns the first member of the ready-set (which must be locked) at or
+     * after <tt>from</tt>, or -1 if there is none.
+     */
+    private int nextReady(final int from)
+    {
+        if (from >= guard.length)
+            return -1;
+        int w = from >>> 6;
+        final long bits = readyBits[w] & (-1L << from);
+        if (bits != 0)
+            return (w << 6) + Long.numberOfTrailingZeros(bits);
+        w++;
+        if (w >= readyBits.length)
+            return -1;
+        int s = w >>> 6;
+        long summaryBits = readySummary[s] & (-1L << w);
+        while (summaryBits == 0)
+        {
+            if (++s >= readySummary.length)
+                return -1;
+            summaryBits = readySummary[s];
+        }
+        w = (s << 6) + Long.numberOfTrailingZeros(summaryBits);
+        return (w << 6) + Long.numberOfTrailingZeros(readyBits[w]);
+    }
+
+    /**
+     * Returns the first member of the ready-set (which must be locked), looking
+     * cyclically from <tt>start</tt>, whose pre-condition is true, or -1 if there
+     * is none.
+     */
+    private int findReady(final int start, final boolean[] preCondition)
+    {
+        int i = nextReady(start);
+        while ((i >= 0) && (preCondition != null) && !preCondition[i])
+        {
+            i = nextReady(i + 1);
+        }
+        if ((i < 0) && (start > 0))
+        {
+            i = nextReady(0);
+            while ((i >= 0) && (i < start) && (preCondition != null) && !preCondition[i])
+            {
+                i = nextReady(i + 1);
+            }
+            if (i >= start)
+                i = -1;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,333 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Barrier} whose synchronisation scales to many enrolled processes.
+ * <H2>Description</H2>
+ * <TT>ScalableBarrier</TT> has exactly the semantics of {@link Barrier} -
+ * including {@link #enroll enroll}, {@link #resign resign} and {@link #reset reset} -
+ * and may be used wherever a <TT>Barrier</TT> is expected.  Only the
+ * implementation differs.
+ * <P>
+ * A <TT>Barrier</TT> funnels every <TT>sync</TT> through one lock and releases
+ * each cycle with a <TT>signalAll</TT>, after which the released processes contend
+ * for that lock again.  Here, the enrollment count, the count of processes yet to
+ * synchronise and a <I>phase</I> number are packed into a single atomic word,
+ * so that arriving (and enrolling and resigning) is one compare-and-set with no lock.
+ * The last process to arrive resets the count and advances the phase (a
+ * <I>sense-reversing</I> barrier, so that the barrier is immediately reusable).
+ * Waiting processes first spin briefly on the phase - on a multi-core machine,
+ * a tightly coupled set of processes is usually released this way, without blocking -
+ * and then park.  Parked processes are released cooperatively: the last process to
+ * arrive starts unparking them, and every process it wakes helps to unpark the rest,
+ * so releasing <TT>n</TT> parked processes takes time logarithmic, rather than
+ * linear, in <TT>n</TT>.
+ * <P>
+ * Because processes may enroll and resign at any time, processes have no fixed
+ * positions in the barrier - so arrival is counted on a single word rather than
+ * combined up a tree of fixed shape.
+ * <P>
+ * A <TT>ScalableBarrier</TT> allows at most 2<sup>21</sup>-1 enrolled processes.
+ *
+ * @see Barrier
+ * @see Parallel
+ */
+
+public class ScalableBarrier extends Barrier
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final int COUNT_BITS = 21;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int MAX_ENROLLED = (int) COUNT_MASK;
+
+    private static final int SPINS = SpinningOne2OneChannelImpl.SPINS;
+
+    /**
+     * A parked process.  <TT>release</TT> is set (before <TT>taken</TT>)
+     * by the process that removes this node from the stack of waiters.
+     */
+    private static final class Waiter
+    {
+        private final Thread thread = Thread.currentThread();
+        private Waiter next;
+        private Release release;
+        private volatile boolean taken = false;
+    }
+
+    /**
+     * The parked processes released by one cycle, unparked by whoever gets there first.
+     */
+    private static final class Release
+    {
+        private final Waiter[] waiters;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private Release(final Waiter[] waiters)
+        {
+            this.waiters = waiters;
+        }
+
+        private void help()
+        {
+            int i;
+            while ((i = cursor.getAndIncrement()) < waiters.length)
+                LockSupport.unpark(waiters[i].thread);
+        }
+    }
+
+    /**
+     * The phase (top bits), number enrolled (middle bits) and number yet to
+     * synchronise in this phase (bottom bits).
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * The stack of parked processes.
+     */
+    private final AtomicReference<Waiter> waiters = new AtomicReference<Waiter>();
+
+    /**
+     * Construct a barrier initially associated with no processes.
+     */
+    public ScalableBarrier()
+    {
+        this(0);
+    }
+
+    /**
+     * Construct a barrier (initially) associated with <TT>nEnrolled</TT> processes.
+     * It is the responsibility of the constructing process to pass this (by constructor
+     * or <TT>set</TT> method) to each process that will be synchronising on the barrier,
+     * <I>before</I> firing up those processes.
+     *
+     * @param nEnrolled the number of processes (initially) associated with this barrier.
+     *
+     * @throws IllegalArgumentException if <TT>nEnrolled</TT> is negative or too large.
+     */
+    public ScalableBarrier(final int nEnrolled)
+    {
+        checkEnrolled(nEnrolled);
+        state.set(pack(0, nEnrolled, nEnrolled));
+    }
+
+    private static void checkEnrolled(final int nEnrolled)
+    {
+        if (nEnrolled < 0)
+            throw new IllegalArgumentException("*** Attempt to set a negative enrollment on a barrier\n");
+        if (nEnrolled > MAX_ENROLLED)
+            throw new IllegalArgumentException("*** Attempt to set an enrollment of " + nEnrolled + " on a barrier\n");
+    }
+
+    private static long pack(final long phase, final long nEnrolled, final long countDown)
+    {
+        return (phase << (2 * COUNT_BITS)) | (nEnrolled << COUNT_BITS) | countDown;
+    }
+
+    private static long phase(final long s)
+    {
+        return s >>> (2 * COUNT_BITS);
+    }
+
+    private static int nEnrolled(final long s)
+    {
+        return (int) ((s >>> COUNT_BITS) & COUNT_MASK);
+    }
+
+    private static int countDown(final long s)
+    {
+        return (int) (s & COUNT_MASK);
+    }
+
+    /**
+     * Reset this barrier to be associated with <TT>nEnrolled</TT> processes.
+     * This must only be done at a time when no processes are active on the barrier.
+     *
+     * @param nEnrolled the number of processes reset to this barrier.
+     *
+     * @throws IllegalArgumentException if <TT>nEnrolled</TT> is negative or too large.
+     */
+    public void reset(final int nEnrolled)
+    {
+        checkEnrolled(nEnrolled);
+        long s;
+        do
+        {
+            s = state.get();
+        }
+        while (!state.compareAndSet(s, pack(phase(s), nEnrolled, nEnrolled)));
+    }
+
+    int enrolled()
+    {
+        return nEnrolled(state.get());
+    }
+
+    /**
+     * Synchronise the invoking process on this barrier.
+     * <I>Any</I> process synchronising on this barrier will be blocked until <I>all</I>
+     * processes associated with the barrier have synchronised (or resigned).
+     */
+    public void sync()
+    {
+        final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(this, ProcessRegistry.Role.SYNC);
+        try
+        {
+            doSync();
+        }
+        finally
+        {
+            ProcessRegistry.unblock(blocked);
+        }
+    }
+
+    private void doSync()
+    {
+        long s;
+        int countDown;
+        do
+        {
+            s = state.get();
+            countDown = countDown(s) - 1;
+            if (countDown <= 0)
+            {
+                if (state.compareAndSet(s, pack(phase(s) + 1, nEnrolled(s), nEnrolled(s))))
+                {
+                    release();
+                    return;
+                }
+            }
+            else if (state.compareAndSet(s, s - 1))
+                break;
+        }
+        while (true);
+        await(phase(s));
+    }
+
+    /**
+     * Associate the invoking process with this barrier.
+     */
+    public void enroll()
+    {
+        long s;
+        do
+        {
+            s = state.get();
+            if (nEnrolled(s) == MAX_ENROLLED)
+                throw new BarrierError("*** Too many processes enrolled on a barrier\n");
+        }
+        while (!state.compareAndSet(s, pack(phase(s), nEnrolled(s) + 1, countDown(s) + 1)));
+    }
+
+    /**
+     * Disassociate the invoking process from this barrier.
+     */
+    public void resign()
+    {
+        long s;
+        int countDown;
+        do
+        {
+            s = state.get();
+            countDown = countDown(s) - 1;
+            if (countDown < 0)
+                throw new BarrierError("*** A process has resigned on a barrier without first enrolling\n");
+            final int nEnrolled = nEnrolled(s) - 1;
+            if (countDown == 0)
+            {
+                if (state.compareAndSet(s, pack(phase(s) + 1, nEnrolled, nEnrolled)))
+                {
+                    release();
+                    return;
+                }
+            }
+            else if (state.compareAndSet(s, pack(phase(s), nEnrolled, countDown)))
+                return;
+        }
+        while (true);
+    }
+
+    /**
+     * Spins, then parks, until the barrier has left the given phase.
+     */
+    private void await(final long phase)
+    {
+        for (int spins = SPINS; spins > 0; spins--)
+        {
+            if (phase(state.get()) != phase)
+                return;
+            Thread.yield();
+        }
+        Waiter node = null;
+        while (phase(state.get()) == phase)
+        {
+            if ((node == null) || node.taken)
+            {
+                if (node != null)
+                    node.release.help();
+                node = new Waiter();
+                Waiter head;
+                do
+                {
+                    head = waiters.get();
+                    node.next = head;
+                }
+                while (!waiters.compareAndSet(head, node));
+                continue;
+            }
+            LockSupport.park(this);
+            if (Thread.interrupted())
+                throw new ProcessInterruptedException("*** Thrown from ScalableBarrier.sync ()\n");
+        }
+        if ((node != null) && node.taken)
+            node.release.help();
+    }
+
+    /**
+     * Unparks (with help from those it wakes) every process parked on the stack.
+     * Called by the process that has just advanced the phase.
+     */
+    private void release()
+    {
+        Waiter head = waiters.getAndSet(null);
+        if (head == null)
+            return;
+        int n = 0;
+        for (Waiter w = head; w != null; w = w.next)
+            n++;
+        final Waiter[] parked = new Waiter[n];
+        final Release release = new Release(parked);
+        int i = 0;
+        for (Waiter w = head; w != null; w = w.next)
+        {
+            parked[i++] = w;
+            w.release = release;
+            w.taken = true;
+        }
+        release.help();
+    }
+}
@@ -36,11 +36,37 @@ class SharedChannelInputImpl<T> implements SharedChannelInput<T> {
 	}
 
 	public T read() {
-		return channel.read();
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.read();
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public T startRead() {
-		return channel.startRead();
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.startRead();
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
+	}
+	public int drainTo(java.util.Collection<? super T> collection, int max) {
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.drainTo(collection, max);
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
+	}
+	public int drainTo(T[] values, int offset, int max) {
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.READ);
+		try {
+			return channel.drainTo(values, offset, max);
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public void poison(int strength) {
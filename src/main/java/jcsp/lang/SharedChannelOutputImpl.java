@@ -31,8 +31,20 @@ class SharedChannelOutputImpl<T> implements SharedChannelOutput<T> {
 	}
 
 	public void write(T object) {
-		channel.write(object);
-
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.WRITE);
+		try {
+			channel.write(object);
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
+	}
+	public void writeAll(T[] values, int offset, int length) {
+		final ProcessRegistry.ProcessInfo blocked = ProcessRegistry.block(channel.resource(), ProcessRegistry.Role.WRITE);
+		try {
+			channel.writeAll(values, offset, length);
+		} finally {
+			ProcessRegistry.unblock(blocked);
+		}
 	}
 
 	public void poison(int strength) {
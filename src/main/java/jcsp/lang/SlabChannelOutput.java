@@ -0,0 +1,64 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This defines the interface for writing to a {@link One2OneChannelSlab <i>slab</i>} channel.
+ * <H2>Description</H2>
+ * As well as the usual (copying) {@link #write(Object) <tt>write</tt>}, the
+ * writing process may build a message <i>in place</i> in the channel's buffer:
+ * {@link #claim() <tt>claim</tt>} returns the next free slot (blocking if there
+ * is none) and {@link #commit() <tt>commit</tt>} passes the bytes written to it
+ * on to the reader.
+ * <PRE>
+ *   ByteBuffer slot = out.claim ();
+ *   slot.putLong (timestamp).putDouble (price);
+ *   out.commit ();
+ * </PRE>
+ * The message consists of the bytes between the start of the slot and its
+ * <tt>position</tt> when <tt>commit</tt> is invoked.  The slot must not be
+ * touched after it has been committed.
+ *
+ * @see One2OneChannelSlab
+ * @see Channel#one2oneSlab(int, int)
+ */
+
+public interface SlabChannelOutput extends ChannelOutput<ByteBuffer>
+{
+    /**
+     * Returns the next free slot of the channel, cleared (position zero, limit
+     * the slot size), blocking until one is available.
+     * <P>
+     * <I>Pre-condition</I>: there must be no slot claimed but not yet committed.
+     *
+     * @return the slot in which to write the next message.
+     */
+    public ByteBuffer claim();
+
+    /**
+     * Passes the message written to the slot returned by the last
+     * {@link #claim() <tt>claim</tt>} on to the reader.
+     * <P>
+     * <I>Pre-condition</I>: a slot must have been claimed but not yet committed.
+     */
+    public void commit();
+}
@@ -0,0 +1,48 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.nio.ByteBuffer;
+
+class SlabChannelOutputImpl implements SlabChannelOutput {
+
+	private One2OneChannelSlabImpl channel;
+
+	SlabChannelOutputImpl(One2OneChannelSlabImpl _channel) {
+		channel = _channel;
+	}
+
+	public ByteBuffer claim() {
+		return channel.claim();
+	}
+
+	public void commit() {
+		channel.commit();
+	}
+
+	public void write(ByteBuffer object) {
+		channel.write(object);
+	}
+
+	public void poison(int strength) {
+		//Slab channels are not poisonable
+	}
+
+}
@@ -0,0 +1,342 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This implements a one-to-one object channel without locks.
+ * <H2>Description</H2>
+ * <TT>SpinningOne2OneChannelImpl</TT> implements a one-to-one object channel
+ * with the same (zero-buffered, fully synchronised) semantics as
+ * {@link One2OneChannelImpl} -- including extended rendezvous and the reader
+ * {@link Alternative <TT>ALT</TT>}ing on the channel.
+ * <P>
+ * Instead of a monitor, the channel keeps its state in a single atomic reference.
+ * A process that must wait first spins for a bounded number of iterations
+ * (on multiprocessors only) and then parks using <TT>LockSupport</TT>.
+ * When reader and writer are running on different processors and arrive at
+ * roughly the same time, a message is transferred without either of them
+ * being descheduled.
+ * <P>
+ * The state reference holds one of:
+ * <UL>
+ *   <LI><TT>EMPTY</TT>: no writer is committed and no reader is waiting;</LI>
+ *   <LI><TT>FULL</TT>: the writer has deposited its message (in <TT>hold</TT>),
+ *       which has not yet been taken;</LI>
+ *   <LI><TT>SCHEDULING</TT>: the writer is waking an alting reader (and will set
+ *       <TT>FULL</TT> when done);</LI>
+ *   <LI>a <TT>Thread</TT>: the reader, parked waiting for a message;</LI>
+ *   <LI>an <TT>Alternative</TT>: the reader is alting on this channel.</LI>
+ * </UL>
+ * The writer waits, after depositing its message, for an acknowledgement from
+ * the reader (given at the end of <TT>read</TT> or by <TT>endRead</TT>).
+ *
+ * @see Channel#one2oneSpinning()
+ * @see One2OneChannelImpl
+ */
+
+class SpinningOne2OneChannelImpl<T> implements One2OneChannel<T>, ChannelInternals<T>
+{
+    /** The number of spins before parking (zero on a uniprocessor) */
+    static final int SPINS = (Runtime.getRuntime().availableProcessors() > 1) ? 256 : 0;
+
+    private static final Object EMPTY = new Object();
+
+    private static final Object FULL = new Object();
+
+    private static final Object SCHEDULING = new Object();
+
+    /** The state of the channel -- see the class description */
+    private final AtomicReference<Object> state = new AtomicReference<Object>(EMPTY);
+
+    /** The (invisible-to-users) buffer used to store the data for the channel */
+    private T hold;
+
+    /** The writer process (waiting for its acknowledgement) */
+    private volatile Thread writer;
+
+    /** Set by the reader when the writer may complete */
+    private volatile boolean acknowledged = false;
+
+    /** Set by the writer when it is about to park waiting for its acknowledgement */
+    private volatile boolean writerParked = false;
+
+    /*************Methods from One2OneChannel******************************/
+
+    /**
+     * Returns the <code>AltingChannelInput</code> to use for this channel.
+     *
+     * @return the <code>AltingChannelInput</code> object to use for this
+     *          channel.
+     */
+    public AltingChannelInput<T> in()
+    {
+        return new AltingChannelInputImpl<T>(this, 0);
+    }
+
+    /**
+     * Returns the <code>ChannelOutput</code> object to use for this channel.
+     *
+     * @return the <code>ChannelOutput</code> object to use for this
+     *          channel.
+     */
+    public ChannelOutput<T> out()
+    {
+        return new ChannelOutputImpl<T>(this, 0);
+    }
+
+    /*************Methods from ChannelOutput*******************************/
+
+    /**
+     * Writes an <TT>Object</TT> to the channel.
+     *
+     * @param value the object to write to the channel.
+     */
+    public void write(T value)
+    {
+        acknowledged = false;      // in case an interrupted write was taken since
+        hold = value;
+        writer = Thread.currentThread();
+        while (true)
+        {
+            final Object s = state.get();
+            if (s == EMPTY)
+            {
+                if (state.compareAndSet(EMPTY, FULL))
+                    break;
+            }
+            else if (s instanceof Alternative)
+            {
+                if (state.compareAndSet(s, SCHEDULING))
+                {
+                    ((Alternative) s).schedule();
+                    state.set(FULL);
+                    break;
+                }
+            }
+            else if (s instanceof Thread)
+            {
+                if (state.compareAndSet(s, FULL))
+                {
+                    LockSupport.unpark((Thread) s);
+                    break;
+                }
+            }
+            else
+            {
+                throw new JCSP_InternalError("*** SpinningOne2OneChannel.write: more than one writer");
+            }
+        }
+        awaitAcknowledgement();
+    }
+
+    /**
+     * Waits (spinning, then parking) for the reader to take the message.  If
+     * the writer is interrupted, the message is left in the channel (as with
+     * {@link One2OneChannelImpl}), since an alting reader may already have
+     * selected it.
+     */
+    private void awaitAcknowledgement()
+    {
+        int spins = SPINS;
+        while (!acknowledged)
+        {
+            if (spins > 0)
+            {
+                spins--;
+                continue;
+            }
+            writerParked = true;
+            if (!acknowledged)
+                LockSupport.park(this);
+            writerParked = false;
+            if (Thread.interrupted())
+            {
+                if (!acknowledged)
+                    throw new ProcessInterruptedException(
+                            "*** Thrown from One2OneChannel.write (Object)\n");
+                Thread.currentThread().interrupt();    // the message was taken -- keep the interrupt
+            }
+        }
+        acknowledged = false;
+    }
+
+    /*************Methods from AltingChannelInput*************************/
+
+    /**
+     * Reads an <TT>Object</TT> from the channel.
+     *
+     * @return the object read from the channel.
+     */
+    public T read()
+    {
+        final T value = startRead();
+        endRead();
+        return value;
+    }
+
+    /**
+     * Begins an extended rendezvous: takes the message, but does not release
+     * the writer until {@link #endRead()}.
+     *
+     * @return the object read from the channel.
+     */
+    public T startRead()
+    {
+        int spins = SPINS;
+        while (true)
+        {
+            final Object s = state.get();
+            if (s == FULL)
+            {
+                final T value = hold;
+                if (state.compareAndSet(FULL, EMPTY))
+                {
+                    hold = null;
+                    return value;
+                }
+            }
+            else if (s == EMPTY)
+            {
+                if (spins > 0)
+                {
+                    spins--;
+                    continue;
+                }
+                final Thread me = Thread.currentThread();
+                if (state.compareAndSet(EMPTY, me))
+                    park(me);
+            }
+            else
+            {
+                Thread.yield();        // SCHEDULING -- about to become FULL
+            }
+        }
+    }
+
+    /**
+     * Parks the reader until the writer has deposited a message.
+     */
+    private void park(final Thread me)
+    {
+        while (state.get() == me)
+        {
+            LockSupport.park(this);
+            if (Thread.interrupted())
+            {
+                if (state.compareAndSet(me, EMPTY))
+                    throw new ProcessInterruptedException("*** Thrown from One2OneChannel.read ()\n");
+                Thread.currentThread().interrupt();    // a message has arrived -- take it first
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ends an extended rendezvous, releasing the writer.
+     */
+    public void endRead()
+    {
+        acknowledged = true;
+        if (writerParked)
+            LockSupport.unpark(writer);
+    }
+
+    /**
+     * turns on Alternative selection for the channel. Returns true if the
+     * channel has data that can be read immediately.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative class</I>
+     *
+     * @param alt the Alternative class which will control the selection
+     * @return true if the channel has data that can be read, else false
+     */
+    public boolean readerEnable(Alternative alt)
+    {
+        while (true)
+        {
+            final Object s = state.get();
+            if (s == FULL)
+                return true;
+            if (s == EMPTY)
+            {
+                if (state.compareAndSet(EMPTY, alt))
+                    return false;
+            }
+            else
+            {
+                Thread.yield();        // SCHEDULING -- about to become FULL
+            }
+        }
+    }
+
+    /**
+     * turns off Alternative selection for the channel. Returns true if the
+     * channel contained data that can be read.
+     * <P>
+     * <I>Note: this method should only be called by the Alternative class</I>
+     *
+     * @return true if the channel has data that can be read, else false
+     */
+    public boolean readerDisable()
+    {
+        while (true)
+        {
+            final Object s = state.get();
+            if (s == FULL)
+                return true;
+            if (s == EMPTY)
+                return false;
+            if (s instanceof Alternative)
+            {
+                if (state.compareAndSet(s, EMPTY))
+                    return false;
+            }
+            else
+            {
+                Thread.yield();        // SCHEDULING -- the alt is being woken
+            }
+        }
+    }
+
+    /**
+     * Returns whether there is data pending on this channel.
+     * <P>
+     * <I>Note: if there is, it won't go away until you read it.  But if there
+     * isn't, there may be some by the time you check the result of this method.</I>
+     *
+     * @return state of the channel.
+     */
+    public boolean readerPending()
+    {
+        return state.get() == FULL;
+    }
+
+    //No poison in these channels:
+    public void writerPoison(int strength)
+    {
+    }
+
+    public void readerPoison(int strength)
+    {
+    }
+}
@@ -316,7 +316,63 @@ public class SpuriousLog {
    */
   static public final int StopRun = 37;
 
-  static private final int nSpuriousWakeUpPlaces = 38;
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #getSpuriousWakeUpCounts()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelLongRead = 38;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #report()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelLongWrite = 39;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #getSpuriousWakeUpCounts()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelLongXRead = 40;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #report()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelLongXWrite = 41;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #getSpuriousWakeUpCounts()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelDoubleRead = 42;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #report()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelDoubleWrite = 43;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #getSpuriousWakeUpCounts()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelDoubleXRead = 44;
+
+  /**
+   * This indexes the counts of spurious wakeups
+   * ({@link #report()}),
+   * indicating the class and operation that suffered.
+   */
+  static public final int One2OneChannelDoubleXWrite = 45;
+
+  static private final int nSpuriousWakeUpPlaces = 46;
   
   static private int[] count = new int[nSpuriousWakeUpPlaces];
 
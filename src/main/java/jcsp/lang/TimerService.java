@@ -0,0 +1,453 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.lang;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A shared hierarchical timing wheel that fires {@link CSTimer} timeouts
+ * on behalf of many {@link Alternative}s.
+ * <H2>Description</H2>
+ * Normally, a {@link CSTimer} guard makes the selecting process wait on its
+ * <TT>Alternative</TT> with a timeout.  That is fine for a handful of timers,
+ * but a process network holding tens of thousands of pending timeouts
+ * then has each of its selecting threads arm its own timed wait.
+ * <P>
+ * A <TT>CSTimer</TT> constructed with a <TT>TimerService</TT> instead
+ * registers its alarm with the service when it is enabled.  A single service
+ * thread keeps all registered alarms in a hierarchical timing wheel (four
+ * levels of 256, 64, 64 and 64 slots, plus an overflow list) and, when an
+ * alarm falls due, {@link Alternative#schedule schedules} the waiting
+ * <TT>Alternative</TT> just as a writing process would for a channel guard.
+ * Alarms falling in the same tick are fired together and the service thread
+ * sleeps across ticks for which nothing is due.  Disabling the guard cancels
+ * its alarm in constant time: the alarm drops its <TT>Alternative</TT> at
+ * once and is queued for the service thread, which unlinks it from its
+ * (doubly linked) slot the next time it wakes - at the latest, the next
+ * rotation of the lowest level of the wheel.
+ * <P>
+ * Alarms are fired at the first tick boundary at or after their deadline,
+ * so the tick (one millisecond for the {@link #getDefault default} service)
+ * bounds how late a timeout may be reported.
+ * <H2>Example</H2>
+ * <PRE>
+ *   final CSTimer tim = new CSTimer (TimerService.getDefault ());
+ *   final Alternative alt = new Alternative (new Guard[] {in, tim});
+ *  <I></I>
+ *   tim.setAlarm (tim.read () + sessionTimeout);
+ *   switch (alt.priSelect ()) {
+ *     ...
+ *   }
+ * </PRE>
+ *
+ * @see CSTimer
+ * @see Alternative
+ */
+public final class TimerService
+{
+    private static final int WHEEL_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4;
+
+    private static final int PENDING = 0;
+    private static final int FIRING = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+
+    private static TimerService defaultService = null;
+
+    /** The level of an alarm held in the overflow list */
+    private static final int OVERFLOW = LEVELS;
+
+    /**
+     * A registered alarm.  Only the service thread links and unlinks these
+     * in the wheel; the registering and cancelling threads only touch the
+     * state (and a cancelling thread clears <TT>alt</TT>, which the service
+     * thread then never reads).
+     */
+    static final class Alarm extends AtomicInteger
+    {
+        private final TimerService service;
+        private Alternative alt;
+        private final long tick;
+        private Alarm next;
+        private Alarm prev;
+        /** The wheel level (or OVERFLOW) holding this alarm, or -1 if it is not held */
+        private int level = -1;
+        private int slot;
+
+        private Alarm(final TimerService service, final Alternative alt, final long tick)
+        {
+            super(PENDING);
+            this.service = service;
+            this.alt = alt;
+            this.tick = tick;
+        }
+
+        /**
+         * Cancels this alarm.  If the service thread is firing it at this moment,
+         * this waits until the <TT>Alternative</TT> has been scheduled, so that
+         * no stale wake-up can reach a later <I>select</I>.
+         *
+         * @return true if the alarm had already fired.
+         */
+        boolean cancel()
+        {
+            if (compareAndSet(PENDING, CANCELLED))
+            {
+                alt = null;
+                service.cancelled.add(this);
+                return false;
+            }
+            while (get() == FIRING)
+                Thread.yield();
+            return get() == DONE;
+        }
+    }
+
+    private final long tickNanos;
+    private final long origin;
+    private final ConcurrentLinkedQueue<Alarm> incoming = new ConcurrentLinkedQueue<Alarm>();
+    private final ConcurrentLinkedQueue<Alarm> cancelled = new ConcurrentLinkedQueue<Alarm>();
+
+    // the wheel itself, owned by the service thread
+    private final Alarm[][] wheel = new Alarm[LEVELS][];
+    private Alarm overflow = null;
+    private long currentTick = 0;
+    private volatile int nAlarms = 0;
+
+    /** The tick at which the service thread next intends to wake (Long.MAX_VALUE if idle). */
+    private volatile long nextWake = Long.MAX_VALUE;
+    private volatile Thread thread = null;
+
+    /**
+     * Constructs a new <TT>TimerService</TT>.  Its service thread is a daemon
+     * and is started when the first alarm is registered.
+     *
+     * @param tickNanos the resolution of the wheel in nanoseconds.
+     */
+    public TimerService(final long tickNanos)
+    {
+        if (tickNanos <= 0)
+            throw new IllegalArgumentException("*** Attempt to create a TimerService with tick " + tickNanos);
+        this.tickNanos = tickNanos;
+        this.origin = System.nanoTime();
+        wheel[0] = new Alarm[1 << WHEEL_BITS];
+        for (int i = 1; i < LEVELS; i++)
+            wheel[i] = new Alarm[1 << LEVEL_BITS];
+    }
+
+    /**
+     * Returns the shared <TT>TimerService</TT>, with a one millisecond tick.
+     */
+    public static synchronized TimerService getDefault()
+    {
+        if (defaultService == null)
+            defaultService = new TimerService(1000000L);
+        return defaultService;
+    }
+
+    /**
+     * Returns the resolution of this wheel in nanoseconds.
+     */
+    public long getTickNanos()
+    {
+        return tickNanos;
+    }
+
+    /**
+     * Returns the number of alarms held in the wheel.  A cancelled alarm is
+     * counted until the service thread has unlinked it.
+     */
+    public int getAlarmCount()
+    {
+        return nAlarms;
+    }
+
+    /**
+     * Registers an alarm that will schedule <TT>alt</TT> once <TT>System.nanoTime</TT>
+     * reaches <TT>deadline</TT>.  This is in the flow of control of the ALTing process.
+     */
+    Alarm register(final Alternative alt, final long deadline)
+    {
+        final long offset = deadline - origin;
+        final long tick = (offset <= 0) ? 0 : ((offset + tickNanos - 1) / tickNanos);
+        final Alarm alarm = new Alarm(this, alt, tick);
+        incoming.add(alarm);
+        if (thread == null)
+            start();
+        if (tick < nextWake)
+            LockSupport.unpark(thread);
+        return alarm;
+    }
+
+    private synchronized void start()
+    {
+        if (thread == null)
+        {
+            final Thread t = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    serve();
+                }
+            }, "jcsp-TimerService");
+            t.setDaemon(true);
+            thread = t;
+            t.start();
+        }
+    }
+
+    private void serve()
+    {
+        while (true)
+        {
+            Alarm alarm;
+            while ((alarm = incoming.poll()) != null)
+                place(alarm);
+            while ((alarm = cancelled.poll()) != null)
+                unlink(alarm);
+            final long now = (System.nanoTime() - origin) / tickNanos;
+            advance(now);
+            final long wake = nextDue();
+            nextWake = wake;
+            if (!incoming.isEmpty())
+                continue;
+            if (wake == Long.MAX_VALUE)
+                LockSupport.park(this);
+            else
+            {
+                final long delay = origin + (wake * tickNanos) - System.nanoTime();
+                if (delay > 0)
+                    LockSupport.parkNanos(this, delay);
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to tick <TT>now</TT>, cascading the upper levels and
+     * firing every alarm that falls due on the way.
+     */
+    private void advance(final long now)
+    {
+        while (currentTick < now)
+        {
+            if (nAlarms == 0)
+            {
+                currentTick = now;
+                return;
+            }
+            if (isLevelZeroEmpty())
+            {
+                // nothing can fire before the next rotation - skip straight to it
+                final long last = currentTick | ((1 << WHEEL_BITS) - 1);
+                currentTick = (last < now) ? last : now;
+                if (currentTick == now)
+                    return;
+            }
+            currentTick++;
+            if ((currentTick & ((1 << WHEEL_BITS) - 1)) == 0)
+                cascade();
+            final int slot = (int) (currentTick & ((1 << WHEEL_BITS) - 1));
+            Alarm a = take(0, slot);
+            while (a != null)
+            {
+                final Alarm next = a.next;
+                a.next = null;
+                fire(a);
+                a = next;
+            }
+        }
+    }
+
+    private boolean isLevelZeroEmpty()
+    {
+        final Alarm[] level = wheel[0];
+        for (int i = (int) (currentTick & ((1 << WHEEL_BITS) - 1)) + 1; i < level.length; i++)
+        {
+            if (level[i] != null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Called on each level-zero rotation: re-places the alarms held in the upper
+     * level slots that now correspond to the current tick, highest level first.
+     */
+    private void cascade()
+    {
+        int level = 1;
+        while ((level < LEVELS) && ((currentTick & ((1L << shift(level + 1)) - 1)) == 0))
+            level++;
+        if (level == LEVELS)
+            replace(take(OVERFLOW, 0));
+        for (int i = (level < LEVELS) ? level : LEVELS - 1; i >= 1; i--)
+        {
+            final int slot = (int) ((currentTick >>> shift(i)) & ((1 << LEVEL_BITS) - 1));
+            replace(take(i, slot));
+        }
+    }
+
+    private void replace(Alarm a)
+    {
+        while (a != null)
+        {
+            final Alarm next = a.next;
+            a.next = null;
+            place(a);
+            a = next;
+        }
+    }
+
+    /**
+     * Removes the whole list from a slot (or the overflow list), marking its alarms
+     * as no longer held.  Returns the list, still linked through <TT>next</TT>.
+     */
+    private Alarm take(final int level, final int slot)
+    {
+        final Alarm list;
+        if (level == OVERFLOW)
+        {
+            list = overflow;
+            overflow = null;
+        }
+        else
+        {
+            list = wheel[level][slot];
+            wheel[level][slot] = null;
+        }
+        for (Alarm a = list; a != null; a = a.next)
+        {
+            a.prev = null;
+            a.level = -1;
+            nAlarms--;
+        }
+        return list;
+    }
+
+    /**
+     * Adds an alarm to the head of a slot (or of the overflow list).
+     */
+    private void link(final Alarm a, final int level, final int slot)
+    {
+        final Alarm head = (level == OVERFLOW) ? overflow : wheel[level][slot];
+        a.prev = null;
+        a.next = head;
+        if (head != null)
+            head.prev = a;
+        if (level == OVERFLOW)
+            overflow = a;
+        else
+            wheel[level][slot] = a;
+        a.level = level;
+        a.slot = slot;
+        nAlarms++;
+    }
+
+    /**
+     * Removes a cancelled alarm from the slot holding it (if any).
+     */
+    private void unlink(final Alarm a)
+    {
+        if (a.level < 0)
+            return;
+        if (a.next != null)
+            a.next.prev = a.prev;
+        if (a.prev != null)
+            a.prev.next = a.next;
+        else if (a.level == OVERFLOW)
+            overflow = a.next;
+        else
+            wheel[a.level][a.slot] = a.next;
+        a.next = null;
+        a.prev = null;
+        a.level = -1;
+        nAlarms--;
+    }
+
+    /** The number of tick bits below the slots of the given level. */
+    private static int shift(final int level)
+    {
+        return WHEEL_BITS + ((level - 1) * LEVEL_BITS);
+    }
+
+    private void place(final Alarm a)
+    {
+        if (a.get() != PENDING)
+            return;
+        final long tick = a.tick;
+        if (tick <= currentTick)
+        {
+            fire(a);
+            return;
+        }
+        if ((tick >>> WHEEL_BITS) == (currentTick >>> WHEEL_BITS))
+        {
+            link(a, 0, (int) (tick & ((1 << WHEEL_BITS) - 1)));
+            return;
+        }
+        for (int level = 1; level < LEVELS; level++)
+        {
+            if ((tick >>> shift(level + 1)) == (currentTick >>> shift(level + 1)))
+            {
+                link(a, level, (int) ((tick >>> shift(level)) & ((1 << LEVEL_BITS) - 1)));
+                return;
+            }
+        }
+        link(a, OVERFLOW, 0);
+    }
+
+    private void fire(final Alarm a)
+    {
+        if (a.compareAndSet(PENDING, FIRING))
+        {
+            try
+            {
+                a.alt.schedule();
+            }
+            finally
+            {
+                a.set(DONE);
+            }
+        }
+    }
+
+    /**
+     * Returns the next tick at which the service thread must wake: the next occupied
+     * slot in the current level-zero rotation, or else the start of the next rotation.
+     */
+    private long nextDue()
+    {
+        if (nAlarms == 0)
+            return Long.MAX_VALUE;
+        final Alarm[] level = wheel[0];
+        final int base = (int) (currentTick & ((1 << WHEEL_BITS) - 1));
+        for (int i = base + 1; i < level.length; i++)
+        {
+            if (level[i] != null)
+                return currentTick + (i - base);
+        }
+        return (currentTick | ((1 << WHEEL_BITS) - 1)) + 1;
+    }
+}
@@ -0,0 +1,121 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.lang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+
+/**
+ * This is an <TT>Executor</TT> that runs each submitted process on its own
+ * <I>virtual</I> thread.
+ * <H2>Description</H2>
+ * A <TT>VirtualThreadExecutor</TT> may be given to {@link Parallel},
+ * {@link PriParallel} or {@link ProcessManager} (or installed as the default
+ * with {@link Parallel#setDefaultExecutor(Executor)}) so that their processes
+ * run on virtual threads rather than on platform {@link ParThread}s.  Virtual
+ * threads are cheap to create and to block, so networks of hundreds of
+ * thousands of processes become practical.
+ * <P>
+ * Virtual threads are only provided by Java 21 (or later) runtimes.  On older
+ * runtimes, this executor falls back to starting a fresh (daemon) platform
+ * thread for each process -- use {@link #isAvailable()} to find out which
+ * behaviour is in force.
+ * <P>
+ * <I>Note</I>: the unbuffered object channels made by {@link Channel#one2one()},
+ * {@link Channel#any2one()}, {@link Channel#one2any()} and {@link Channel#any2any()}
+ * (including their shared ends), {@link Barrier}s and {@link Alternative}s
+ * block using <TT>java.util.concurrent.locks</TT> rather than Java monitors,
+ * so processes blocked on them do not pin their carrier threads.  The other
+ * channels - buffered, poisonable, <TT>int</TT>, <TT>long</TT> and <TT>double</TT>
+ * channels, and CALL channels - still block in Java monitors: on Java 21 to 23,
+ * a virtual thread blocked on one of those pins its carrier, so a network with
+ * many such processes blocked at once may exhaust the carrier threads.
+ *
+ * @see Parallel#setExecutor(Executor)
+ * @see ProcessManager#ProcessManager(CSProcess, Executor)
+ */
+public class VirtualThreadExecutor implements Executor
+{
+    /** Handle on <TT>Thread.startVirtualThread (Runnable)</TT> -- or null if unsupported */
+    private static final MethodHandle startVirtualThread = findStartVirtualThread();
+
+    private static MethodHandle findStartVirtualThread()
+    {
+        try
+        {
+            return MethodHandles.publicLookup().findStatic(
+                    Thread.class, "startVirtualThread",
+                    MethodType.methodType(Thread.class, Runnable.class));
+        }
+        catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+        catch (IllegalAccessException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the running JVM supports virtual threads.  If not,
+     * processes given to this executor are run on new platform threads.
+     *
+     * @return true if processes will be run on virtual threads.
+     */
+    public static boolean isAvailable()
+    {
+        return startVirtualThread != null;
+    }
+
+    /**
+     * Starts a new virtual thread executing the given process body.
+     *
+     * @param command the process body to be executed.
+     */
+    public void execute(final Runnable command)
+    {
+        if (startVirtualThread != null)
+        {
+            try
+            {
+                startVirtualThread.invoke(command);
+                return;
+            }
+            catch (RuntimeException e)
+            {
+                throw e;
+            }
+            catch (Error e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                throw new JCSP_InternalError("*** Thrown from VirtualThreadExecutor.execute ()\n" + t);
+            }
+        }
+        final Thread thread = new Thread(command);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -20,10 +20,8 @@
 
 package jcsp.net2;
 
-import java.util.Hashtable;
-
 /**
- * Manages the networked Barriers in the system. This object wraps a Hashtable containing the NetBarrier data objects,
+ * Manages the networked Barriers in the system. This object wraps a table containing the NetBarrier data objects,
  * and manages the allocation and removal of NetBarrier front ends within the JCSP networking architecture. For
  * information on the NetBarrier, see the appropriate documentation.
  * 
@@ -39,10 +37,10 @@ final class BarrierManager
     private static int index = 50;
 
     /**
-     * The table containing the Barriers. An Integer (object wrapped int) is used as the key, and the BarrierData as the
-     * value.
+     * The table containing the Barriers. The Barrier number is used as the key, and the BarrierData as the value.
+     * Lookups take no lock, as they are made by the Link Rx for every incoming message.
      */
-    private final Hashtable barriers = new Hashtable();
+    private final IntMap barriers = new IntMap();
 
     /**
      * Singleton instance of the BarrierManager
@@ -76,15 +74,14 @@ final class BarrierManager
     synchronized void create(BarrierData bd)
     {
         // First allocate the next available number for the Barrier index (VBN).
-        Integer objIndex = new Integer(index);
-        while (this.barriers.get(objIndex) != null)
-            objIndex = new Integer(++index);
+        while (this.barriers.get(index) != null)
+            index++;
 
         // Now set the index of the BarrierData to the required index
         bd.vbn = index;
 
-        // And add the BarrierData at the given index in the Hashtable
-        this.barriers.put(objIndex, bd);
+        // And add the BarrierData at the given index in the table
+        this.barriers.put(index, bd);
 
         // Increment the index for the next allocation
         index++;
@@ -103,17 +100,15 @@ final class BarrierManager
     synchronized void create(int idx, BarrierData bd)
         throws IllegalArgumentException
     {
-        Integer objIndex = new Integer(idx);
-
         // First, ensure that no barrier of the given index already exists. If it does, throw an exception
-        if (this.barriers.get(objIndex) != null)
+        if (this.barriers.get(idx) != null)
             throw new IllegalArgumentException("Barrier of given number already exists.");
 
         // Now allocate the index to the BarrierData object
         bd.vbn = idx;
 
         // And put the new barrier into the list of barriers, and increment the next index if necessary
-        this.barriers.put(objIndex, bd);
+        this.barriers.put(idx, bd);
         if (idx == BarrierManager.index)
             BarrierManager.index++;
     }
@@ -127,8 +122,7 @@ final class BarrierManager
      */
     BarrierData getBarrier(int idx)
     {
-        Integer objIndex = new Integer(idx);
-        return (BarrierData)this.barriers.get(objIndex);
+        return (BarrierData)this.barriers.get(idx);
     }
 
     /**
@@ -139,7 +133,6 @@ final class BarrierManager
      */
     void removeBarrier(BarrierData data)
     {
-        Integer objIndex = new Integer(data.vbn);
-        this.barriers.remove(objIndex);
+        this.barriers.remove(data.vbn);
     }
 }
@@ -60,6 +60,12 @@ final class ChannelData
      */
     int immunityLevel = Integer.MAX_VALUE;
 
+    /**
+     * Set on an input end whose filter is a NetworkMessageFilter.PooledFilterRx, so incoming data may be received into
+     * a pooled buffer.
+     */
+    boolean pooledRx = false;
+
     /**
      * The other end of the toChannel. This will be set whenever a channel is used in a mobile manner. Any received
      * messages when the channel is moved are written to the normal channel, and they can then be accessed via this end.
@@ -20,8 +20,6 @@
 
 package jcsp.net2;
 
-import java.util.Hashtable;
-
 /**
  * A class used to manage the networked channels on the Node. This is an internal object to JCSP networking. For a
  * description of networked channels, see the relevant documentation.
@@ -39,10 +37,10 @@ final class ChannelManager
     private static int index = 50;
 
     /**
-     * The table containing the channels. An Integer (object wrapped int) is used as the key, and the ChannelData as the
-     * value.
+     * The table containing the channels. The channel number is used as the key, and the ChannelData as the value.
+     * Lookups take no lock, as they are made by the Link Rx for every incoming message.
      */
-    private final Hashtable channels = new Hashtable();
+    private final IntMap channels = new IntMap();
 
     /**
      * Singleton instance of the ChannelManager
@@ -76,15 +74,14 @@ final class ChannelManager
     synchronized void create(ChannelData cd)
     {
         // First allocate a new number for the channel
-        Integer objIndex = new Integer(index);
-        while (this.channels.get(objIndex) != null)
-            objIndex = new Integer(++index);
+        while (this.channels.get(index) != null)
+            index++;
 
         // Set the index of the ChannelData
         cd.vcn = index;
 
-        // Now put the channel in the channel Hashtable
-        this.channels.put(objIndex, cd);
+        // Now put the channel in the channel table
+        this.channels.put(index, cd);
 
         // Finally increment the index for the next channel to be created
         index++;
@@ -104,15 +101,14 @@ final class ChannelManager
         throws IllegalArgumentException
     {
         // First check that a channel of the given index does not exist. If it does, throw an exception
-        Integer objIndex = new Integer(idx);
-        if (this.channels.get(objIndex) != null)
+        if (this.channels.get(idx) != null)
             throw new IllegalArgumentException("Channel of given number already exists.");
 
         // Set the index of the channel data
         cd.vcn = idx;
 
         // Now add the channel to the channels table
-        this.channels.put(objIndex, cd);
+        this.channels.put(idx, cd);
 
         // Update the index if necessary
         if (idx == ChannelManager.index)
@@ -128,8 +124,7 @@ final class ChannelManager
      */
     ChannelData getChannel(int idx)
     {
-        Integer objIndex = new Integer(idx);
-        return (ChannelData)this.channels.get(objIndex);
+        return (ChannelData)this.channels.get(idx);
     }
 
     /**
@@ -140,8 +135,7 @@ final class ChannelManager
      */
     void removeChannel(ChannelData data)
     {
-        Integer objIndex = new Integer(data.vcn);
-        this.channels.remove(objIndex);
+        this.channels.remove(data.vcn);
     }
 
 }
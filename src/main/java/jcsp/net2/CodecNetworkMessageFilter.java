@@ -0,0 +1,1276 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A filter that encodes messages in a compact binary format, using codecs registered for each type of object. This is
+ * an alternative to the ObjectNetworkMessageFilter, which uses object serialization for every message.
+ * <p>
+ * Every value is written as an integer type ID followed by its contents. Integers and lengths are written as variable
+ * length integers (seven bits to a byte), so small values take a single byte. Codecs are built in for null, the boxed
+ * primitives, String, arrays of the primitives (other than char and short), Object[], and ArrayList, LinkedList,
+ * HashSet, LinkedHashSet, HashMap and LinkedHashMap (whose elements are encoded in turn). Other types can be given a
+ * codec with register, using a type ID of FIRST_USER_TYPE or above. Objects of any other type are encoded using object
+ * serialization, and so must be Serializable.
+ * </p>
+ * <p>
+ * Unlike object serialization, the built in codecs encode a message as a tree of values: an object referred to more
+ * than once in a message is encoded (and decoded) once for each reference, so arrives as separate copies, and a
+ * message must not contain a cycle, such as a collection that contains itself. Objects may be nested at most
+ * MAX_DEPTH deep; writeObject throws an IOException for a message nested more deeply (as any cyclic message is).
+ * Messages with shared or cyclic references should be sent with the ObjectNetworkMessageFilter, or with a codec that
+ * encodes the references itself.
+ * </p>
+ * <p>
+ * The same codecs must be registered, with the same type IDs, on every Node that uses the filter. For example:
+ * </p>
+ * <p>
+ * <code>
+ * CodecNetworkMessageFilter.register(32, Point.class, new PointCodec());<br>
+ * NetChannelOutput out = NetChannel.one2net(loc, new CodecNetworkMessageFilter.FilterTX());<br>
+ * NetChannelInput in = NetChannel.net2one(new CodecNetworkMessageFilter.FilterRX());
+ * </code>
+ * </p>
+ * 
+ * @see NetworkMessageFilter
+ * @see ObjectNetworkMessageFilter
+ */
+public final class CodecNetworkMessageFilter
+{
+    /**
+     * The lowest type ID that may be given to a registered codec. Lower IDs are reserved for the built in codecs.
+     */
+    public static final int FIRST_USER_TYPE = 32;
+
+    /**
+     * The initial size of the buffer each FilterTX encodes into. The buffer grows as required, and is returned to this
+     * size after encoding a message larger than 64 times this size.
+     */
+    public static int BUFFER_SIZE = 1024;
+
+    /**
+     * The deepest that objects may be nested within a message, counting the message itself as depth one. Encoding or
+     * decoding a message nested more deeply fails with an IOException, rather than overflowing the stack.
+     */
+    public static final int MAX_DEPTH = 256;
+
+    /**
+     * Type ID of null
+     */
+    private static final int NULL = 0;
+
+    /**
+     * Type ID of Boolean
+     */
+    private static final int BOOLEAN = 1;
+
+    /**
+     * Type ID of Byte
+     */
+    private static final int BYTE = 2;
+
+    /**
+     * Type ID of Short
+     */
+    private static final int SHORT = 3;
+
+    /**
+     * Type ID of Character
+     */
+    private static final int CHARACTER = 4;
+
+    /**
+     * Type ID of Integer
+     */
+    private static final int INTEGER = 5;
+
+    /**
+     * Type ID of Long
+     */
+    private static final int LONG = 6;
+
+    /**
+     * Type ID of Float
+     */
+    private static final int FLOAT = 7;
+
+    /**
+     * Type ID of Double
+     */
+    private static final int DOUBLE = 8;
+
+    /**
+     * Type ID of String
+     */
+    private static final int STRING = 9;
+
+    /**
+     * Type ID of byte[]
+     */
+    private static final int BYTE_ARRAY = 10;
+
+    /**
+     * Type ID of int[]
+     */
+    private static final int INT_ARRAY = 11;
+
+    /**
+     * Type ID of long[]
+     */
+    private static final int LONG_ARRAY = 12;
+
+    /**
+     * Type ID of float[]
+     */
+    private static final int FLOAT_ARRAY = 13;
+
+    /**
+     * Type ID of double[]
+     */
+    private static final int DOUBLE_ARRAY = 14;
+
+    /**
+     * Type ID of boolean[]
+     */
+    private static final int BOOLEAN_ARRAY = 15;
+
+    /**
+     * Type ID of Object[]
+     */
+    private static final int OBJECT_ARRAY = 16;
+
+    /**
+     * Type ID of ArrayList
+     */
+    private static final int ARRAY_LIST = 17;
+
+    /**
+     * Type ID of LinkedList
+     */
+    private static final int LINKED_LIST = 18;
+
+    /**
+     * Type ID of HashSet
+     */
+    private static final int HASH_SET = 19;
+
+    /**
+     * Type ID of LinkedHashSet
+     */
+    private static final int LINKED_HASH_SET = 20;
+
+    /**
+     * Type ID of HashMap
+     */
+    private static final int HASH_MAP = 21;
+
+    /**
+     * Type ID of LinkedHashMap
+     */
+    private static final int LINKED_HASH_MAP = 22;
+
+    /**
+     * Type ID of an object encoded using object serialization
+     */
+    private static final int SERIALIZED = 31;
+
+    /**
+     * The type IDs of the built in and registered types, by class.
+     */
+    private static final ConcurrentHashMap<Class<?>, Integer> typeIDs = new ConcurrentHashMap<Class<?>, Integer>();
+
+    /**
+     * The registered codecs, indexed by type ID. Replaced, rather than changed, as codecs are registered.
+     */
+    private static volatile Codec<?>[] codecs = new Codec<?>[FIRST_USER_TYPE];
+
+    static
+    {
+        typeIDs.put(Boolean.class, Integer.valueOf(BOOLEAN));
+        typeIDs.put(Byte.class, Integer.valueOf(BYTE));
+        typeIDs.put(Short.class, Integer.valueOf(SHORT));
+        typeIDs.put(Character.class, Integer.valueOf(CHARACTER));
+        typeIDs.put(Integer.class, Integer.valueOf(INTEGER));
+        typeIDs.put(Long.class, Integer.valueOf(LONG));
+        typeIDs.put(Float.class, Integer.valueOf(FLOAT));
+        typeIDs.put(Double.class, Integer.valueOf(DOUBLE));
+        typeIDs.put(String.class, Integer.valueOf(STRING));
+        typeIDs.put(byte[].class, Integer.valueOf(BYTE_ARRAY));
+        typeIDs.put(int[].class, Integer.valueOf(INT_ARRAY));
+        typeIDs.put(long[].class, Integer.valueOf(LONG_ARRAY));
+        typeIDs.put(float[].class, Integer.valueOf(FLOAT_ARRAY));
+        typeIDs.put(double[].class, Integer.valueOf(DOUBLE_ARRAY));
+        typeIDs.put(boolean[].class, Integer.valueOf(BOOLEAN_ARRAY));
+        typeIDs.put(Object[].class, Integer.valueOf(OBJECT_ARRAY));
+        typeIDs.put(ArrayList.class, Integer.valueOf(ARRAY_LIST));
+        typeIDs.put(LinkedList.class, Integer.valueOf(LINKED_LIST));
+        typeIDs.put(HashSet.class, Integer.valueOf(HASH_SET));
+        typeIDs.put(LinkedHashSet.class, Integer.valueOf(LINKED_HASH_SET));
+        typeIDs.put(HashMap.class, Integer.valueOf(HASH_MAP));
+        typeIDs.put(LinkedHashMap.class, Integer.valueOf(LINKED_HASH_MAP));
+    }
+
+    /**
+     * Private constructor. This is a static class.
+     */
+    private CodecNetworkMessageFilter()
+    {
+        // Empty constructor
+    }
+
+    /**
+     * Registers a codec for a type. Objects of exactly that class (not subclasses) are then encoded by the codec,
+     * preceded by the type ID.
+     * 
+     * @param typeID
+     *            The ID identifying the type in encoded messages. Must be at least FIRST_USER_TYPE.
+     * @param type
+     *            The class encoded by the codec
+     * @param codec
+     *            The codec
+     * @throws IllegalArgumentException
+     *             Thrown if the type ID is reserved, or the type ID or class already has a codec
+     */
+    public static synchronized <T> void register(int typeID, Class<T> type, Codec<T> codec)
+        throws IllegalArgumentException
+    {
+        if (typeID < FIRST_USER_TYPE)
+            throw new IllegalArgumentException("*** Attempt to register a codec with a reserved type ID: " + typeID);
+        if (typeIDs.containsKey(type))
+            throw new IllegalArgumentException("*** Attempt to register a second codec for " + type.getName());
+        Codec<?>[] current = CodecNetworkMessageFilter.codecs;
+        if (typeID < current.length && current[typeID] != null)
+            throw new IllegalArgumentException("*** Attempt to register a second codec with type ID " + typeID);
+
+        Codec<?>[] updated = new Codec<?>[Math.max(current.length, typeID + 1)];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[typeID] = codec;
+        CodecNetworkMessageFilter.codecs = updated;
+        typeIDs.put(type, Integer.valueOf(typeID));
+    }
+
+    /**
+     * Gets the codec registered with a type ID, typed to encode the objects that typeIDs maps to that ID
+     * 
+     * @param typeID
+     *            The type ID of a registered codec
+     * @return The codec
+     */
+    @SuppressWarnings("unchecked")
+    private static Codec<Object> codecOf(int typeID)
+    {
+        return (Codec<Object>)codecs[typeID];
+    }
+
+    /**
+     * A codec encoding and decoding the objects of one type.
+     */
+    public interface Codec<T>
+    {
+        /**
+         * Encodes an object
+         * 
+         * @param obj
+         *            The object to encode, which is never null
+         * @param out
+         *            The encoder to write the object's contents to
+         * @throws IOException
+         *             Thrown if the object cannot be encoded
+         */
+        public void encode(T obj, Encoder out)
+            throws IOException;
+
+        /**
+         * Decodes an object, reading what encode wrote
+         * 
+         * @param in
+         *            The decoder to read the object's contents from
+         * @return The recreated object
+         * @throws IOException
+         *             Thrown if the object cannot be decoded
+         */
+        public T decode(Decoder in)
+            throws IOException;
+    }
+
+    /**
+     * Writes values into a growable byte array. Used by codecs to encode the contents of objects.
+     */
+    public static final class Encoder
+    {
+        /**
+         * The buffer being written to
+         */
+        private byte[] buf;
+
+        /**
+         * The number of bytes written
+         */
+        private int count = 0;
+
+        /**
+         * The number of calls of writeObject in progress
+         */
+        private int depth = 0;
+
+        /**
+         * Creates a new Encoder
+         * 
+         * @param size
+         *            The initial size of the buffer
+         */
+        Encoder(int size)
+        {
+            this.buf = new byte[size];
+        }
+
+        /**
+         * Ensures that the buffer has room for the given number of further bytes
+         * 
+         * @param n
+         *            The number of bytes to be written
+         */
+        private void ensure(int n)
+        {
+            if (this.count + n > this.buf.length)
+            {
+                byte[] bigger = new byte[Math.max(this.buf.length * 2, this.count + n)];
+                System.arraycopy(this.buf, 0, bigger, 0, this.count);
+                this.buf = bigger;
+            }
+        }
+
+        /**
+         * Empties the buffer, shrinking it if it has grown large
+         */
+        void reset()
+        {
+            this.count = 0;
+            this.depth = 0;
+            if (this.buf.length > CodecNetworkMessageFilter.BUFFER_SIZE * 64)
+                this.buf = new byte[CodecNetworkMessageFilter.BUFFER_SIZE];
+        }
+
+        /**
+         * Gets a copy of the bytes written
+         * 
+         * @return The bytes written
+         */
+        byte[] toByteArray()
+        {
+            byte[] toReturn = new byte[this.count];
+            System.arraycopy(this.buf, 0, toReturn, 0, this.count);
+            return toReturn;
+        }
+
+        /**
+         * Writes a single byte
+         * 
+         * @param v
+         *            The byte (the low eight bits of the int)
+         */
+        public void writeByte(int v)
+        {
+            this.ensure(1);
+            this.buf[this.count++] = (byte)v;
+        }
+
+        /**
+         * Writes a boolean as a single byte
+         * 
+         * @param v
+         *            The boolean
+         */
+        public void writeBoolean(boolean v)
+        {
+            this.writeByte(v ? 1 : 0);
+        }
+
+        /**
+         * Writes an int as an unsigned variable length integer. Values below 128 take one byte; negative values take
+         * five.
+         * 
+         * @param v
+         *            The int
+         */
+        public void writeVarInt(int v)
+        {
+            this.ensure(5);
+            while ((v & ~0x7F) != 0)
+            {
+                this.buf[this.count++] = (byte)((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            this.buf[this.count++] = (byte)v;
+        }
+
+        /**
+         * Writes a long as an unsigned variable length integer.
+         * 
+         * @param v
+         *            The long
+         */
+        public void writeVarLong(long v)
+        {
+            this.ensure(10);
+            while ((v & ~0x7FL) != 0)
+            {
+                this.buf[this.count++] = (byte)((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            this.buf[this.count++] = (byte)v;
+        }
+
+        /**
+         * Writes a signed int as a variable length integer, so that values of small magnitude take one byte.
+         * 
+         * @param v
+         *            The int
+         */
+        public void writeInt(int v)
+        {
+            this.writeVarInt((v << 1) ^ (v >> 31));
+        }
+
+        /**
+         * Writes a signed long as a variable length integer, so that values of small magnitude take one byte.
+         * 
+         * @param v
+         *            The long
+         */
+        public void writeLong(long v)
+        {
+            this.writeVarLong((v << 1) ^ (v >> 63));
+        }
+
+        /**
+         * Writes a float as four bytes
+         * 
+         * @param v
+         *            The float
+         */
+        public void writeFloat(float v)
+        {
+            int bits = Float.floatToIntBits(v);
+            this.ensure(4);
+            this.buf[this.count++] = (byte)(bits >>> 24);
+            this.buf[this.count++] = (byte)(bits >>> 16);
+            this.buf[this.count++] = (byte)(bits >>> 8);
+            this.buf[this.count++] = (byte)bits;
+        }
+
+        /**
+         * Writes a double as eight bytes
+         * 
+         * @param v
+         *            The double
+         */
+        public void writeDouble(double v)
+        {
+            long bits = Double.doubleToLongBits(v);
+            this.ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8)
+                this.buf[this.count++] = (byte)(bits >>> shift);
+        }
+
+        /**
+         * Writes a (non null) String as its length and then its characters, each taking one to three bytes.
+         * 
+         * @param s
+         *            The String
+         */
+        public void writeString(String s)
+        {
+            int length = s.length();
+            this.writeVarInt(length);
+            this.ensure(length * 3);
+            for (int i = 0; i < length; i++)
+            {
+                char c = s.charAt(i);
+                if (c < 0x80)
+                    this.buf[this.count++] = (byte)c;
+                else if (c < 0x800)
+                {
+                    this.buf[this.count++] = (byte)(0xC0 | (c >> 6));
+                    this.buf[this.count++] = (byte)(0x80 | (c & 0x3F));
+                }
+                else
+                {
+                    this.buf[this.count++] = (byte)(0xE0 | (c >> 12));
+                    this.buf[this.count++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                    this.buf[this.count++] = (byte)(0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        /**
+         * Writes bytes as they are
+         * 
+         * @param bytes
+         *            The array holding the bytes
+         * @param offset
+         *            The index of the first byte
+         * @param length
+         *            The number of bytes
+         */
+        public void writeBytes(byte[] bytes, int offset, int length)
+        {
+            this.ensure(length);
+            System.arraycopy(bytes, offset, this.buf, this.count, length);
+            this.count += length;
+        }
+
+        /**
+         * Writes an object (which may be null) as its type ID and its contents, using the built in or registered codec
+         * for its class
+         * 
+         * @param obj
+         *            The object
+         * @throws IOException
+         *             Thrown if the object cannot be encoded, or is nested more than MAX_DEPTH deep in the message
+         */
+        public void writeObject(Object obj)
+            throws IOException
+        {
+            if (this.depth >= MAX_DEPTH)
+                throw new IOException("Message is nested more than " + MAX_DEPTH
+                                      + " deep (does it contain itself?) - it cannot be encoded as a tree of values");
+            this.depth++;
+            try
+            {
+                this.writeValue(obj);
+            }
+            finally
+            {
+                this.depth--;
+            }
+        }
+
+        /**
+         * Writes an object (which may be null) as its type ID and its contents
+         * 
+         * @param obj
+         *            The object
+         * @throws IOException
+         *             Thrown if the object cannot be encoded
+         */
+        private void writeValue(Object obj)
+            throws IOException
+        {
+            if (obj == null)
+            {
+                this.writeVarInt(NULL);
+                return;
+            }
+            Integer id = typeIDs.get(obj.getClass());
+            int typeID = (id == null) ? SERIALIZED : id.intValue();
+            this.writeVarInt(typeID);
+            switch (typeID)
+            {
+                case BOOLEAN:
+                    this.writeBoolean(((Boolean)obj).booleanValue());
+                    return;
+                case BYTE:
+                    this.writeByte(((Byte)obj).byteValue());
+                    return;
+                case SHORT:
+                    this.writeInt(((Short)obj).shortValue());
+                    return;
+                case CHARACTER:
+                    this.writeVarInt(((Character)obj).charValue());
+                    return;
+                case INTEGER:
+                    this.writeInt(((Integer)obj).intValue());
+                    return;
+                case LONG:
+                    this.writeLong(((Long)obj).longValue());
+                    return;
+                case FLOAT:
+                    this.writeFloat(((Float)obj).floatValue());
+                    return;
+                case DOUBLE:
+                    this.writeDouble(((Double)obj).doubleValue());
+                    return;
+                case STRING:
+                    this.writeString((String)obj);
+                    return;
+                case BYTE_ARRAY:
+                {
+                    byte[] array = (byte[])obj;
+                    this.writeVarInt(array.length);
+                    this.writeBytes(array, 0, array.length);
+                    return;
+                }
+                case INT_ARRAY:
+                {
+                    int[] array = (int[])obj;
+                    this.writeVarInt(array.length);
+                    for (int i = 0; i < array.length; i++)
+                        this.writeInt(array[i]);
+                    return;
+                }
+                case LONG_ARRAY:
+                {
+                    long[] array = (long[])obj;
+                    this.writeVarInt(array.length);
+                    for (int i = 0; i < array.length; i++)
+                        this.writeLong(array[i]);
+                    return;
+                }
+                case FLOAT_ARRAY:
+                {
+                    float[] array = (float[])obj;
+                    this.writeVarInt(array.length);
+                    for (int i = 0; i < array.length; i++)
+                        this.writeFloat(array[i]);
+                    return;
+                }
+                case DOUBLE_ARRAY:
+                {
+                    double[] array = (double[])obj;
+                    this.writeVarInt(array.length);
+                    for (int i = 0; i < array.length; i++)
+                        this.writeDouble(array[i]);
+                    return;
+                }
+                case BOOLEAN_ARRAY:
+                {
+                    boolean[] array = (boolean[])obj;
+                    this.writeVarInt(array.length);
+                    for (int i = 0; i < array.length; i++)
+                        this.writeBoolean(array[i]);
+                    return;
+                }
+                case OBJECT_ARRAY:
+                {
+                    Object[] array = (Object[])obj;
+                    this.writeVarInt(array.length);
+                    for (int i = 0; i < array.length; i++)
+                        this.writeObject(array[i]);
+                    return;
+                }
+                case ARRAY_LIST:
+                case LINKED_LIST:
+                case HASH_SET:
+                case LINKED_HASH_SET:
+                {
+                    Collection<?> collection = (Collection<?>)obj;
+                    this.writeVarInt(collection.size());
+                    for (Object element : collection)
+                        this.writeObject(element);
+                    return;
+                }
+                case HASH_MAP:
+                case LINKED_HASH_MAP:
+                {
+                    Map<?, ?> map = (Map<?, ?>)obj;
+                    this.writeVarInt(map.size());
+                    for (Map.Entry<?, ?> entry : map.entrySet())
+                    {
+                        this.writeObject(entry.getKey());
+                        this.writeObject(entry.getValue());
+                    }
+                    return;
+                }
+                case SERIALIZED:
+                {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    ObjectOutputStream oos = new ObjectOutputStream(bytes);
+                    oos.writeObject(obj);
+                    oos.close();
+                    this.writeVarInt(bytes.size());
+                    this.writeBytes(bytes.toByteArray(), 0, bytes.size());
+                    return;
+                }
+                default:
+                    CodecNetworkMessageFilter.codecOf(typeID).encode(obj, this);
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Reads values from part of a byte array. Used by codecs to decode the contents of objects.
+     */
+    public static final class Decoder
+    {
+        /**
+         * The buffer being read from
+         */
+        private byte[] buf;
+
+        /**
+         * The index of the next byte to read
+         */
+        private int pos;
+
+        /**
+         * The index after the last byte that may be read
+         */
+        private int limit;
+
+        /**
+         * Characters decoded for a String
+         */
+        private char[] chars = new char[64];
+
+        /**
+         * The number of calls of readObject in progress
+         */
+        private int depth = 0;
+
+        /**
+         * Creates a new Decoder
+         */
+        Decoder()
+        {
+            // Nothing to do
+        }
+
+        /**
+         * Sets the bytes to be read
+         * 
+         * @param bytes
+         *            The array holding the bytes
+         * @param length
+         *            The number of bytes, from the start of the array
+         */
+        void reset(byte[] bytes, int length)
+        {
+            this.buf = bytes;
+            this.pos = 0;
+            this.limit = length;
+            this.depth = 0;
+        }
+
+        /**
+         * Gets the number of bytes not yet read
+         * 
+         * @return The number of bytes remaining
+         */
+        int remaining()
+        {
+            return this.limit - this.pos;
+        }
+
+        /**
+         * Checks that a length read is possible, given the bytes remaining, so that a corrupt message cannot cause a
+         * huge allocation
+         * 
+         * @param length
+         *            The length read
+         * @param size
+         *            The least number of bytes each element takes
+         * @return The length
+         * @throws IOException
+         *             Thrown if the length is negative or too large
+         */
+        private int checkLength(int length, int size)
+            throws IOException
+        {
+            if (length < 0 || (long)length * size > this.limit - this.pos)
+                throw new IOException("Incoming message was corrupted");
+            return length;
+        }
+
+        /**
+         * Reads a single byte
+         * 
+         * @return The byte
+         * @throws IOException
+         *             Thrown if no bytes remain
+         */
+        public byte readByte()
+            throws IOException
+        {
+            if (this.pos >= this.limit)
+                throw new EOFException("Incoming message ended unexpectedly");
+            return this.buf[this.pos++];
+        }
+
+        /**
+         * Reads a boolean written by writeBoolean
+         * 
+         * @return The boolean
+         * @throws IOException
+         *             Thrown if no bytes remain
+         */
+        public boolean readBoolean()
+            throws IOException
+        {
+            return this.readByte() != 0;
+        }
+
+        /**
+         * Reads an int written by writeVarInt
+         * 
+         * @return The int
+         * @throws IOException
+         *             Thrown if the integer is incomplete or malformed
+         */
+        public int readVarInt()
+            throws IOException
+        {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7)
+            {
+                byte b = this.readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return result;
+            }
+            throw new IOException("Incoming message was corrupted");
+        }
+
+        /**
+         * Reads a long written by writeVarLong
+         * 
+         * @return The long
+         * @throws IOException
+         *             Thrown if the integer is incomplete or malformed
+         */
+        public long readVarLong()
+            throws IOException
+        {
+            long result = 0;
+            for (int shift = 0; shift < 70; shift += 7)
+            {
+                byte b = this.readByte();
+                result |= (long)(b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return result;
+            }
+            throw new IOException("Incoming message was corrupted");
+        }
+
+        /**
+         * Reads an int written by writeInt
+         * 
+         * @return The int
+         * @throws IOException
+         *             Thrown if the integer is incomplete or malformed
+         */
+        public int readInt()
+            throws IOException
+        {
+            int v = this.readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        /**
+         * Reads a long written by writeLong
+         * 
+         * @return The long
+         * @throws IOException
+         *             Thrown if the integer is incomplete or malformed
+         */
+        public long readLong()
+            throws IOException
+        {
+            long v = this.readVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        /**
+         * Reads a float written by writeFloat
+         * 
+         * @return The float
+         * @throws IOException
+         *             Thrown if fewer than four bytes remain
+         */
+        public float readFloat()
+            throws IOException
+        {
+            if (this.limit - this.pos < 4)
+                throw new EOFException("Incoming message ended unexpectedly");
+            int bits = ((this.buf[this.pos] & 0xFF) << 24) | ((this.buf[this.pos + 1] & 0xFF) << 16)
+                       | ((this.buf[this.pos + 2] & 0xFF) << 8) | (this.buf[this.pos + 3] & 0xFF);
+            this.pos += 4;
+            return Float.intBitsToFloat(bits);
+        }
+
+        /**
+         * Reads a double written by writeDouble
+         * 
+         * @return The double
+         * @throws IOException
+         *             Thrown if fewer than eight bytes remain
+         */
+        public double readDouble()
+            throws IOException
+        {
+            if (this.limit - this.pos < 8)
+                throw new EOFException("Incoming message ended unexpectedly");
+            long bits = 0;
+            for (int i = 0; i < 8; i++)
+                bits = (bits << 8) | (this.buf[this.pos++] & 0xFF);
+            return Double.longBitsToDouble(bits);
+        }
+
+        /**
+         * Reads a String written by writeString
+         * 
+         * @return The String
+         * @throws IOException
+         *             Thrown if the String is incomplete or malformed
+         */
+        public String readString()
+            throws IOException
+        {
+            int length = this.checkLength(this.readVarInt(), 1);
+            if (this.chars.length < length)
+                this.chars = new char[Math.max(length, this.chars.length * 2)];
+            for (int i = 0; i < length; i++)
+            {
+                int b = this.readByte() & 0xFF;
+                if (b < 0x80)
+                    this.chars[i] = (char)b;
+                else if (b < 0xE0)
+                    this.chars[i] = (char)(((b & 0x1F) << 6) | (this.readByte() & 0x3F));
+                else
+                    this.chars[i] = (char)(((b & 0x0F) << 12) | ((this.readByte() & 0x3F) << 6)
+                                           | (this.readByte() & 0x3F));
+            }
+            return new String(this.chars, 0, length);
+        }
+
+        /**
+         * Reads bytes written by writeBytes
+         * 
+         * @param bytes
+         *            The array to read into
+         * @param offset
+         *            The index to read the first byte into
+         * @param length
+         *            The number of bytes to read
+         * @throws IOException
+         *             Thrown if fewer bytes remain
+         */
+        public void readBytes(byte[] bytes, int offset, int length)
+            throws IOException
+        {
+            if (this.limit - this.pos < length)
+                throw new EOFException("Incoming message ended unexpectedly");
+            System.arraycopy(this.buf, this.pos, bytes, offset, length);
+            this.pos += length;
+        }
+
+        /**
+         * Reads an object written by writeObject
+         * 
+         * @return The recreated object, which may be null
+         * @throws IOException
+         *             Thrown if the object cannot be decoded, or is nested more than MAX_DEPTH deep in the message
+         */
+        public Object readObject()
+            throws IOException
+        {
+            if (this.depth >= MAX_DEPTH)
+                throw new IOException("Incoming message was corrupted");
+            this.depth++;
+            try
+            {
+                return this.readValue();
+            }
+            finally
+            {
+                this.depth--;
+            }
+        }
+
+        /**
+         * Reads an object's type ID and contents
+         * 
+         * @return The recreated object, which may be null
+         * @throws IOException
+         *             Thrown if the object cannot be decoded
+         */
+        private Object readValue()
+            throws IOException
+        {
+            int typeID = this.readVarInt();
+            switch (typeID)
+            {
+                case NULL:
+                    return null;
+                case BOOLEAN:
+                    return Boolean.valueOf(this.readBoolean());
+                case BYTE:
+                    return Byte.valueOf(this.readByte());
+                case SHORT:
+                    return Short.valueOf((short)this.readInt());
+                case CHARACTER:
+                    return Character.valueOf((char)this.readVarInt());
+                case INTEGER:
+                    return Integer.valueOf(this.readInt());
+                case LONG:
+                    return Long.valueOf(this.readLong());
+                case FLOAT:
+                    return Float.valueOf(this.readFloat());
+                case DOUBLE:
+                    return Double.valueOf(this.readDouble());
+                case STRING:
+                    return this.readString();
+                case BYTE_ARRAY:
+                {
+                    byte[] array = new byte[this.checkLength(this.readVarInt(), 1)];
+                    this.readBytes(array, 0, array.length);
+                    return array;
+                }
+                case INT_ARRAY:
+                {
+                    int[] array = new int[this.checkLength(this.readVarInt(), 1)];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = this.readInt();
+                    return array;
+                }
+                case LONG_ARRAY:
+                {
+                    long[] array = new long[this.checkLength(this.readVarInt(), 1)];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = this.readLong();
+                    return array;
+                }
+                case FLOAT_ARRAY:
+                {
+                    float[] array = new float[this.checkLength(this.readVarInt(), 4)];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = this.readFloat();
+                    return array;
+                }
+                case DOUBLE_ARRAY:
+                {
+                    double[] array = new double[this.checkLength(this.readVarInt(), 8)];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = this.readDouble();
+                    return array;
+                }
+                case BOOLEAN_ARRAY:
+                {
+                    boolean[] array = new boolean[this.checkLength(this.readVarInt(), 1)];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = this.readBoolean();
+                    return array;
+                }
+                case OBJECT_ARRAY:
+                {
+                    Object[] array = new Object[this.checkLength(this.readVarInt(), 1)];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = this.readObject();
+                    return array;
+                }
+                case ARRAY_LIST:
+                {
+                    int size = this.checkLength(this.readVarInt(), 1);
+                    return this.readElements(new ArrayList<Object>(size), size);
+                }
+                case LINKED_LIST:
+                    return this.readElements(new LinkedList<Object>(), this.checkLength(this.readVarInt(), 1));
+                case HASH_SET:
+                    return this.readElements(new HashSet<Object>(), this.checkLength(this.readVarInt(), 1));
+                case LINKED_HASH_SET:
+                    return this.readElements(new LinkedHashSet<Object>(), this.checkLength(this.readVarInt(), 1));
+                case HASH_MAP:
+                    return this.readEntries(new HashMap<Object, Object>(), this.checkLength(this.readVarInt(), 2));
+                case LINKED_HASH_MAP:
+                    return this.readEntries(new LinkedHashMap<Object, Object>(),
+                                            this.checkLength(this.readVarInt(), 2));
+                case SERIALIZED:
+                {
+                    int length = this.checkLength(this.readVarInt(), 1);
+                    ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(this.buf, this.pos, length));
+                    this.pos += length;
+                    try
+                    {
+                        return ois.readObject();
+                    }
+                    catch (ClassNotFoundException cnfe)
+                    {
+                        // Not an exception thrown by other filters, so we convert into an IOException
+                        throw new IOException("Class not found");
+                    }
+                }
+                default:
+                {
+                    Codec<?>[] registered = codecs;
+                    if (typeID < 0 || typeID >= registered.length || registered[typeID] == null)
+                        throw new IOException("No codec registered for type ID " + typeID);
+                    return registered[typeID].decode(this);
+                }
+            }
+        }
+
+        /**
+         * Reads the elements of a collection
+         * 
+         * @param collection
+         *            The empty collection to add the elements to
+         * @param size
+         *            The number of elements
+         * @return The collection
+         * @throws IOException
+         *             Thrown if an element cannot be decoded
+         */
+        private Collection<Object> readElements(Collection<Object> collection, int size)
+            throws IOException
+        {
+            for (int i = 0; i < size; i++)
+                collection.add(this.readObject());
+            return collection;
+        }
+
+        /**
+         * Reads the entries of a map
+         * 
+         * @param map
+         *            The empty map to add the entries to
+         * @param size
+         *            The number of entries
+         * @return The map
+         * @throws IOException
+         *             Thrown if a key or value cannot be decoded
+         */
+        private Map<Object, Object> readEntries(Map<Object, Object> map, int size)
+            throws IOException
+        {
+            for (int i = 0; i < size; i++)
+                map.put(this.readObject(), this.readObject());
+            return map;
+        }
+    }
+
+    /**
+     * The sending (encoding) filter for channels using registered codecs
+     */
+    public static final class FilterTX
+        implements NetworkMessageFilter.FilterTx
+    {
+        /**
+         * The encoder, reused for every message
+         */
+        private final Encoder encoder = new Encoder(CodecNetworkMessageFilter.BUFFER_SIZE);
+
+        /**
+         * Creates a new encoding filter
+         */
+        public FilterTX()
+        {
+            // Nothing to do
+        }
+
+        /**
+         * Encodes an object into bytes using the codec for its type
+         * 
+         * @param obj
+         *            The object to encode
+         * @return The encoded bytes
+         * @throws IOException
+         *             Thrown if the object cannot be encoded
+         */
+        public byte[] filterTX(Object obj)
+            throws IOException
+        {
+            this.encoder.reset();
+            this.encoder.writeObject(obj);
+            return this.encoder.toByteArray();
+        }
+    }
+
+    /**
+     * The receiving (decoding) filter for channels using registered codecs
+     */
+    public static final class FilterRX
+        implements NetworkMessageFilter.PooledFilterRx
+    {
+        /**
+         * The decoder, reused for every message
+         */
+        private final Decoder decoder = new Decoder();
+
+        /**
+         * Creates a new decoding filter
+         */
+        public FilterRX()
+        {
+            // Nothing to do
+        }
+
+        /**
+         * Decodes an incoming byte array, converting it back into an Object
+         * 
+         * @param bytes
+         *            The encoded bytes
+         * @return The recreated Object
+         * @throws IOException
+         *             Thrown if something goes wrong during the decoding
+         */
+        public Object filterRX(byte[] bytes)
+            throws IOException
+        {
+            return this.filterRX(bytes, bytes.length);
+        }
+
+        /**
+         * Decodes the first bytes of an incoming byte array, converting them back into an Object
+         * 
+         * @param bytes
+         *            The array holding the encoded bytes
+         * @param length
+         *            The number of encoded bytes
+         * @return The recreated Object
+         * @throws IOException
+         *             Thrown if something goes wrong during the decoding
+         */
+        public Object filterRX(byte[] bytes, int length)
+            throws IOException
+        {
+            this.decoder.reset(bytes, length);
+            try
+            {
+                Object toReturn = this.decoder.readObject();
+                if (this.decoder.remaining() != 0)
+                    throw new IOException("Incoming message was corrupted");
+                return toReturn;
+            }
+            finally
+            {
+                // Keep no reference to the array, which may be reused
+                this.decoder.reset(null, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.net2;
+
+/**
+ * Abstract class representing a framed Link. A framed Link does not run Link Tx and Rx processes: outgoing messages
+ * are queued, the child class is told of them through transmitReady and collects them (encoded) with fill, and passes
+ * incoming bytes to receive. It calls linkFailed if the underlying connection fails. This allows a child class to serve
+ * many Links from a few threads.
+ * 
+ * @see Link
+ * @see jcsp.net2.nio.NIOLink
+ */
+public abstract class FramedLink
+    extends Link
+{
+    /**
+     * Creates a framed Link.
+     */
+    protected FramedLink()
+    {
+        super(true);
+    }
+
+    /**
+     * Called (by any thread) when messages are waiting to be collected with fill. It is called once for each message
+     * queued, so should be cheap.
+     */
+    protected abstract void transmitReady();
+}
@@ -0,0 +1,266 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A table of objects keyed by int, used for the channel, barrier and connection numbers of a Node. This is an internal
+ * class to JCSP networking.
+ * <p>
+ * Lookups take no lock and create no objects, as they are made by the Link Rx for every incoming message. The table is
+ * open addressed with linear probing; each key has an entry that is never moved once created, holding the (volatile)
+ * value. Removing a key clears the value, leaving the entry in place until the table is next rebuilt. Changes are
+ * serialised by the table's lock, and may be made while lookups are in progress.
+ * </p>
+ */
+final class IntMap
+{
+    /**
+     * An entry in the table. The key of an entry never changes; a null value marks the key as removed.
+     */
+    private static final class Entry
+    {
+        /**
+         * The key
+         */
+        final int key;
+
+        /**
+         * The value, or null if the key has been removed
+         */
+        volatile Object value;
+
+        /**
+         * Creates a new entry
+         * 
+         * @param k
+         *            The key
+         * @param v
+         *            The value
+         */
+        Entry(int k, Object v)
+        {
+            this.key = k;
+            this.value = v;
+        }
+    }
+
+    /**
+     * The table of entries. The length is always a power of two, and at least twice the number of entries.
+     */
+    private volatile AtomicReferenceArray<Entry> table = new AtomicReferenceArray<Entry>(16);
+
+    /**
+     * The number of entries in the table, including those of removed keys. Only changed under the lock.
+     */
+    private int entries = 0;
+
+    /**
+     * The number of keys with a value. Only changed under the lock.
+     */
+    private int size = 0;
+
+    /**
+     * Creates a new, empty, table
+     */
+    IntMap()
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Gets the slot in a table at which the search for a key starts
+     * 
+     * @param key
+     *            The key
+     * @param length
+     *            The length of the table
+     * @return The index of the first slot to check
+     */
+    private static int slot(int key, int length)
+    {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (length - 1);
+    }
+
+    /**
+     * Gets the value for a key. This takes no lock.
+     * 
+     * @param key
+     *            The key
+     * @return The value, or null if the key has none
+     */
+    Object get(int key)
+    {
+        AtomicReferenceArray<Entry> t = this.table;
+        int length = t.length();
+        for (int i = IntMap.slot(key, length);; i = (i + 1) & (length - 1))
+        {
+            Entry e = t.get(i);
+            if (e == null)
+                return null;
+            if (e.key == key)
+                return e.value;
+        }
+    }
+
+    /**
+     * Finds the entry for a key. Must be called under the lock.
+     * 
+     * @param key
+     *            The key
+     * @return The entry, or null if the key has never been given a value since the table was rebuilt
+     */
+    private Entry find(int key)
+    {
+        AtomicReferenceArray<Entry> t = this.table;
+        int length = t.length();
+        for (int i = IntMap.slot(key, length);; i = (i + 1) & (length - 1))
+        {
+            Entry e = t.get(i);
+            if (e == null || e.key == key)
+                return e;
+        }
+    }
+
+    /**
+     * Sets the value for a key
+     * 
+     * @param key
+     *            The key
+     * @param value
+     *            The value, which must not be null
+     * @return The previous value of the key, or null if it had none
+     */
+    synchronized Object put(int key, Object value)
+    {
+        Entry e = this.find(key);
+        if (e != null)
+        {
+            Object previous = e.value;
+            e.value = value;
+            if (previous == null)
+                this.size++;
+            return previous;
+        }
+
+        // A new entry is needed. Rebuild first if the table would become more than half full
+        if ((this.entries + 1) * 2 > this.table.length())
+            this.rebuild();
+        AtomicReferenceArray<Entry> t = this.table;
+        int length = t.length();
+        int i = IntMap.slot(key, length);
+        while (t.get(i) != null)
+            i = (i + 1) & (length - 1);
+        t.set(i, new Entry(key, value));
+        this.entries++;
+        this.size++;
+        return null;
+    }
+
+    /**
+     * Removes the value of a key
+     * 
+     * @param key
+     *            The key
+     * @return The value removed, or null if the key had none
+     */
+    synchronized Object remove(int key)
+    {
+        Entry e = this.find(key);
+        if (e == null || e.value == null)
+            return null;
+        Object previous = e.value;
+        e.value = null;
+        this.size--;
+        return previous;
+    }
+
+    /**
+     * Removes all the keys
+     */
+    synchronized void clear()
+    {
+        this.table = new AtomicReferenceArray<Entry>(16);
+        this.entries = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Gets the number of keys with a value
+     * 
+     * @return The number of keys
+     */
+    synchronized int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Gets the values in the table
+     * 
+     * @return A list of the values at the time of the call
+     */
+    synchronized List<Object> values()
+    {
+        ArrayList<Object> toReturn = new ArrayList<Object>(this.size);
+        AtomicReferenceArray<Entry> t = this.table;
+        for (int i = 0; i < t.length(); i++)
+        {
+            Entry e = t.get(i);
+            if (e != null && e.value != null)
+                toReturn.add(e.value);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Rebuilds the table, dropping the entries of removed keys, with room for at least as many keys again. The live
+     * entries are moved to the new table, so lookups using either table find the same values. Must be called under the
+     * lock.
+     */
+    private void rebuild()
+    {
+        int length = 16;
+        while (length < (this.size + 1) * 4)
+            length <<= 1;
+        AtomicReferenceArray<Entry> old = this.table;
+        AtomicReferenceArray<Entry> t = new AtomicReferenceArray<Entry>(length);
+        int count = 0;
+        for (int i = 0; i < old.length(); i++)
+        {
+            Entry e = old.get(i);
+            if (e != null && e.value != null)
+            {
+                int j = IntMap.slot(e.key, length);
+                while (t.get(j) != null)
+                    j = (j + 1) & (length - 1);
+                t.set(j, e);
+                count++;
+            }
+        }
+        this.entries = count;
+        this.table = t;
+    }
+}
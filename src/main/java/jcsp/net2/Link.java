@@ -23,14 +23,15 @@ package jcsp.net2;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import jcsp.lang.AltingChannelInput;
 import jcsp.lang.Any2OneChannel;
 import jcsp.lang.CSProcess;
 import jcsp.lang.Channel;
-import jcsp.lang.ChannelInput;
 import jcsp.lang.ChannelOutput;
 import jcsp.lang.Parallel;
 import jcsp.lang.ProcessManager;
@@ -71,6 +72,53 @@ public abstract class Link
      */
     private final Any2OneChannel txChannel = Channel.any2one();
 
+    /**
+     * The output end given to channels, barriers and the Link Rx for messages to the remote node. For a streamed Link
+     * this is the output end of txChannel; for a framed Link it queues the message for transmit.
+     */
+    private final ChannelOutput txOut;
+
+    /**
+     * Whether this Link transfers frames through transmit and receive rather than running Link Tx and Rx processes
+     * over txStream and rxStream.
+     */
+    private final boolean framed;
+
+    /**
+     * The messages queued for a framed Link, waiting to be encoded by fill.
+     */
+    private final ConcurrentLinkedQueue<NetworkMessage> txQueue;
+
+    /**
+     * Whether a framed Link is accepting messages for transmit.
+     */
+    private volatile boolean framedUp = false;
+
+    /**
+     * The message partly encoded by fill (framed Links only).
+     */
+    private NetworkMessage txPending = null;
+
+    /**
+     * The number of bytes of the data of txPending already encoded, or -1 if its header has not been encoded.
+     */
+    private int txOffset = -1;
+
+    /**
+     * The message partly decoded by receive (framed Links only).
+     */
+    private NetworkMessage rxPending = null;
+
+    /**
+     * The number of bytes of the data of rxPending already decoded.
+     */
+    private int rxOffset = 0;
+
+    /**
+     * The Rx of a framed Link. This is not run as a process; receive passes it each message decoded.
+     */
+    private RxLoop framedRx = null;
+
     /**
      * The NodeID of the opposite end of the connection. This should be set either during construction, or during the
      * connect method of a child class.
@@ -89,18 +137,86 @@ public abstract class Link
     protected int priority = Link.LINK_PRIORITY;
 
     /**
-     * This Hashtable is used to keep track of the current output channels that are connected to this Link. In the
+     * The number of bytes after which the Link Tx flushes a batch of outgoing messages. When positive, the Link Tx
+     * writes all the messages waiting on its channel (and any arriving within MAX_FLUSH_DELAY) before flushing the
+     * stream, so that a burst of small messages leaves as one write. When zero (the default), the stream is flushed
+     * after every message. This is a publicly accessible value that can be set by a user, and applies to Links
+     * started afterwards.
+     */
+    public static int MAX_FLUSH_BYTES = 0;
+
+    /**
+     * The time (in nanoseconds) for which the Link Tx will wait for further messages before flushing a batch. Zero
+     * (the default) means that a batch is flushed as soon as no more messages are waiting, so batching never delays a
+     * message. This is a publicly accessible value that can be set by a user, and applies to Links started afterwards.
+     */
+    public static long MAX_FLUSH_DELAY = 0;
+
+    /**
+     * The flush batch size for this Link. This is exposed to child classes to allow specific policies for different
+     * Link types.
+     */
+    protected int maxFlushBytes = Link.MAX_FLUSH_BYTES;
+
+    /**
+     * The flush batch delay for this Link. This is exposed to child classes to allow specific policies for different
+     * Link types.
+     */
+    protected long maxFlushDelay = Link.MAX_FLUSH_DELAY;
+
+    /**
+     * The number of messages written by the Link Tx. Only written by the Link Tx.
+     */
+    private volatile long txMessages = 0;
+
+    /**
+     * The number of times the Link Tx has flushed its stream. Only written by the Link Tx.
+     */
+    private volatile long txFlushes = 0;
+
+    /**
+     * This table is used to keep track of the current output channels that are connected to this Link. In the
      * outcome of a connection failure to the remote Node, the Link uses this table to notify all registered output
      * ends, allowing them to throw an exception instead of deadlocking.
      */
-    private Hashtable connectedOutputs = new Hashtable();
+    private IntMap connectedOutputs = new IntMap();
 
     /**
-     * This Hashtable is used to keep track of the current barriers that are connected to this Link. In the outcome of a
+     * This table is used to keep track of the current barriers that are connected to this Link. In the outcome of a
      * connection failure to the remote Node, the Link uses this table to notify all registered barriers, allowing them
      * to throw an exception instead of deadlocking.
      */
-    private Hashtable connectedBarriers = new Hashtable();
+    private IntMap connectedBarriers = new IntMap();
+
+    /**
+     * Creates a streamed Link. The child class must provide txStream and rxStream, which are served by the Link Tx and
+     * Rx processes when the Link is run.
+     */
+    protected Link()
+    {
+        this(false);
+    }
+
+    /**
+     * Creates a Link. A framed Link does not run Link Tx and Rx processes; see FramedLink.
+     * 
+     * @param framed
+     *            True for a FramedLink, false for a streamed Link
+     */
+    Link(boolean framed)
+    {
+        this.framed = framed;
+        if (framed)
+        {
+            this.txQueue = new ConcurrentLinkedQueue<NetworkMessage>();
+            this.txOut = new FrameOutput();
+        }
+        else
+        {
+            this.txQueue = null;
+            this.txOut = this.txChannel.out();
+        }
+    }
 
     /**
      * Returns the NodeID of the connected Link.
@@ -112,6 +228,38 @@ public abstract class Link
         return this.remoteID;
     }
 
+    /**
+     * Returns the number of messages this Link has sent to the remote Node.
+     * 
+     * @return The number of messages written by the Link Tx.
+     */
+    public final long getMessagesSent()
+    {
+        return this.txMessages;
+    }
+
+    /**
+     * Returns the number of times this Link has flushed its output stream.
+     * 
+     * @return The number of flushes made by the Link Tx.
+     */
+    public final long getFlushCount()
+    {
+        return this.txFlushes;
+    }
+
+    /**
+     * Returns the average number of messages sent per flush of the output stream. This is 1 unless batching has been
+     * enabled (see MAX_FLUSH_BYTES).
+     * 
+     * @return The mean batch size, or 0 if nothing has been sent.
+     */
+    public final double getMessagesPerFlush()
+    {
+        long flushes = this.txFlushes;
+        return (flushes == 0) ? 0 : (double)this.txMessages / flushes;
+    }
+
     /**
      * Gets the channel that is connected to the Link Tx process.
      * 
@@ -119,7 +267,205 @@ public abstract class Link
      */
     protected final ChannelOutput getTxChannel()
     {
-        return this.txChannel.out();
+        return this.txOut;
+    }
+
+    /**
+     * Starts the transfer of frames for a framed Link. This is called by run once the Link is connected, and should
+     * arrange for fill and receive to be called as the underlying connection becomes ready. The default does nothing.
+     * 
+     * @throws JCSPNetworkException
+     *             Thrown if the transfer cannot be started.
+     */
+    protected void activate()
+        throws JCSPNetworkException
+    {
+        // Nothing to start for a streamed Link
+    }
+
+    /**
+     * Encodes messages queued for transmit into the buffer (from its position), using the same framing as the Link Tx.
+     * A message larger than the space remaining is encoded in parts over successive calls. This must only be called by
+     * one thread at a time.
+     * 
+     * @param buffer
+     *            The buffer to encode into
+     * @return True if more messages (or parts) are waiting, false if all queued messages are encoded.
+     */
+    protected final boolean fill(ByteBuffer buffer)
+    {
+        long messages = 0;
+        try
+        {
+            while (true)
+            {
+                NetworkMessage msg = this.txPending;
+                if (msg == null)
+                {
+                    msg = this.txQueue.poll();
+                    if (msg == null)
+                        return false;
+                    this.txPending = msg;
+                    this.txOffset = -1;
+                }
+                if (this.txOffset < 0)
+                {
+                    // The header (including the size of any data) is encoded in one piece
+                    if (buffer.remaining() < Link.headerSize(msg.type))
+                        return true;
+                    buffer.put(msg.type);
+                    buffer.putInt(msg.attr1);
+                    buffer.putInt(msg.attr2);
+                    if (msg.type == NetworkProtocol.WINDOWED_SEND)
+                        buffer.putInt(msg.window);
+                    messages++;
+                    if (!Link.hasData(msg.type))
+                    {
+                        this.txPending = null;
+                        NetworkBufferPool.recycle(msg);
+                        continue;
+                    }
+                    buffer.putInt(msg.data.length);
+                    this.txOffset = 0;
+                }
+                int n = Math.min(buffer.remaining(), msg.data.length - this.txOffset);
+                buffer.put(msg.data, this.txOffset, n);
+                this.txOffset += n;
+                if (this.txOffset < msg.data.length)
+                    return true;
+                this.txPending = null;
+                NetworkBufferPool.recycle(msg);
+            }
+        }
+        finally
+        {
+            if (messages > 0)
+            {
+                this.txMessages += messages;
+                this.txFlushes++;
+            }
+        }
+    }
+
+    /**
+     * Decodes the frames in the buffer (from its position to its limit), and acts upon each message as the Link Rx
+     * would. A frame that is not complete is retained, and completed by later calls. This must only be called by one
+     * thread at a time.
+     * 
+     * @param buffer
+     *            The buffer holding the bytes received
+     */
+    protected final void receive(ByteBuffer buffer)
+    {
+        while (true)
+        {
+            NetworkMessage msg = this.rxPending;
+            if (msg == null)
+            {
+                if (buffer.remaining() < 9)
+                    return;
+                byte type = buffer.get(buffer.position());
+                if (buffer.remaining() < Link.headerSize(type))
+                    return;
+                msg = NetworkBufferPool.takeMessage();
+                msg.type = buffer.get();
+                msg.attr1 = buffer.getInt();
+                msg.attr2 = buffer.getInt();
+                if (type == NetworkProtocol.WINDOWED_SEND)
+                    msg.window = buffer.getInt();
+                if (!Link.hasData(type))
+                {
+                    this.framedRx.receive(msg);
+                    continue;
+                }
+                Link.allocateData(msg, buffer.getInt());
+                this.rxPending = msg;
+                this.rxOffset = 0;
+            }
+            int n = Math.min(buffer.remaining(), msg.dataLength - this.rxOffset);
+            buffer.get(msg.data, this.rxOffset, n);
+            this.rxOffset += n;
+            if (this.rxOffset < msg.dataLength)
+                return;
+            this.rxPending = null;
+            this.framedRx.receive(msg);
+        }
+    }
+
+    /**
+     * Called by a framed Link when its underlying connection fails. The resources are destroyed, and any process
+     * waiting on the remote Node is informed that the Link has gone down.
+     */
+    protected final void linkFailed()
+    {
+        this.framedUp = false;
+        destroyResources();
+        if (this.framedRx != null)
+            this.framedRx.linkLost();
+        this.refuseQueued();
+    }
+
+    /**
+     * Answers (with LINK_LOST) the messages queued for a framed Link that is down.
+     */
+    private void refuseQueued()
+    {
+        NetworkMessage msg;
+        while ((msg = this.txQueue.poll()) != null)
+            this.refuse(msg);
+    }
+
+    /**
+     * Allocates the array to receive the data of a message into. If the message is for an input channel whose filter
+     * can decode from a pooled buffer, the array is taken from the NetworkBufferPool.
+     * 
+     * @param msg
+     *            The message being received, with its header set
+     * @param size
+     *            The number of bytes of data
+     */
+    static void allocateData(NetworkMessage msg, int size)
+    {
+        ChannelData chan = ChannelManager.getInstance().getChannel(msg.attr1);
+        if (chan != null && chan.pooledRx)
+        {
+            msg.data = NetworkBufferPool.takeBuffer(size);
+            msg.pooledData = true;
+        }
+        else
+            msg.data = new byte[size];
+        msg.dataLength = size;
+    }
+
+    /**
+     * Checks whether messages of the given type carry a data element.
+     * 
+     * @param type
+     *            The message type
+     * @return True if the message is followed by the size and bytes of its data
+     */
+    static boolean hasData(byte type)
+    {
+        return type == NetworkProtocol.SEND || type == NetworkProtocol.ARRIVED || type == NetworkProtocol.ASYNC_SEND
+               || type == NetworkProtocol.WINDOWED_SEND;
+    }
+
+    /**
+     * Gets the number of bytes in the header of a message of the given type: the type and two attributes, the window
+     * of a WINDOWED_SEND, and the size of any data.
+     * 
+     * @param type
+     *            The message type
+     * @return The size of the header in bytes
+     */
+    static int headerSize(byte type)
+    {
+        int size = 9;
+        if (type == NetworkProtocol.WINDOWED_SEND)
+            size += 4;
+        if (Link.hasData(type))
+            size += 4;
+        return size;
     }
 
     /**
@@ -233,8 +579,7 @@ public abstract class Link
             // Otherwise the Link can take the channel. Add the channel to the table of registered channels.
             else
             {
-                Integer objIndex = new Integer(data.vcn);
-                this.connectedOutputs.put(objIndex, data);
+                this.connectedOutputs.put(data.vcn, data);
             }
         }
     }
@@ -250,13 +595,12 @@ public abstract class Link
         // Acquire a lock on the Link.
         synchronized (this)
         {
-            // All we need to do is ensure that the Hashtable of connected channels still exists. It is unlikely that
+            // All we need to do is ensure that the table of connected channels still exists. It is unlikely that
             // this occurrence can happen, but destroy may be called on the channel as the Link is going down.
             if (this.connectedOutputs != null)
             {
-                // Remove the channel from the registered channels Hashtable
-                Integer objIndex = new Integer(data.vcn);
-                this.connectedOutputs.remove(objIndex);
+                // Remove the channel from the registered channels table
+                this.connectedOutputs.remove(data.vcn);
             }
         }
     }
@@ -288,9 +632,8 @@ public abstract class Link
             }
             else
             {
-                // Otherwise add the barrier to the connected Hashtable of connected barriers
-                Integer objIndex = new Integer(data.vbn);
-                this.connectedBarriers.put(objIndex, data);
+                // Otherwise add the barrier to the table of connected barriers
+                this.connectedBarriers.put(data.vbn, data);
             }
         }
     }
@@ -311,8 +654,7 @@ public abstract class Link
             // going down.
             if (this.connectedBarriers != null)
             {
-                Integer objIndex = new Integer(data.vbn);
-                this.connectedBarriers.remove(objIndex);
+                this.connectedBarriers.remove(data.vbn);
             }
         }
     }
@@ -344,6 +686,23 @@ public abstract class Link
             }
         }
 
+        // A framed Link has no loops to run. It answers messages itself once the Link has gone down.
+        if (this.framed)
+        {
+            this.framedRx = new RxLoop(this.txOut, null);
+            this.framedUp = true;
+            try
+            {
+                activate();
+            }
+            catch (JCSPNetworkException jne)
+            {
+                Node.err.log(this.getClass(), "Failed to activate Link to " + this.remoteID);
+                linkFailed();
+            }
+            return;
+        }
+
         // Create and start Tx and Rx loops.
         TxLoop txLoop = new TxLoop(this.txChannel.in(), this.txStream);
         RxLoop rxLoop = new RxLoop(this.txChannel.out(), this.rxStream);
@@ -357,26 +716,75 @@ public abstract class Link
         // At this point the Link has gone down. Should we be accepting messages? This should have really been
         // handled during the destroy resources stage. But just in case we send LINK_LOST messages appropriately.
         while (true)
+            this.refuse((NetworkMessage)this.txChannel.in().read());
+    }
+
+    /**
+     * Answers a message that cannot be sent because the Link has gone down.
+     * 
+     * @param msg
+     *            The message that cannot be sent
+     */
+    private void refuse(NetworkMessage msg)
+    {
+        NetworkMessage linkLost = new NetworkMessage();
+        linkLost.type = NetworkProtocol.LINK_LOST;
+        switch (msg.type)
         {
-            NetworkMessage linkLost = new NetworkMessage();
-            linkLost.type = NetworkProtocol.LINK_LOST;
-            NetworkMessage msg = (NetworkMessage)this.txChannel.in().read();
-            switch (msg.type)
-            {
-                // We only respond to certain message types.
-                case NetworkProtocol.SEND:
-                case NetworkProtocol.ASYNC_SEND:
-                    // Get the appropriate channel
-                    ChannelData chan = ChannelManager.getInstance().getChannel(msg.attr2);
-                    chan.toChannel.write(linkLost);
-                    break;
+            // We only respond to certain message types.
+            case NetworkProtocol.SEND:
+            case NetworkProtocol.ASYNC_SEND:
+            case NetworkProtocol.WINDOWED_SEND:
+                // Get the appropriate channel
+                ChannelData chan = ChannelManager.getInstance().getChannel(msg.attr2);
+                chan.toChannel.write(linkLost);
+                break;
+
+            case NetworkProtocol.SYNC:
+                // Get the appropriate barrier
+                BarrierData bar = BarrierManager.getInstance().getBarrier(msg.attr2);
+                bar.toBarrier.write(linkLost);
+                break;
+        }
+    }
 
-                case NetworkProtocol.SYNC:
-                    // Get the appropriate barrier
-                    BarrierData bar = BarrierManager.getInstance().getBarrier(msg.attr2);
-                    bar.toBarrier.write(linkLost);
-                    break;
+    /**
+     * The output end given to users of a framed Link, which queues each message for transmit.
+     */
+    private final class FrameOutput
+        implements ChannelOutput
+    {
+        /**
+         * Queues a message for the remote Node, or answers it if the Link is down.
+         * 
+         * @param object
+         *            The NetworkMessage to send
+         */
+        public void write(Object object)
+        {
+            NetworkMessage msg = (NetworkMessage)object;
+            if (!Link.this.framedUp)
+            {
+                Link.this.refuse(msg);
+                return;
             }
+            Link.this.txQueue.add(msg);
+            // If the Link went down as we queued, the message may have been missed by linkFailed
+            if (!Link.this.framedUp)
+                Link.this.refuseQueued();
+            else
+                ((FramedLink)Link.this).transmitReady();
+        }
+
+        /**
+         * Poisoning the Link has no effect.
+         * 
+         * @param strength
+         *            Ignored
+         */
+        public void poison(int strength)
+        {
+            // Links are not poisoned
         }
     }
 
@@ -391,7 +799,7 @@ public abstract class Link
         /**
          * The input channel to the TX process. Channels and Barriers send outgoing messages via this channel
          */
-        private final ChannelInput input;
+        private final AltingChannelInput input;
 
         /**
          * The output stream connecting to the remote node's input stream.
@@ -406,7 +814,7 @@ public abstract class Link
          * @param stream
          *            The output stream connected to the remote node
          */
-        TxLoop(ChannelInput in, DataOutputStream stream)
+        TxLoop(AltingChannelInput in, DataOutputStream stream)
         {
             this.input = in;
             this.outputStream = stream;
@@ -422,25 +830,31 @@ public abstract class Link
                 // Loop forever.
                 while (true)
                 {
-                    // Read in next message
-                    NetworkMessage msg = (NetworkMessage)this.input.read();
-
-                    // Write message to the stream.
-                    this.outputStream.writeByte(msg.type);
-                    this.outputStream.writeInt(msg.attr1);
-                    this.outputStream.writeInt(msg.attr2);
+                    // Read in next message and write it to the stream.
+                    int bytes = this.write((NetworkMessage)this.input.read());
+                    long messages = 1;
 
-                    // Check if message has data element
-                    if (msg.type == NetworkProtocol.SEND || msg.type == NetworkProtocol.ARRIVED
-                        || msg.type == NetworkProtocol.ASYNC_SEND)
+                    // If batching, keep writing until nothing more arrives in time, or the batch is full
+                    if (Link.this.maxFlushBytes > 0)
                     {
-                        // Write data element
-                        this.outputStream.writeInt(msg.data.length);
-                        this.outputStream.write(msg.data);
+                        long deadline = System.nanoTime() + Link.this.maxFlushDelay;
+                        while (bytes < Link.this.maxFlushBytes)
+                        {
+                            if (!this.input.pending())
+                            {
+                                long remaining = deadline - System.nanoTime();
+                                if (remaining <= 0 || !this.input.pending(remaining))
+                                    break;
+                            }
+                            bytes += this.write((NetworkMessage)this.input.read());
+                            messages++;
+                        }
                     }
 
                     // Flush the stream.
                     this.outputStream.flush();
+                    Link.this.txMessages += messages;
+                    Link.this.txFlushes++;
                 }
             }
             catch (IOException ioe)
@@ -449,6 +863,39 @@ public abstract class Link
                 destroyResources();
             }
         }
+
+        /**
+         * Writes a message to the stream (without flushing it).
+         * 
+         * @param msg
+         *            The message to write
+         * @return The number of bytes written
+         * @throws IOException
+         *             Thrown if something goes wrong writing to the stream
+         */
+        private int write(NetworkMessage msg)
+            throws IOException
+        {
+            this.outputStream.writeByte(msg.type);
+            this.outputStream.writeInt(msg.attr1);
+            this.outputStream.writeInt(msg.attr2);
+            if (msg.type == NetworkProtocol.WINDOWED_SEND)
+                this.outputStream.writeInt(msg.window);
+
+            // Check if message has data element
+            int toReturn = Link.headerSize(msg.type);
+            if (Link.hasData(msg.type))
+            {
+                // Write data element
+                this.outputStream.writeInt(msg.data.length);
+                this.outputStream.write(msg.data);
+                toReturn += msg.data.length;
+            }
+
+            // A reply that nothing else refers to can now be reused by the Link Rx
+            NetworkBufferPool.recycle(msg);
+            return toReturn;
+        }
     }
 
     /**
@@ -500,10 +947,6 @@ public abstract class Link
         {
             try
             {
-                // Declare the reference for the possible channel and barrier we are may operate on
-                ChannelData data = null;
-                BarrierData bar = null;
-
                 // Loop forever (or until something goes wrong)
                 while (true)
                 {
@@ -513,552 +956,578 @@ public abstract class Link
                     int attr2 = this.inputStream.readInt();
 
                     // Reconstruct the message object
-                    NetworkMessage msg = new NetworkMessage();
+                    NetworkMessage msg = NetworkBufferPool.takeMessage();
                     msg.type = type;
                     msg.attr1 = attr1;
                     msg.attr2 = attr2;
+                    if (type == NetworkProtocol.WINDOWED_SEND)
+                        msg.window = this.inputStream.readInt();
 
-                    // Now operate on the message
-                    switch (msg.type)
+                    // Read the data portion of the message, if it has one
+                    if (Link.hasData(type))
                     {
-                        // ------------------------------------------------------------------------
-                        // *** SEND & ASYNC_SEND ***
-                        // ------------------------------------------------------------------------
-                        // Data sent to the link from another Node. Deal with
-                        // the message
-                        case NetworkProtocol.SEND:
-                        case NetworkProtocol.ASYNC_SEND:
+                        // Read the size, and get a buffer to hold the data
+                        int size = this.inputStream.readInt();
+                        Link.allocateData(msg, size);
 
-                            // First also read the data portion of the message
+                        // Now read from the stream until the data is filled
+                        this.inputStream.readFully(msg.data, 0, size);
+                    }
 
-                            // Read the size
-                            int size = this.inputStream.readInt();
+                    // Now operate on the message
+                    this.receive(msg);
+                }
+            }
 
-                            // Declare a buffer of the correct size
-                            byte[] bytes = new byte[size];
+            // Something has gone wrong at the the communication layer. Destroy the Link.
+            catch (IOException ioe)
+            {
+                // First destroyResources as appropriate for the implementation
+                destroyResources();
 
-                            // Now keeping reading from the stream until the buffer is filled
-                            int read = 0;
-                            while (read < size)
-                                read += this.inputStream.read(bytes, read, size - read);
+                // Now we wish to inform any server ends of a barrier that may have had enrollments via this Link that
+                // the Link is now dead.
+                this.linkLost();
+            }
+        }
 
-                            // Set the data part of the message to the buffer
-                            msg.data = bytes;
+        /**
+         * Informs any server ends of a barrier that may have had enrollments via this Link that the Link is now dead.
+         */
+        void linkLost()
+        {
+            Iterator iter = this.incomingEnrolledBarriers.iterator();
+            for (; iter.hasNext();)
+            {
+                BarrierData bar = (BarrierData)iter.next();
+                NetworkMessage message = new NetworkMessage();
+                message.type = NetworkProtocol.LINK_LOST;
+                bar.toBarrier.write(message);
+            }
 
-                            // Attach the channel to allow the acknowledge message to be sent later.
-                            msg.toLink = this.toTxProcess;
+            this.incomingEnrolledBarriers.clear();
+        }
 
-                            // Get the channel we are dealing with.
-                            data = ChannelManager.getInstance().getChannel(msg.attr1);
+        /**
+         * Answers a message received from the remote Node by turning it into the reply and sending it back to the
+         * source of the message. The message is not referred to again, so the Link Tx may recycle it.
+         * 
+         * @param msg
+         *            The message received
+         * @param type
+         *            The type of the reply
+         * @param attr2
+         *            The second attribute of the reply
+         */
+        private void reply(NetworkMessage msg, byte type, int attr2)
+        {
+            if (msg.pooledData)
+                NetworkBufferPool.releaseBuffer(msg.data);
+            // Destination is the source of the incoming message
+            msg.type = type;
+            msg.attr1 = msg.attr2;
+            msg.attr2 = attr2;
+            msg.data = null;
+            msg.pooledData = false;
+            msg.recyclable = true;
+            this.toTxProcess.write(msg);
+        }
 
-                            // Now check if the channel does exist. If the previous operation returned null, we can
-                            // determine that
-                            // it does not.
-                            if (data != null)
-                            {
-                                // The channel does exist. Now we must operate on the channel dependent on its state. We
-                                // must ensure that this state can't change while we are doing this, so we lock onto the
-                                // ChannelData object.
-
-                                // Acquire lock on the channel data
-                                synchronized (data)
-                                {
-                                    // Operate on message based on the current state of the channel.
-                                    switch (data.state)
-                                    {
-                                        // Channel is OK for input, so pass on the message
-                                        case ChannelDataState.OK_INPUT:
-                                            data.toChannel.write(msg);
-                                            break;
-
-                                        // Channel is currently migrating. Still pass on the message. When the Channel
-                                        // arrives, the REQUEST still needs to occur before this channel is passed on.
-                                        case ChannelDataState.MOVING:
-                                            data.toChannel.write(msg);
-                                            break;
-
-                                        // Channel has moved. Still pass on the message.
-                                        case ChannelDataState.MOVED:
-                                            data.toChannel.write(msg);
-                                            break;
-
-                                        // Channel has been poisoned. Spread the poison to the sender.
-                                        case ChannelDataState.POISONED:
-                                            // Create a new poison NetworkMessage
-                                            NetworkMessage poison = new NetworkMessage();
-                                            poison.type = NetworkProtocol.POISON;
-                                            // Destination is the source of the incoming message
-                                            poison.attr1 = msg.attr2;
-                                            // Send the poison level
-                                            poison.attr2 = data.poisonLevel;
-                                            // Then write the message to the TX process so it can send it to the remote
-                                            // Link
-                                            msg.toLink.write(poison);
-                                            break;
-
-                                        // In all other cases we reject the message. The sender is informed and can act
-                                        // accordingly.
-                                        default:
-                                            // Create a new reject NetworkMessage
-                                            NetworkMessage reject = new NetworkMessage();
-                                            reject.type = NetworkProtocol.REJECT_CHANNEL;
-                                            // Destination is source of incoming message
-                                            reject.attr1 = msg.attr2;
-                                            // Attribute 2 unnecessary
-                                            reject.attr2 = -1;
-                                            // Write reject to the TX process so it can send it to the remote Link
-                                            msg.toLink.write(reject);
-                                            break;
-                                    }
-                                }
-                            }
-                            else
-                            {
-                                // Channel does not exist. Reject the message so the sender can act accordingly.
-                                NetworkMessage reject = new NetworkMessage();
-                                reject.type = NetworkProtocol.REJECT_CHANNEL;
-                                reject.attr1 = msg.attr2;
-                                reject.attr2 = -1;
-                                msg.toLink.write(reject);
-                            }
-                            break;
+        /**
+         * Acts upon a message received from the remote Node.
+         * 
+         * @param msg
+         *            The message received
+         */
+        void receive(NetworkMessage msg)
+        {
+            // Declare the reference for the possible channel and barrier we are may operate on
+            ChannelData data = null;
+            BarrierData bar = null;
+
+            switch (msg.type)
+            {
+                // ------------------------------------------------------------------------
+                // *** SEND, ASYNC_SEND & WINDOWED_SEND ***
+                // ------------------------------------------------------------------------
+                // Data sent to the link from another Node. Deal with
+                // the message
+                case NetworkProtocol.SEND:
+                case NetworkProtocol.ASYNC_SEND:
+                case NetworkProtocol.WINDOWED_SEND:
 
-                        // ------------------------------------------------------------------------
-                        // *** ACK ***
-                        // ------------------------------------------------------------------------
-                        // Acknowledgement message received. Must inform sending channel.
-                        case NetworkProtocol.ACK:
+                    // Attach the channel to allow the acknowledge message to be sent later.
+                    msg.toLink = this.toTxProcess;
 
-                            // Retrieve the channel
-                            data = ChannelManager.getInstance().getChannel(msg.attr1);
+                    // Get the channel we are dealing with.
+                    data = ChannelManager.getInstance().getChannel(msg.attr1);
 
-                            // Check if the channel exists. The previous operation will set data to null if no channel
-                            // of that index has been created.
-                            if (data != null)
+                    // Now check if the channel does exist. If the previous operation returned null, we can
+                    // determine that
+                    // it does not.
+                    if (data != null)
+                    {
+                        // The channel does exist. Now we must operate on the channel dependent on its state. We
+                        // must ensure that this state can't change while we are doing this, so we lock onto the
+                        // ChannelData object.
+
+                        // Acquire lock on the channel data
+                        synchronized (data)
+                        {
+                            // Operate on message based on the current state of the channel.
+                            switch (data.state)
                             {
-                                // The channel exists. We need to acquire a lock on the channel state to ensure it does
-                                // not change as we operate on it.
-
-                                // Acquire lock on data state
-                                synchronized (data)
-                                {
-                                    // Now behave according to the channel data state
-                                    switch (data.state)
-                                    {
-                                        // Channel is OK_OUTPUT, acknowledge channel.
-                                        case ChannelDataState.OK_OUTPUT:
-                                            data.toChannel.write(msg);
-                                            break;
-
-                                        // Channel is not an output, or is destroyed, poisoned, etc. In this case we
-                                        // can just ignore the message as there is nothing to do. The receiving end is
-                                        // attempting to acknowledge a channel that never sent it a message. Could be
-                                        // considered dangerous.
-                                        default:
-                                            // Ignore message in all other cases
-                                            break;
-                                    }
-                                }
+                                // Channel is OK for input, so pass on the message
+                                case ChannelDataState.OK_INPUT:
+                                    data.toChannel.write(msg);
+                                    break;
+
+                                // Channel is currently migrating. Still pass on the message. When the Channel
+                                // arrives, the REQUEST still needs to occur before this channel is passed on.
+                                case ChannelDataState.MOVING:
+                                    data.toChannel.write(msg);
+                                    break;
+
+                                // Channel has moved. Still pass on the message.
+                                case ChannelDataState.MOVED:
+                                    data.toChannel.write(msg);
+                                    break;
+
+                                // Channel has been poisoned. Spread the poison to the sender, sending the poison
+                                // level.
+                                case ChannelDataState.POISONED:
+                                    this.reply(msg, NetworkProtocol.POISON, data.poisonLevel);
+                                    break;
+
+                                // In all other cases we reject the message. The sender is informed and can act
+                                // accordingly.
+                                default:
+                                    this.reply(msg, NetworkProtocol.REJECT_CHANNEL, -1);
+                                    break;
                             }
-                            else
+                        }
+                    }
+                    else
+                    {
+                        // Channel does not exist. Reject the message so the sender can act accordingly.
+                        this.reply(msg, NetworkProtocol.REJECT_CHANNEL, -1);
+                    }
+                    break;
+
+                // ------------------------------------------------------------------------
+                // *** ACK ***
+                // ------------------------------------------------------------------------
+                // Acknowledgement message received. Must inform sending channel.
+                case NetworkProtocol.ACK:
+
+                    // Retrieve the channel
+                    data = ChannelManager.getInstance().getChannel(msg.attr1);
+
+                    // Check if the channel exists. The previous operation will set data to null if no channel
+                    // of that index has been created.
+                    if (data != null)
+                    {
+                        // The channel exists. We need to acquire a lock on the channel state to ensure it does
+                        // not change as we operate on it.
+
+                        // Acquire lock on data state
+                        synchronized (data)
+                        {
+                            // Now behave according to the channel data state
+                            switch (data.state)
                             {
-                                // Otherwise Channel doesn't exist. Ignore message
+                                // Channel is OK_OUTPUT, acknowledge channel.
+                                case ChannelDataState.OK_OUTPUT:
+                                    data.toChannel.write(msg);
+                                    break;
+
+                                // Channel is not an output, or is destroyed, poisoned, etc. In this case we
+                                // can just ignore the message as there is nothing to do. The receiving end is
+                                // attempting to acknowledge a channel that never sent it a message. Could be
+                                // considered dangerous.
+                                default:
+                                    // Ignore message in all other cases
+                                    break;
                             }
-                            break;
+                        }
+                    }
+                    else
+                    {
+                        // Otherwise Channel doesn't exist. Ignore message
+                    }
+                    break;
 
-                        // ------------------------------------------------------------------------
-                        // *** ENROLL ***
-                        // ------------------------------------------------------------------------
-                        // Enrolment on a barrier received.
-                        case NetworkProtocol.ENROLL:
+                // ------------------------------------------------------------------------
+                // *** ENROLL ***
+                // ------------------------------------------------------------------------
+                // Enrolment on a barrier received.
+                case NetworkProtocol.ENROLL:
 
-                            // Retrieve the barrier
-                            bar = BarrierManager.getInstance().getBarrier(msg.attr1);
+                    // Retrieve the barrier
+                    bar = BarrierManager.getInstance().getBarrier(msg.attr1);
 
-                            // Now check that the barrier exists. The previous operation would have set bar to null if
-                            // no channel
-                            // of that index exists
-                            if (bar != null)
-                            {
-                                // Barrier exists. We need to lock the state while we interact to avoid conflicts
+                    // Now check that the barrier exists. The previous operation would have set bar to null if
+                    // no channel
+                    // of that index exists
+                    if (bar != null)
+                    {
+                        // Barrier exists. We need to lock the state while we interact to avoid conflicts
 
-                                // Acquire lock on barrier data state
-                                synchronized (bar)
-                                {
+                        // Acquire lock on barrier data state
+                        synchronized (bar)
+                        {
 
-                                    // Now behave according to the state of the barrier
-                                    switch (bar.state)
-                                    {
-                                        // Barrier is in OK state, and is a server. Enroll with barrier.
-                                        case BarrierDataState.OK_SERVER:
-                                            // Forward the enrolment
-                                            bar.toBarrier.write(msg);
-
-                                            // Add the barrier to the incomingEnrolledBarriers
-                                            this.incomingEnrolledBarriers.add(bar);
-                                            break;
-
-                                        // Barrier is other state. Reject the enroll and let the enrolling process
-                                        // handle it.
-                                        default:
-                                            // Create the reject message
-                                            NetworkMessage reject = new NetworkMessage();
-                                            reject.type = NetworkProtocol.REJECT_BARRIER;
-                                            // Destination of reject is source of incoming message
-                                            reject.attr1 = msg.attr2;
-                                            // Attribute 2 is not used
-                                            reject.attr2 = -1;
-                                            // Send message to the TX process of the Link
-                                            this.toTxProcess.write(reject);
-                                            break;
-                                    }
-                                }
-                            }
-                            else
+                            // Now behave according to the state of the barrier
+                            switch (bar.state)
                             {
-                                // Barrier does not exist. Reject message and let enrolling process handle it.
-                                NetworkMessage reject = new NetworkMessage();
-                                reject.type = NetworkProtocol.REJECT_BARRIER;
-                                reject.attr1 = msg.attr2;
-                                reject.attr2 = -1;
-                                this.toTxProcess.write(reject);
+                                // Barrier is in OK state, and is a server. Enroll with barrier.
+                                case BarrierDataState.OK_SERVER:
+                                    // Forward the enrolment
+                                    bar.toBarrier.write(msg);
+
+                                    // Add the barrier to the incomingEnrolledBarriers
+                                    this.incomingEnrolledBarriers.add(bar);
+                                    break;
+
+                                // Barrier is other state. Reject the enroll and let the enrolling process
+                                // handle it.
+                                default:
+                                    // Create the reject message
+                                    NetworkMessage reject = new NetworkMessage();
+                                    reject.type = NetworkProtocol.REJECT_BARRIER;
+                                    // Destination of reject is source of incoming message
+                                    reject.attr1 = msg.attr2;
+                                    // Attribute 2 is not used
+                                    reject.attr2 = -1;
+                                    // Send message to the TX process of the Link
+                                    this.toTxProcess.write(reject);
+                                    break;
                             }
-                            break;
+                        }
+                    }
+                    else
+                    {
+                        // Barrier does not exist. Reject message and let enrolling process handle it.
+                        NetworkMessage reject = new NetworkMessage();
+                        reject.type = NetworkProtocol.REJECT_BARRIER;
+                        reject.attr1 = msg.attr2;
+                        reject.attr2 = -1;
+                        this.toTxProcess.write(reject);
+                    }
+                    break;
 
-                        // ------------------------------------------------------------------------
-                        // *** RESIGN ***
-                        // ------------------------------------------------------------------------
-                        // Resignation from a barrier received.
-                        case NetworkProtocol.RESIGN:
+                // ------------------------------------------------------------------------
+                // *** RESIGN ***
+                // ------------------------------------------------------------------------
+                // Resignation from a barrier received.
+                case NetworkProtocol.RESIGN:
 
-                            // Retrieve the barrier.
-                            bar = BarrierManager.getInstance().getBarrier(msg.attr1);
+                    // Retrieve the barrier.
+                    bar = BarrierManager.getInstance().getBarrier(msg.attr1);
 
-                            // Check if the Barrier exists. The previous operation returns null if no barrier of the
-                            // given
-                            // index exists.
-                            if (bar != null)
+                    // Check if the Barrier exists. The previous operation returns null if no barrier of the
+                    // given
+                    // index exists.
+                    if (bar != null)
+                    {
+                        // The Barrier exists. We now acquire a lock on the Barrier to avoid it changing while
+                        // we
+                        // operate on it.
+
+                        // Acquire lock on the barrier data state
+                        synchronized (bar)
+                        {
+                            // Now behave based on the state of the barrier
+                            switch (bar.state)
                             {
-                                // The Barrier exists. We now acquire a lock on the Barrier to avoid it changing while
-                                // we
-                                // operate on it.
-
-                                // Acquire lock on the barrier data state
-                                synchronized (bar)
-                                {
-                                    // Now behave based on the state of the barrier
-                                    switch (bar.state)
+                                // Barrier is in OK_SERVER state. Attempt resign from barrier.
+                                case BarrierDataState.OK_SERVER:
+
+                                    // First check that a enrolment occurred previously and remove the enrolled
+                                    // barrier from the list. This operation returns true if the object was
+                                    // successfully removed
+                                    if (!this.incomingEnrolledBarriers.remove(bar))
                                     {
-                                        // Barrier is in OK_SERVER state. Attempt resign from barrier.
-                                        case BarrierDataState.OK_SERVER:
-
-                                            // First check that a enrolment occurred previously and remove the enrolled
-                                            // barrier from the list. This operation returns true if the object was
-                                            // successfully removed
-                                            if (!this.incomingEnrolledBarriers.remove(bar))
-                                            {
-                                                // The barrier was not previously enrolled, therefore do not resign from
-                                                // the barrier. We *COULD* reject the resignation here, but that would
-                                                // be
-                                                // pointless. Simply continue.
-                                            }
-                                            else
-                                            {
-                                                // Forward the resignation to the barrier
-                                                bar.toBarrier.write(msg);
-                                            }
-                                            break;
-
-                                        // Barrier is other state. This can be ignored. From the point of view of the
-                                        // resigner, no different operation has occurred. It can carry on as normal.
-                                        // Could be considered dangerous.
-                                        default:
-                                            break;
+                                        // The barrier was not previously enrolled, therefore do not resign from
+                                        // the barrier. We *COULD* reject the resignation here, but that would
+                                        // be
+                                        // pointless. Simply continue.
                                     }
-                                }
-                            }
-                            // Barrier doesn't exist. Ignore.
-                            break;
-
-                        // ------------------------------------------------------------------------
-                        // *** SYNC ***
-                        // ------------------------------------------------------------------------
-                        // Sync message for a barrier received.
-                        case NetworkProtocol.SYNC:
-
-                            // Retrieve the barrier
-                            bar = BarrierManager.getInstance().getBarrier(msg.attr1);
-
-                            // Check that the barrier exists. The previous operation returns null if no barrier of the
-                            // given
-                            // index exists.
-                            if (bar != null)
-                            {
-                                // The barrier exists. We need to operate on it based on its state. Therefore we need to
-                                // ensure
-                                // that the state doesn't change as we do so, and must acquire a lock on the barrier
-
-                                // Acquire lock on barrier state
-                                synchronized (bar)
-                                {
-                                    // Attach the output channel to the txLink so when barrier is ready it can inform
-                                    // the networked barriers connected to it.
-                                    msg.toLink = this.toTxProcess;
-
-                                    // Now we must behave based on the state of the barrier
-                                    switch (bar.state)
+                                    else
                                     {
-                                        // Barrier is in OK_SERVER state. Pass SYNC onto the barrier.
-                                        case BarrierDataState.OK_SERVER:
-
-                                            // TODO: Should we check that this Link is enrolled? If we are doing this,
-                                            // the ArrayList structure will have to be re-thought to something faster.
-
-                                            // Forward the SYNC
-                                            bar.toBarrier.write(msg);
-
-                                            break;
-
-                                        // Barrier is not in OK_SERVER state. Reject message
-                                        default:
-                                            // Create reject message
-                                            NetworkMessage reject = new NetworkMessage();
-                                            reject.type = NetworkProtocol.REJECT_BARRIER;
-                                            // Destination is source of previous message
-                                            reject.attr1 = msg.attr2;
-                                            // Attribute 2 is not required
-                                            reject.attr2 = -1;
-                                            // Write reject message to the TX process
-                                            this.toTxProcess.write(reject);
-                                            break;
+                                        // Forward the resignation to the barrier
+                                        bar.toBarrier.write(msg);
                                     }
-                                }
+                                    break;
+
+                                // Barrier is other state. This can be ignored. From the point of view of the
+                                // resigner, no different operation has occurred. It can carry on as normal.
+                                // Could be considered dangerous.
+                                default:
+                                    break;
                             }
-                            else
+                        }
+                    }
+                    // Barrier doesn't exist. Ignore.
+                    break;
+
+                // ------------------------------------------------------------------------
+                // *** SYNC ***
+                // ------------------------------------------------------------------------
+                // Sync message for a barrier received.
+                case NetworkProtocol.SYNC:
+
+                    // Retrieve the barrier
+                    bar = BarrierManager.getInstance().getBarrier(msg.attr1);
+
+                    // Check that the barrier exists. The previous operation returns null if no barrier of the
+                    // given
+                    // index exists.
+                    if (bar != null)
+                    {
+                        // The barrier exists. We need to operate on it based on its state. Therefore we need to
+                        // ensure
+                        // that the state doesn't change as we do so, and must acquire a lock on the barrier
+
+                        // Acquire lock on barrier state
+                        synchronized (bar)
+                        {
+                            // Attach the output channel to the txLink so when barrier is ready it can inform
+                            // the networked barriers connected to it.
+                            msg.toLink = this.toTxProcess;
+
+                            // Now we must behave based on the state of the barrier
+                            switch (bar.state)
                             {
-                                // Barrier doesn't exist. Reject the message.
-                                NetworkMessage reject = new NetworkMessage();
-                                reject.type = NetworkProtocol.REJECT_BARRIER;
-                                reject.attr1 = msg.attr2;
-                                reject.attr2 = -1;
-                                this.toTxProcess.write(reject);
+                                // Barrier is in OK_SERVER state. Pass SYNC onto the barrier.
+                                case BarrierDataState.OK_SERVER:
+
+                                    // TODO: Should we check that this Link is enrolled? If we are doing this,
+                                    // the ArrayList structure will have to be re-thought to something faster.
+
+                                    // Forward the SYNC
+                                    bar.toBarrier.write(msg);
+
+                                    break;
+
+                                // Barrier is not in OK_SERVER state. Reject message
+                                default:
+                                    // Create reject message
+                                    NetworkMessage reject = new NetworkMessage();
+                                    reject.type = NetworkProtocol.REJECT_BARRIER;
+                                    // Destination is source of previous message
+                                    reject.attr1 = msg.attr2;
+                                    // Attribute 2 is not required
+                                    reject.attr2 = -1;
+                                    // Write reject message to the TX process
+                                    this.toTxProcess.write(reject);
+                                    break;
                             }
-                            break;
+                        }
+                    }
+                    else
+                    {
+                        // Barrier doesn't exist. Reject the message.
+                        NetworkMessage reject = new NetworkMessage();
+                        reject.type = NetworkProtocol.REJECT_BARRIER;
+                        reject.attr1 = msg.attr2;
+                        reject.attr2 = -1;
+                        this.toTxProcess.write(reject);
+                    }
+                    break;
 
-                        // ------------------------------------------------------------------------
-                        // *** RELEASE ***
-                        // ------------------------------------------------------------------------
-                        // Barrier has been released after a sync. Notify the barrier.
-                        case NetworkProtocol.RELEASE:
+                // ------------------------------------------------------------------------
+                // *** RELEASE ***
+                // ------------------------------------------------------------------------
+                // Barrier has been released after a sync. Notify the barrier.
+                case NetworkProtocol.RELEASE:
 
-                            // Retrieve the barrier.
-                            bar = BarrierManager.getInstance().getBarrier(msg.attr1);
+                    // Retrieve the barrier.
+                    bar = BarrierManager.getInstance().getBarrier(msg.attr1);
 
-                            // Check and see if the barrier exists. The previous operation returns null if no barrier of
-                            // the given index exists
-                            if (bar != null)
+                    // Check and see if the barrier exists. The previous operation returns null if no barrier of
+                    // the given index exists
+                    if (bar != null)
+                    {
+                        // We now operate on the barrier based on its state. We therefore need to acquire a lock
+                        // on the barrier to ensure the state doesn't change as we do so.
+
+                        // Acquire lock on barrier state
+                        synchronized (bar)
+                        {
+                            // Now behave based on the state of the barrier
+                            switch (bar.state)
                             {
-                                // We now operate on the barrier based on its state. We therefore need to acquire a lock
-                                // on the barrier to ensure the state doesn't change as we do so.
-
-                                // Acquire lock on barrier state
-                                synchronized (bar)
-                                {
-                                    // Now behave based on the state of the barrier
-                                    switch (bar.state)
-                                    {
-                                        // Barrier is in OK_CLIENT state. Release the waiting processes.
-                                        case BarrierDataState.OK_CLIENT:
+                                // Barrier is in OK_CLIENT state. Release the waiting processes.
+                                case BarrierDataState.OK_CLIENT:
 
-                                            // TODO: Should we be checking that this Link is indeed connected to this
-                                            // Barrier? This would require the Hashtable of registered barriers to be
-                                            // passed into this process.
+                                    // TODO: Should we be checking that this Link is indeed connected to this
+                                    // Barrier? This would require the Hashtable of registered barriers to be
+                                    // passed into this process.
 
-                                            // Forward on the message
-                                            bar.toBarrier.write(msg);
+                                    // Forward on the message
+                                    bar.toBarrier.write(msg);
 
-                                            break;
+                                    break;
 
-                                        // Barrier is not in OK_CLIENT state. Ignore message. From the point of view of
-                                        // the releaser no difference is apparent. It may be worth in future informing
-                                        // the releaser that this Barrier is broken so it can reduce the number of
-                                        // enrolled.
-                                        default:
-                                            break;
-                                    }
-                                }
+                                // Barrier is not in OK_CLIENT state. Ignore message. From the point of view of
+                                // the releaser no difference is apparent. It may be worth in future informing
+                                // the releaser that this Barrier is broken so it can reduce the number of
+                                // enrolled.
+                                default:
+                                    break;
                             }
-                            // Barrier doesn't exist. Ignore.
-                            break;
+                        }
+                    }
+                    // Barrier doesn't exist. Ignore.
+                    break;
 
-                        // ------------------------------------------------------------------------
-                        // *** REJECT_CHANNEL ***
-                        // ------------------------------------------------------------------------
-                        // A channel message has been rejected. Inform the Channel
-                        case NetworkProtocol.REJECT_CHANNEL:
+                // ------------------------------------------------------------------------
+                // *** REJECT_CHANNEL ***
+                // ------------------------------------------------------------------------
+                // A channel message has been rejected. Inform the Channel
+                case NetworkProtocol.REJECT_CHANNEL:
 
-                            // Retrieve the channel
-                            data = ChannelManager.getInstance().getChannel(msg.attr1);
+                    // Retrieve the channel
+                    data = ChannelManager.getInstance().getChannel(msg.attr1);
 
-                            // Now check that the channel exists. The previous operation returns null if no channel
-                            // of the given index exists
-                            if (data != null)
+                    // Now check that the channel exists. The previous operation returns null if no channel
+                    // of the given index exists
+                    if (data != null)
+                    {
+                        // We now behave based on the state of the channel. The state cannot change as we do
+                        // this, so we must ensure it does not change
+
+                        // Acquire lock on channel state
+                        synchronized (data)
+                        {
+                            // Behave based on state of the channel
+                            switch (data.state)
                             {
-                                // We now behave based on the state of the channel. The state cannot change as we do
-                                // this, so we must ensure it does not change
-
-                                // Acquire lock on channel state
-                                synchronized (data)
-                                {
-                                    // Behave based on state of the channel
-                                    switch (data.state)
-                                    {
-                                        // Channel is in OK_OUTPUT state. Reject the message sent by it.
-                                        case ChannelDataState.OK_OUTPUT:
-                                            data.toChannel.write(msg);
-                                            break;
-
-                                        // Channel is in other state. We can ignore the message. The rejector is
-                                        // rejecting anyway, so there is no need to inform that this channel would also
-                                        // reject.
-                                        default:
-                                            break;
-                                    }
-                                }
+                                // Channel is in OK_OUTPUT state. Reject the message sent by it.
+                                case ChannelDataState.OK_OUTPUT:
+                                    data.toChannel.write(msg);
+                                    break;
+
+                                // Channel is in other state. We can ignore the message. The rejector is
+                                // rejecting anyway, so there is no need to inform that this channel would also
+                                // reject.
+                                default:
+                                    break;
                             }
-                            // Barrier doesn't exist, ignore message.
-                            break;
+                        }
+                    }
+                    // Barrier doesn't exist, ignore message.
+                    break;
 
-                        // ------------------------------------------------------------------------
-                        // *** REJECT_BARRIER ***
-                        // ------------------------------------------------------------------------
-                        // A barrier message has been rejected.
-                        case NetworkProtocol.REJECT_BARRIER:
+                // ------------------------------------------------------------------------
+                // *** REJECT_BARRIER ***
+                // ------------------------------------------------------------------------
+                // A barrier message has been rejected.
+                case NetworkProtocol.REJECT_BARRIER:
 
-                            // Retrieve the barrier
-                            bar = BarrierManager.getInstance().getBarrier(msg.attr1);
+                    // Retrieve the barrier
+                    bar = BarrierManager.getInstance().getBarrier(msg.attr1);
 
-                            // Now check if the barrier exists. The previous operation returns null if no barrier
-                            // exists at the given index.
-                            if (bar != null)
+                    // Now check if the barrier exists. The previous operation returns null if no barrier
+                    // exists at the given index.
+                    if (bar != null)
+                    {
+                        // Barrier exists. We now operate on it based on its state. We must ensure that the
+                        // state doesn't change during this time and must lock the barrier state
+
+                        // Acquire lock on barrier state
+                        synchronized (bar)
+                        {
+                            // Not behave based on the state of the barrier
+                            switch (bar.state)
                             {
-                                // Barrier exists. We now operate on it based on its state. We must ensure that the
-                                // state doesn't change during this time and must lock the barrier state
-
-                                // Acquire lock on barrier state
-                                synchronized (bar)
-                                {
-                                    // Not behave based on the state of the barrier
-                                    switch (bar.state)
-                                    {
-                                        // Barrier is in OK_CLIENT state. Reject the message sent by it.
-                                        case BarrierDataState.OK_CLIENT:
-                                            bar.toBarrier.write(msg);
-                                            break;
-
-                                        // Barrier is in other state. We can ignore the message. The rejector is broken
-                                        // anyway, so there is no need to inform that this barrier is also down.
-                                        default:
-                                            break;
-                                    }
-                                }
+                                // Barrier is in OK_CLIENT state. Reject the message sent by it.
+                                case BarrierDataState.OK_CLIENT:
+                                    bar.toBarrier.write(msg);
+                                    break;
+
+                                // Barrier is in other state. We can ignore the message. The rejector is broken
+                                // anyway, so there is no need to inform that this barrier is also down.
+                                default:
+                                    break;
                             }
-                            // Barrier doesn't exist, ignore message.
-                            break;
-
-                        // ------------------------------------------------------------------------
-                        // *** MOVED ***
-                        // ------------------------------------------------------------------------
-                        // TODO: Bits for mobility
-                        case NetworkProtocol.MOVED:
-                            break;
-
-                        // ------------------------------------------------------------------------
-                        // *** ARRIVED ***
-                        // ------------------------------------------------------------------------
-                        // TODO: Bits for mobility
-                        case NetworkProtocol.ARRIVED:
-                            break;
-
-                        // ------------------------------------------------------------------------
-                        // *** POISON ***
-                        // ------------------------------------------------------------------------
-                        // Poison message received.
-                        case NetworkProtocol.POISON:
-
-                            // Retrieve the channel
-                            data = ChannelManager.getInstance().getChannel(msg.attr1);
-
-                            // Now check that the channel exists. The previous operation returns
-                            // null if no channel of the given index exists
-                            if (data != null)
+                        }
+                    }
+                    // Barrier doesn't exist, ignore message.
+                    break;
+
+                // ------------------------------------------------------------------------
+                // *** MOVED ***
+                // ------------------------------------------------------------------------
+                // TODO: Bits for mobility
+                case NetworkProtocol.MOVED:
+                    break;
+
+                // ------------------------------------------------------------------------
+                // *** ARRIVED ***
+                // ------------------------------------------------------------------------
+                // TODO: Bits for mobility
+                case NetworkProtocol.ARRIVED:
+                    break;
+
+                // ------------------------------------------------------------------------
+                // *** POISON ***
+                // ------------------------------------------------------------------------
+                // Poison message received.
+                case NetworkProtocol.POISON:
+
+                    // Retrieve the channel
+                    data = ChannelManager.getInstance().getChannel(msg.attr1);
+
+                    // Now check that the channel exists. The previous operation returns
+                    // null if no channel of the given index exists
+                    if (data != null)
+                    {
+                        // The channel exists. We need to ensure that the channel does not change
+                        // state as we operate on.
+
+                        // Acquire lock on channel data
+                        synchronized (data)
+                        {
+                            // Now behave based on the state of the barrier
+                            switch (data.state)
                             {
-                                // The channel exists. We need to ensure that the channel does not change
-                                // state as we operate on.
-
-                                // Acquire lock on channel data
-                                synchronized (data)
-                                {
-                                    // Now behave based on the state of the barrier
-                                    switch (data.state)
+                                // Channel is in OK state.
+                                case ChannelDataState.OK_INPUT:
+                                case ChannelDataState.OK_OUTPUT:
+                                    // We now must check the channels immunity level
+                                    if (msg.attr2 > data.immunityLevel)
                                     {
-                                        // Channel is in OK state.
-                                        case ChannelDataState.OK_INPUT:
-                                        case ChannelDataState.OK_OUTPUT:
-                                            // We now must check the channels immunity level
-                                            if (msg.attr2 > data.immunityLevel)
-                                            {
-                                                // The poison message is strong enough to poison the channel.
-                                                // Forward on the message
-                                                data.toChannel.write(msg);
-                                            }
-                                            break;
-
-                                        // TODO: Bits for mobility
-                                        case ChannelDataState.MOVING:
-                                            break;
-
-                                        // TODO: Bits for mobility
-                                        case ChannelDataState.MOVED:
-                                            break;
-
-                                        // Channel is already poisoned. Check level and forward if necessary.
-                                        case ChannelDataState.POISONED:
-                                            if (data.poisonLevel < msg.attr2)
-                                                data.toChannel.write(msg);
-                                            break;
-
-                                        // Channel is in another state. Ignore message. Poisoner is trying to poison a
-                                        // channel that is already down. Should be safe to ignore.
-                                        default:
-                                            break;
+                                        // The poison message is strong enough to poison the channel.
+                                        // Forward on the message
+                                        data.toChannel.write(msg);
                                     }
-                                }
+                                    break;
+
+                                // TODO: Bits for mobility
+                                case ChannelDataState.MOVING:
+                                    break;
+
+                                // TODO: Bits for mobility
+                                case ChannelDataState.MOVED:
+                                    break;
+
+                                // Channel is already poisoned. Check level and forward if necessary.
+                                case ChannelDataState.POISONED:
+                                    if (data.poisonLevel < msg.attr2)
+                                        data.toChannel.write(msg);
+                                    break;
+
+                                // Channel is in another state. Ignore message. Poisoner is trying to poison a
+                                // channel that is already down. Should be safe to ignore.
+                                default:
+                                    break;
                             }
-                            // Channel doesn't exist. Ignore message.
-                            break;
+                        }
                     }
-                }
-            }
-
-            // Something has gone wrong at the the communication layer. Destroy the Link.
-            catch (IOException ioe)
-            {
-                // First destroyResources as appropriate for the implementation
-                destroyResources();
-
-                // Now we wish to inform any server ends of a barrier that may have had enrollments via this Link that
-                // the Link is now dead.
-                Iterator iter = this.incomingEnrolledBarriers.iterator();
-                for (; iter.hasNext();)
-                {
-                    BarrierData bar = (BarrierData)iter.next();
-                    NetworkMessage message = new NetworkMessage();
-                    message.type = NetworkProtocol.LINK_LOST;
-                    bar.toBarrier.write(message);
-                }
-
-                this.incomingEnrolledBarriers.clear();
+                    // Channel doesn't exist. Ignore message.
+                    break;
             }
         }
     }
@@ -0,0 +1,120 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.net2;
+
+import java.io.IOException;
+
+/**
+ * The policy for messages sent between networked channel ends on the same Node. When an output end is created for an
+ * input end on its own Node, it is connected directly to the input end rather than via a Link. By default, the object
+ * written is then also handed to the reader by reference, without being passed through the output end's encoding
+ * filter or the input end's decoding filter, so a write to a co-located end costs no more than one to a buffered local
+ * channel.
+ * <p>
+ * As with a local channel, the reader then shares the object with the writer, which must not change it afterwards. An
+ * application that relies on each end having its own copy, as it would across the network, can opt in to a copy on
+ * send, either by setting a COPIER, which is applied to each object written by reference, or by turning off
+ * BY_REFERENCE, in which case objects are passed through the filters exactly as they are for a remote end.
+ * </p>
+ * <p>
+ * Same Node connections send their requests by reference in the same way. NetBarriers carry no data, and are already
+ * synchronised directly when on the same Node. The policy is read on each write, and so may be changed at any time (by
+ * any thread).
+ * </p>
+ */
+public final class LocalDelivery
+{
+    /**
+     * Whether objects written to a networked input end on the same Node are passed by reference, rather than through
+     * the filters of the two ends.
+     */
+    public static volatile boolean BY_REFERENCE = true;
+
+    /**
+     * If not null, applied to each object written by reference, and the copy it returns given to the reader.
+     */
+    public static volatile Copier COPIER = null;
+
+    /**
+     * Copies objects written by reference to a networked input end on the same Node.
+     */
+    public interface Copier
+    {
+        /**
+         * Copies an object being written
+         * 
+         * @param obj
+         *            The object written, which may be null
+         * @return The object to give to the reader
+         * @throws IOException
+         *             Thrown if the object cannot be copied
+         */
+        public Object copy(Object obj)
+            throws IOException;
+    }
+
+    /**
+     * Private constructor. This class only holds the policy
+     */
+    private LocalDelivery()
+    {
+        // Empty constructor
+    }
+
+    /**
+     * Puts an object into a message being sent to an end on the same Node, according to the policy.
+     * 
+     * @param msg
+     *            The message being sent
+     * @param obj
+     *            The object being sent
+     * @param filter
+     *            The filter of the sending end, used when objects are not sent by reference
+     * @throws IOException
+     *             Thrown if the object cannot be copied or encoded
+     */
+    static void encode(NetworkMessage msg, Object obj, NetworkMessageFilter.FilterTx filter)
+        throws IOException
+    {
+        if (!LocalDelivery.BY_REFERENCE)
+        {
+            msg.data = filter.filterTX(obj);
+            return;
+        }
+        Copier copier = LocalDelivery.COPIER;
+        msg.object = (copier == null) ? obj : copier.copy(obj);
+        msg.byReference = true;
+    }
+
+    /**
+     * Takes the object from a message sent by reference, so the message no longer refers to it.
+     * 
+     * @param msg
+     *            The message received
+     * @return The object sent
+     */
+    static Object decode(NetworkMessage msg)
+    {
+        Object toReturn = msg.object;
+        msg.object = null;
+        msg.byReference = false;
+        return toReturn;
+    }
+}
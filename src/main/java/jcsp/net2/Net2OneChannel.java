@@ -25,6 +25,7 @@ import java.io.IOException;
 import jcsp.lang.AltingChannelInput;
 import jcsp.lang.Any2OneChannel;
 import jcsp.lang.Channel;
+import jcsp.lang.ChannelOutput;
 import jcsp.net2.NetworkMessageFilter.FilterRx;
 import jcsp.util.InfiniteBuffer;
 
@@ -67,6 +68,27 @@ final class Net2OneChannel<T>
      */
     private final NetChannelLocation location;
 
+    /**
+     * The most credits read from a windowed output end that are held back before being returned in one ACK. A sender
+     * with a smaller window has its credit returned once half its window is owed.
+     */
+    static final int CREDIT_BATCH = 16;
+
+    /**
+     * The channel used to return credits to the windowed output end last read from, or null if no credits are owed.
+     */
+    private ChannelOutput creditLink = null;
+
+    /**
+     * The VCN of the windowed output end last read from.
+     */
+    private int creditVCN;
+
+    /**
+     * The number of credits owed to the windowed output end last read from.
+     */
+    private int credits = 0;
+
     /**
      * Static factory method used to create a new Net2OneChannel. Used internally within the architecture.
      * 
@@ -157,6 +179,7 @@ final class Net2OneChannel<T>
         this.data.state = ChannelDataState.OK_INPUT;
         this.location = new NetChannelLocation(Node.getInstance().getNodeID(), this.data.vcn);
         this.messageFilter = filter;
+        this.data.pooledRx = filter instanceof NetworkMessageFilter.PooledFilterRx;
     }
 
     /**
@@ -182,19 +205,14 @@ final class Net2OneChannel<T>
         // Now check if a extended read is in progress
         if (this.lastRead != null)
         {
-            // We are performing an extended read. Now check if we should be actually sending a reply
-            if (this.lastRead.type != NetworkProtocol.ASYNC_SEND)
+            // We are performing an extended read. Now check if we should be actually sending a reply. A windowed send
+            // is answered with a credit.
+            if (this.lastRead.type == NetworkProtocol.WINDOWED_SEND)
+                this.credit(this.lastRead);
+            else if (this.lastRead.type != NetworkProtocol.ASYNC_SEND)
             {
                 // The last message wasn't an asynchronous send, therefore we need to send the ACK
-                // Create ACK message
-                NetworkMessage ack = new NetworkMessage();
-                ack.type = NetworkProtocol.ACK;
-                // Destination is source of lastRead
-                ack.attr1 = this.lastRead.attr2;
-                // Attribute 2 is not used
-                ack.attr2 = -1;
-                // Write the acknowledgement back to the sender
-                this.lastRead.toLink.write(ack);
+                this.acknowledge(this.lastRead);
             }
             // Set the lastRead to null. End of extended read operation
             this.lastRead = null;
@@ -284,6 +302,7 @@ final class Net2OneChannel<T>
                         // We must reply to sends with a POISON
                         case NetworkProtocol.SEND:
                         case NetworkProtocol.ASYNC_SEND:
+                        case NetworkProtocol.WINDOWED_SEND:
                             // Create a new POISON message
                             NetworkMessage poison = new NetworkMessage();
                             poison.type = NetworkProtocol.POISON;
@@ -362,18 +381,10 @@ final class Net2OneChannel<T>
                     {
                         // We have received a SEND
                         // Convert the message into the object again. This may throw an IOException
-                        Object toReturn = this.messageFilter.filterRX(msg.data);
+                        Object toReturn = this.decode(msg);
 
                         // We have a SEND, we need to acknowledge.
-                        // Create an ACK message
-                        NetworkMessage ack = new NetworkMessage();
-                        ack.type = NetworkProtocol.ACK;
-                        // Destination is source of the previous message
-                        ack.attr1 = msg.attr2;
-                        // Attribute 2 is unused
-                        ack.attr2 = -1;
-                        // Write ACK to the channel attached to the message
-                        msg.toLink.write(ack);
+                        this.acknowledge(msg);
                         // Return read object
                         return (T) toReturn; // Messy cast. We'll trust the sender.
                     }
@@ -381,7 +392,17 @@ final class Net2OneChannel<T>
                     {
                         // We have received an ASYNC_SEND
                         // Convert the message into the object again. This may throw an IOException
-                        Object toReturn = this.messageFilter.filterRX(msg.data);
+                        Object toReturn = this.decode(msg);
+                        // Return read object
+                        return (T) toReturn; // Messy cast. We'll trust the sender.
+                    }
+                    case NetworkProtocol.WINDOWED_SEND:
+                    {
+                        // We have received a WINDOWED_SEND
+                        // Convert the message into the object again. This may throw an IOException
+                        Object toReturn = this.decode(msg);
+                        // Return the credit to the sender
+                        this.credit(msg);
                         // Return read object
                         return (T) toReturn; // Messy cast. We'll trust the sender.
                     }
@@ -411,6 +432,7 @@ final class Net2OneChannel<T>
                                 // We must reply to sends with a POISON
                                 case NetworkProtocol.SEND:
                                 case NetworkProtocol.ASYNC_SEND:
+                                case NetworkProtocol.WINDOWED_SEND:
                                     // Create a new POISON message
                                     NetworkMessage poison = new NetworkMessage();
                                     poison.type = NetworkProtocol.POISON;
@@ -491,13 +513,14 @@ final class Net2OneChannel<T>
             {
                 switch (msg.type)
                 {
-                    // We can either receive a SEND, ASYNC_SEND, or POISON message
+                    // We can either receive a SEND, ASYNC_SEND, WINDOWED_SEND or POISON message
                     case NetworkProtocol.SEND:
                     case NetworkProtocol.ASYNC_SEND:
+                    case NetworkProtocol.WINDOWED_SEND:
                     {
-                        // We have received a SEND or ASYNC_SEND
+                        // We have received a SEND, ASYNC_SEND or WINDOWED_SEND
                         // Convert the message into the object again. This may throw an IOException
-                        Object toReturn = this.messageFilter.filterRX(msg.data);
+                        Object toReturn = this.decode(msg);
 
                         // Now set the lastRead to the incoming message so we can acknowledge during the endRead
                         // operation
@@ -536,6 +559,7 @@ final class Net2OneChannel<T>
                                 // We must reply to sends with a POISON
                                 case NetworkProtocol.SEND:
                                 case NetworkProtocol.ASYNC_SEND:
+                                case NetworkProtocol.WINDOWED_SEND:
                                     // Create a new POISON message
                                     NetworkMessage poison = new NetworkMessage();
                                     poison.type = NetworkProtocol.POISON;
@@ -576,6 +600,99 @@ final class Net2OneChannel<T>
         }
     }
 
+    /**
+     * Decodes the data of an incoming message with the channel's filter. Pooled data is returned to the
+     * NetworkBufferPool once decoded, and an object sent by reference from the same Node is returned as it is.
+     * 
+     * @param msg
+     *            The message holding the data
+     * @return The recreated Object
+     * @throws IOException
+     *             Thrown if the filter fails to decode the data
+     */
+    private Object decode(NetworkMessage msg)
+        throws IOException
+    {
+        if (msg.byReference)
+            return LocalDelivery.decode(msg);
+        if (!msg.pooledData)
+            return this.messageFilter.filterRX(msg.data);
+
+        byte[] bytes = msg.data;
+        msg.data = null;
+        msg.pooledData = false;
+        try
+        {
+            if (this.messageFilter instanceof NetworkMessageFilter.PooledFilterRx)
+                return ((NetworkMessageFilter.PooledFilterRx)this.messageFilter).filterRX(bytes, msg.dataLength);
+
+            // The filter has been changed since the data was received. Give it an array of the exact size.
+            byte[] exact = new byte[msg.dataLength];
+            System.arraycopy(bytes, 0, exact, 0, msg.dataLength);
+            return this.messageFilter.filterRX(exact);
+        }
+        finally
+        {
+            NetworkBufferPool.releaseBuffer(bytes);
+        }
+    }
+
+    /**
+     * Acknowledges a SEND that has been read. The message itself becomes the ACK, which the Link may then recycle.
+     * 
+     * @param msg
+     *            The SEND message read
+     */
+    private void acknowledge(NetworkMessage msg)
+    {
+        // Destination is source of the message. Attribute 2 is unused
+        msg.type = NetworkProtocol.ACK;
+        msg.attr1 = msg.attr2;
+        msg.attr2 = -1;
+        msg.data = null;
+        msg.recyclable = true;
+        // Write ACK to the channel attached to the message
+        msg.toLink.write(msg);
+    }
+
+    /**
+     * Takes the credit for a WINDOWED_SEND that has been read. Credits are returned to the sender in one ACK when half
+     * the sender's window (at most CREDIT_BATCH) has been taken, when a message arrives from another sender, or when
+     * nothing more is waiting to be read, so the sender always has credit in hand while the reader drains the window.
+     * 
+     * @param msg
+     *            The WINDOWED_SEND message read
+     */
+    private void credit(NetworkMessage msg)
+    {
+        // Return credits owed to another sender first
+        if (this.creditLink != null && (this.creditLink != msg.toLink || this.creditVCN != msg.attr2))
+            this.returnCredits();
+
+        this.creditLink = msg.toLink;
+        this.creditVCN = msg.attr2;
+        this.credits++;
+
+        int batch = Math.max(1, Math.min(Net2OneChannel.CREDIT_BATCH, msg.window / 2));
+        if (this.credits >= batch || !this.in.pending())
+            this.returnCredits();
+    }
+
+    /**
+     * Returns the credits owed to the windowed output end last read from.
+     */
+    private void returnCredits()
+    {
+        // Create ACK message. Destination is the sender, attribute 2 is the number of credits
+        NetworkMessage ack = new NetworkMessage();
+        ack.type = NetworkProtocol.ACK;
+        ack.attr1 = this.creditVCN;
+        ack.attr2 = this.credits;
+        this.creditLink.write(ack);
+        this.creditLink = null;
+        this.credits = 0;
+    }
+
     /**
      * Returns the NetChannelLocation of the channel
      * 
@@ -655,6 +772,7 @@ final class Net2OneChannel<T>
     public void setDecoder(FilterRx decoder)
     {
         this.messageFilter = decoder;
+        this.data.pooledRx = decoder instanceof NetworkMessageFilter.PooledFilterRx;
     }
 
 }
@@ -153,7 +153,8 @@ public final class NetAltingConnectionClient
                     {
                         case NetworkProtocol.REPLY:
                         {
-                            Object toReturn = this.inputFilter.filterRX(msg.data);
+                            Object toReturn = msg.byReference ? LocalDelivery.decode(msg)
+                                                             : this.inputFilter.filterRX(msg.data);
                             NetworkMessage ack = new NetworkMessage();
                             ack.type = NetworkProtocol.REPLY_ACK;
                             ack.attr1 = msg.attr2;
@@ -164,7 +165,8 @@ public final class NetAltingConnectionClient
                         }
                         case NetworkProtocol.REPLY_AND_CLOSE:
                         {
-                            Object toReturn = this.inputFilter.filterRX(msg.data);
+                            Object toReturn = msg.byReference ? LocalDelivery.decode(msg)
+                                                             : this.inputFilter.filterRX(msg.data);
                             NetworkMessage ack = new NetworkMessage();
                             ack.attr1 = msg.attr2;
                             ack.attr2 = -1;
@@ -245,7 +247,10 @@ public final class NetAltingConnectionClient
 
         try
         {
-            msg.data = this.outputFilter.filterTX(obj);
+            if (this.isLocal)
+                LocalDelivery.encode(msg, obj, this.outputFilter);
+            else
+                msg.data = this.outputFilter.filterTX(obj);
 
             synchronized (this.data)
             {
@@ -0,0 +1,307 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2;
+
+/**
+ * The pools of receive buffers and messages used by Links. Without them, each incoming message costs a NetworkMessage
+ * and a byte array of the size of its data, so the garbage produced grows with the network traffic.
+ * <p>
+ * Data arriving for a networked input channel whose decoder is a NetworkMessageFilter.PooledFilterRx is received into
+ * a buffer taken from the pool, rounded up to a power of two of at least 64 bytes, and returned to the pool once it
+ * has been decoded. Other filters receive arrays of the exact size of the data, as before. NetworkMessages are taken
+ * from the pool by the Link Rx, and returned to it by the Link Tx when they have been turned into a reply (such as the
+ * ACK to a SEND) and sent.
+ * </p>
+ * <p>
+ * The hit and miss counts of the pools are available from the static methods of this class. The configuration must be
+ * set before the first message is received.
+ * </p>
+ * 
+ * @see NetworkMessageFilter.PooledFilterRx
+ */
+public final class NetworkBufferPool
+{
+    /**
+     * The size of the largest buffer that is pooled. Data larger than this is received into an array of its own.
+     */
+    public static int MAX_POOLED_SIZE = 65536;
+
+    /**
+     * The number of free buffers of each size, and the number of free messages, that are retained.
+     */
+    public static int POOL_DEPTH = 64;
+
+    /**
+     * The smallest buffer pooled is 1 << MIN_SHIFT bytes.
+     */
+    private static final int MIN_SHIFT = 6;
+
+    /**
+     * The number of buffers requested that were too large to be pooled.
+     */
+    private static long oversize = 0;
+
+    /**
+     * Holds the pools, which are created from the configuration when first used.
+     */
+    private static final class Pools
+    {
+        /**
+         * The free buffers, one stack for each power of two size from 1 << MIN_SHIFT to MAX_POOLED_SIZE.
+         */
+        static final Stack[] buffers;
+
+        /**
+         * The free messages.
+         */
+        static final Stack messages = new Stack(NetworkBufferPool.POOL_DEPTH);
+
+        static
+        {
+            buffers = new Stack[Math.max(1, NetworkBufferPool.sizeClass(NetworkBufferPool.MAX_POOLED_SIZE) + 1)];
+            for (int i = 0; i < buffers.length; i++)
+                buffers[i] = new Stack(NetworkBufferPool.POOL_DEPTH);
+        }
+    }
+
+    /**
+     * A bounded stack of free objects, with its hit and miss counts.
+     */
+    private static final class Stack
+    {
+        /**
+         * The free objects.
+         */
+        private final Object[] items;
+
+        /**
+         * The number of free objects.
+         */
+        private int top = 0;
+
+        /**
+         * The number of takes served from the stack.
+         */
+        private long hits = 0;
+
+        /**
+         * The number of takes for which the stack was empty.
+         */
+        private long misses = 0;
+
+        /**
+         * Creates a new stack.
+         * 
+         * @param depth
+         *            The number of free objects retained
+         */
+        Stack(int depth)
+        {
+            this.items = new Object[depth];
+        }
+
+        /**
+         * Takes a free object.
+         * 
+         * @return A free object, or null if there is none
+         */
+        synchronized Object take()
+        {
+            if (this.top == 0)
+            {
+                this.misses++;
+                return null;
+            }
+            this.hits++;
+            Object toReturn = this.items[--this.top];
+            this.items[this.top] = null;
+            return toReturn;
+        }
+
+        /**
+         * Returns a free object, unless the stack is full.
+         * 
+         * @param item
+         *            The free object
+         */
+        synchronized void put(Object item)
+        {
+            if (this.top < this.items.length)
+                this.items[this.top++] = item;
+        }
+    }
+
+    /**
+     * Private constructor. This is a static class.
+     */
+    private NetworkBufferPool()
+    {
+        // Empty constructor
+    }
+
+    /**
+     * Gets the index of the size class that holds buffers of the given size.
+     * 
+     * @param size
+     *            The number of bytes required
+     * @return The index of the smallest size class that will hold that many bytes
+     */
+    private static int sizeClass(int size)
+    {
+        if (size <= 1 << NetworkBufferPool.MIN_SHIFT)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - NetworkBufferPool.MIN_SHIFT;
+    }
+
+    /**
+     * Takes a buffer of at least the given size.
+     * 
+     * @param size
+     *            The number of bytes required
+     * @return A pooled buffer, or a new array of the exact size if the size is larger than MAX_POOLED_SIZE
+     */
+    static byte[] takeBuffer(int size)
+    {
+        int index = NetworkBufferPool.sizeClass(size);
+        if (index >= Pools.buffers.length)
+        {
+            synchronized (Pools.buffers)
+            {
+                oversize++;
+            }
+            return new byte[size];
+        }
+        byte[] toReturn = (byte[])Pools.buffers[index].take();
+        if (toReturn == null)
+            toReturn = new byte[1 << (index + NetworkBufferPool.MIN_SHIFT)];
+        return toReturn;
+    }
+
+    /**
+     * Returns a buffer to the pool. Arrays that were not taken from the pool are ignored.
+     * 
+     * @param buffer
+     *            The buffer no longer in use
+     */
+    static void releaseBuffer(byte[] buffer)
+    {
+        int index = NetworkBufferPool.sizeClass(buffer.length);
+        if (index < Pools.buffers.length && buffer.length == 1 << (index + NetworkBufferPool.MIN_SHIFT))
+            Pools.buffers[index].put(buffer);
+    }
+
+    /**
+     * Takes a message to receive into.
+     * 
+     * @return A message with all its fields at their defaults
+     */
+    static NetworkMessage takeMessage()
+    {
+        NetworkMessage toReturn = (NetworkMessage)Pools.messages.take();
+        return toReturn != null ? toReturn : new NetworkMessage();
+    }
+
+    /**
+     * Returns a message that has been sent to the pool, if it has been marked as recyclable.
+     * 
+     * @param msg
+     *            The message sent
+     */
+    static void recycle(NetworkMessage msg)
+    {
+        if (!msg.recyclable)
+            return;
+        msg.type = -1;
+        msg.attr1 = -1;
+        msg.attr2 = -1;
+        msg.window = 0;
+        msg.data = null;
+        msg.dataLength = -1;
+        msg.pooledData = false;
+        msg.recyclable = false;
+        msg.object = null;
+        msg.byReference = false;
+        msg.toLink = null;
+        Pools.messages.put(msg);
+    }
+
+    /**
+     * Gets the number of receive buffers served from the pool.
+     * 
+     * @return The number of buffer pool hits
+     */
+    public static long getBufferHits()
+    {
+        long toReturn = 0;
+        for (int i = 0; i < Pools.buffers.length; i++)
+            synchronized (Pools.buffers[i])
+            {
+                toReturn += Pools.buffers[i].hits;
+            }
+        return toReturn;
+    }
+
+    /**
+     * Gets the number of receive buffers that had to be allocated, including those too large to be pooled.
+     * 
+     * @return The number of buffer pool misses
+     */
+    public static long getBufferMisses()
+    {
+        long toReturn;
+        synchronized (Pools.buffers)
+        {
+            toReturn = oversize;
+        }
+        for (int i = 0; i < Pools.buffers.length; i++)
+            synchronized (Pools.buffers[i])
+            {
+                toReturn += Pools.buffers[i].misses;
+            }
+        return toReturn;
+    }
+
+    /**
+     * Gets the number of incoming messages served from the pool.
+     * 
+     * @return The number of message pool hits
+     */
+    public static long getMessageHits()
+    {
+        synchronized (Pools.messages)
+        {
+            return Pools.messages.hits;
+        }
+    }
+
+    /**
+     * Gets the number of incoming messages that had to be allocated.
+     * 
+     * @return The number of message pool misses
+     */
+    public static long getMessageMisses()
+    {
+        synchronized (Pools.messages)
+        {
+            return Pools.messages.misses;
+        }
+    }
+}
@@ -45,11 +45,42 @@ final class NetworkMessage
      */
     int attr2 = -1;
 
+    /**
+     * The window of the sending output end, carried only by a WINDOWED_SEND.
+     */
+    int window = 0;
+
     /**
      * Data sent in the message if relevant.
      */
     byte[] data = null;
 
+    /**
+     * The number of bytes of data when the data array has been taken from the NetworkBufferPool, as it may be longer.
+     */
+    int dataLength = -1;
+
+    /**
+     * Set when the data array has been taken from the NetworkBufferPool, and must be released to it once decoded.
+     */
+    boolean pooledData = false;
+
+    /**
+     * Set when the message is a reply that its sender no longer refers to, so that the Link may return it to the
+     * NetworkBufferPool once it has been sent.
+     */
+    boolean recyclable = false;
+
+    /**
+     * The object sent, in place of data, when the message is sent by reference to an end on the same Node.
+     */
+    Object object = null;
+
+    /**
+     * Set when the message carries an object by reference rather than data.
+     */
+    boolean byReference = false;
+
     /**
      * ChannelOutput to the Link so that acknowledgements can be sent.
      */
@@ -56,6 +56,31 @@ public final class NetworkMessageFilter
             throws IOException;
     }
 
+    /**
+     * A filter used to decode an incoming message that can decode from the start of a longer byte array, and keeps no
+     * reference to the array once it has done so. Incoming data for channels using such a filter is received into
+     * buffers taken from the NetworkBufferPool, which are returned to the pool once decoded.
+     * 
+     * @see NetworkBufferPool
+     */
+    public interface PooledFilterRx
+        extends FilterRx
+    {
+        /**
+         * Decodes the first bytes of an array back into an object
+         * 
+         * @param bytes
+         *            The array holding the bytes to be decoded
+         * @param length
+         *            The number of bytes to be decoded
+         * @return The recreated Object
+         * @throws IOException
+         *             Thrown if something goes wrong during the decoding
+         */
+        public Object filterRX(byte[] bytes, int length)
+            throws IOException;
+    }
+
     /**
      * The filter used to encode an outgoing message
      * 
@@ -156,4 +156,12 @@ final class NetworkProtocol
      * Rejects a message from a networked connection
      */
     final static byte REJECT_CONNECTION = 24;
+
+    /**
+     * A SEND from a windowed output end, which does not wait for its ACK. The input end returns the credit with an
+     * ACK whose second attribute is the number of credits returned, so one ACK may answer several sends. On the wire
+     * the attributes are followed by the window of the sending end, so the input end can return credit before the
+     * sender runs dry.
+     */
+    final static byte WINDOWED_SEND = 25;
 }
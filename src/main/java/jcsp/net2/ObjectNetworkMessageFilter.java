@@ -43,7 +43,7 @@ public final class ObjectNetworkMessageFilter
      * @author Kevin Chalmers
      */
     public static final class FilterRX
-        implements NetworkMessageFilter.FilterRx
+        implements NetworkMessageFilter.PooledFilterRx
     {
         /**
          * These four bytes represent the normal header expected in Java for object streams
@@ -107,6 +107,39 @@ public final class ObjectNetworkMessageFilter
             }
         }
 
+        /**
+         * Decodes the first bytes of an incoming byte array, converting them back into an Object
+         * 
+         * @param bytes
+         *            The array holding the byte representation of the object
+         * @param length
+         *            The number of bytes in the representation
+         * @return The recreated Object
+         * @throws IOException
+         *             Thrown of something goes wrong during the decoding
+         */
+        public Object filterRX(byte[] bytes, int length)
+            throws IOException
+        {
+            try
+            {
+                // Reset the byte array stream with the incoming bytes
+                this.bais.reset(bytes, length);
+                // Return the object read from the input stream
+                return this.ois.readObject();
+            }
+            catch (ClassNotFoundException cnfe)
+            {
+                // Not an exception thrown by other filters, so we convert into an IOException
+                throw new IOException("Class not found");
+            }
+            finally
+            {
+                // Keep no reference to the array, which may be reused
+                this.bais.reset(FilterRX.objectStreamHeader, 0);
+            }
+        }
+
     }
 
     /**
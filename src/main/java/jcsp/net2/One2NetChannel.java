@@ -89,6 +89,17 @@ final class One2NetChannel<T>
      */
     private FilterTx messageFilter;
 
+    /**
+     * The number of messages that a windowed channel may have sent and not yet had credit returned for, or 0 if this
+     * is not a windowed channel.
+     */
+    private final int window;
+
+    /**
+     * The number of messages a windowed channel may send before it must wait for credit.
+     */
+    private int credits;
+
     /**
      * Creates a new One2NetChannel by connecting to an already created NetChannelInput
      * 
@@ -104,6 +115,28 @@ final class One2NetChannel<T>
      */
     static <T2> One2NetChannel<T2> create(NetChannelLocation loc, int immunity, FilterTx filter)
         throws JCSPNetworkException
+    {
+        return create(loc, immunity, filter, 0);
+    }
+
+    /**
+     * Creates a new One2NetChannel by connecting to an already created NetChannelInput. If a window is given, a write
+     * does not wait for the input end to read the message, unless window messages are already waiting to be read.
+     * 
+     * @param loc
+     *            The location of the NetChannelInput
+     * @param immunity
+     *            The immunity level of the channel
+     * @param filter
+     *            The filter used to encode outgoing messages
+     * @param window
+     *            The number of messages that may be sent ahead of the input end, or 0 for a synchronous channel
+     * @return A new One2NetChannel
+     * @throws JCSPNetworkException
+     *             Thrown if the connection to the remote Node fails
+     */
+    static <T2> One2NetChannel<T2> create(NetChannelLocation loc, int immunity, FilterTx filter, int window)
+        throws JCSPNetworkException
     {
         // Create the channel data structure
         ChannelData data = new ChannelData();
@@ -126,7 +159,7 @@ final class One2NetChannel<T>
         if (loc.getNodeID().equals(Node.getInstance().getNodeID()))
         {
             toLink = ChannelManager.getInstance().getChannel(loc.getVCN()).toChannel;
-            return new One2NetChannel<T2>(chan.in(), toLink, null, data, loc, immunity, filter);
+            return new One2NetChannel<T2>(chan.in(), toLink, null, data, loc, immunity, filter, window);
         }
 
         // Connect to remote node if necessary
@@ -143,7 +176,7 @@ final class One2NetChannel<T>
         toLink = link.getTxChannel();
 
         // Return new channel
-        return new One2NetChannel<T2>(chan.in(), toLink, link, data, loc, immunity, filter);
+        return new One2NetChannel<T2>(chan.in(), toLink, link, data, loc, immunity, filter, window);
     }
 
     /**
@@ -163,9 +196,11 @@ final class One2NetChannel<T>
      *            The poison immunity level of the channel
      * @param filter
      *            Filter used to encode outgoing messages
+     * @param window
+     *            The number of messages that may be sent ahead of the input end, or 0 for a synchronous channel
      */
     private One2NetChannel(AltingChannelInput ackChannel, ChannelOutput toLink, Link link, ChannelData chanData,
-                           NetChannelLocation loc, int immunity, FilterTx filter)
+                           NetChannelLocation loc, int immunity, FilterTx filter, int window)
     {
         // Set all the object properties for the channel
         this.toLinkTx = toLink;
@@ -175,6 +210,8 @@ final class One2NetChannel<T>
         this.localLocation = new NetChannelLocation(Node.getInstance().getNodeID(), chanData.vcn);
         this.data.immunityLevel = immunity;
         this.messageFilter = filter;
+        this.window = window;
+        this.credits = window;
 
         // We now must either register with the Link connecting us to the input end, or we connect directly to the
         // channel if it is local
@@ -300,6 +337,13 @@ final class One2NetChannel<T>
 
         // The channel is in a suitable state to do a write. Continue write operation
 
+        // A windowed channel only waits if it has no credit left
+        if (this.window > 0)
+        {
+            this.windowedWrite(object);
+            return;
+        }
+
         // First check that no pending messages have been left for us. This can happen if we did an async write and
         // then were rejected, poisoned, or if the link went down.
         if (this.theAckChannel.pending())
@@ -361,53 +405,12 @@ final class One2NetChannel<T>
             // Pass the message through the filter to convert it into bytes for transfer. Standard method is to convert
             // an object into a byte array via object serialization, but implementation specific methods can be
             // developed.
-            // See NetworkMessageFilter and ObjectNetworkMessageFilter.
-            msg.data = this.messageFilter.filterTX(object);
-
-            // Now we must determine how to send the message. If it is to a remote Node, simply write to the Link.
-            if (!this.isLocal)
-            {
-                this.toLinkTx.write(msg);
-            }
-
-            // If the input end is actually on this Node, then we attached our ackChannel to the message so the input
-            // channel can send the ACK directly to us
-            else
-            {
-                // Acquire lock on the input ends data structure
-                synchronized (this.localChannel)
-                {
-                    // Now check the local channels state and behave accordingly
-                    switch (this.localChannel.state)
-                    {
-                        case ChannelDataState.OK_INPUT:
-                            // We have an input end. Send message
-                            msg.toLink = this.data.toChannel;
-                            this.toLinkTx.write(msg);
-                            break;
+            // See NetworkMessageFilter and ObjectNetworkMessageFilter. An input end on this Node may instead be given
+            // the object by reference. See LocalDelivery.
+            this.encode(msg, object);
 
-                        case ChannelDataState.POISONED:
-                            // The input end has been poisoned. Set our state and throw exception.
-
-                            // We don't need to acquire a lock. Only we can be operating on the channel
-                            this.data.state = ChannelDataState.POISONED;
-                            this.data.poisonLevel = this.localChannel.poisonLevel;
-
-                            throw new NetworkPoisonException(this.localChannel.poisonLevel);
-
-                        default:
-                            // In all other circumstances, we cause a network exception. Set state to broken
-
-                            // We do not need to acquire a lock. Only we can be operating on the channel
-                            this.data.state = ChannelDataState.BROKEN;
-
-                            // Remove ourselves from the ChannelManager
-                            ChannelManager.getInstance().removeChannel(this.data);
-
-                            throw new JCSPNetworkException("Channel rejected during send");
-                    }
-                }
-            }
+            // Send the message to the input end
+            this.transmit(msg);
         }
         catch (IOException ioe)
         {
@@ -485,6 +488,13 @@ final class One2NetChannel<T>
 
         // The channel is in a suitable state to do a write. Continue write operation
 
+        // A windowed channel may have been returned credit, which must be taken first
+        if (this.window > 0)
+        {
+            while (this.theAckChannel.pending())
+                this.credit((NetworkMessage)this.theAckChannel.read());
+        }
+
         // First check that no pending messages have been left for us. This can happen if we did an async write and
         // then were rejected, poisoned, or if the link went down.
         if (this.theAckChannel.pending())
@@ -558,59 +568,193 @@ final class One2NetChannel<T>
             // Pass the message through the filter to convert it into bytes for transfer. Standard method is to convert
             // an object into a byte array via object serialization, but implementation specific methods can be
             // developed.
-            // See NetworkMessageFilter and ObjectNetworkMessageFilter.
-            msg.data = this.messageFilter.filterTX(object);
+            // See NetworkMessageFilter and ObjectNetworkMessageFilter. An input end on this Node may instead be given
+            // the object by reference. See LocalDelivery.
+            this.encode(msg, object);
+
+            // Send the message to the input end
+            this.transmit(msg);
+        }
+        catch (IOException ioe)
+        {
+            throw new JCSPNetworkException("Error when trying to convert the message for sending");
+        }
+        // We are asynchronous, so we simply return.
+    }
+
+    /**
+     * Writes an object to the input end of a windowed channel. The write only waits if the window is full, until the
+     * input end returns credit.
+     * 
+     * @param object
+     *            The object to send to the input end.
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong in the network architecture
+     * @throws PoisonException
+     *             Thrown if the channel has been poisoned
+     */
+    private void windowedWrite(T object)
+        throws JCSPNetworkException, PoisonException
+    {
+        // Take any credit returned so far, waiting for credit if we have none
+        while (this.credits == 0 || this.theAckChannel.pending())
+            this.credit((NetworkMessage)this.theAckChannel.read());
+
+        // Create a new WINDOWED_SEND message.
+        NetworkMessage msg = new NetworkMessage();
+        msg.type = NetworkProtocol.WINDOWED_SEND;
+        msg.attr1 = this.remoteLocation.getVCN();
+        msg.attr2 = this.data.vcn;
+        msg.window = this.window;
+
+        try
+        {
+            // Pass the message through the filter to convert it into bytes for transfer, unless it is sent by
+            // reference to an input end on this Node.
+            this.encode(msg, object);
+
+            // Send the message to the input end
+            this.transmit(msg);
+        }
+        catch (IOException ioe)
+        {
+            throw new JCSPNetworkException("Error when trying to convert the message for sending");
+        }
+
+        this.credits--;
+    }
 
-            // Now we must determine how to send the message. If it is to a remote Node, simply write to the Link.
-            if (!this.isLocal)
+    /**
+     * Acts upon a message received by a windowed channel. An ACK returns credit, other replies break or poison the
+     * channel as for a SEND.
+     * 
+     * @param msg
+     *            The message received on the acknowledgement channel
+     * @throws JCSPNetworkException
+     *             Thrown if the message sent has been rejected, or the Link has gone down
+     * @throws PoisonException
+     *             Thrown if the input end has been poisoned
+     */
+    private void credit(NetworkMessage msg)
+        throws JCSPNetworkException, PoisonException
+    {
+        // Lock onto our state object as we may be changing our state
+        synchronized (this.data)
+        {
+            switch (msg.type)
             {
-                this.toLinkTx.write(msg);
+                // Credit returned. Attribute 2 is the number of credits
+                case NetworkProtocol.ACK:
+                    this.credits += msg.attr2;
+                    return;
+
+                // A message was rejected. Break channel.
+                case NetworkProtocol.REJECT_CHANNEL:
+                    this.data.state = ChannelDataState.BROKEN;
+                    ChannelManager.getInstance().removeChannel(this.data);
+                    if (!this.isLocal)
+                        this.linkConnectedTo.deRegisterChannel(this.data);
+                    throw new JCSPNetworkException("Channel rejected during send");
+
+                // The link to the input end has gone down. Break the channel
+                case NetworkProtocol.LINK_LOST:
+                    this.data.state = ChannelDataState.BROKEN;
+                    ChannelManager.getInstance().removeChannel(this.data);
+                    if (!this.isLocal)
+                        this.linkConnectedTo.deRegisterChannel(this.data);
+                    throw new JCSPNetworkException("Link to Node lost.  Send cannot complete");
+
+                // A message resulted in us being poisoned. Poison the channel.
+                case NetworkProtocol.POISON:
+                    this.data.state = ChannelDataState.POISONED;
+                    this.data.poisonLevel = msg.attr2;
+                    throw new NetworkPoisonException(msg.attr2);
+
+                // This shouldn't happen. Throw exception.
+                default:
+                    Node.err.log(this.getClass(), "Channel " + this.data.vcn + " reports unexpected message.");
+                    throw new JCSPNetworkException("NetChannelOutput received an unexpected exception");
             }
+        }
+    }
+
+    /**
+     * Puts an object into a message for the input end. An input end on this Node may be given the object by reference,
+     * as set by the LocalDelivery policy.
+     * 
+     * @param msg
+     *            The message being sent
+     * @param object
+     *            The object being sent
+     * @throws IOException
+     *             Thrown if the object cannot be converted for sending
+     */
+    private void encode(NetworkMessage msg, T object)
+        throws IOException
+    {
+        if (this.isLocal)
+            LocalDelivery.encode(msg, object, this.messageFilter);
+        else
+            msg.data = this.messageFilter.filterTX(object);
+    }
+
+    /**
+     * Sends a message to the input end, either via the Link or directly to a local input end.
+     * 
+     * @param msg
+     *            The message to send
+     * @throws JCSPNetworkException
+     *             Thrown if the local input end has been destroyed
+     * @throws PoisonException
+     *             Thrown if the local input end has been poisoned
+     */
+    private void transmit(NetworkMessage msg)
+        throws JCSPNetworkException, PoisonException
+    {
+        // Now we must determine how to send the message. If it is to a remote Node, simply write to the Link.
+        if (!this.isLocal)
+        {
+            this.toLinkTx.write(msg);
+        }
 
-            // If the input end is actually on this Node, then we attached our ackChannel to the message so the input
-            // channel can send the ACK directly to us
-            else
+        // If the input end is actually on this Node, then we attached our ackChannel to the message so the input
+        // channel can send the ACK directly to us
+        else
+        {
+            // Acquire lock on the input ends data structure
+            synchronized (this.localChannel)
             {
-                // Acquire lock on the input ends data structure
-                synchronized (this.localChannel)
+                // Now check the local channels state and behave accordingly
+                switch (this.localChannel.state)
                 {
-                    // Now check the local channels state and behave accordingly
-                    switch (this.localChannel.state)
-                    {
-                        case ChannelDataState.OK_INPUT:
-                            // We have an input end. Send message
-                            msg.toLink = this.data.toChannel;
-                            this.toLinkTx.write(msg);
-                            break;
+                    case ChannelDataState.OK_INPUT:
+                        // We have an input end. Send message
+                        msg.toLink = this.data.toChannel;
+                        this.toLinkTx.write(msg);
+                        break;
 
-                        case ChannelDataState.POISONED:
-                            // The input end has been poisoned. Set our state and throw exception.
+                    case ChannelDataState.POISONED:
+                        // The input end has been poisoned. Set our state and throw exception.
 
-                            // We don't need to acquire a lock. Only we can be operating on the channel
-                            this.data.state = ChannelDataState.POISONED;
-                            this.data.poisonLevel = this.localChannel.poisonLevel;
+                        // We don't need to acquire a lock. Only we can be operating on the channel
+                        this.data.state = ChannelDataState.POISONED;
+                        this.data.poisonLevel = this.localChannel.poisonLevel;
 
-                            throw new NetworkPoisonException(this.localChannel.poisonLevel);
+                        throw new NetworkPoisonException(this.localChannel.poisonLevel);
 
-                        default:
-                            // In all other circumstances, we cause a network exception. Set state to broken
+                    default:
+                        // In all other circumstances, we cause a network exception. Set state to broken
 
-                            // We do not need to acquire a lock. Only we can be operating on the channel
-                            this.data.state = ChannelDataState.BROKEN;
+                        // We do not need to acquire a lock. Only we can be operating on the channel
+                        this.data.state = ChannelDataState.BROKEN;
 
-                            // Remove ourselves from the ChannelManager
-                            ChannelManager.getInstance().removeChannel(this.data);
+                        // Remove ourselves from the ChannelManager
+                        ChannelManager.getInstance().removeChannel(this.data);
 
-                            throw new JCSPNetworkException("Channel rejected during send");
-                    }
+                        throw new JCSPNetworkException("Channel rejected during send");
                 }
             }
         }
-        catch (IOException ioe)
-        {
-            throw new JCSPNetworkException("Error when trying to convert the message for sending");
-        }
-        // We are asynchronous, so we simply return.
     }
 
     /**
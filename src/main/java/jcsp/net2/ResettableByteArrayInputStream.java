@@ -54,4 +54,19 @@ final class ResettableByteArrayInputStream
         this.count = bytes.length;
         this.pos = 0;
     }
+
+    /**
+     * Replaces the internal byte array, of which only the first bytes are to be read
+     * 
+     * @param bytes
+     *            The byte array to replace the existing internal one
+     * @param length
+     *            The number of bytes to be read from the array
+     */
+    void reset(byte[] bytes, int length)
+    {
+        this.buf = bytes;
+        this.count = length;
+        this.pos = 0;
+    }
 }
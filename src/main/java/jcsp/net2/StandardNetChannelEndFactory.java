@@ -392,6 +392,108 @@ public final class StandardNetChannelEndFactory
         return One2NetChannel.create(loc, immunityLevel, filter);
     }
 
+    /**
+     * Creates a new windowed NetChannelOutput connected to the input end with the given NetChannelLocation. A write
+     * to a windowed channel does not wait for the input end to read the message, unless window messages have been
+     * written that the input end has not yet read.
+     * 
+     * @param loc
+     *            The location of the input end of the channel
+     * @param window
+     *            The number of messages that may be written ahead of the input end
+     * @return A new NetChannelOutput
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong in the underlying architecture
+     * @throws IllegalArgumentException
+     *             Thrown if the window is less than 1
+     */
+    public <T> NetChannelOutput<T> windowedOne2net(NetChannelLocation loc, int window)
+        throws JCSPNetworkException, IllegalArgumentException
+    {
+        if (window < 1)
+            throw new IllegalArgumentException("*** Attempt to create a windowed channel with a window of " + window);
+        return One2NetChannel.create(loc, Integer.MAX_VALUE, new ObjectNetworkMessageFilter.FilterTX(), window);
+    }
+
+    /**
+     * Creates a new windowed NetChannelOutput connected to the input end with the given NetChannelLocation, and having the given poison immunity level. A write
+     * to a windowed channel does not wait for the input end to read the message, unless window messages have been
+     * written that the input end has not yet read.
+     * 
+     * @param loc
+     *            The location of the input end of the channel
+     * @param window
+     *            The number of messages that may be written ahead of the input end
+     * @param immunityLevel
+     *            The immunity to poison that this channel has
+     * @return A new NetChannelOutput
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong in the underlying architecture
+     * @throws IllegalArgumentException
+     *             Thrown if the window is less than 1
+     */
+    public <T> NetChannelOutput<T> windowedOne2net(NetChannelLocation loc, int window, int immunityLevel)
+        throws JCSPNetworkException, IllegalArgumentException
+    {
+        if (window < 1)
+            throw new IllegalArgumentException("*** Attempt to create a windowed channel with a window of " + window);
+        return One2NetChannel.create(loc, immunityLevel, new ObjectNetworkMessageFilter.FilterTX(), window);
+    }
+
+    /**
+     * Creates a new windowed NetChannelOutput connected to the input end with the given NetChannelLocation, and uses the given filter to encode outgoing messages. A write
+     * to a windowed channel does not wait for the input end to read the message, unless window messages have been
+     * written that the input end has not yet read.
+     * 
+     * @param loc
+     *            The location of the input end of the channel
+     * @param window
+     *            The number of messages that may be written ahead of the input end
+     * @param filter
+     *            The filter used to encode outgoing messages
+     * @return A new NetChannelOutput
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong in the underlying architecture
+     * @throws IllegalArgumentException
+     *             Thrown if the window is less than 1
+     */
+    public <T> NetChannelOutput<T> windowedOne2net(NetChannelLocation loc, int window,
+            NetworkMessageFilter.FilterTx filter)
+        throws JCSPNetworkException, IllegalArgumentException
+    {
+        if (window < 1)
+            throw new IllegalArgumentException("*** Attempt to create a windowed channel with a window of " + window);
+        return One2NetChannel.create(loc, Integer.MAX_VALUE, filter, window);
+    }
+
+    /**
+     * Creates a new windowed NetChannelOutput connected to the input end with the given NetChannelLocation, having the given poison immunity level, and uses the given filter to encode outgoing messages. A write
+     * to a windowed channel does not wait for the input end to read the message, unless window messages have been
+     * written that the input end has not yet read.
+     * 
+     * @param loc
+     *            The location of the input end of the channel
+     * @param window
+     *            The number of messages that may be written ahead of the input end
+     * @param immunityLevel
+     *            The immunity to poison that this channel has
+     * @param filter
+     *            The filter used to encode outgoing messages
+     * @return A new NetChannelOutput
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong in the underlying architecture
+     * @throws IllegalArgumentException
+     *             Thrown if the window is less than 1
+     */
+    public <T> NetChannelOutput<T> windowedOne2net(NetChannelLocation loc, int window,
+            int immunityLevel, NetworkMessageFilter.FilterTx filter)
+        throws JCSPNetworkException, IllegalArgumentException
+    {
+        if (window < 1)
+            throw new IllegalArgumentException("*** Attempt to create a windowed channel with a window of " + window);
+        return One2NetChannel.create(loc, immunityLevel, filter, window);
+    }
+
     /**
      * Creates a new NetSharedChannelOutput connected to the input end at the given location
      * 
@@ -0,0 +1,406 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2.nio;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jcsp.net2.FramedLink;
+import jcsp.net2.JCSPNetworkException;
+import jcsp.net2.Link;
+import jcsp.net2.Node;
+import jcsp.net2.NodeAddress;
+import jcsp.net2.NodeID;
+
+/**
+ * A concrete implementation of a Link that operates over a TCP/IP socket connection served by a shared NIO selector
+ * thread. For information on Link, see the relative documentation.
+ * <p>
+ * A TCPIPLink runs its own Link Tx and Rx processes, so a Node connected to many others runs two threads for each
+ * connection. An NIOLink is a framed Link: once its connection has been established (over the blocking socket), the
+ * socket is switched to non-blocking mode and served by one of SELECTOR_THREADS selector threads, shared by all the
+ * NIOLinks of the Node. Messages are written to, and read from, the socket through direct buffers, using the same
+ * framing as the Link Tx and Rx.
+ * </p>
+ * <p>
+ * Incoming messages are acted upon by the selector thread, which never blocks doing so: messages are passed on to
+ * buffered channels, and replies are queued for transmit.
+ * </p>
+ * <p>
+ * NIOLinks are normally created through the LinkFactory, for Nodes initialised with an NIONodeAddress.
+ * </p>
+ * 
+ * @see Link
+ * @see NIONodeAddress
+ */
+public final class NIOLink
+    extends FramedLink
+{
+    /**
+     * The size of the direct buffers used for each NIOLink's incoming and outgoing data. Larger messages are transferred
+     * in parts.
+     */
+    public static int BUFFER_SIZE = 16384;
+
+    /**
+     * The number of selector threads shared by the NIOLinks of a Node. This must be set before the first NIOLink is
+     * created.
+     */
+    public static int SELECTOR_THREADS = 2;
+
+    /**
+     * Flag to determine whether the Nagle algorithm should be activated. Default is false (off).
+     */
+    public static boolean NAGLE = false;
+
+    /**
+     * The socket channel connected to the remote Node.
+     */
+    private SocketChannel channel;
+
+    /**
+     * The address of the remote Node.
+     */
+    private NIONodeAddress remoteAddress;
+
+    /**
+     * The selector thread serving this Link (null until the Link is activated).
+     */
+    private volatile NIOSelector selector = null;
+
+    /**
+     * The key of the socket channel in the selector. Only used by the selector thread.
+     */
+    SelectionKey key = null;
+
+    /**
+     * The buffer of bytes received but not yet decoded. Only used by the selector thread.
+     */
+    private ByteBuffer rxBuffer;
+
+    /**
+     * The buffer of bytes encoded but not yet written. Only used by the selector thread.
+     */
+    private ByteBuffer txBuffer;
+
+    /**
+     * Set when a write has been requested of the selector thread, and cleared as it starts writing.
+     */
+    private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+
+    /**
+     * Creates a new NIOLink
+     * 
+     * @param address
+     *            The address of the remote Node to connect to
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong during the creation process
+     */
+    public NIOLink(NIONodeAddress address)
+        throws JCSPNetworkException
+    {
+        address.resolve();
+        try
+        {
+            this.channel = SocketChannel.open(new InetSocketAddress(address.getIpAddress(), address.getPort()));
+            this.channel.socket().setTcpNoDelay(!NIOLink.NAGLE);
+            this.openStreams();
+            this.remoteAddress = address;
+            this.connected = false;
+            Node.log.log(this.getClass(), "Link created to " + address.toString());
+        }
+        catch (IOException ioe)
+        {
+            Node.err.log(this.getClass(), "Failed to create Link to " + address.toString());
+            throw new JCSPNetworkException("Failed to create NIOLink to: " + address.getAddress());
+        }
+    }
+
+    /**
+     * Creates a new NIOLink from an accepted socket channel. This is used internally by JCSP
+     * 
+     * @param socketChannel
+     *            The (blocking) socket channel to create the NIOLink with
+     * @param nodeID
+     *            The NodeID of the remote Node
+     * @throws JCSPNetworkException
+     *             Thrown if there is a problem during the connection
+     */
+    NIOLink(SocketChannel socketChannel, NodeID nodeID)
+        throws JCSPNetworkException
+    {
+        try
+        {
+            this.channel = socketChannel;
+            socketChannel.socket().setTcpNoDelay(!NIOLink.NAGLE);
+            this.remoteID = nodeID;
+            this.remoteAddress = (NIONodeAddress)this.remoteID.getNodeAddress();
+            this.connected = true;
+            Node.log.log(this.getClass(), "Link created to " + nodeID.toString());
+            Node.log.log(this.getClass(), "Link to " + nodeID.toString() + " connected");
+        }
+        catch (IOException ioe)
+        {
+            Node.err.log(this.getClass(), "Failed to create Link to " + nodeID.toString());
+            throw new JCSPNetworkException("Failed to create NIOLink to: " + nodeID.getNodeAddress().getAddress());
+        }
+    }
+
+    /**
+     * Creates the streams used (over the blocking socket) to exchange NodeIDs. The input stream is not buffered, so
+     * that it cannot read ahead into the frames that follow.
+     */
+    private void openStreams()
+    {
+        this.rxStream = new DataInputStream(Channels.newInputStream(this.channel));
+        this.txStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(this.channel)));
+    }
+
+    /**
+     * Connects the Link to the remote Node. Exchanges the NodeIDs
+     * 
+     * @return True if the Link successfully connected to the remote Link
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong during the connection
+     */
+    public boolean connect()
+        throws JCSPNetworkException
+    {
+        // If already connected, return true.
+        if (this.connected)
+            return true;
+
+        boolean toReturn = false;
+
+        try
+        {
+            // Write the string representation of our NodeID to the remote Node
+            this.txStream.writeUTF(Node.getInstance().getNodeID().toString());
+            this.txStream.flush();
+
+            // Read in the response from the opposite Node
+            String response = this.rxStream.readUTF();
+
+            // Either the connection has been accepted (no connection to this Node exists on the opposite Node) or
+            // it has not. The opposite Node sends OK in the first instance.
+            if (response.equalsIgnoreCase("OK"))
+            {
+                Node.log.log(this.getClass(), "Link to " + this.remoteAddress.toString() + " connected");
+                toReturn = true;
+            }
+
+            // Read in Remote NodeID as string
+            NodeID otherID = NodeID.parse(this.rxStream.readUTF());
+            if (otherID.getNodeAddress() instanceof NIONodeAddress)
+            {
+                this.remoteAddress = (NIONodeAddress)otherID.getNodeAddress();
+                this.remoteID = otherID;
+                this.connected = toReturn;
+                return toReturn;
+            }
+
+            // Address is not an NIO address. Throw an exception
+            Node.err.log(this.getClass(), "Tried to connect an NIOLink to a non NIO connection");
+            throw new JCSPNetworkException("Tried to connect an NIOLink to a non NIO connection");
+        }
+        catch (IOException ioe)
+        {
+            Node.err.log(this.getClass(), "Failed to connect NIOLink to: " + this.remoteAddress.getAddress());
+            throw new JCSPNetworkException("Failed to connect NIOLink to: " + this.remoteAddress.getAddress());
+        }
+    }
+
+    /**
+     * Creates any required resources. For NIO there is none until the Link is activated.
+     * 
+     * @return True if all resources were created OK. Always the case.
+     * @throws JCSPNetworkException
+     *             Thrown if anything goes wrong during the creation process.
+     */
+    protected boolean createResources()
+        throws JCSPNetworkException
+    {
+        return true;
+    }
+
+    /**
+     * Switches the socket to non-blocking mode and hands it to a selector thread.
+     * 
+     * @throws JCSPNetworkException
+     *             Thrown if the socket cannot be switched to non-blocking mode
+     */
+    protected void activate()
+        throws JCSPNetworkException
+    {
+        try
+        {
+            this.rxStream = null;
+            this.txStream = null;
+            this.channel.configureBlocking(false);
+        }
+        catch (IOException ioe)
+        {
+            throw new JCSPNetworkException("Failed to activate NIOLink to: " + this.remoteAddress.getAddress());
+        }
+        this.rxBuffer = ByteBuffer.allocateDirect(NIOLink.BUFFER_SIZE);
+        this.txBuffer = ByteBuffer.allocateDirect(NIOLink.BUFFER_SIZE);
+        NIOSelector sel = NIOSelector.next();
+        this.selector = sel;
+        sel.register(this);
+    }
+
+    /**
+     * Asks the selector thread to write the messages queued, unless it has already been asked.
+     */
+    protected void transmitReady()
+    {
+        if (this.writeRequested.compareAndSet(false, true))
+        {
+            // Before activation, the selector thread writes any queued messages as it registers the Link
+            NIOSelector sel = this.selector;
+            if (sel != null)
+                sel.requestWrite(this);
+        }
+    }
+
+    /**
+     * Gets the socket channel of this Link. Used by the selector thread.
+     * 
+     * @return The socket channel connected to the remote Node
+     */
+    SocketChannel getSocketChannel()
+    {
+        return this.channel;
+    }
+
+    /**
+     * Reads whatever has arrived on the socket, and acts upon the messages received. Called by the selector thread.
+     * 
+     * @throws IOException
+     *             Thrown if the socket has failed or been closed by the remote Node
+     */
+    void read()
+        throws IOException
+    {
+        int count;
+        while ((count = this.channel.read(this.rxBuffer)) > 0)
+        {
+            this.rxBuffer.flip();
+            this.receive(this.rxBuffer);
+            this.rxBuffer.compact();
+        }
+        if (count < 0)
+            throw new IOException("Connection closed by remote Node");
+    }
+
+    /**
+     * Writes the queued messages to the socket until they are all written, or the socket will take no more (in which
+     * case the selector thread is asked to carry on when it will). Called by the selector thread.
+     * 
+     * @throws IOException
+     *             Thrown if the socket has failed
+     */
+    void write()
+        throws IOException
+    {
+        if (this.key == null || !this.key.isValid())
+            return;
+        this.writeRequested.set(false);
+        try
+        {
+            while (true)
+            {
+                boolean more = this.fill(this.txBuffer);
+                this.txBuffer.flip();
+                this.channel.write(this.txBuffer);
+                boolean blocked = this.txBuffer.hasRemaining();
+                this.txBuffer.compact();
+                if (blocked)
+                {
+                    this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                if (!more)
+                {
+                    this.key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+            }
+        }
+        catch (CancelledKeyException cke)
+        {
+            throw new IOException("NIOLink closed");
+        }
+    }
+
+    /**
+     * Closes the Link after its socket has failed. Called by the selector thread.
+     */
+    void fail()
+    {
+        if (this.key != null)
+            this.key.cancel();
+        this.linkFailed();
+    }
+
+    /**
+     * Destroys any resources used by the Link
+     */
+    protected void destroyResources()
+    {
+        try
+        {
+            synchronized (this)
+            {
+                if (this.channel != null)
+                {
+                    this.channel.close();
+                    this.channel = null;
+                    this.lostLink();
+                }
+            }
+        }
+        catch (IOException ioe)
+        {
+            this.channel = null;
+            this.lostLink();
+        }
+    }
+
+    /**
+     * Gets the NodeAddress of the Node that this Link is connected to
+     * 
+     * @return The NodeAddress of the remotely connected Node
+     */
+    public NodeAddress getRemoteAddress()
+    {
+        return this.remoteAddress;
+    }
+}
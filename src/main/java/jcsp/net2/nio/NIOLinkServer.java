@@ -0,0 +1,159 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2.nio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import jcsp.net2.JCSPNetworkException;
+import jcsp.net2.LinkServer;
+import jcsp.net2.Node;
+import jcsp.net2.NodeID;
+
+/**
+ * Concrete implementation of a LinkServer that accepts connections for NIOLinks. For information on LinkServer, see
+ * the relevant documentation.
+ * <p>
+ * Connections are accepted, and NodeIDs exchanged, over blocking sockets in the LinkServer's own process, exactly as
+ * for TCPIPLinkServer. Each accepted Link is then handed to a shared selector thread, so no further threads are
+ * started per connection.
+ * </p>
+ * 
+ * @see LinkServer
+ * @see NIOLink
+ */
+public final class NIOLinkServer
+    extends LinkServer
+{
+    /**
+     * The ServerSocketChannel that the process listens on.
+     */
+    private final ServerSocketChannel serv;
+
+    /**
+     * The NodeAddress that this LinkServer is listening on. This should be the same as the Node's address.
+     */
+    final NIONodeAddress listeningAddress;
+
+    /**
+     * Creates a new NIOLinkServer listening on the given address
+     * 
+     * @param address
+     *            The address to listen on for new connections
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong during the creation of the ServerSocketChannel
+     */
+    public NIOLinkServer(NIONodeAddress address)
+        throws JCSPNetworkException
+    {
+        address.resolve();
+        try
+        {
+            InetAddress inetAddress = InetAddress.getByName(address.getIpAddress());
+            this.serv = ServerSocketChannel.open();
+            this.serv.socket().bind(new InetSocketAddress(inetAddress, address.getPort()),
+                                    address.getPort() == 0 ? 0 : 10);
+
+            // If no port number was supplied, assign the one we have been given
+            if (address.getPort() == 0)
+                address.setPort(this.serv.socket().getLocalPort());
+            this.listeningAddress = address;
+        }
+        catch (IOException ioe)
+        {
+            throw new JCSPNetworkException("Failed to create NIOLinkServer on: " + address.getAddress());
+        }
+    }
+
+    /**
+     * The run method for the NIOLinkServer process
+     */
+    public void run()
+    {
+        // Log start of Link Server
+        Node.log.log(this.getClass(), "NIO Link Server started on " + this.listeningAddress.getAddress());
+        try
+        {
+            // Now we loop until something goes wrong
+            while (true)
+            {
+                // Receive incoming connection
+                SocketChannel incoming = this.serv.accept();
+                Node.log.log(this.getClass(), "Received new incoming connection");
+
+                // Now we want to receive the connecting Node's NodeID. The stream is not buffered so that it cannot
+                // read ahead into the frames that follow
+                DataInputStream inStream = new DataInputStream(Channels.newInputStream(incoming));
+                String otherID = inStream.readUTF();
+                NodeID remoteID = NodeID.parse(otherID);
+
+                // First check we have an NIO Node connection
+                if (remoteID.getNodeAddress() instanceof NIONodeAddress)
+                {
+                    DataOutputStream outStream = new DataOutputStream(Channels.newOutputStream(incoming));
+                    Node.log.log(this.getClass(), "Received connection from: " + remoteID.toString());
+
+                    // Check if already connected
+                    if (requestLink(remoteID) == null)
+                    {
+                        // No existing connection to incoming Node exists. Keep connection
+                        outStream.writeUTF("OK");
+                        outStream.writeUTF(Node.getInstance().getNodeID().toString());
+                        outStream.flush();
+
+                        // Create Link, register, and hand it to a selector thread. The run of a framed Link returns
+                        // as soon as it is active.
+                        NIOLink link = new NIOLink(incoming, remoteID);
+                        registerLink(link);
+                        link.run();
+                    }
+                    else
+                    {
+                        // We already have a connection to the incoming Node
+                        Node.log.log(this.getClass(), "Connection to " + remoteID
+                                                      + " already exists.  Informing remote Node.");
+
+                        // Send out our NodeID so the opposite Node can find its own connection
+                        outStream.writeUTF("EXISTS");
+                        outStream.writeUTF(Node.getInstance().getNodeID().toString());
+                        outStream.flush();
+                        incoming.close();
+                    }
+                }
+
+                // Address is not an NIO address. Close socket. This will cause an exception on the opposite Node
+                else
+                    incoming.close();
+            }
+        }
+        catch (IOException ioe)
+        {
+            // We can't really recover from this. This may happen if the network connection was lost.
+            Node.err.log(this.getClass(), "NIOLinkServer failed.  " + ioe.getMessage());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2.nio;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import jcsp.net2.JCSPNetworkException;
+import jcsp.net2.Link;
+import jcsp.net2.LinkServer;
+import jcsp.net2.NodeAddress;
+import jcsp.net2.ProtocolID;
+
+/**
+ * A concrete implementation of a NodeAddress for TCP/IP connections served by NIO selectors. A Node initialised with an
+ * NIONodeAddress connects to other Nodes using NIOLinks, which share a small number of selector threads rather than
+ * each running their own Tx and Rx processes.
+ * <p>
+ * The wire format is the same as for the tcpip protocol, but the two protocols are distinguished in NodeIDs, so all
+ * the Nodes of a system should use the same one.
+ * </p>
+ * 
+ * @see NodeAddress
+ * @see NIOLink
+ */
+public final class NIONodeAddress
+    extends NodeAddress
+{
+    /**
+     * The SUID for this class
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The IP address part of the address
+     */
+    private String ip;
+
+    /**
+     * The port part of the address
+     */
+    private int port;
+
+    /**
+     * Creates a new NIONodeAddress from an IP address and port
+     * 
+     * @param ipAddress
+     *            The IP address part of the NodeAddress
+     * @param portNumber
+     *            The port number part of the NodeAddress
+     */
+    public NIONodeAddress(String ipAddress, int portNumber)
+    {
+        this.ip = ipAddress;
+        this.port = portNumber;
+        this.protocol = "nio";
+        this.address = ipAddress + ":" + portNumber;
+    }
+
+    /**
+     * Creates a new NIONodeAddress using the local IP address and a given port number.
+     * 
+     * @param portNumber
+     *            The port number to use
+     */
+    public NIONodeAddress(int portNumber)
+    {
+        this.port = portNumber;
+        this.ip = "";
+        this.protocol = "nio";
+    }
+
+    /**
+     * Creates a new NIONodeAddress using the local IP address and any free port.
+     */
+    public NIONodeAddress()
+    {
+        this.port = 0;
+        this.ip = "";
+        this.protocol = "nio";
+    }
+
+    /**
+     * Gets the port number part of this address
+     * 
+     * @return The port number part of the address
+     */
+    public final int getPort()
+    {
+        return this.port;
+    }
+
+    /**
+     * Sets the port part of the address. Used internally in JCSP
+     * 
+     * @param portNumber
+     *            The port number to use
+     */
+    void setPort(int portNumber)
+    {
+        this.port = portNumber;
+        this.address = this.ip + ":" + this.port;
+    }
+
+    /**
+     * Gets the IP address part of the address
+     * 
+     * @return The IP Address part of the address
+     */
+    public final String getIpAddress()
+    {
+        return this.ip;
+    }
+
+    /**
+     * If no IP address has been given, chooses one of the local machine's addresses (preferring one that is neither
+     * loopback nor link-local), as the tcpip protocol does. Used internally in JCSP
+     * 
+     * @throws JCSPNetworkException
+     *             Thrown if the local addresses cannot be determined
+     */
+    void resolve()
+        throws JCSPNetworkException
+    {
+        if (!this.ip.equals(""))
+            return;
+        try
+        {
+            InetAddress[] local = InetAddress.getAllByName(InetAddress.getLocalHost().getHostName());
+            InetAddress toUse = InetAddress.getLocalHost();
+            int current = 0;
+            for (int i = 0; i < local.length; i++)
+            {
+                if (local[i] instanceof Inet4Address)
+                {
+                    byte first = local[i].getAddress()[0];
+                    if (first == (byte)127 && current < 1)
+                    {
+                        current = 1;
+                        toUse = local[i];
+                    }
+                    else if (first == (byte)169 && current < 2)
+                    {
+                        current = 2;
+                        toUse = local[i];
+                    }
+                    else if (first == (byte)192 && current < 3)
+                    {
+                        current = 3;
+                        toUse = local[i];
+                    }
+                    else
+                    {
+                        toUse = local[i];
+                        break;
+                    }
+                }
+            }
+            this.ip = toUse.getHostAddress();
+            this.address = this.ip + ":" + this.port;
+        }
+        catch (UnknownHostException uhe)
+        {
+            throw new JCSPNetworkException("Failed to determine the local address for " + this);
+        }
+    }
+
+    /**
+     * Creates a new NIOLink connected to a Node with this address
+     * 
+     * @return A new NIOLink connected to this address
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong during the creation of the Link
+     */
+    protected Link createLink()
+        throws JCSPNetworkException
+    {
+        return new NIOLink(this);
+    }
+
+    /**
+     * Creates a new NIOLinkServer listening on this address
+     * 
+     * @return A new NIOLinkServer listening on this address
+     * @throws JCSPNetworkException
+     *             Thrown if something goes wrong during the creation of the LinkServer
+     */
+    protected LinkServer createLinkServer()
+        throws JCSPNetworkException
+    {
+        return new NIOLinkServer(this);
+    }
+
+    /**
+     * Returns the NIOProtocolID
+     * 
+     * @return NIOProtocolID
+     */
+    protected ProtocolID getProtocolID()
+    {
+        return NIOProtocolID.getInstance();
+    }
+}
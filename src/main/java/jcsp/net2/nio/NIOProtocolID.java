@@ -0,0 +1,77 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2.nio;
+
+import jcsp.net2.NodeAddress;
+import jcsp.net2.ProtocolID;
+
+/**
+ * Concrete implementation of a ProtocolID used to parse a string representation of an NIONodeAddress into an
+ * NIONodeAddress object.
+ * 
+ */
+public final class NIOProtocolID
+    extends ProtocolID
+{
+    /**
+     * Singleton instance of this class
+     */
+    private static NIOProtocolID instance = new NIOProtocolID();
+
+    /**
+     * Gets the singleton instance of this class
+     * 
+     * @return The singleton instance of this class
+     */
+    public static NIOProtocolID getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Default private constructor
+     */
+    private NIOProtocolID()
+    {
+        // Empty constructor
+    }
+
+    /**
+     * Parses a string to recreate an NIONodeAddress object
+     * 
+     * @param addressString
+     *            String representing the address
+     * @return A new NIONodeAddress object
+     * @throws IllegalArgumentException
+     *             Thrown if the address is not in a correct form
+     */
+    protected NodeAddress parse(String addressString)
+        throws IllegalArgumentException
+    {
+        // Split address into IP and port
+        int index = addressString.indexOf("\\\\");
+        String temp = addressString.substring(index + 2);
+        index = temp.indexOf(":");
+        String address = temp.substring(0, index);
+        int port = Integer.parseInt(temp.substring(index + 1, temp.length()));
+        return new NIONodeAddress(address, port);
+    }
+}
@@ -0,0 +1,303 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.net2.nio;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import jcsp.net2.JCSPNetworkException;
+import jcsp.net2.Node;
+
+/**
+ * A thread serving the sockets of many NIOLinks through one Selector. The Links of a Node are shared between
+ * NIOLink.SELECTOR_THREADS of these, in turn. All reads, writes, and the handling of incoming messages, for a Link are
+ * performed by its selector thread.
+ * 
+ * @see NIOLink
+ */
+final class NIOSelector
+    implements Runnable
+{
+    /**
+     * The selector threads of this Node (created when the first NIOLink is activated).
+     */
+    private static NIOSelector[] selectors = null;
+
+    /**
+     * The index of the selector thread to give the next NIOLink.
+     */
+    private static int next = 0;
+
+    /**
+     * The selector that the Links' socket channels are registered with.
+     */
+    private final Selector selector;
+
+    /**
+     * Links waiting to be registered with the selector.
+     */
+    private final ConcurrentLinkedQueue<NIOLink> registrations = new ConcurrentLinkedQueue<NIOLink>();
+
+    /**
+     * Links with messages waiting to be written.
+     */
+    private final ConcurrentLinkedQueue<NIOLink> writes = new ConcurrentLinkedQueue<NIOLink>();
+
+    /**
+     * Set when the selector has failed and the thread has stopped serving its Links.
+     */
+    private volatile boolean failed = false;
+
+    /**
+     * Creates a new selector thread.
+     * 
+     * @param name
+     *            The name of the thread
+     * @throws IOException
+     *             Thrown if the selector cannot be opened
+     */
+    private NIOSelector(String name)
+        throws IOException
+    {
+        this.selector = Selector.open();
+        Thread thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the selector thread to serve a new Link, sharing Links between the threads in turn.
+     * 
+     * @return The selector thread to use
+     * @throws JCSPNetworkException
+     *             Thrown if the selector threads cannot be created
+     */
+    static synchronized NIOSelector next()
+        throws JCSPNetworkException
+    {
+        if (selectors == null)
+        {
+            NIOSelector[] created = new NIOSelector[Math.max(1, NIOLink.SELECTOR_THREADS)];
+            try
+            {
+                for (int i = 0; i < created.length; i++)
+                    created[i] = new NIOSelector("jcsp-nio-selector-" + (i + 1));
+            }
+            catch (IOException ioe)
+            {
+                throw new JCSPNetworkException("Failed to open NIO selector: " + ioe.getMessage());
+            }
+            selectors = created;
+        }
+        NIOSelector toReturn = selectors[next];
+        next = (next + 1) % selectors.length;
+        return toReturn;
+    }
+
+    /**
+     * Asks the selector thread to start serving a Link.
+     * 
+     * @param link
+     *            The Link to serve
+     */
+    void register(NIOLink link)
+    {
+        this.registrations.add(link);
+        this.selector.wakeup();
+        // A Link registered after the selector failed will never be served
+        if (this.failed)
+            this.failRegistrations();
+    }
+
+    /**
+     * Asks the selector thread to write the messages waiting for a Link.
+     * 
+     * @param link
+     *            The Link with messages waiting
+     */
+    void requestWrite(NIOLink link)
+    {
+        this.writes.add(link);
+        this.selector.wakeup();
+    }
+
+    /**
+     * The selector loop.
+     */
+    public void run()
+    {
+        while (true)
+        {
+            try
+            {
+                this.selector.select();
+            }
+            catch (IOException ioe)
+            {
+                Node.err.log(this.getClass(), "NIO selector failed.  " + ioe.getMessage());
+                this.failAll();
+                return;
+            }
+
+            // Register new Links, and write anything queued for them before they were registered
+            NIOLink link;
+            while ((link = this.registrations.poll()) != null)
+            {
+                try
+                {
+                    link.key = link.getSocketChannel().register(this.selector, SelectionKey.OP_READ, link);
+                    link.write();
+                }
+                catch (ClosedChannelException cce)
+                {
+                    link.fail();
+                }
+                catch (IOException ioe)
+                {
+                    link.fail();
+                }
+                catch (RuntimeException e)
+                {
+                    this.fail(link, e);
+                }
+            }
+
+            // Write for Links that have had messages queued
+            while ((link = this.writes.poll()) != null)
+            {
+                try
+                {
+                    link.write();
+                }
+                catch (IOException ioe)
+                {
+                    link.fail();
+                }
+                catch (RuntimeException e)
+                {
+                    this.fail(link, e);
+                }
+            }
+
+            // Serve the sockets that are ready
+            for (Iterator<SelectionKey> iter = this.selector.selectedKeys().iterator(); iter.hasNext();)
+            {
+                SelectionKey key = iter.next();
+                iter.remove();
+                link = (NIOLink)key.attachment();
+                try
+                {
+                    if (key.isValid() && key.isReadable())
+                        link.read();
+                    if (key.isValid() && key.isWritable())
+                        link.write();
+                }
+                catch (IOException ioe)
+                {
+                    link.fail();
+                }
+                catch (RuntimeException e)
+                {
+                    this.fail(link, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fails every Link served by this selector thread, or waiting to be registered with it, once the selector itself
+     * has failed. The processes using the Links are told that they have gone down, rather than waiting forever.
+     */
+    private void failAll()
+    {
+        this.failed = true;
+        ArrayList<SelectionKey> keys;
+        try
+        {
+            keys = new ArrayList<SelectionKey>(this.selector.keys());
+        }
+        catch (ClosedSelectorException cse)
+        {
+            keys = new ArrayList<SelectionKey>();
+        }
+        for (int i = 0; i < keys.size(); i++)
+            this.fail((NIOLink)keys.get(i).attachment());
+        this.failRegistrations();
+        this.writes.clear();
+        try
+        {
+            this.selector.close();
+        }
+        catch (IOException ioe)
+        {
+            // Nothing more can be done with the selector
+        }
+    }
+
+    /**
+     * Fails the Links waiting to be registered with a selector that has failed.
+     */
+    private void failRegistrations()
+    {
+        NIOLink link;
+        while ((link = this.registrations.poll()) != null)
+            this.fail(link);
+    }
+
+    /**
+     * Fails a Link, logging rather than passing on anything thrown as it is cleaned up.
+     * 
+     * @param link
+     *            The Link to fail
+     */
+    private void fail(NIOLink link)
+    {
+        try
+        {
+            link.fail();
+        }
+        catch (RuntimeException re)
+        {
+            Node.err.log(this.getClass(), "Failed to clean up Link.  " + re);
+        }
+    }
+
+    /**
+     * Fails a Link whose processing threw an unexpected exception, so that only that Link is lost - not the selector
+     * thread and the other Links it serves.
+     * 
+     * @param link
+     *            The Link to fail
+     * @param e
+     *            The exception thrown
+     */
+    private void fail(NIOLink link, RuntimeException e)
+    {
+        Node.err.log(this.getClass(), "Link failed unexpectedly.  " + e);
+        this.fail(link);
+    }
+}
@@ -21,6 +21,8 @@
 
 package jcsp.plugNplay;
 
+import java.util.concurrent.TimeUnit;
+
 import jcsp.lang.*;
  
 /**
@@ -39,7 +41,11 @@ import jcsp.lang.*;
  * If the consumption failure is only temporary, the set rate will be restored
  * when consumption resumes.
  * <P>
- * The interval (in msecs) defining the output flow rate is given by a constructor argument.
+ * The interval (in msecs, or in a given {@link TimeUnit}) defining the output flow rate
+ * is given by a constructor argument.  Timing uses a {@link CSTimer} -- unless the
+ * unit or the interval is finer than a millisecond, when it uses a {@link NanoTimer}
+ * (which yields the processor for the last moments of each interval), so that intervals
+ * well below a millisecond can be sustained (if the consumer keeps up).
  * <H2>Channel Protocols</H2>
  * <TABLE BORDER="2">
  *   <TR>
@@ -65,6 +71,7 @@ public class Regular implements CSProcess {
   final private ChannelOutput out;
   final private Integer n;
   final private long interval;
+  final private TimeUnit unit;
  
   /**
     * Construct the process.
@@ -74,17 +81,52 @@ public class Regular implements CSProcess {
     * @param interval the interval between outputs (in milliseconds)
     */
   public Regular (final ChannelOutput out, final int n, final long interval) {
+    this (out, n, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+    * Construct the process.
+    * 
+    * @param out the output channel
+    * @param n the value to be generated
+    * @param interval the interval between outputs (in <tt>unit</tt>s)
+    * @param unit the unit of <tt>interval</tt>
+    */
+  public Regular (final ChannelOutput out, final int n, final long interval, final TimeUnit unit) {
     this.out = out;
     this.n = new Integer (n);
     this.interval = interval;
+    this.unit = unit;
   }
  
   /**
     * The main body of this process.
     */
   public void run () {
+
+    if ((unit.toMillis (1) == 0) || (unit.toMillis (this.interval) == 0)) {
+      runNanos ();
+      return;
+    }
  
     final CSTimer tim = new CSTimer ();
+    final long interval = unit.toMillis (this.interval);
+    long timeout = tim.read ();       // read the (absolute) time once only
+ 
+    while (true) {
+      out.write (n);
+      timeout += interval;            // set the next (absolute) timeout
+      tim.after (timeout);            // wait until that (absolute) timeout
+    }
+  }
+
+  /**
+    * The main body of this process, for intervals finer than a millisecond.
+    */
+  private void runNanos () {
+ 
+    final NanoTimer tim = new NanoTimer ();
+    final long interval = unit.toNanos (this.interval);
     long timeout = tim.read ();       // read the (absolute) time once only
  
     while (true) {
@@ -21,6 +21,8 @@
 
 package jcsp.plugNplay;
 
+import java.util.concurrent.TimeUnit;
+
 import jcsp.lang.*;
 
 /**
@@ -40,9 +42,13 @@ import jcsp.lang.*;
  * (note: this will be a null if nothing has ever arrived).
  * If the input flow is greater than the required output flow, data will be discarded.
  * <P>
- * The interval (in msecs) defining the output flow rate is given by a constructor argument.
- * This can be changed at any time by sending a new interval (as a <tt>Long</tt>)
- * down its <tt>reset</tt> channel.
+ * The interval (in msecs, or in a given {@link TimeUnit}) defining the output flow rate
+ * is given by a constructor argument.
+ * This can be changed at any time by sending a new interval (as a <tt>Long</tt>, in the
+ * same units) down its <tt>reset</tt> channel.  Timing uses a {@link CSTimer} -- unless
+ * the unit is finer than a millisecond, when it uses a {@link NanoTimer} (which yields
+ * the processor for the last moments of each interval), so that intervals well below a
+ * millisecond can be sustained.
  * <H2>Channel Protocols</H2>
  * <TABLE BORDER="2">
  *   <TR>
@@ -59,7 +65,7 @@ import jcsp.lang.*;
  *     <TH>reset</TH>
  *     <TD>java.lang.Long</TD>
  *     <TD>
- *       This resets the time interval between outputs (milliseconds).
+ *       This resets the time interval between outputs (milliseconds, or the given unit).
  *     </TD>
  *   </TR>
  *   <TR>
@@ -88,6 +94,7 @@ public class Regulate implements CSProcess {
   private final AltingChannelInput in, reset;
   private final ChannelOutput out;
   private final long initialInterval;
+  private final TimeUnit unit;
 
   /**
     * Construct the process.
@@ -99,10 +106,25 @@ public class Regulate implements CSProcess {
     */
   public Regulate (final AltingChannelInput in, final AltingChannelInput reset,
                    final ChannelOutput out, final long initialInterval) {
+    this (in, reset, out, initialInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+    * Construct the process.
+    * 
+    * @param in the input channel
+    * @param out the output channel
+    * @param initialInterval the initial interval between outputs (in <tt>unit</tt>s)
+    * @param reset send a <tt>Long</tt> down this to change the interval between outputs (in <tt>unit</tt>s)
+    * @param unit the unit of the intervals
+    */
+  public Regulate (final AltingChannelInput in, final AltingChannelInput reset,
+                   final ChannelOutput out, final long initialInterval, final TimeUnit unit) {
     this.in = in;
     this.reset = reset;
     this.out = out;
     this.initialInterval = initialInterval;
+    this.unit = unit;
   }
 
   /**
@@ -110,6 +132,11 @@ public class Regulate implements CSProcess {
     */
   public void run () {
 
+    if (unit.toMillis (1) == 0) {
+      runNanos ();
+      return;
+    }
+
     final CSTimer tim = new CSTimer ();
 
     final Guard[] guards = {reset, tim, in};              // prioritised order
@@ -121,7 +148,46 @@ public class Regulate implements CSProcess {
 
     Object x = null;                                      // holding object
 
-    long interval = initialInterval;
+    long interval = unit.toMillis (initialInterval);
+
+    long timeout = tim.read () + interval;
+    tim.setAlarm (timeout);
+
+    while (true) {
+      switch (alt.priSelect ()) {
+        case RESET:
+          interval = unit.toMillis (((Long) reset.read ()).longValue ());
+          timeout = tim.read ();                          // fall through
+        case TIM:
+          out.write (x);
+          timeout += interval;
+          tim.setAlarm (timeout);
+        break;
+        case IN:
+          x = in.read ();
+        break;
+      }
+    }
+
+  }
+
+  /**
+    * The main body of this process, for units finer than a millisecond.
+    */
+  private void runNanos () {
+
+    final NanoTimer tim = new NanoTimer ();
+
+    final Guard[] guards = {reset, tim, in};              // prioritised order
+    final int RESET = 0;                                  // index into guards
+    final int TIM = 1;                                    // index into guards
+    final int IN = 2;                                     // index into guards
+
+    final Alternative alt = new Alternative (guards);
+
+    Object x = null;                                      // holding object
+
+    long interval = unit.toNanos (initialInterval);
 
     long timeout = tim.read () + interval;
     tim.setAlarm (timeout);
@@ -129,7 +195,7 @@ public class Regulate implements CSProcess {
     while (true) {
       switch (alt.priSelect ()) {
         case RESET:
-          interval = ((Long) reset.read ()).longValue ();
+          interval = unit.toNanos (((Long) reset.read ()).longValue ());
           timeout = tim.read ();                          // fall through
         case TIM:
           out.write (x);
@@ -0,0 +1,275 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.plugNplay.ints;
+
+import jcsp.lang.*;
+
+/**
+ * This process broadcasts integers arriving on its input channel to its array
+ * of output channels, without handing each message to other threads.
+ *
+ * <H2>Process Diagram</H2>
+ * <p><img src="doc-files/DeltaInt1.gif"></p>
+ * <H2>Description</H2>
+ * <TT>BroadcastInt</TT> is a faster {@link DeltaInt}.  It has an infinite loop that
+ * waits for an <TT>int</TT> to arrive on its <TT>in</TT> channel and
+ * then writes it down each of its <TT>out</TT> channels,
+ * allocating nothing per message.  How the outputs are written depends on
+ * how the process is constructed:
+ * <UL>
+ *   <LI><I>in parallel</I> (the default): the outputs may be accepted in
+ *   any order, as for <TT>DeltaInt</TT>.  Outputs that are
+ *   {@link AltingChannelOutputInt}s (the writing ends of symmetric channels) are
+ *   written by the broadcasting thread itself, which ALTs over those not yet
+ *   written.  Only other outputs are written by a (reused) {@link Parallel}
+ *   of writers -- so a broadcast to symmetric channels involves no thread
+ *   hand-offs at all.
+ *   <LI><I>sequentially</I>: the outputs are written one after another,
+ *   in index order.  This is the fast path when the outputs are buffered (or
+ *   their readers are always ready), but may deadlock a network that relies
+ *   on the readers accepting the broadcast in some other order.
+ * </UL>
+ * If any channel is poisoned, the poison is propagated (at the same strength)
+ * to the input and all the outputs, and the process terminates.
+ * <P>
+ * <H2>Channel Protocols</H2>
+ * <TABLE BORDER="2">
+ *   <TR>
+ *     <TH COLSPAN="3">Input Channels</TH>
+ *   </TR>
+ *   <TR>
+ *     <TH>in</TH>
+ *     <TD>int</TD>
+ *     <TD>
+ *       The in Channel can accept integers.
+ *     </TD>
+ *   </TR>
+ *   <TR>
+ *     <TH COLSPAN="3">Output Channels</TH>
+ *   </TR>
+ *   <TR>
+ *     <TH>out[]</TH>
+ *     <TD>int</TD>
+ *     <TD>
+ *       The output Channels will carry a broadcast of whatever
+ *       is sent down the in Channel.
+ *     </TD>
+ *   </TR>
+ * </TABLE>
+ *
+ * @see DeltaInt
+ * @see jcsp.plugNplay.Broadcast
+ * @see jcsp.plugNplay.longs.BroadcastLong
+ */
+public final class BroadcastInt implements CSProcess
+{
+   /** The input Channel */
+   private final ChannelInputInt in;
+
+   /** The output Channels */
+   private final ChannelOutputInt[] out;
+
+   /** Whether the outputs are written one after another */
+   private final boolean sequential;
+
+   /**
+    * Construct a new BroadcastInt process, writing to its outputs in parallel.
+    *
+    * @param in the input channel
+    * @param out the output Channels
+    */
+   public BroadcastInt(final ChannelInputInt in, final ChannelOutputInt[] out)
+   {
+      this(in, out, false);
+   }
+
+   /**
+    * Construct a new BroadcastInt process.
+    *
+    * @param in the input channel
+    * @param out the output Channels
+    * @param sequential true to write the outputs one after another (in index order),
+    *  false to write them in parallel.
+    */
+   public BroadcastInt(final ChannelInputInt in, final ChannelOutputInt[] out, final boolean sequential)
+   {
+      this.in = in;
+      this.out = out;
+      this.sequential = sequential;
+   }
+
+   /**
+    * The main body of this process.
+    */
+   public void run()
+   {
+      try
+      {
+         if (sequential || out.length < 2)
+         {
+            while (true)
+            {
+               final int value = in.read();
+               for (int i = 0; i < out.length; i++)
+                  out[i].write(value);
+            }
+         }
+         int nAlting = 0;
+         for (int i = 0; i < out.length; i++)
+         {
+            if (out[i] instanceof AltingChannelOutputInt)
+               nAlting++;
+         }
+         final AltWrite altWrite = (nAlting == 0) ? null : new AltWrite(nAlting);
+         final Write[] writes = new Write[out.length - nAlting];
+         for (int i = 0, a = 0, w = 0; i < out.length; i++)
+         {
+            if (out[i] instanceof AltingChannelOutputInt)
+               altWrite.out[a++] = (AltingChannelOutputInt) out[i];
+            else
+               writes[w++] = new Write(out[i]);
+         }
+         final CSProcess writer;
+         if (writes.length == 0)
+            writer = altWrite.init();
+         else
+         {
+            // the ALTing writer (if any) is last, so is run by this thread
+            final CSProcess[] procs = new CSProcess[writes.length + ((altWrite == null) ? 0 : 1)];
+            System.arraycopy(writes, 0, procs, 0, writes.length);
+            if (altWrite != null)
+               procs[writes.length] = altWrite.init();
+            writer = new Parallel(procs);
+         }
+         while (true)
+         {
+            final int value = in.read();
+            for (int i = 0; i < writes.length; i++)
+               writes[i].value = value;
+            if (altWrite != null)
+               altWrite.value = value;
+            writer.run();
+            // a Parallel does not pass on its processes' exceptions
+            for (int i = 0; i < writes.length; i++)
+               writes[i].rethrow();
+            if (altWrite != null)
+               altWrite.rethrow();
+         }
+      }
+      catch (PoisonException p)
+      {
+         // don't know which channel was poisoned ... so, poison them all!
+         final int strength = p.getStrength();   // use same strength of poison
+         in.poison(strength);
+         for (int i = 0; i < out.length; i++)
+            out[i].poison(strength);
+      }
+   }
+
+   /**
+    * Writes a value to one output, recording any poison met.
+    */
+   private static final class Write implements CSProcess
+   {
+      private final ChannelOutputInt out;
+
+      int value;
+
+      private PoisonException poison;
+
+      Write(final ChannelOutputInt out)
+      {
+         this.out = out;
+      }
+
+      public void run()
+      {
+         try
+         {
+            out.write(value);
+         }
+         catch (PoisonException p)
+         {
+            poison = p;
+         }
+      }
+
+      void rethrow()
+      {
+         if (poison != null)
+            throw poison;
+      }
+   }
+
+   /**
+    * Writes a value to each of a set of ALTing outputs, in whatever order
+    * they become ready, recording any poison met.
+    */
+   private static final class AltWrite implements CSProcess
+   {
+      final AltingChannelOutputInt[] out;
+
+      private final boolean[] pending;
+
+      private Alternative alt;
+
+      int value;
+
+      private PoisonException poison;
+
+      AltWrite(final int n)
+      {
+         this.out = new AltingChannelOutputInt[n];
+         this.pending = new boolean[n];
+      }
+
+      AltWrite init()
+      {
+         alt = new Alternative(out);
+         return this;
+      }
+
+      public void run()
+      {
+         try
+         {
+            for (int i = 0; i < pending.length; i++)
+               pending[i] = true;
+            for (int n = pending.length; n > 0; n--)
+            {
+               final int i = alt.fairSelect(pending);
+               out[i].write(value);
+               pending[i] = false;
+            }
+         }
+         catch (PoisonException p)
+         {
+            poison = p;
+         }
+      }
+
+      void rethrow()
+      {
+         if (poison != null)
+            throw poison;
+      }
+   }
+}
@@ -0,0 +1,143 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.plugNplay.ints;
+
+import jcsp.lang.*;
+
+/**
+ * <I>Fair</I> multiplexes its input integer stream array into one output stream
+ * (optionally carrying source channel and data pairs), in a single process.
+ * <H2>Process Diagram</H2>
+ * <p><img src="doc-files/MultiplexInt1.gif"></p>
+ * <H2>Description</H2>
+ * <TT>FairMultiplexInt</TT> is a wide fan-in for any number of input streams,
+ * run by a single process: there are no intermediate processes or channels
+ * between an input and the output.  Constructed <I>untagged</I>, it behaves as
+ * {@link PlexInt}; constructed <I>tagged</I>, it behaves as {@link MultiplexInt},
+ * writing the index of the source channel before each
+ * datum, so that the stream may be {@link DemultiplexInt <i>de-multiplexed</i>} later.
+ * <P>
+ * The inputs are serviced by an {@link Alternative#fairSelect() fairSelect},
+ * which favours the input after the one last serviced.  So no input stream is
+ * starved by busy siblings: if an input stream has data pending, no other
+ * stream will be serviced <I>twice</I> before that data is serviced.  Each
+ * <TT>fairSelect</TT> may check every input, so the cost of servicing an
+ * input grows with the number of inputs.  For very wide fan-in, where most
+ * inputs are idle, a server selecting with a {@link ScalableAlternative}
+ * (whose cost depends only on how many inputs are ready) may be used instead.
+ * <P>
+ * If any channel is poisoned, the poison is propagated (at the same strength)
+ * to all the inputs and the output, and the process terminates.
+ * <H2>Channel Protocols</H2>
+ * <TABLE BORDER="2">
+ *   <TR>
+ *     <TH COLSPAN="3">Input Channels</TH>
+ *   </TR>
+ *   <TR>
+ *     <TH>in[]</TH>
+ *     <TD>int</TD>
+ *     <TD>
+ *       The input streams.
+ *     </TD>
+ *   </TR>
+ *   <TR>
+ *     <TH COLSPAN="3">Output Channels</TH>
+ *   </TR>
+ *   <TR>
+ *     <TH>out</TH>
+ *     <TD>[int,] int</TD>
+ *     <TD>
+ *       The multiplexed data -- if tagged, each preceded by its channel index.
+ *     </TD>
+ *   </TR>
+ * </TABLE>
+ *
+ * @see PlexInt
+ * @see MultiplexInt
+ * @see jcsp.plugNplay.FairMultiplex
+ */
+public final class FairMultiplexInt implements CSProcess
+{
+   /** The input channels */
+   private final AltingChannelInputInt[] in;
+
+   /** The output channel */
+   private final ChannelOutputInt out;
+
+   /** Whether each datum is preceded by the index of its input channel */
+   private final boolean tagged;
+
+   /**
+    * Construct a new untagged <TT>FairMultiplexInt</TT> process with the input
+    * channels <TT>in</TT> and the output channel <TT>out</TT>.
+    *
+    * @param in the input channels
+    * @param out the output channel
+    */
+   public FairMultiplexInt(final AltingChannelInputInt[] in, final ChannelOutputInt out)
+   {
+      this(in, out, false);
+   }
+
+   /**
+    * Construct a new <TT>FairMultiplexInt</TT> process with the input channels
+    * <TT>in</TT> and the output channel <TT>out</TT>.  The ordering of the
+    * channels in the <TT>in</TT> array makes no difference to the fairness
+    * of this process.
+    *
+    * @param in the input channels
+    * @param out the output channel
+    * @param tagged true to write the index of the input channel before each datum
+    */
+   public FairMultiplexInt(final AltingChannelInputInt[] in, final ChannelOutputInt out, final boolean tagged)
+   {
+      if (in.length < 1)
+         throw new IllegalArgumentException("FairMultiplexInt must have at least 1 input channel");
+      this.in = in;
+      this.out = out;
+      this.tagged = tagged;
+   }
+
+   /**
+    * The main body of this process.
+    */
+   public void run()
+   {
+      try
+      {
+         final Alternative alt = new Alternative(in);
+         while (true)
+         {
+            final int index = alt.fairSelect();
+            if (tagged)
+               out.write(index);
+            out.write(in[index].read());
+         }
+      }
+      catch (PoisonException p)
+      {
+         final int strength = p.getStrength();   // use same strength of poison
+         for (int i = 0; i < in.length; i++)
+            in[i].poison(strength);
+         out.poison(strength);
+      }
+   }
+}
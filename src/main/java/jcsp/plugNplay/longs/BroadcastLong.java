@@ -0,0 +1,189 @@
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+
+package jcsp.plugNplay.longs;
+
+import jcsp.lang.*;
+
+/**
+ * This process broadcasts longs arriving on its input channel to its array
+ * of output channels.
+ *
+ * <H2>Description</H2>
+ * <TT>BroadcastLong</TT> is the <TT>long</TT> counterpart of
+ * {@link jcsp.plugNplay.Broadcast}.  It has an infinite loop that waits for
+ * a <TT>long</TT> to arrive on its <TT>in</TT> channel and then writes it down
+ * each of its <TT>out</TT> channels, allocating nothing per message.  How
+ * the outputs are written depends on how the process is constructed:
+ * <UL>
+ *   <LI><I>in parallel</I> (the default): the outputs may be accepted in
+ *   any order.  There are no ALTing <TT>long</TT> outputs, so the writes are
+ *   performed by a (reused) {@link Parallel} of writers, the last of which is
+ *   run by the broadcasting thread.
+ *   <LI><I>sequentially</I>: the outputs are written one after another,
+ *   in index order.  This is the fast path when the outputs are buffered (or
+ *   their readers are always ready), but may deadlock a network that relies
+ *   on the readers accepting the broadcast in some other order.
+ * </UL>
+ * If any channel is poisoned, the poison is propagated (at the same strength)
+ * to the input and all the outputs, and the process terminates.
+ * <P>
+ * <H2>Channel Protocols</H2>
+ * <TABLE BORDER="2">
+ *   <TR>
+ *     <TH COLSPAN="3">Input Channels</TH>
+ *   </TR>
+ *   <TR>
+ *     <TH>in</TH>
+ *     <TD>long</TD>
+ *     <TD>
+ *       The in Channel can accept longs.
+ *     </TD>
+ *   </TR>
+ *   <TR>
+ *     <TH COLSPAN="3">Output Channels</TH>
+ *   </TR>
+ *   <TR>
+ *     <TH>out[]</TH>
+ *     <TD>long</TD>
+ *     <TD>
+ *       The output Channels will carry a broadcast of whatever
+ *       is sent down the in Channel.
+ *     </TD>
+ *   </TR>
+ * </TABLE>
+ *
+ * @see jcsp.plugNplay.Broadcast
+ * @see jcsp.plugNplay.ints.BroadcastInt
+ */
+public final class BroadcastLong implements CSProcess
+{
+   /** The input Channel */
+   private final ChannelInputLong in;
+
+   /** The output Channels */
+   private final ChannelOutputLong[] out;
+
+   /** Whether the outputs are written one after another */
+   private final boolean sequential;
+
+   /**
+    * Construct a new BroadcastLong process, writing to its outputs in parallel.
+    *
+    * @param in the input channel
+    * @param out the output Channels
+    */
+   public BroadcastLong(final ChannelInputLong in, final ChannelOutputLong[] out)
+   {
+      this(in, out, false);
+   }
+
+   /**
+    * Construct a new BroadcastLong process.
+    *
+    * @param in the input channel
+    * @param out the output Channels
+    * @param sequential true to write the outputs one after another (in index order),
+    *  false to write them in parallel.
+    */
+   public BroadcastLong(final ChannelInputLong in, final ChannelOutputLong[] out,
+                        final boolean sequential)
+   {
+      this.in = in;
+      this.out = out;
+      this.sequential = sequential;
+   }
+
+   /**
+    * The main body of this process.
+    */
+   public void run()
+   {
+      try
+      {
+         if (sequential || out.length < 2)
+         {
+            while (true)
+            {
+               final long value = in.read();
+               for (int i = 0; i < out.length; i++)
+                  out[i].write(value);
+            }
+         }
+         final Write[] writes = new Write[out.length];
+         for (int i = 0; i < out.length; i++)
+            writes[i] = new Write(out[i]);
+         final Parallel par = new Parallel(writes);
+         while (true)
+         {
+            final long value = in.read();
+            for (int i = 0; i < writes.length; i++)
+               writes[i].value = value;
+            par.run();
+            // a Parallel does not pass on its processes' exceptions
+            for (int i = 0; i < writes.length; i++)
+               writes[i].rethrow();
+         }
+      }
+      catch (PoisonException p)
+      {
+         // don't know which channel was poisoned ... so, poison them all!
+         final int strength = p.getStrength();   // use same strength of poison
+         in.poison(strength);
+         for (int i = 0; i < out.length; i++)
+            out[i].poison(strength);
+      }
+   }
+
+   /**
+    * Writes a value to one output, recording any poison met.
+    */
+   private static final class Write implements CSProcess
+   {
+      private final ChannelOutputLong out;
+
+      long value;
+
+      private PoisonException poison;
+
+      Write(final ChannelOutputLong out)
+      {
+         this.out = out;
+      }
+
+      public void run()
+      {
+         try
+         {
+            out.write(value);
+         }
+         catch (PoisonException p)
+         {
+            poison = p;
+         }
+      }
+
+      void rethrow()
+      {
+         if (poison != null)
+            throw poison;
+      }
+   }
+}
@@ -131,6 +131,52 @@ public class Buffer<T> implements ChannelDataStore<T>, Serializable
         counter++;
     }
 
+    /**
+     * Puts as many of a batch of <TT>Object</TT>s into the <TT>Buffer</TT>
+     * as it has room for.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>FULL</TT>.
+     *
+     * @param values the array holding the Objects to put into the Buffer
+     * @param offset the index in <TT>values</TT> of the first Object to put
+     * @param length the number of Objects to put
+     * @return the number of Objects put
+     */
+    public int putAll(T[] values, int offset, int length)
+    {
+        final int n = Math.min(length, buffer.length - counter);
+        final int first = Math.min(n, buffer.length - lastIndex);
+        System.arraycopy(values, offset, buffer, lastIndex, first);
+        System.arraycopy(values, offset + first, buffer, 0, n - first);
+        lastIndex = (lastIndex + n) % buffer.length;
+        counter += n;
+        return n;
+    }
+
+    /**
+     * Gets up to <TT>max</TT> of the oldest <TT>Object</TT>s from the
+     * <TT>Buffer</TT> and removes them.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+     *
+     * @param values the array in which the Objects are stored
+     * @param offset the index in <TT>values</TT> of the first Object got
+     * @param max the maximum number of Objects to get
+     * @return the number of Objects got
+     */
+    public int getAll(T[] values, int offset, int max)
+    {
+        final int n = Math.min(max, counter);
+        final int first = Math.min(n, buffer.length - firstIndex);
+        System.arraycopy(buffer, firstIndex, values, offset, first);
+        System.arraycopy(buffer, 0, values, offset + first, n - first);
+        java.util.Arrays.fill(buffer, firstIndex, firstIndex + first, null);
+        java.util.Arrays.fill(buffer, 0, n - first, null);
+        firstIndex = (firstIndex + n) % buffer.length;
+        counter -= n;
+        return n;
+    }
+
     /**
      * Returns the current state of the <TT>Buffer</TT>.
      *
@@ -106,6 +106,54 @@ public interface ChannelDataStore<T> extends Cloneable
      * @return an <TT>Object</TT> from the <TT>ChannelDataStore</TT>
      */
     public abstract T get();
+
+    /**
+     * Puts as many of a batch of <TT>Object</TT>s into the <TT>ChannelDataStore</TT>
+     * as it will accept, stopping when it becomes <TT>FULL</TT>.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>FULL</TT>.
+     * <P>
+     * The default implementation repeatedly invokes {@link #put(Object) <tt>put</tt>}.
+     *
+     * @param values the array holding the Objects to put into the ChannelDataStore
+     * @param offset the index in <TT>values</TT> of the first Object to put
+     * @param length the number of Objects to put
+     * @return the number of Objects put (at least one, if <TT>length</TT> is positive)
+     */
+    public default int putAll(T[] values, int offset, int length)
+    {
+        int n = 0;
+        while ((n < length) && ((n == 0) || (getState() != FULL)))
+        {
+            put(values[offset + n]);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Gets up to <TT>max</TT> <TT>Object</TT>s from the <TT>ChannelDataStore</TT>,
+     * stopping when it becomes <TT>EMPTY</TT>.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+     * <P>
+     * The default implementation repeatedly invokes {@link #get() <tt>get</tt>}.
+     *
+     * @param values the array in which the Objects are stored
+     * @param offset the index in <TT>values</TT> of the first Object got
+     * @param max the maximum number of Objects to get
+     * @return the number of Objects got (at least one, if <TT>max</TT> is positive)
+     */
+    public default int getAll(T[] values, int offset, int max)
+    {
+        int n = 0;
+        while ((n < max) && ((n == 0) || (getState() != EMPTY)))
+        {
+            values[offset + n] = get();
+            n++;
+        }
+        return n;
+    }
     
     /**
      * Begins an extended read on the buffer, returning the data for the extended read.
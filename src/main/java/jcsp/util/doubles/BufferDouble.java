@@ -0,0 +1,161 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.util.doubles;
+
+import java.io.Serializable;
+
+/**
+ * This is used to create a buffered double channel that never loses data.
+ * <H2>Description</H2>
+ * <TT>BufferDouble</TT> is an implementation of <TT>ChannelDataStoreDouble</TT> that yields
+ * a blocking <I>FIFO</I> buffered semantics for a channel.
+ * See the <tt>static</tt> construction methods of {@link jcsp.lang.Channel}
+ * ({@link jcsp.lang.Channel#one2oneDouble(jcsp.util.doubles.ChannelDataStoreDouble)} etc.).
+ * <P>
+ * The <TT>getState</TT> method returns <TT>EMPTY</TT>, <TT>NONEMPTYFULL</TT> or
+ * <TT>FULL</TT> according to the state of the buffer.
+ *
+ * @see jcsp.util.doubles.ZeroBufferDouble
+ * @see jcsp.util.doubles.OverWriteOldestBufferDouble
+ * @see jcsp.util.doubles.OverWritingBufferDouble
+ * @see jcsp.util.doubles.OverFlowingBufferDouble
+ * @see jcsp.util.doubles.InfiniteBufferDouble
+ * @see jcsp.lang.Channel
+ * 
+ * @author P.D. Austin
+ */
+
+public class BufferDouble implements ChannelDataStoreDouble, Serializable
+{
+  /** The storage for the buffered doubles */
+  private final double[] buffer;
+  
+  /** The number of doubles stored in the BufferDouble */
+  private int counter = 0;
+  
+  /** The index of the oldest element (when counter > 0) */
+  private int firstIndex = 0;
+  
+  /** The index of the next free element (when counter < buffer.length) */
+  private int lastIndex = 0;
+  
+  /**
+   * Construct a new <TT>BufferDouble</TT> with the specified size.
+   *
+   * @param size the number of doubles the BufferDouble can store.
+   * @throws BufferDoubleSizeError if <TT>size</TT> is negative.  Note: no action
+   * should be taken to <TT>try</TT>/<TT>catch</TT> this exception
+   * - application code generating it is in error and needs correcting.
+   */
+  public BufferDouble (int size) {
+    if (size < 0) {
+      throw new BufferDoubleSizeError (
+        "\n*** Attempt to create a buffered channel with negative capacity"
+      );
+    }
+    buffer = new double[size + 1];  // the extra one is a subtlety needed by
+                                 // the current channel algorithms.
+  }
+  
+  /**
+   * Returns the oldest <TT>double</TT> from the <TT>BufferDouble</TT> and removes it.
+   * <P>
+   * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+   *
+   * @return the oldest <TT>double</TT> from the <TT>BufferDouble</TT>
+   */
+  public double get () {
+    double value = buffer[firstIndex];
+    firstIndex = (firstIndex + 1) % buffer.length;  
+    counter--;
+    return value;
+  }
+  
+  /**
+   * Returns the oldest double from the buffer but does not remove it.
+   * 
+   * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+   *
+   * @return the oldest <TT>double</TT> from the <TT>Buffer</TT>
+   */
+  public double startGet()
+  {
+    return buffer[firstIndex];
+  }
+  
+  /**
+   * Removes the oldest double from the buffer.     
+   */
+  public void endGet()
+  {      
+    firstIndex = (firstIndex + 1) % buffer.length;
+    counter--;
+  }
+
+  /**
+   * Puts a new <TT>double</TT> into the <TT>BufferDouble</TT>.
+   * <P>
+   * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>FULL</TT>.
+   *
+   * @param value the double to put into the BufferDouble
+   */
+  public void put (double value) { 
+    buffer[lastIndex] = value;
+    lastIndex = (lastIndex + 1) % buffer.length;  
+    counter++;
+  }
+
+  /**
+   * Returns the current state of the <TT>BufferDouble</TT>.
+   *
+   * @return the current state of the <TT>BufferDouble</TT> (<TT>EMPTY</TT>,
+   * <TT>NONEMPTYFULL</TT> or <TT>FULL</TT>)
+   */
+  public int getState () {
+    if (counter == 0) {
+      return EMPTY;
+    }
+    else if (counter == buffer.length) {
+      return FULL;
+    } else {
+    return NONEMPTYFULL;
+    }
+  }
+  
+  /**
+   * Returns a new (and <TT>EMPTY</TT>) <TT>BufferDouble</TT> with the same
+   * creation parameters as this one.
+   * <P>
+   * <I>Note: Only the size and structure of the </I><TT>BufferDouble</TT><I> is
+   * cloned, not any stored data.</I>
+   *
+   * @return the cloned instance of this <TT>BufferDouble</TT>
+   */
+  public Object clone () {
+    return new BufferDouble (buffer.length - 1);
+  }
+
+  public void removeAll() {
+	  counter = 0;
+	  firstIndex = 0;
+	  lastIndex = 0;
+  }
+}
@@ -0,0 +1,165 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.util.doubles;
+
+import java.io.Serializable;
+
+/**
+ * This is used to create a buffered double channel that always accepts input,
+ * discarding its last entered data if full.
+ * <H2>Description</H2>
+ * <TT>OverFlowingBufferDouble</TT> is an implementation of <TT>ChannelDataStoreDouble</TT> that yields
+ * a <I>FIFO</I> buffered semantics for a channel.  When empty, the channel blocks readers.
+ * When full, a writer will be accepted but the written value <I>overflows</I> the buffer
+ * and is lost to the channel.
+ * See the <tt>static</tt> construction methods of {@link jcsp.lang.Channel}
+ * ({@link jcsp.lang.Channel#one2oneDouble(ChannelDataStoreDouble)} etc.).
+ * <P>
+ * The <TT>getState</TT> method returns <TT>EMPTY</TT> or <TT>NONEMPTYFULL</TT>, but
+ * never <TT>FULL</TT>.
+ *
+ * @see ZeroBufferDouble
+ * @see BufferDouble
+ * @see jcsp.util.doubles.OverWriteOldestBufferDouble
+ * @see jcsp.util.doubles.OverWritingBufferDouble
+ * @see InfiniteBufferDouble
+ * @see jcsp.lang.Channel
+ *
+ * @author P.D. Austin
+ */
+
+public class OverFlowingBufferDouble implements ChannelDataStoreDouble, Serializable
+{
+    /** The storage for the buffered doubles */
+    private final double[] buffer;
+
+    /** The number of doubles stored in the Buffer */
+    private int counter = 0;
+
+    /** The index of the oldest element (when counter > 0) */
+    private int firstIndex = 0;
+
+    /** The index of the next free element (when counter < buffer.length) */
+    private int lastIndex = 0;
+
+    /**
+     * Construct a new <TT>OverFlowingBufferDouble</TT> with the specified size.
+     *
+     * @param size the number of doubles the OverFlowingBufferDouble can store.
+     * @throws BufferDoubleSizeError if <TT>size</TT> is zero or negative.  Note: no action
+     * should be taken to <TT>try</TT>/<TT>catch</TT> this exception
+     * - application code generating it is in error and needs correcting.
+     */
+    public OverFlowingBufferDouble(int size)
+    {
+        if (size <= 0)
+            throw new BufferDoubleSizeError
+                    ("\n*** Attempt to create an overflowing buffered channel with negative or zero capacity");
+        buffer = new double[size];
+    }
+
+    /**
+     * Returns the oldest <TT>double</TT> from the <TT>OverFlowingBufferDouble</TT> and removes it.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+     *
+     * @return the oldest <TT>double</TT> from the <TT>OverFlowingBufferDouble</TT>
+     */
+    public double get()
+    {
+        double value = buffer[firstIndex];
+        firstIndex = (firstIndex + 1) % buffer.length;
+        counter--;
+        return value;
+    }
+    
+    /**
+     * Returns the oldest double from the buffer but does not remove it.
+     * 
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+     *
+     * @return the oldest <TT>double</TT> from the <TT>Buffer</TT>
+     */
+    public double startGet()
+    {
+      return buffer[firstIndex];
+    }
+    
+    /**
+     * Removes the oldest double from the buffer.     
+     */
+    public void endGet()
+    {      
+      firstIndex = (firstIndex + 1) % buffer.length;
+      counter--;
+    }
+
+    /**
+     * Puts a new <TT>double</TT> into the <TT>OverFlowingBufferDouble</TT>.
+     * <P>
+     * If <TT>OverFlowingBufferDouble</TT> is full, the item is discarded.
+     *
+     * @param value the double to put into the OverFlowingBufferDouble
+     */
+    public void put(double value)
+    {
+        if (counter < buffer.length)
+        {
+            buffer[lastIndex] = value;
+            lastIndex = (lastIndex + 1) % buffer.length;
+            counter++;
+        }
+    }
+
+    /**
+     * Returns the current state of the <TT>OverFlowingBufferDouble</TT>.
+     *
+     * @return the current state of the <TT>OverFlowingBufferDouble</TT> (<TT>EMPTY</TT> or
+     * <TT>NONEMPTYFULL</TT>)
+     */
+    public int getState()
+    {
+        if (counter == 0)
+            return EMPTY;
+        else
+            return NONEMPTYFULL;
+    }
+
+    /**
+     * Returns a new (and <TT>EMPTY</TT>) <TT>OverFlowingBufferDouble</TT> with the same
+     * creation parameters as this one.
+     * <P>
+     * <I>Note: Only the size and structure of the </I><TT>OverFlowingBufferDouble</TT><I> is
+     * cloned, not any stored data.</I>
+     *
+     * @return the cloned instance of this <TT>OverFlowingBufferDouble</TT>.
+     */
+    public Object clone()
+    {
+        return new OverFlowingBufferDouble(buffer.length);
+    }
+    
+    public void removeAll() {
+  	  counter = 0;
+  	  firstIndex = 0;
+  	  lastIndex = 0;
+    }
+}
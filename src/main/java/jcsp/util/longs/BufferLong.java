@@ -0,0 +1,161 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.util.longs;
+
+import java.io.Serializable;
+
+/**
+ * This is used to create a buffered long channel that never loses data.
+ * <H2>Description</H2>
+ * <TT>BufferLong</TT> is an implementation of <TT>ChannelDataStoreLong</TT> that yields
+ * a blocking <I>FIFO</I> buffered semantics for a channel.
+ * See the <tt>static</tt> construction methods of {@link jcsp.lang.Channel}
+ * ({@link jcsp.lang.Channel#one2oneLong(jcsp.util.longs.ChannelDataStoreLong)} etc.).
+ * <P>
+ * The <TT>getState</TT> method returns <TT>EMPTY</TT>, <TT>NONEMPTYFULL</TT> or
+ * <TT>FULL</TT> according to the state of the buffer.
+ *
+ * @see jcsp.util.longs.ZeroBufferLong
+ * @see jcsp.util.longs.OverWriteOldestBufferLong
+ * @see jcsp.util.longs.OverWritingBufferLong
+ * @see jcsp.util.longs.OverFlowingBufferLong
+ * @see jcsp.util.longs.InfiniteBufferLong
+ * @see jcsp.lang.Channel
+ * 
+ * @author P.D. Austin
+ */
+
+public class BufferLong implements ChannelDataStoreLong, Serializable
+{
+  /** The storage for the buffered longs */
+  private final long[] buffer;
+  
+  /** The number of longs stored in the BufferLong */
+  private int counter = 0;
+  
+  /** The index of the oldest element (when counter > 0) */
+  private int firstIndex = 0;
+  
+  /** The index of the next free element (when counter < buffer.length) */
+  private int lastIndex = 0;
+  
+  /**
+   * Construct a new <TT>BufferLong</TT> with the specified size.
+   *
+   * @param size the number of longs the BufferLong can store.
+   * @throws BufferLongSizeError if <TT>size</TT> is negative.  Note: no action
+   * should be taken to <TT>try</TT>/<TT>catch</TT> this exception
+   * - application code generating it is in error and needs correcting.
+   */
+  public BufferLong (int size) {
+    if (size < 0) {
+      throw new BufferLongSizeError (
+        "\n*** Attempt to create a buffered channel with negative capacity"
+      );
+    }
+    buffer = new long[size + 1];  // the extra one is a subtlety needed by
+                                 // the current channel algorithms.
+  }
+  
+  /**
+   * Returns the oldest <TT>long</TT> from the <TT>BufferLong</TT> and removes it.
+   * <P>
+   * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+   *
+   * @return the oldest <TT>long</TT> from the <TT>BufferLong</TT>
+   */
+  public long get () {
+    long value = buffer[firstIndex];
+    firstIndex = (firstIndex + 1) % buffer.length;  
+    counter--;
+    return value;
+  }
+  
+  /**
+   * Returns the oldest long from the buffer but does not remove it.
+   * 
+   * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+   *
+   * @return the oldest <TT>long</TT> from the <TT>Buffer</TT>
+   */
+  public long startGet()
+  {
+    return buffer[firstIndex];
+  }
+  
+  /**
+   * Removes the oldest long from the buffer.     
+   */
+  public void endGet()
+  {      
+    firstIndex = (firstIndex + 1) % buffer.length;
+    counter--;
+  }
+
+  /**
+   * Puts a new <TT>long</TT> into the <TT>BufferLong</TT>.
+   * <P>
+   * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>FULL</TT>.
+   *
+   * @param value the long to put into the BufferLong
+   */
+  public void put (long value) { 
+    buffer[lastIndex] = value;
+    lastIndex = (lastIndex + 1) % buffer.length;  
+    counter++;
+  }
+
+  /**
+   * Returns the current state of the <TT>BufferLong</TT>.
+   *
+   * @return the current state of the <TT>BufferLong</TT> (<TT>EMPTY</TT>,
+   * <TT>NONEMPTYFULL</TT> or <TT>FULL</TT>)
+   */
+  public int getState () {
+    if (counter == 0) {
+      return EMPTY;
+    }
+    else if (counter == buffer.length) {
+      return FULL;
+    } else {
+    return NONEMPTYFULL;
+    }
+  }
+  
+  /**
+   * Returns a new (and <TT>EMPTY</TT>) <TT>BufferLong</TT> with the same
+   * creation parameters as this one.
+   * <P>
+   * <I>Note: Only the size and structure of the </I><TT>BufferLong</TT><I> is
+   * cloned, not any stored data.</I>
+   *
+   * @return the cloned instance of this <TT>BufferLong</TT>
+   */
+  public Object clone () {
+    return new BufferLong (buffer.length - 1);
+  }
+
+  public void removeAll() {
+	  counter = 0;
+	  firstIndex = 0;
+	  lastIndex = 0;
+  }
+}
@@ -0,0 +1,132 @@
+
+//////////////////////////////////////////////////////////////////////
+//                                                                  //
+//  JCSP ("CSP for Java") Libraries                                 //
+//  Copyright (C) 1996-2018 Peter Welch, Paul Austin and Neil Brown //
+//                2001-2004 Quickstone Technologies Limited         //
+//                2005-2018 Kevin Chalmers                          //
+//                                                                  //
+//  You may use this work under the terms of either                 //
+//  1. The Apache License, Version 2.0                              //
+//  2. or (at your option), the GNU Lesser General Public License,  //
+//       version 2.1 or greater.                                    //
+//                                                                  //
+//  Full licence texts are included in the LICENCE file with        //
+//  this library.                                                   //
+//                                                                  //
+//  Author contacts: P.H.Welch@kent.ac.uk K.Chalmers@napier.ac.uk   //
+//                                                                  //
+//////////////////////////////////////////////////////////////////////
+
+package jcsp.util.longs;
+
+import java.io.Serializable;
+
+/**
+ * This is used to create a zero-buffered long channel that never loses data.
+ * <H2>Description</H2>
+ * <TT>ZeroBufferLong</TT> is an implementation of <TT>ChannelDataStoreLong</TT> that yields
+ * the standard <I><B>CSP</B></I> semantics for a channel -- that is zero buffered with
+ * direct synchronisation between reader and writer.  Unless specified otherwise,
+ * this is the default behaviour for channels.
+ * See the <tt>static</tt> construction methods of {@link jcsp.lang.Channel}
+ * ({@link jcsp.lang.Channel#one2oneLong(jcsp.util.longs.ChannelDataStoreLong)} etc.).
+ * <P>
+ * The <TT>getState</TT> method will return <TT>FULL</TT> if there is an output
+ * waiting on the channel and <TT>EMPTY</TT> if there is not.
+ *
+ * @see BufferLong
+ * @see jcsp.util.longs.OverWriteOldestBufferLong
+ * @see jcsp.util.longs.OverWritingBufferLong
+ * @see jcsp.util.longs.OverFlowingBufferLong
+ * @see jcsp.util.longs.InfiniteBufferLong
+ * @see jcsp.lang.Channel
+ *
+ * @author P.D. Austin
+ */
+//}}}
+
+public class ZeroBufferLong implements ChannelDataStoreLong, Serializable
+{
+    /** The current state */
+    private int state = EMPTY;
+
+    /** The long */
+    private long value;
+
+    /**
+     * Returns the <TT>long</TT> from the <TT>ZeroBufferLong</TT>.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+     *
+     * @return the <TT>long</TT> from the <TT>ZeroBufferLong</TT>
+     */
+    public long get()
+    {
+        state = EMPTY;
+        long o = value;
+        return o;
+    }
+    
+    /**
+     * Begins an extended rendezvous - simply returns the next long in the buffer.  
+     * This function does not remove the long.
+     * 
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>EMPTY</TT>.
+     * 
+     * @return The long in the buffer. 
+     */
+    public long startGet() {
+      return value;     
+    }
+    
+    /**
+     * Ends the extended rendezvous by clearing the buffer.
+     */
+    public void endGet() {      
+      state = EMPTY;      
+    }
+
+    /**
+     * Puts a new <TT>long</TT> into the <TT>ZeroBufferLong</TT>.
+     * <P>
+     * <I>Pre-condition</I>: <TT>getState</TT> must not currently return <TT>FULL</TT>.
+     *
+     * @param value the long to put into the ZeroBufferLong
+     */
+    public void put(long value)
+    {
+        state = FULL;
+        this.value = value;
+    }
+
+    /**
+     * Returns the current state of the <TT>ZeroBufferLong</TT>.
+     *
+     * @return the current state of the <TT>ZeroBufferLong</TT> (<TT>EMPTY</TT>
+     * or <TT>FULL</TT>)
+     */
+    public int getState()
+    {
+        return state;
+    }
+
+    /**
+     * Returns a new (and <TT>EMPTY</TT>) <TT>ZeroBufferLong</TT> with the same
+     * creation parameters as this one.
+     * <P>
+     * <I>Note: Only the size and structure of the </I><TT>ZeroBufferLong</TT><I> is
+     * cloned, not any stored data.</I>
+     *
+     * @return the cloned instance of this <TT>ZeroBufferLong</TT>.
+     */
+    public Object clone()
+    {
+        return new ZeroBufferLong();
+    }
+    
+    public void removeAll()
+    {
+    	state = EMPTY;
+    }    
+}
@@ -21,13 +21,32 @@
 package extendedRendezvous;
 
 import jcsp.lang.*;
+import jcsp.net2.CodecNetworkMessageFilter;
+import jcsp.net2.NetAltingChannelInput;
+import jcsp.net2.NetChannel;
+import jcsp.net2.NetChannelLocation;
+import jcsp.net2.NetChannelOutput;
+import jcsp.net2.Node;
+import jcsp.net2.tcpip.TCPIPNodeAddress;
 import jcsp.util.Buffer;
 import jcsp.util.OverFlowingBuffer;
+import jcsp.util.doubles.BufferDouble;
 import jcsp.util.ints.BufferInt;
+import jcsp.util.longs.BufferLong;
 import junit.framework.TestCase;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TestExtendedRendezvous extends TestCase {
 
@@ -52,6 +71,22 @@ public class TestExtendedRendezvous extends TestCase {
 	    }     
 	  }
   
+  public void assertArraysEqual(long[] a,long[] b) {
+	    assertEquals(a.length,b.length);
+	    
+	    for (int i = 0;i < a.length;i++) {
+	      assertEquals(a[i],b[i]);
+	    }     
+	  }
+  
+  public void assertArraysEqual(double[] a,double[] b) {
+	    assertEquals(a.length,b.length);
+	    
+	    for (int i = 0;i < a.length;i++) {
+	      assertEquals(a[i],b[i],0.0);
+	    }     
+	  }
+  
   public void helper_testChannelOneWriter(ChannelInput in, ChannelOutput out) {
     
     /*
@@ -119,6 +154,11 @@ public class TestExtendedRendezvous extends TestCase {
 	  helper_testChannelOneWriter(chan.in(), chan.out());
   }
 
+  public void testSpinningOne2OneChannel() {
+	  One2OneChannel chan = Channel.one2oneSpinning();
+	  helper_testChannelOneWriter(chan.in(), chan.out());
+  }
+
   public void helper_testIntChannelOneWriter(ChannelInputInt in, ChannelOutputInt out) {
 
 	    /*
@@ -185,6 +225,140 @@ public class TestExtendedRendezvous extends TestCase {
 		  Any2AnyChannelInt chan = Channel.any2anyInt();
 		  helper_testIntChannelOneWriter(chan.in(), chan.out());
 	  }
+
+  public void helper_testLongChannelOneWriter(ChannelInputLong in, ChannelOutputLong out) {
+
+	    /*
+	     * This test checks that the reads and writes occur in the right order during an extended rendezvous
+	     *
+	     *  Specifically , it checks that the extended action always occurs before the write has finished
+	     *
+	     * The event-recorder offers a read event, a write event and a terminate event
+	     * The terminate event is only done (by the BarrierSyncer) once the other processes have finished
+	     *
+	     * The writer offers the write event *after* each write.
+	     * The reader offers the single read event during each extended rendezvous.
+	     *
+	     * Therefore the events should be in lock-step:
+	     * read,write,read,write...
+	     */
+
+	    AltingBarrier[] terminateEvent = AltingBarrier.create(2);
+
+	    AltingBarrier[] writeEvent = AltingBarrier.create(2);
+	    AltingBarrier[] readEvent = AltingBarrier.create(2);
+
+	    EventRecorder recorder;
+
+	    new Parallel( new CSProcess[] {
+	        recorder = new EventRecorder(new Guard[] {writeEvent[0],readEvent[0],terminateEvent[0]},2),
+	        new Sequence(new CSProcess[] {
+	            new Parallel( new CSProcess[] {
+	                new WriterProcessLong(out,new long[100],writeEvent[1]),
+	                new ExtendedReaderSyncLong(readEvent[1],in,100)
+	            }),
+	            new BarrierSyncer(terminateEvent[1])
+	        })
+	    }).run();
+	    
+	    Guard[] expectedEvents = new Guard[201];
+	    
+	    for (int i = 0;i < 100;i++) {
+	      expectedEvents[i*2 + 0] = readEvent[0];
+	      expectedEvents[i*2 + 1] = writeEvent[0];      
+	    }
+	    
+	    expectedEvents[200] = terminateEvent[0];
+	    
+	    assertArraysEqual(expectedEvents,recorder.getObservedEvents());
+	  }
+	  
+	  public void testNormalOne2OneChannelLong() {
+		  One2OneChannelLong chan = Channel.one2oneLong();
+		  helper_testLongChannelOneWriter(chan.in(), chan.out());  
+	  }
+	  
+	  public void testNormalAny2OneChannelLong() {
+		  Any2OneChannelLong chan = Channel.any2oneLong();
+		  helper_testLongChannelOneWriter(chan.in(), chan.out());  
+	  }
+	  
+	  public void testNormalOne2AnyChannelLong() {
+		  One2AnyChannelLong chan = Channel.one2anyLong();
+		  helper_testLongChannelOneWriter(chan.in(), chan.out());  
+	  }
+	  
+	  public void testNormalAny2AnyChannelLong() {
+		  Any2AnyChannelLong chan = Channel.any2anyLong();
+		  helper_testLongChannelOneWriter(chan.in(), chan.out());
+	  }
+
+  public void helper_testDoubleChannelOneWriter(ChannelInputDouble in, ChannelOutputDouble out) {
+
+	    /*
+	     * This test checks that the reads and writes occur in the right order during an extended rendezvous
+	     *
+	     *  Specifically , it checks that the extended action always occurs before the write has finished
+	     *
+	     * The event-recorder offers a read event, a write event and a terminate event
+	     * The terminate event is only done (by the BarrierSyncer) once the other processes have finished
+	     *
+	     * The writer offers the write event *after* each write.
+	     * The reader offers the single read event during each extended rendezvous.
+	     *
+	     * Therefore the events should be in lock-step:
+	     * read,write,read,write...
+	     */
+
+	    AltingBarrier[] terminateEvent = AltingBarrier.create(2);
+
+	    AltingBarrier[] writeEvent = AltingBarrier.create(2);
+	    AltingBarrier[] readEvent = AltingBarrier.create(2);
+
+	    EventRecorder recorder;
+
+	    new Parallel( new CSProcess[] {
+	        recorder = new EventRecorder(new Guard[] {writeEvent[0],readEvent[0],terminateEvent[0]},2),
+	        new Sequence(new CSProcess[] {
+	            new Parallel( new CSProcess[] {
+	                new WriterProcessDouble(out,new double[100],writeEvent[1]),
+	                new ExtendedReaderSyncDouble(readEvent[1],in,100)
+	            }),
+	            new BarrierSyncer(terminateEvent[1])
+	        })
+	    }).run();
+	    
+	    Guard[] expectedEvents = new Guard[201];
+	    
+	    for (int i = 0;i < 100;i++) {
+	      expectedEvents[i*2 + 0] = readEvent[0];
+	      expectedEvents[i*2 + 1] = writeEvent[0];      
+	    }
+	    
+	    expectedEvents[200] = terminateEvent[0];
+	    
+	    assertArraysEqual(expectedEvents,recorder.getObservedEvents());
+	  }
+	  
+	  public void testNormalOne2OneChannelDouble() {
+		  One2OneChannelDouble chan = Channel.one2oneDouble();
+		  helper_testDoubleChannelOneWriter(chan.in(), chan.out());  
+	  }
+	  
+	  public void testNormalAny2OneChannelDouble() {
+		  Any2OneChannelDouble chan = Channel.any2oneDouble();
+		  helper_testDoubleChannelOneWriter(chan.in(), chan.out());  
+	  }
+	  
+	  public void testNormalOne2AnyChannelDouble() {
+		  One2AnyChannelDouble chan = Channel.one2anyDouble();
+		  helper_testDoubleChannelOneWriter(chan.in(), chan.out());  
+	  }
+	  
+	  public void testNormalAny2AnyChannelDouble() {
+		  Any2AnyChannelDouble chan = Channel.any2anyDouble();
+		  helper_testDoubleChannelOneWriter(chan.in(), chan.out());
+	  }
   
   
   
@@ -237,6 +411,22 @@ public class TestExtendedRendezvous extends TestCase {
 	    helper_testFIFOChannelOneWriter(chan1.in(), chan1.out());
 	  }
   
+  public void testFIFO_One2OneRingChannel() {  
+    One2OneChannel chan4 = Channel.one2oneRing(4);
+    helper_testFIFOChannelOneWriter(chan4.in(), chan4.out());
+    
+    One2OneChannel chan1 = Channel.one2oneRing(1);
+    helper_testFIFOChannelOneWriter(chan1.in(), chan1.out());
+  }
+
+  public void testFIFO_Any2OneRingChannel() {  
+    Any2OneChannel chan4 = Channel.any2oneRing(4);
+    helper_testFIFOChannelOneWriter(chan4.in(), chan4.out());
+    
+    Any2OneChannel chan1 = Channel.any2oneRing(1);
+    helper_testFIFOChannelOneWriter(chan1.in(), chan1.out());
+  }
+  
   public void testFIFO_One2AnyChannel() {  
 	    One2AnyChannel chan4 = Channel.one2any(new Buffer(4));
 	    helper_testFIFOChannelOneWriter(chan4.in(), chan4.out());
@@ -315,6 +505,877 @@ public class TestExtendedRendezvous extends TestCase {
 		  }
   
   
+  //The given channel should be using a FIFO buffer (of any size >= 1)
+  public void helper_testFIFOChannelOneWriterLong(ChannelInputLong in, ChannelOutputLong out) {
+	    
+	    /*
+	     * Since the reads and writes are fairly independent, this test instead checks
+	     * that all the data flows in the correct write order without getting lost, even when the
+	     * reader is slower than the writer
+	     * 
+	     */
+
+	    AltingBarrier[] delayEvent = AltingBarrier.create(2);
+	            
+	    ExtendedReaderSyncLong reader;
+	    
+	    long[] values = new long[100];
+	    
+	    for (int i = 0;i < 100;i++) {
+	      values[i] = ((long) i << 33) + i; 
+	    }
+	    
+	    new Parallel( new CSProcess[] {
+	        new DelaySyncer(delayEvent[0],5,100),
+	        new WriterProcessLong(out,values,(AltingBarrier)null),
+	        reader = new ExtendedReaderSyncLong(delayEvent[1],in,100)
+	    }).run();
+	            	    
+	    assertArraysEqual(values,reader.getValuesRead());
+	  }
+	  
+	  public void testFIFO_One2OneChannelLong() {  
+	    One2OneChannelLong chan4 = Channel.one2oneLong(new BufferLong(4));
+	    helper_testFIFOChannelOneWriterLong(chan4.in(), chan4.out());
+	    
+	    One2OneChannelLong chan1 = Channel.one2oneLong(new BufferLong(1));
+	    helper_testFIFOChannelOneWriterLong(chan1.in(), chan1.out());
+	  }
+
+	  public void testFIFO_Any2OneChannelLong() {  
+		    Any2OneChannelLong chan4 = Channel.any2oneLong(new BufferLong(4));
+		    helper_testFIFOChannelOneWriterLong(chan4.in(), chan4.out());
+		    
+		    Any2OneChannelLong chan1 = Channel.any2oneLong(new BufferLong(1));
+		    helper_testFIFOChannelOneWriterLong(chan1.in(), chan1.out());
+		  }
+	  
+	  public void testFIFO_One2AnyChannelLong() {  
+		    One2AnyChannelLong chan4 = Channel.one2anyLong(new BufferLong(4));
+		    helper_testFIFOChannelOneWriterLong(chan4.in(), chan4.out());
+		    
+		    One2AnyChannelLong chan1 = Channel.one2anyLong(new BufferLong(1));
+		    helper_testFIFOChannelOneWriterLong(chan1.in(), chan1.out());
+		  }
+	  
+	  public void testFIFO_Any2AnyChannelLong() {  
+		    Any2AnyChannelLong chan4 = Channel.any2anyLong(new BufferLong(4));
+		    helper_testFIFOChannelOneWriterLong(chan4.in(), chan4.out());
+		    
+		    Any2AnyChannelLong chan1 = Channel.any2anyLong(new BufferLong(1));
+		    helper_testFIFOChannelOneWriterLong(chan1.in(), chan1.out());
+		  }
+
+  //The given channel should be using a FIFO buffer (of any size >= 1)
+  public void helper_testFIFOChannelOneWriterDouble(ChannelInputDouble in, ChannelOutputDouble out) {
+	    
+	    /*
+	     * Since the reads and writes are fairly independent, this test instead checks
+	     * that all the data flows in the correct write order without getting lost, even when the
+	     * reader is slower than the writer
+	     * 
+	     */
+
+	    AltingBarrier[] delayEvent = AltingBarrier.create(2);
+	            
+	    ExtendedReaderSyncDouble reader;
+	    
+	    double[] values = new double[100];
+	    
+	    for (int i = 0;i < 100;i++) {
+	      values[i] = i + 0.5; 
+	    }
+	    
+	    new Parallel( new CSProcess[] {
+	        new DelaySyncer(delayEvent[0],5,100),
+	        new WriterProcessDouble(out,values,(AltingBarrier)null),
+	        reader = new ExtendedReaderSyncDouble(delayEvent[1],in,100)
+	    }).run();
+	            	    
+	    assertArraysEqual(values,reader.getValuesRead());
+	  }
+	  
+	  public void testFIFO_One2OneChannelDouble() {  
+	    One2OneChannelDouble chan4 = Channel.one2oneDouble(new BufferDouble(4));
+	    helper_testFIFOChannelOneWriterDouble(chan4.in(), chan4.out());
+	    
+	    One2OneChannelDouble chan1 = Channel.one2oneDouble(new BufferDouble(1));
+	    helper_testFIFOChannelOneWriterDouble(chan1.in(), chan1.out());
+	  }
+
+	  public void testFIFO_Any2OneChannelDouble() {  
+		    Any2OneChannelDouble chan4 = Channel.any2oneDouble(new BufferDouble(4));
+		    helper_testFIFOChannelOneWriterDouble(chan4.in(), chan4.out());
+		    
+		    Any2OneChannelDouble chan1 = Channel.any2oneDouble(new BufferDouble(1));
+		    helper_testFIFOChannelOneWriterDouble(chan1.in(), chan1.out());
+		  }
+	  
+	  public void testFIFO_One2AnyChannelDouble() {  
+		    One2AnyChannelDouble chan4 = Channel.one2anyDouble(new BufferDouble(4));
+		    helper_testFIFOChannelOneWriterDouble(chan4.in(), chan4.out());
+		    
+		    One2AnyChannelDouble chan1 = Channel.one2anyDouble(new BufferDouble(1));
+		    helper_testFIFOChannelOneWriterDouble(chan1.in(), chan1.out());
+		  }
+	  
+	  public void testFIFO_Any2AnyChannelDouble() {  
+		    Any2AnyChannelDouble chan4 = Channel.any2anyDouble(new BufferDouble(4));
+		    helper_testFIFOChannelOneWriterDouble(chan4.in(), chan4.out());
+		    
+		    Any2AnyChannelDouble chan1 = Channel.any2anyDouble(new BufferDouble(1));
+		    helper_testFIFOChannelOneWriterDouble(chan1.in(), chan1.out());
+		  }
+  
+  
+  public void testSlabOne2OneChannel() {
+    /*
+     * Checks that messages written by copy and built in place both arrive intact
+     * and in order, whether read by copy or in place, through a slab smaller than
+     * the number of messages
+     */
+    final One2OneChannelSlab chan = Channel.one2oneSlab(4, 16);
+    final SlabChannelOutput out = chan.out();
+    final AltingChannelInput<ByteBuffer> in = chan.in();
+    final long[] valuesRead = new long[100];
+
+    new Parallel( new CSProcess[] {
+        new CSProcess() {
+          public void run() {
+            ByteBuffer message = ByteBuffer.allocate(8);
+            for (int i = 0;i < 100;i++) {
+              if (i % 2 == 0) {
+                message.clear();
+                message.putLong(i);
+                message.flip();
+                out.write(message);
+                assertEquals(0,message.position());
+              } else {
+                out.claim().putLong(i);
+                out.commit();
+              }
+            }
+          }
+        },
+        new CSProcess() {
+          public void run() {
+            for (int i = 0;i < 100;i++) {
+              if (i % 3 == 0) {
+                valuesRead[i] = in.read().getLong();
+              } else {
+                ByteBuffer view = in.startRead();
+                assertEquals(8,view.remaining());
+                valuesRead[i] = view.getLong();
+                in.endRead();
+              }
+            }
+          }
+        }
+    }).run();
+
+    for (int i = 0;i < 100;i++) {
+      assertEquals(i,valuesRead[i]);
+    }
+  }
+
+  public void testSlabOne2OneChannelUnbalancedEndRead() {
+    One2OneChannelSlab chan = Channel.one2oneSlab(2, 8);
+    AltingChannelInput<ByteBuffer> in = chan.in();
+
+    try {
+      in.endRead();
+      fail("endRead without startRead should throw");
+    } catch (IllegalStateException e) {
+    }
+
+    ByteBuffer message42 = ByteBuffer.allocate(8);
+    message42.putLong(42);
+    message42.flip();
+    chan.out().write(message42);
+    assertEquals(42,in.startRead().getLong());
+    in.endRead();
+    try {
+      in.endRead();
+      fail("second endRead should throw");
+    } catch (IllegalStateException e) {
+    }
+
+    // The channel is still usable
+    ByteBuffer message43 = ByteBuffer.allocate(8);
+    message43.putLong(43);
+    message43.flip();
+    chan.out().write(message43);
+    assertEquals(43,in.read().getLong());
+  }
+
+  public void testTimerServiceAlt() {
+    /*
+     * Checks that a CSTimer whose alarms are fired by a TimerService is the guard
+     * selected when ALTed against a channel that is never written, and that it is
+     * not selected before its timeout (less the early timeout that CSTimer allows)
+     */
+    One2OneChannel chan = Channel.one2one();
+    CSTimer tim = new CSTimer(new TimerService(3000000L));
+    Alternative alt = new Alternative(new Guard[] {chan.in(), tim});
+
+    for (int i = 0;i < 10;i++) {
+      long start = System.currentTimeMillis();
+      tim.setAlarm(start + 20);
+      assertEquals(1,alt.select());
+      assertTrue(System.currentTimeMillis() >= start + 10);
+    }
+  }
+
+  public void testTimerServiceCancelledAlarms() throws InterruptedException {
+    /*
+     * Each select enables a CSTimer with an hour to run, then takes the Skip guard,
+     * so cancelling the timer's alarm.  The cancelled alarms must be unlinked from
+     * the wheel (not held there for the hour) and must not keep their Alternatives
+     * reachable.
+     */
+    TimerService service = new TimerService(1000000L);
+    CSTimer tim = new CSTimer(service);
+    java.lang.ref.WeakReference<Alternative> lastAlt = null;
+
+    for (int i = 0;i < 10000;i++) {
+      Alternative alt = new Alternative(new Guard[] {tim, new Skip()});
+      tim.setAlarm(tim.read() + 3600000);
+      assertEquals(1,alt.priSelect());
+      lastAlt = new java.lang.ref.WeakReference<Alternative>(alt);
+    }
+
+    long deadline = System.currentTimeMillis() + 10000;
+    while (((service.getAlarmCount() != 0) || (lastAlt.get() != null))
+           && (System.currentTimeMillis() < deadline)) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertEquals(0,service.getAlarmCount());
+    assertNull(lastAlt.get());
+  }
+
+  public void testProcessRegistryBarrierNotDeadlocked() throws InterruptedException {
+    /*
+     * Two of the three processes enrolled on a barrier wait there while the third
+     * is still busy with its first piece of work: that is not a deadlock, although
+     * each waiting process has only seen the other.
+     */
+    final Barrier bar = new Barrier(3);
+    final CSProcess waiter = new CSProcess() {
+      public void run() {
+        bar.sync();
+      }
+    };
+    final CSProcess busy = new CSProcess() {
+      public void run() {
+        new CSTimer().sleep(300);
+        bar.sync();
+      }
+    };
+
+    ProcessRegistry.setEnabled(true);
+    try {
+      Thread network = new Thread() {
+        public void run() {
+          new Parallel(new CSProcess[] {waiter, waiter, busy}).run();
+        }
+      };
+      network.start();
+      while (network.isAlive()) {
+        assertTrue(ProcessRegistry.findDeadlocks(5000000L).isEmpty());
+        Thread.sleep(10);
+      }
+    } finally {
+      ProcessRegistry.setEnabled(false);
+    }
+  }
+
+  public void testProcessRegistryCrossReadDeadlock() throws InterruptedException {
+    /*
+     * Two processes exchange one message each way (so that the registry learns
+     * who is at each end of both channels) and then both read: each waits for the
+     * other, which the detector should report as a single deadlock of two processes.
+     * Poisoning the channels then releases them.
+     */
+    final One2OneChannel<Integer> a = Channel.one2one(0);
+    final One2OneChannel<Integer> b = Channel.one2one(0);
+    final CSProcess first = new CSProcess() {
+      public void run() {
+        try {
+          b.out().write(1);
+          a.in().read();
+          a.in().read();
+        } catch (PoisonException e) {
+        }
+      }
+    };
+    final CSProcess second = new CSProcess() {
+      public void run() {
+        try {
+          b.in().read();
+          a.out().write(2);
+          b.in().read();
+        } catch (PoisonException e) {
+        }
+      }
+    };
+
+    ProcessRegistry.setEnabled(true);
+    try {
+      Thread network = new Thread() {
+        public void run() {
+          new Parallel(new CSProcess[] {first, second}).run();
+        }
+      };
+      network.start();
+
+      java.util.List<java.util.List<ProcessRegistry.ProcessInfo>> deadlocks = Collections.emptyList();
+      long deadline = System.currentTimeMillis() + 10000;
+      while (deadlocks.isEmpty() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+        deadlocks = ProcessRegistry.findDeadlocks(5000000L);
+      }
+      assertEquals(1,deadlocks.size());
+      assertEquals(2,deadlocks.get(0).size());
+      for (ProcessRegistry.ProcessInfo p : deadlocks.get(0)) {
+        assertTrue(p.getProcess() == first || p.getProcess() == second);
+        assertEquals(ProcessRegistry.Role.READ,p.getRole());
+      }
+
+      a.out().poison(1);
+      b.out().poison(1);
+      network.join(10000);
+      assertFalse(network.isAlive());
+      assertTrue(ProcessRegistry.findDeadlocks(0).isEmpty());
+    } finally {
+      ProcessRegistry.setEnabled(false);
+    }
+  }
+
+  public void testWindowedNetChannelSlowReader() throws InterruptedException {
+    /*
+     * With a window smaller than the input end's credit batch, a slow reader must
+     * still return credit before the window is drained, so the writer always has
+     * messages waiting ahead of the reader rather than running stop-and-wait.
+     */
+    final int n = 40;
+    final int window = 4;
+    Node.getInstance().init(new TCPIPNodeAddress("127.0.0.1", 0));
+    NetAltingChannelInput<Integer> in = NetChannel.net2one();
+    final NetChannelOutput<Integer> out =
+      NetChannel.windowedOne2net((NetChannelLocation) in.getLocation(), window);
+    final AtomicInteger written = new AtomicInteger();
+    Thread writer = new Thread() {
+      public void run() {
+        for (int i = 0; i < n; i++) {
+          out.write(Integer.valueOf(i));
+          written.incrementAndGet();
+        }
+      }
+    };
+    writer.start();
+
+    int leastAhead = window;
+    for (int i = 0; i < n; i++) {
+      Thread.sleep(5);
+      if (i < n - window) {
+        leastAhead = Math.min(leastAhead, written.get() - i);
+      }
+      assertEquals(i, in.read().intValue());
+    }
+    writer.join(5000);
+    assertFalse(writer.isAlive());
+    assertTrue("writer fell to " + leastAhead + " message(s) ahead", leastAhead > window / 2);
+    in.destroy();
+    out.destroy();
+  }
+
+  public void testForkJoinExecutorNestedParallel() {
+    /*
+     * Each of the outer processes runs an inner Parallel on the same pool of two
+     * workers, so the workers must run the inner processes while they join them.
+     */
+    final ForkJoinExecutor fj = new ForkJoinExecutor(2);
+    final AtomicInteger count = new AtomicInteger();
+    final CSProcess[] outer = new CSProcess[4];
+    for (int i = 0; i < outer.length; i++) {
+      final CSProcess[] inner = new CSProcess[8];
+      for (int j = 0; j < inner.length; j++) {
+        inner[j] = new CSProcess() {
+          public void run() {
+            count.incrementAndGet();
+          }
+        };
+      }
+      final Parallel par = new Parallel(inner);
+      par.setExecutor(fj);
+      outer[i] = par;
+    }
+    final Parallel par = new Parallel(outer);
+    par.setExecutor(fj);
+    for (int run = 1; run <= 100; run++) {
+      par.run();
+      assertEquals(run * 32, count.get());
+    }
+    fj.shutdown();
+  }
+
+  public void testForkJoinExecutorInterruptAndException() {
+    /*
+     * A process that is interrupted in the invoking position interrupts the
+     * processes forked by its Parallel; a process that throws is reported and
+     * does not stop the Parallel terminating.
+     */
+    final ForkJoinExecutor fj = new ForkJoinExecutor(2);
+    final AtomicInteger interrupted = new AtomicInteger();
+    final AtomicInteger finished = new AtomicInteger();
+    final CSProcess sleeper = new CSProcess() {
+      public void run() {
+        try {
+          new CSTimer().sleep(60000);
+        } catch (ProcessInterruptedException e) {
+          interrupted.incrementAndGet();
+        }
+      }
+    };
+    final CSProcess thrower = new CSProcess() {
+      public void run() {
+        throw new IllegalStateException("thrown on purpose");
+      }
+    };
+    final CSProcess worker = new CSProcess() {
+      public void run() {
+        finished.incrementAndGet();
+      }
+    };
+    final CSProcess interrupter = new CSProcess() {
+      public void run() {
+        throw new ProcessInterruptedException("interrupted on purpose");
+      }
+    };
+    final Parallel inner = new Parallel(new CSProcess[] {sleeper, sleeper, thrower, worker, interrupter});
+    inner.setExecutor(fj);
+    final Parallel outer = new Parallel(new CSProcess[] {inner, worker});
+    outer.setExecutor(fj);
+
+    Parallel.setUncaughtExceptionDisplay(false);
+    try {
+      long start = System.currentTimeMillis();
+      inner.run();
+      outer.run();
+      assertTrue(System.currentTimeMillis() - start < 30000);
+    } finally {
+      Parallel.setUncaughtExceptionDisplay(true);
+    }
+    assertEquals(4, interrupted.get());
+    assertEquals(3, finished.get());
+    fj.shutdown();
+  }
+
+  public void testProcessPoolOverflowBoundedAndNamedUniquely() throws InterruptedException {
+    /*
+     * Two pooled threads and two overflow threads: a fifth process waits for one
+     * of the first four to finish, and every running process is counted active.
+     * A second pool of the same name is registered under a name of its own.
+     */
+    final ProcessPool pool = new ProcessPool("test-pool", 2);
+    final ProcessPool twin = new ProcessPool("test-pool", 2);
+    try {
+      assertEquals("test-pool", pool.getName());
+      assertEquals("test-pool#1", twin.getName());
+      assertEquals(2, pool.getMaxOverflowThreads());
+
+      final Barrier release = new Barrier(5);
+      final Runnable held = new Runnable() {
+        public void run() {
+          release.sync();
+        }
+      };
+      for (int i = 0; i < 4; i++) {
+        pool.execute(held);
+      }
+      while (pool.getActiveProcesses() < 4) {
+        Thread.sleep(1);
+      }
+      assertEquals(2, pool.getOverflowThreads());
+      assertEquals(2, pool.getOverflowProcesses());
+
+      final Thread submitter = new Thread() {
+        public void run() {
+          pool.execute(new Runnable() {
+            public void run() {
+            }
+          });
+        }
+      };
+      submitter.start();
+      submitter.join(200);
+      assertTrue(submitter.isAlive());
+      assertEquals(1, pool.getBlockedSubmissions());
+
+      release.sync();
+      submitter.join(5000);
+      assertFalse(submitter.isAlive());
+      while (pool.getCompletedProcesses() < 5) {
+        Thread.sleep(1);
+      }
+      assertEquals(0, pool.getActiveProcesses());
+    } finally {
+      pool.shutdown();
+      twin.shutdown();
+    }
+  }
+
+  /**
+   * Encodes the object with a CodecNetworkMessageFilter and decodes it again.
+   */
+  private static Object codecRoundTrip(Object obj) throws IOException {
+    byte[] bytes = new CodecNetworkMessageFilter.FilterTX().filterTX(obj);
+    return new CodecNetworkMessageFilter.FilterRX().filterRX(bytes);
+  }
+
+  private static void assertCodecRoundTrip(Object obj) throws IOException {
+    Object copy = codecRoundTrip(obj);
+    assertEquals(obj.getClass(), copy.getClass());
+    assertEquals(obj, copy);
+  }
+
+  public void testCodecFilterNumberBoundaries() throws IOException {
+    int[] ints = {0, 1, -1, 63, -64, 64, -65, 8191, -8192, 8192, -8193,
+                  Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1};
+    for (int i = 0; i < ints.length; i++) {
+      assertCodecRoundTrip(Integer.valueOf(ints[i]));
+      assertCodecRoundTrip(Long.valueOf(ints[i]));
+    }
+    long[] longs = {Long.MAX_VALUE, Long.MIN_VALUE, 1L << 35, -(1L << 35), (1L << 62) - 1, -(1L << 62)};
+    for (int i = 0; i < longs.length; i++) {
+      assertCodecRoundTrip(Long.valueOf(longs[i]));
+    }
+    assertCodecRoundTrip(Short.valueOf(Short.MIN_VALUE));
+    assertCodecRoundTrip(Short.valueOf(Short.MAX_VALUE));
+    assertCodecRoundTrip(Byte.valueOf(Byte.MIN_VALUE));
+    assertCodecRoundTrip(Byte.valueOf(Byte.MAX_VALUE));
+    assertCodecRoundTrip(Character.valueOf('\u0000'));
+    assertCodecRoundTrip(Character.valueOf('\uffff'));
+    assertCodecRoundTrip(Boolean.TRUE);
+    assertCodecRoundTrip(Boolean.FALSE);
+    assertCodecRoundTrip(Float.valueOf(Float.NaN));
+    assertCodecRoundTrip(Float.valueOf(-0.0f));
+    assertCodecRoundTrip(Float.valueOf(Float.NEGATIVE_INFINITY));
+    assertCodecRoundTrip(Float.valueOf(Float.MIN_VALUE));
+    assertCodecRoundTrip(Double.valueOf(Double.NaN));
+    assertCodecRoundTrip(Double.valueOf(-0.0));
+    assertCodecRoundTrip(Double.valueOf(Double.POSITIVE_INFINITY));
+    assertCodecRoundTrip(Double.valueOf(Double.MAX_VALUE));
+
+    // Zigzag keeps small negative numbers small: a type byte and one value byte
+    CodecNetworkMessageFilter.FilterTX tx = new CodecNetworkMessageFilter.FilterTX();
+    assertEquals(2, tx.filterTX(Integer.valueOf(-64)).length);
+    assertEquals(3, tx.filterTX(Integer.valueOf(-65)).length);
+    assertEquals(6, tx.filterTX(Integer.valueOf(Integer.MIN_VALUE)).length);
+    assertEquals(11, tx.filterTX(Long.valueOf(Long.MIN_VALUE)).length);
+  }
+
+  public void testCodecFilterStrings() throws IOException {
+    String[] strings = {"", "plain ascii", "caf\u00e9", "\u07ff\u0800", "\uffff\u0000",
+                        "\ud83d\ude00 surrogate pair", "lone \ud800 high", "lone \udc00 low", "\udc00\ud800"};
+    for (int i = 0; i < strings.length; i++) {
+      assertCodecRoundTrip(strings[i]);
+    }
+    char[] all = new char[65536];
+    for (int c = 0; c < all.length; c++) {
+      all[c] = (char) c;
+    }
+    assertCodecRoundTrip(new String(all));
+  }
+
+  public void testCodecFilterArraysAndCollections() throws IOException {
+    byte[] bytes = {0, -1, Byte.MIN_VALUE, Byte.MAX_VALUE};
+    assertTrue(Arrays.equals(bytes, (byte[]) codecRoundTrip(bytes)));
+    int[] ints = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    assertTrue(Arrays.equals(ints, (int[]) codecRoundTrip(ints)));
+    long[] longs = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+    assertTrue(Arrays.equals(longs, (long[]) codecRoundTrip(longs)));
+    float[] floats = {0, -0.0f, Float.NaN, Float.MAX_VALUE};
+    assertTrue(Arrays.equals(floats, (float[]) codecRoundTrip(floats)));
+    double[] doubles = {0, -0.0, Double.NaN, Double.MIN_VALUE};
+    assertTrue(Arrays.equals(doubles, (double[]) codecRoundTrip(doubles)));
+    boolean[] booleans = {true, false, true};
+    assertTrue(Arrays.equals(booleans, (boolean[]) codecRoundTrip(booleans)));
+    assertEquals(0, ((int[]) codecRoundTrip(new int[0])).length);
+
+    Object[] objects = {null, "s", Integer.valueOf(1), new int[] {2, 3}, new Object[] {"nested", null}};
+    assertTrue(Arrays.deepEquals(objects, (Object[]) codecRoundTrip(objects)));
+
+    ArrayList<Object> arrayList = new ArrayList<Object>(Arrays.asList(new Object[] {"a", null, Long.valueOf(7)}));
+    assertCodecRoundTrip(arrayList);
+    assertCodecRoundTrip(new LinkedList<Object>(arrayList));
+    assertCodecRoundTrip(new HashSet<Object>(arrayList));
+    LinkedHashSet<Object> linkedSet = new LinkedHashSet<Object>(Arrays.asList(new Object[] {"z", "y", "x"}));
+    assertEquals(new ArrayList<Object>(linkedSet),
+                 new ArrayList<Object>((LinkedHashSet<?>) codecRoundTrip(linkedSet)));
+
+    HashMap<Object, Object> map = new HashMap<Object, Object>();
+    map.put("list", arrayList);
+    map.put(Integer.valueOf(1), null);
+    map.put(null, "null key");
+    assertCodecRoundTrip(map);
+    LinkedHashMap<Object, Object> linkedMap = new LinkedHashMap<Object, Object>();
+    linkedMap.put("c", Integer.valueOf(3));
+    linkedMap.put("a", Integer.valueOf(1));
+    linkedMap.put("b", map);
+    LinkedHashMap<?, ?> linkedCopy = (LinkedHashMap<?, ?>) codecRoundTrip(linkedMap);
+    assertEquals(linkedMap, linkedCopy);
+    assertEquals(new ArrayList<Object>(linkedMap.keySet()), new ArrayList<Object>(linkedCopy.keySet()));
+    assertNull(codecRoundTrip(null));
+  }
+
+  /**
+   * A value type encoded by a codec registered in testCodecFilterUserCodec.
+   */
+  static final class CodecPoint {
+    final int x;
+    final int y;
+
+    CodecPoint(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    public boolean equals(Object obj) {
+      return (obj instanceof CodecPoint) && ((CodecPoint) obj).x == x && ((CodecPoint) obj).y == y;
+    }
+
+    public int hashCode() {
+      return 31 * x + y;
+    }
+  }
+
+  public void testCodecFilterUserCodec() throws IOException {
+    CodecNetworkMessageFilter.register(CodecNetworkMessageFilter.FIRST_USER_TYPE + 7, CodecPoint.class,
+      new CodecNetworkMessageFilter.Codec<CodecPoint>() {
+        public void encode(CodecPoint p, CodecNetworkMessageFilter.Encoder out) {
+          out.writeInt(p.x);
+          out.writeInt(p.y);
+        }
+
+        public CodecPoint decode(CodecNetworkMessageFilter.Decoder in) throws IOException {
+          return new CodecPoint(in.readInt(), in.readInt());
+        }
+      });
+    assertCodecRoundTrip(new CodecPoint(-5, Integer.MAX_VALUE));
+    ArrayList<Object> points = new ArrayList<Object>();
+    points.add(new CodecPoint(1, 2));
+    points.add(new CodecPoint(3, 4));
+    assertCodecRoundTrip(points);
+
+    try {
+      CodecNetworkMessageFilter.register(1, CodecPoint.class, null);
+      fail("registered a codec with a reserved type ID");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testCodecFilterSerializedFallback() throws IOException {
+    TreeMap<String, Integer> tree = new TreeMap<String, Integer>();
+    tree.put("b", Integer.valueOf(2));
+    tree.put("a", Integer.valueOf(1));
+    assertCodecRoundTrip(tree);
+    assertCodecRoundTrip(Collections.singletonList("unregistered"));
+
+    try {
+      codecRoundTrip(new Object());
+      fail("encoded an object that is not serializable");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  public void testCodecFilterMaxDepth() throws IOException {
+    Object nested = null;
+    for (int i = 1; i < CodecNetworkMessageFilter.MAX_DEPTH; i++) {
+      nested = new Object[] {nested};
+    }
+    codecRoundTrip(nested);
+    try {
+      codecRoundTrip(new Object[] {nested});
+      fail("encoded a message nested more than MAX_DEPTH deep");
+    } catch (IOException e) {
+      // expected
+    }
+
+    ArrayList<Object> cyclic = new ArrayList<Object>();
+    cyclic.add(cyclic);
+    try {
+      codecRoundTrip(cyclic);
+      fail("encoded a message that contains itself");
+    } catch (IOException e) {
+      // expected
+    }
+
+    // The decoder also refuses too deep a message: OBJECT_ARRAY (16) of length 1, MAX_DEPTH times, then null
+    byte[] deep = new byte[CodecNetworkMessageFilter.MAX_DEPTH * 2 + 1];
+    for (int i = 0; i < CodecNetworkMessageFilter.MAX_DEPTH; i++) {
+      deep[2 * i] = 16;
+      deep[2 * i + 1] = 1;
+    }
+    try {
+      new CodecNetworkMessageFilter.FilterRX().filterRX(deep);
+      fail("decoded a message nested more than MAX_DEPTH deep");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  public void testCodecFilterCorruptInput() throws IOException {
+    HashMap<Object, Object> map = new HashMap<Object, Object>();
+    map.put("key", new long[] {Long.MIN_VALUE, 2});
+    map.put(Integer.valueOf(-300), new Object[] {"caf\u00e9", Double.valueOf(1.5), new boolean[] {true}});
+    map.put("serialized", new TreeMap<String, String>());
+    byte[] bytes = new CodecNetworkMessageFilter.FilterTX().filterTX(map);
+    CodecNetworkMessageFilter.FilterRX rx = new CodecNetworkMessageFilter.FilterRX();
+
+    // Every truncation of the message is refused with an IOException
+    for (int length = 0; length < bytes.length; length++) {
+      try {
+        rx.filterRX(bytes, length);
+        fail("decoded a message truncated to " + length + " of " + bytes.length + " bytes");
+      } catch (IOException e) {
+        // expected
+      }
+    }
+    assertEquals(map.keySet(), ((HashMap<?, ?>) rx.filterRX(bytes)).keySet());
+
+    // As are trailing bytes, an unknown type ID and impossible lengths
+    byte[][] corrupt = {
+      Arrays.copyOf(bytes, bytes.length + 1),
+      {30},
+      {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1},
+      {10, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07},
+      {17, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+      {9, 2, (byte) 0xE0},
+      {31, 3, 1, 2, 3}
+    };
+    for (int i = 0; i < corrupt.length; i++) {
+      try {
+        rx.filterRX(corrupt[i]);
+        fail("decoded corrupt message " + i);
+      } catch (IOException e) {
+        // expected
+      }
+    }
+  }
+
+  public void testMeteredBufferedChannelPoisonedBatch() throws InterruptedException {
+    /*
+     * Five messages pass through a metered buffered channel.  Then a batch of ten
+     * fills the eight-place buffer, and the reader poisons the channel while the
+     * ninth waits: the eight buffered are still counted as occupying it.
+     */
+    final boolean wasEnabled = ChannelMetrics.isEnabled();
+    ChannelMetrics.setEnabled(true);
+    final One2OneChannel<Integer> chan =
+      Channel.metered("test-metered-batch", Channel.one2one(new Buffer<Integer>(8), 0));
+    final ChannelMetrics metrics = ChannelMetrics.get("test-metered-batch");
+    try {
+      final ChannelOutput<Integer> out = chan.out();
+      final ChannelInput<Integer> in = chan.in();
+      for (int i = 0; i < 5; i++) {
+        out.write(Integer.valueOf(i));
+      }
+      for (int i = 0; i < 5; i++) {
+        assertEquals(i, in.read().intValue());
+      }
+      assertEquals(5, metrics.getMessages());
+      assertEquals(0, metrics.getOccupancy());
+      assertEquals(5, metrics.getOccupancyHighWaterMark());
+
+      final Integer[] batch = new Integer[10];
+      for (int i = 0; i < batch.length; i++) {
+        batch[i] = Integer.valueOf(i);
+      }
+      final boolean[] poisoned = new boolean[1];
+      Thread writer = new Thread() {
+        public void run() {
+          try {
+            out.writeAll(batch, 0, batch.length);
+          } catch (PoisonException e) {
+            poisoned[0] = true;
+          }
+        }
+      };
+      writer.start();
+      while (metrics.getOccupancy() < 9) {
+        Thread.sleep(1);
+      }
+      Thread.sleep(50);
+      in.poison(1);
+      writer.join(5000);
+      assertFalse(writer.isAlive());
+      assertTrue(poisoned[0]);
+      assertEquals(8, metrics.getOccupancy());
+      assertEquals(9, metrics.getOccupancyHighWaterMark());
+      assertEquals(5, metrics.getMessages());
+      assertEquals(1, metrics.getPoisonEvents());
+    } finally {
+      metrics.unregister();
+      ChannelMetrics.setEnabled(wasEnabled);
+    }
+  }
+
+  public void testPoisonableBufferedChannelBatches() throws InterruptedException {
+    /*
+     * Batches pass through a poisonable buffered channel in order, and poison from
+     * the writer is seen by a draining reader only once the buffer is empty.
+     */
+    final One2OneChannel<Integer> chan = Channel.one2one(new Buffer<Integer>(8), 0);
+    final ChannelOutput<Integer> out = chan.out();
+    final Integer[] batch = new Integer[100];
+    for (int i = 0; i < batch.length; i++) {
+      batch[i] = Integer.valueOf(i);
+    }
+    Thread writer = new Thread() {
+      public void run() {
+        out.writeAll(batch, 0, batch.length);
+        out.writeAll(batch, 0, 3);
+        out.poison(1);
+      }
+    };
+    writer.start();
+
+    final ChannelInput<Integer> in = chan.in();
+    ArrayList<Integer> got = new ArrayList<Integer>();
+    Integer[] some = new Integer[5];
+    while (got.size() < batch.length + 3) {
+      if ((got.size() & 1) == 0) {
+        int n = in.drainTo(got, 7);
+        assertTrue(n >= 1 && n <= 7);
+      } else {
+        int n = in.drainTo(some, 0, some.length);
+        assertTrue(n >= 1 && n <= some.length);
+        got.addAll(Arrays.asList(some).subList(0, n));
+      }
+    }
+    for (int i = 0; i < batch.length; i++) {
+      assertEquals(i, got.get(i).intValue());
+    }
+    assertEquals(Arrays.asList(new Integer[] {0, 1, 2}), got.subList(batch.length, got.size()));
+    writer.join(5000);
+    try {
+      in.drainTo(got, 1);
+      fail("drained a poisoned, empty channel");
+    } catch (PoisonException e) {
+      // expected
+    }
+    try {
+      out.writeAll(batch, 0, 1);
+      fail("wrote to a poisoned channel");
+    } catch (PoisonException e) {
+      // expected
+    }
+  }
+
   public void testOverflowingFIFOOne2OneChannel() {
     /*
      * This test checks that the buffer does overflow if  the reader is in the middle